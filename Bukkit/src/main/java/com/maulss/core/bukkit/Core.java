@@ -9,6 +9,7 @@ import com.google.common.collect.ImmutableMap;
 import com.maulss.core.bukkit.chat.ChatMessages;
 import com.maulss.core.bukkit.displaybar.actionbar.ActionBar;
 import com.maulss.core.bukkit.displaybar.title.Title;
+import com.maulss.core.bukkit.hologram.HologramTracker;
 import com.maulss.core.bukkit.internal.command.*;
 import com.maulss.core.bukkit.internal.config.DatabaseConfig;
 import com.maulss.core.bukkit.internal.config.MainConfig;
@@ -17,6 +18,8 @@ import com.maulss.core.bukkit.mongo.codec.MongoCoreItemStackCodec;
 import com.maulss.core.bukkit.mongo.codec.MongoCoreRankCodec;
 import com.maulss.core.bukkit.player.CorePlayer;
 import com.maulss.core.bukkit.player.manager.CorePlayerManager;
+import com.maulss.core.bukkit.player.profile.CorePlayerInfo;
+import com.maulss.core.bukkit.player.profile.CoreProfile;
 import com.maulss.core.bukkit.world.CoreWorldManager;
 import com.maulss.core.bukkit.world.Position;
 import com.maulss.core.bukkit.world.region.Region;
@@ -24,6 +27,9 @@ import com.maulss.core.bukkit.world.region.Regions;
 import com.maulss.core.bukkit.world.region.flag.Flag;
 import com.maulss.core.bukkit.world.region.flag.FlagMap;
 import com.maulss.core.bukkit.world.schematic.Schematics;
+import com.maulss.core.cache.MongoProfileStore;
+import com.maulss.core.cache.ProfileCache;
+import com.maulss.core.cache.ProfileCacheSettings;
 import com.maulss.core.database.Credentials;
 import com.maulss.core.database.mongo.Mongo;
 import com.maulss.core.database.mongo.data.codec.MongoVector3DCodec;
@@ -41,6 +47,7 @@ import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.*;
 
 public final class Core extends CorePlugin {
@@ -59,6 +66,7 @@ public final class Core extends CorePlugin {
     private Mongo dbConnection = null;
     private MongoDatabase internalDb = null;
     private MongoCollection<Document> mainPlayerColl = null;
+    private ProfileCache<CoreProfile> profileCache = null;
 
     {
         if (instance == null) {
@@ -94,6 +102,7 @@ public final class Core extends CorePlugin {
             // Internal event listeners
             settings.registerListeners(this, PlayerListeners.get());
             settings.registerListeners(this, CoreWorldManager.getInstance());
+            settings.registerListeners(this, HologramTracker.getInstance());
 
             // Register default Core commands
             settings.registerCommands(this, new ImmutableMap.Builder<String, CommandExecutor>()
@@ -172,6 +181,12 @@ public final class Core extends CorePlugin {
             // TODO: mainPlayerColl = internalDb.getCollection("players", CorePlayer.class);
             mainPlayerColl = internalDb.getCollection("players");
 
+            // Keep player statistics in memory if enabled
+            if (MainConfig.isProfileCache()) {
+                profileCache = new ProfileCache<>(new MongoProfileStore<>(), new ProfileCacheSettings()
+                        .setVersionKey(CorePlayerInfo.LAST_MODIFIED));
+            }
+
             getServer().getMessenger().registerOutgoingPluginChannel(this, "BungeeCord");
 
             Flag.init();
@@ -199,6 +214,9 @@ public final class Core extends CorePlugin {
             Bukkit.getPluginManager().callEvent(new PlayerQuitEvent(bukkitPlayer, null));
         }
 
+        // Write the statistics of all players before the connection closes
+        if (profileCache != null) profileCache.close();
+
         if (dbConnection != null) {
             // Close the database dbConnection after 5 milliseconds for all tasks to finish first
             ScheduledExecutorService ex = Executors.newSingleThreadScheduledExecutor();
@@ -216,6 +234,16 @@ public final class Core extends CorePlugin {
         return instance.mainPlayerColl;
     }
 
+    /**
+     * @return the cache player statistics are loaded through, or {@code
+     * null} if it's disabled in the config
+     */
+    @Nullable
+    public static ProfileCache<CoreProfile> getProfileCache() {
+        get();
+        return instance.profileCache;
+    }
+
     public static Mongo getDatabaseConnection() {
         get();
         return instance.dbConnection;
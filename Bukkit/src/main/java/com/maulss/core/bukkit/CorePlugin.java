@@ -17,6 +17,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -25,6 +26,9 @@ public abstract class CorePlugin extends JavaPlugin {
 
     private static CoreSettings settings;
 
+    // Messages buffered for the log writer before logging threads wait
+    private static final int LOG_BUFFER_SIZE = 4096;
+
     protected Timer timer = new Timer();
     protected Logger logger = new Logger(getName() + " >> ");
 
@@ -37,6 +41,7 @@ public abstract class CorePlugin extends JavaPlugin {
     @Override
     public final void onEnable() {
         timer.start();
+        logger.enableAsync(LOG_BUFFER_SIZE, Logger.OverflowPolicy.BLOCK);
         findAndRegisterLocales();
 
         try {
@@ -56,7 +61,11 @@ public abstract class CorePlugin extends JavaPlugin {
 
     @Override
     public final void onDisable() {
-        disable();
+        try {
+            disable();
+        } finally {
+            logger.disableAsync();
+        }
     }
 
     protected abstract void disable();
@@ -136,19 +145,29 @@ public abstract class CorePlugin extends JavaPlugin {
 
     public final Optional<String> debug(final String string,
                                         final Object... components) {
+        if (!logger.debugEnabled()) return Optional.empty();
         return logger.debug(parseColors(string), components);
     }
 
     public final boolean debugIf(final boolean check,
                                  final String string,
                                  final Object... components) {
-        return logger.debugIf(check, parseColors(string), components);
+        if (!check || !logger.debugEnabled()) return check;
+        return logger.debugIf(true, parseColors(string), components);
     }
 
+    /**
+     * Sends a message to every player in their locale, building it once
+     * per locale rather than once per player.
+     */
     public final void broadcast(final String message,
                                 final Object... components) {
+        Map<String, Optional<String>> built = new HashMap<>();
         for (CorePlayer player : CorePlayerManager.getInstance()) {
-            player.sendMessage(message, components);
+            if (!player.isOnline()) continue;
+
+            built.computeIfAbsent(player.getLocale(), locale -> settings.buildMessage(locale, message, components))
+                    .ifPresent(player.getPlayer()::sendMessage);
         }
 
         log(message, components);
@@ -157,12 +176,28 @@ public abstract class CorePlugin extends JavaPlugin {
     public final void broadcast(final String path,
                                 final String[] keys,
                                 final Object... vals) {
-        broadcast(Logger.constructReplacements(settings.get(path), keys, vals));
+        Map<String, String> built = new HashMap<>();
+        for (CorePlayer player : CorePlayerManager.getInstance()) {
+            if (!player.isOnline()) continue;
+
+            player.getPlayer().sendMessage(built.computeIfAbsent(player.getLocale(),
+                    locale -> settings.buildMessage(locale, path, keys, vals)));
+        }
+
+        log(path, keys, vals);
     }
 
     public final void broadcast(final String path,
                                 final Map<String, Object> replacements) {
-        broadcast(Logger.constructReplacements(settings.get(path), replacements));
+        Map<String, String> built = new HashMap<>();
+        for (CorePlayer player : CorePlayerManager.getInstance()) {
+            if (!player.isOnline()) continue;
+
+            player.getPlayer().sendMessage(built.computeIfAbsent(player.getLocale(),
+                    locale -> settings.buildMessage(locale, path, replacements)));
+        }
+
+        log(path, replacements);
     }
 
     private String parseColors(final String text) {
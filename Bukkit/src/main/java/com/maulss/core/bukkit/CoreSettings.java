@@ -13,10 +13,12 @@ import com.maulss.core.bukkit.chat.filter.ChatFilters;
 import com.maulss.core.bukkit.inventory.CoreInventoryClickEvent;
 import com.maulss.core.bukkit.inventory.item.IndexedItem;
 import com.maulss.core.bukkit.player.profile.CoreProfile;
+import com.maulss.core.Logger;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.collect.EnhancedMap;
 import com.maulss.core.net.paster.PasteException;
 import com.maulss.core.net.paster.Paster;
+import com.maulss.core.text.MessageTemplate;
 import com.maulss.core.text.StringUtil;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -34,17 +36,34 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
 public final class CoreSettings {
 
+    // Stands for messages set to "null", which are never sent
+    private static final MessageTemplate DISABLED = MessageTemplate.compile("null");
+
     private String defaultLocale = "english";
 
-    private final EnhancedMap<String, String>
-            messages			= new EnhancedMap<>();
+    // Ids are given out in the order locales and message paths are first
+    // seen, and index the template table
+    private final Map<String, Integer>
+            localeIds			= new ConcurrentHashMap<>(),
+            messageIds			= new ConcurrentHashMap<>();
+    // Guarded by localeIds, by id
+    private final List<String>
+            localeNames			= new ArrayList<>(),
+            messagePaths		= new ArrayList<>();
+    // By locale id then message id, copied on write
+    private volatile MessageTemplate[][]
+            templates			= new MessageTemplate[0][];
     private final EnhancedMap<IndexedItem, Predicate<CoreProfile>>
             loginItems			= new EnhancedMap<>();
     private final EnhancedList<String>
@@ -192,12 +211,117 @@ public final class CoreSettings {
             return path;
         }
 
-        String message = messages.get(locale.toLowerCase() + "." + path);
-        if (message == null) message = messages.get(defaultLocale + "." + path);
-        if (message == null || message.equalsIgnoreCase("null")) {
+        MessageTemplate template = lookup(locale, path);
+        if (template == null || template == DISABLED) {
             return path.equals("chat.prefix") ? "" : path;
         }
-        return message;
+        return template.getSource();
+    }
+
+    /**
+     * Gets the message of a path compiled when its locale was loaded,
+     * falling back on the default locale.
+     *
+     * @return the template, or {@code null} if there is no message or
+     * it's disabled
+     */
+    public MessageTemplate getTemplate(final String locale,
+                                       final String path) {
+        if (locale == null || path == null) return null;
+
+        MessageTemplate template = lookup(locale, path);
+        return template == DISABLED ? null : template;
+    }
+
+    /**
+     * Gets a message by the ids of its locale and path, which saves hashing
+     * them for every message when the ids are kept.
+     *
+     * @see #getLocaleId(String)
+     * @see #getMessageId(String)
+     */
+    public MessageTemplate getTemplate(final int localeId,
+                                       final int messageId) {
+        MessageTemplate template = getTemplateOrDisabled(localeId, messageId);
+        return template == DISABLED ? null : template;
+    }
+
+    /**
+     * @return the id of a locale with messages, or {@code -1}
+     */
+    public int getLocaleId(final String locale) {
+        return locale == null ? -1 : localeIds.getOrDefault(locale.toLowerCase(), -1);
+    }
+
+    /**
+     * @return the id of a message path in any locale, or {@code -1}
+     */
+    public int getMessageId(final String path) {
+        return path == null ? -1 : messageIds.getOrDefault(path, -1);
+    }
+
+    /**
+     * Builds a message the way a player of the locale is sent it, formatted
+     * with the components and the chat prefix and colours applied.
+     *
+     * <p>The message is blocked if the path has no message and doesn't
+     * look like a plain message either.</p>
+     *
+     * @param locale the locale of the player
+     * @param path the path of the message, or a plain message
+     * @param components the components for the message's format specifiers
+     * @return the message, or empty if it's blocked
+     * @see MessageTemplate#format(Object...)
+     */
+    public Optional<String> buildMessage(final String locale,
+                                         final String path,
+                                         final Object... components) {
+        if (path == null) return Optional.empty();
+
+        MessageTemplate template = getTemplate(locale, path);
+        if (template != null) return Optional.of(decorate(locale, template.format(components)));
+
+        // Check if the path is a plain message, block it if it's not
+        String message = get(locale, path);
+        if (message.equals(path)
+                && !path.contains(" ")
+                && !path.equals(String.valueOf(CoreLogger.get().getNoPrefixChar()))) {
+            CoreLogger.debug("Blocking message '%s' (locale: %s)", path, locale);
+            return Optional.empty();
+        }
+
+        return Optional.of(decorate(locale, String.format(message, components)));
+    }
+
+    /**
+     * Builds a message the way a player of the locale is sent it, with the
+     * variables replaced and the chat prefix and colours applied.
+     *
+     * @see MessageTemplate#replace(String[], Object...)
+     */
+    public String buildMessage(final String locale,
+                               final String path,
+                               final String[] keys,
+                               final Object... vals) {
+        MessageTemplate template = getTemplate(locale, path);
+        return decorate(locale, template != null
+                ? template.replace(keys, vals)
+                : Logger.constructReplacements(get(locale, path), keys, vals));
+    }
+
+    /**
+     * Builds a message the way a player of the locale is sent it, with the
+     * variables replaced and the chat prefix and colours applied.
+     *
+     * @see MessageTemplate#replace(Map)
+     */
+    public String buildMessage(final String locale,
+                               final String path,
+                               final Map<String, Object> replacements) {
+        MessageTemplate template = getTemplate(locale, path);
+        return decorate(locale, template != null
+                ? template.replace(replacements)
+                : Logger.constructReplacements(get(locale, path), replacements));
     }
 
     public void addMessage(String locale,
@@ -211,12 +335,22 @@ public final class CoreSettings {
             addLocale(locale);
         }
 
-        messages.put(
-                locale + "." + path,
-                StringUtils.isEmpty(message) || message.equalsIgnoreCase("null")
-                        ? "null"
-                        : ChatColor.translateAlternateColorCodes('&', message)
-        );
+        MessageTemplate template = StringUtils.isEmpty(message) || message.equalsIgnoreCase("null")
+                ? DISABLED
+                : MessageTemplate.compile(ChatColor.translateAlternateColorCodes('&', message));
+
+        synchronized (localeIds) {
+            int localeId = id(localeIds, localeNames, locale);
+            int messageId = id(messageIds, messagePaths, path);
+
+            MessageTemplate[][] templates = Arrays.copyOf(this.templates, localeNames.size());
+            MessageTemplate[] row = templates[localeId] == null
+                    ? new MessageTemplate[messagePaths.size()]
+                    : Arrays.copyOf(templates[localeId], Math.max(templates[localeId].length, messagePaths.size()));
+            row[messageId] = template;
+            templates[localeId] = row;
+            this.templates = templates;
+        }
     }
 
     public void addLocale(final String locale) {
@@ -246,13 +380,73 @@ public final class CoreSettings {
     }
 
     public ImmutableMap<String, String> getAllMessages() {
-        return messages.getImmutableEntries();
+        ImmutableMap.Builder<String, String> messages = ImmutableMap.builder();
+        synchronized (localeIds) {
+            MessageTemplate[][] templates = this.templates;
+            for (int localeId = 0; localeId < templates.length; localeId++) {
+                MessageTemplate[] row = templates[localeId];
+                for (int messageId = 0; row != null && messageId < row.length; messageId++) {
+                    if (row[messageId] == null) continue;
+                    messages.put(
+                            localeNames.get(localeId) + "." + messagePaths.get(messageId),
+                            row[messageId].getSource()
+                    );
+                }
+            }
+        }
+
+        return messages.build();
     }
 
     public String getLocaleOrDefault(final String locale) {
         return locales.contains(locale.toLowerCase()) ? locale : getDefaultLocale();
     }
 
+    private MessageTemplate lookup(final String locale,
+                                   final String path) {
+        Integer messageId = messageIds.get(path);
+        if (messageId == null) return null;
+
+        Integer localeId = localeIds.get(locale.toLowerCase());
+        return getTemplateOrDisabled(localeId == null ? -1 : localeId, messageId);
+    }
+
+    private MessageTemplate getTemplateOrDisabled(final int localeId,
+                                                  final int messageId) {
+        MessageTemplate[][] templates = this.templates;
+        MessageTemplate template = entry(templates, localeId, messageId);
+        return template != null
+                ? template
+                : entry(templates, localeIds.getOrDefault(defaultLocale, -1), messageId);
+    }
+
+    private String decorate(final String locale,
+                            final String message) {
+        return ChatColor.translateAlternateColorCodes('&',
+                CoreLogger.get().prefix(message, get(locale, "chat.prefix")));
+    }
+
+    private static MessageTemplate entry(final MessageTemplate[][] templates,
+                                         final int localeId,
+                                         final int messageId) {
+        if (localeId < 0 || localeId >= templates.length) return null;
+
+        MessageTemplate[] row = templates[localeId];
+        return row == null || messageId < 0 || messageId >= row.length ? null : row[messageId];
+    }
+
+    // Guarded by localeIds
+    private static int id(final Map<String, Integer> ids,
+                          final List<String> names,
+                          final String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        names.add(name);
+        ids.put(name, names.size() - 1);
+        return names.size() - 1;
+    }
+
     public void initClasses(final String... classPaths) {
         for (String classPath : classPaths) {
             try {
@@ -26,6 +26,11 @@ class AdvertisementFilter implements ChatBlockFilter {
         return Optional.of("chat.mute.no-ads");
     }
 
+    @Override
+    public int getCost() {
+        return 10;
+    }
+
     @Override
     public boolean violate() {
         return true;
@@ -39,4 +39,14 @@ public interface ChatBlockFilter {
      * on the player's part
      */
     boolean violate();
+
+    /**
+     * The relative cost of {@link #block(CorePlayer, String)}, filters are
+     * run from cheapest to most expensive and stop at the first that blocks.
+     *
+     * @return the cost of this filter, {@code 0} by default
+     */
+    default int getCost() {
+        return 0;
+    }
 }
\ No newline at end of file
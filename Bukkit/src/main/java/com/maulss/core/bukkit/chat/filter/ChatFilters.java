@@ -7,20 +7,28 @@
 package com.maulss.core.bukkit.chat.filter;
 
 import com.google.common.collect.ImmutableList;
-import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
-import com.maulss.core.collect.EnhancedList;
+import com.maulss.core.bukkit.player.CorePlayer;
 import org.apache.commons.lang3.Validate;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Optional;
 
 /**
- * The type Chat filters.
+ * The chat filters, run from the cheapest to the most expensive until one
+ * blocks the message.
+ *
+ * <p>Filters are kept in an array that is replaced when a filter is added,
+ * so chat threads read them without locking.</p>
  */
 public final class ChatFilters implements Iterable<ChatBlockFilter> {
 
     private static final ChatFilters INSTANCE = new ChatFilters();
-    private EnhancedList<ChatBlockFilter> filters = new EnhancedList<>();
+    private static final Comparator<ChatBlockFilter> BY_COST = Comparator.comparingInt(ChatBlockFilter::getCost);
+
+    private volatile ChatBlockFilter[] filters = new ChatBlockFilter[0];
 
     /**
      * Registers defaults.
@@ -37,25 +45,46 @@ public final class ChatFilters implements Iterable<ChatBlockFilter> {
      *
      * @param filter the filter
      */
-    public void addFilter(final ChatBlockFilter filter) {
+    public synchronized void addFilter(final ChatBlockFilter filter) {
         Validate.notNull(filter);
 
         CoreLogger.debug("Adding chat filter: " + filter.getClass().getSimpleName());
-        filters.add(filter);
+        ChatBlockFilter[] filters = Arrays.copyOf(this.filters, this.filters.length + 1);
+        filters[filters.length - 1] = filter;
+
+        // stable, so filters of the same cost keep their order
+        Arrays.sort(filters, BY_COST);
+        this.filters = filters;
+    }
+
+    /**
+     * Finds the first filter blocking a message.
+     *
+     * @param player  the player that sent the message
+     * @param message the message
+     * @return the filter that blocked the message, or empty if it may be sent
+     */
+    public Optional<ChatBlockFilter> test(final CorePlayer player,
+                                          final String message) {
+        for (ChatBlockFilter filter : filters) {
+            if (filter.block(player, message)) return Optional.of(filter);
+        }
+
+        return Optional.empty();
     }
 
     /**
      * Gets registered filters.
      *
-     * @return the filters
+     * @return the filters, in the order they are run
      */
     public ImmutableList<ChatBlockFilter> getFilters() {
-        return filters.getImmutableElements();
+        return ImmutableList.copyOf(filters);
     }
 
     @Override
     public Iterator<ChatBlockFilter> iterator() {
-        return filters.iterator();
+        return getFilters().iterator();
     }
 
     /**
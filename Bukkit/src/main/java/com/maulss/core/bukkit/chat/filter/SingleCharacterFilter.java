@@ -20,6 +20,11 @@ class SingleCharacterFilter implements ChatBlockFilter {
         return Optional.of("chat.mute.no-single-character");
     }
 
+    @Override
+    public int getCost() {
+        return 1;
+    }
+
     @Override
     public boolean violate() {
         return false;
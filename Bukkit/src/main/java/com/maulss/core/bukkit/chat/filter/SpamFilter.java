@@ -6,40 +6,59 @@
 
 package com.maulss.core.bukkit.chat.filter;
 
-import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.internal.config.MainConfig;
 import com.maulss.core.bukkit.player.CorePlayer;
-import com.maulss.core.collect.EnhancedMap;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Blocks players sending more than {@link MainConfig#getMaxMessages()} + 1
+ * messages within {@link #WINDOW_NANOS}.
+ *
+ * <p>Every player has a token bucket kept as the single time at which it is
+ * full again, which is updated with a compare and set, so neither a lock
+ * nor a task per message is needed.</p>
+ */
 class SpamFilter implements ChatBlockFilter {
 
-    private final EnhancedMap<String, Integer> count = new EnhancedMap<>();
+    static final long           WINDOW_NANOS    = TimeUnit.SECONDS.toNanos(20);
+
+    // Calls between sweeps of players whose bucket is full again
+    private static final int    SWEEP_INTERVAL  = 1024;
+
+    private final ConcurrentMap<UUID, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
 
     @Override
     public boolean block(final CorePlayer player,
                          final String message) {
         if (player.isHelper()) return false;
 
-        boolean violation = false;
+        long now = System.nanoTime();
+        if (calls.incrementAndGet() % SWEEP_INTERVAL == 0) sweep(now);
 
         // check for spam
-        String name = player.getName();
-        if (count.containsKey(name)) {
-            int c = count.get(player.getName());
-            if (c > MainConfig.getMaxMessages()) {
-                count.remove(player.getName());
-                violation = true;
-            } else {
-                putTemp(name, c + 1);
+        AtomicLong bucket = buckets.get(player.getUuid());
+        if (bucket == null) bucket = buckets.computeIfAbsent(player.getUuid(), uuid -> new AtomicLong(now));
+
+        long cost = WINDOW_NANOS / (Math.max(0, MainConfig.getMaxMessages()) + 1);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + cost;
+
+            if (next - now > WINDOW_NANOS) {
+                // too many messages - start over after the violation
+                if (bucket.compareAndSet(fullAt, now)) return true;
+            } else if (bucket.compareAndSet(fullAt, next)) {
+                return false;
             }
-        } else {
-            putTemp(name, 1);
         }
-
-        return violation;
     }
 
     @Override
@@ -47,25 +66,18 @@ class SpamFilter implements ChatBlockFilter {
         return Optional.of("chat.mute.no-spam");
     }
 
+    @Override
+    public int getCost() {
+        return 2;
+    }
+
     @Override
     public boolean violate() {
         return true;
     }
 
-    private void putTemp(final String name,
-                         final int messages) {
-        count.put(name, messages);
-
-        new BukkitRunnable() {
-
-            @Override
-            public void run() {
-                if (count.containsKey(name)) {
-                    int c = count.get(name);
-                    if (c == 1) count.remove(name);
-                    else count.put(name, c - 1);
-                }
-            }
-        }.runTaskLater(Core.get(), 20 * 20);
+    private void sweep(final long now) {
+        // full buckets behave like new ones
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
     }
 }
\ No newline at end of file
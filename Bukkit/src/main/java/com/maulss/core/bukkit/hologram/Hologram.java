@@ -10,20 +10,26 @@ import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.hologram.line.HologramLine;
 import com.maulss.core.bukkit.hologram.line.NullHologramLine;
 import com.maulss.core.bukkit.hologram.line.TextualLine;
-import com.maulss.core.bukkit.player.profile.CoreProfile;
 import com.maulss.core.bukkit.player.CorePlayer;
+import com.maulss.core.bukkit.player.profile.CoreProfile;
 import com.maulss.core.bukkit.world.Position;
 import com.maulss.core.collect.EnhancedList;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.bukkit.entity.Entity;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.Validate.notNull;
@@ -33,6 +39,10 @@ public abstract class Hologram implements Serializable, Iterable<HologramViewer>
     private final Position position;
     private final Optional<Double> radius;
     private Optional<EnhancedList<HologramViewer>> visibleFor = Optional.empty();
+    // Players the lines are shown to, kept by the tracker
+    private transient Set<CorePlayer> viewers;
+    // Players the hologram was destroyed for, never shown to them again
+    private transient Set<UUID> hiddenFrom;
 
     protected Hologram(final Position position,
                        final Optional<Double> radius,
@@ -68,45 +78,81 @@ public abstract class Hologram implements Serializable, Iterable<HologramViewer>
     public abstract void replace(final HologramLine previous,
                                  final HologramLine newLine);
 
+    /**
+     * Places the lines of the hologram and shows it to the players in range
+     * of it, until it's destroyed.
+     */
     public final Hologram activate() {
-        EnhancedList<CorePlayer> players = visibleFor
-                .<EnhancedList<CorePlayer>>map(hologramViewers -> new EnhancedList<>(hologramViewers.size()))
-                .orElse(null);
-
-        if (players != null) {
-            for (HologramViewer viewer : this) {
-                Optional<CorePlayer> player = viewer.getHandle();
-                players.addIf(player.isPresent(), player.get());
-            }
-        }
-
         double yOffset = 0d;
         for (HologramLine line : getLines()) {
             yOffset += line.getHeight();
-            line.spawn(position, yOffset, players);
+            line.place(this, position, yOffset);
         }
 
+        HologramTracker.getInstance().track(this);
         return this;
     }
 
     public void destroy() {
-        getLines().forEach(HologramLine::destroy);
+        HologramTracker.getInstance().untrack(this);
     }
 
+    /**
+     * Removes the hologram for players, who won't be shown it again even
+     * when they are in range of it.
+     */
     public void destroy(final CorePlayer... players) {
+        if (hiddenFrom == null) hiddenFrom = new HashSet<>();
+        for (CorePlayer player : players) {
+            hiddenFrom.add(player.getUuid());
+        }
+
+        HologramTracker.getInstance().hide(this, Arrays.asList(players));
+    }
+
+    final boolean isHiddenFrom(final UUID uuid) {
+        return hiddenFrom != null && hiddenFrom.contains(uuid);
+    }
+
+    /**
+     * @return the players the hologram is currently shown to, unlike
+     *         {@link #iterator()} which covers every player it may be
+     *         shown to
+     */
+    public final Set<CorePlayer> getViewers() {
+        return viewers == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(viewers);
+    }
+
+    final void show(final Collection<CorePlayer> players) {
+        if (players.isEmpty()) return;
+
+        // spawned before becoming viewers, so they aren't sent the names of lines they don't have yet
         for (HologramLine line : getLines()) {
-            line.destroy(players);
+            line.spawn(players);
         }
+
+        if (viewers == null) viewers = new LinkedHashSet<>();
+        viewers.addAll(players);
     }
 
-    private int[] getEntityIdArray() {
-        List<HologramLine> lines = getLines();
-        int[] idArr = new int[lines.size()];
-        for (int x = 0; x < lines.size(); ++x) {
-            Entity ent = lines.get(x).getEntity();
-            if (ent != null) idArr[x] = ent.getEntityId();
+    final void hide(final Collection<CorePlayer> players) {
+        if (players.isEmpty() || viewers == null) return;
+
+        viewers.removeAll(players);
+
+        for (HologramLine line : getLines()) {
+            line.destroy(players);
         }
-        return idArr;
+    }
+
+    /**
+     * Stops counting a player as a viewer without sending him anything, for
+     * when his client already dropped the lines.
+     */
+    final void forget(final CorePlayer player) {
+        if (viewers != null) viewers.remove(player);
     }
 
     private CorePlayer findPlayer(final HologramViewer viewer) {
@@ -0,0 +1,321 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:40 PM.
+ */
+
+package com.maulss.core.bukkit.hologram;
+
+import com.maulss.core.bukkit.Core;
+import com.maulss.core.bukkit.player.CorePlayer;
+import com.maulss.core.bukkit.world.Position;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Shows active holograms to the players in range of them, and hides them
+ * from players who leave.
+ *
+ * <p>Holograms are indexed by world and chunk, so each player is only
+ * checked against the holograms of the chunks around them.  Every
+ * {@value #UPDATE_TICKS} ticks the holograms in range of each player are
+ * compared to those shown to them, and each hologram is shown to all of
+ * its entering players and hidden from all of its leaving players at
+ * once.</p>
+ *
+ * <p>Clients drop the lines on respawning, changing worlds and teleporting
+ * far away, which can happen between two updates.  Such players are no
+ * longer counted as viewers, so the next update shows them the holograms in
+ * range again.</p>
+ *
+ * <p>Only to be used on the main thread.</p>
+ */
+public final class HologramTracker implements Listener {
+
+    public static final double DEFAULT_VIEW_DISTANCE = 48d;
+    public static final long UPDATE_TICKS = 10L;
+
+    private static final HologramTracker INSTANCE = new HologramTracker();
+
+    // World -> chunk -> holograms in the chunk
+    private final Map<String, Map<Long, List<Hologram>>> index = new HashMap<>();
+    // Holograms shown to each player, by instance so a player who logs back in is shown them again
+    private final Map<CorePlayer, Set<Hologram>> shown = new IdentityHashMap<>();
+    // Where each hologram is indexed, kept in case its position is changed
+    private final Map<Hologram, Chunk> tracked = new IdentityHashMap<>();
+
+    private double maxViewDistance = DEFAULT_VIEW_DISTANCE;
+    private BukkitTask task;
+
+    private HologramTracker() {}
+
+    public static HologramTracker getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isTracked(final Hologram hologram) {
+        return tracked.containsKey(hologram);
+    }
+
+    /**
+     * Starts tracking a hologram, showing it right away to the players in
+     * range of it.
+     */
+    public void track(final Hologram hologram) {
+        notNull(hologram, "hologram");
+        if (tracked.containsKey(hologram)) return;
+
+        Position position = hologram.getPosition();
+        Chunk chunk = new Chunk(position.getWorld(), chunkKey(position.getFloorX() >> 4, position.getFloorZ() >> 4));
+        tracked.put(hologram, chunk);
+        index.computeIfAbsent(chunk.world, world -> new HashMap<>())
+                .computeIfAbsent(chunk.key, key -> new ArrayList<>(1))
+                .add(hologram);
+        maxViewDistance = Math.max(maxViewDistance, getViewDistance(hologram));
+
+        List<CorePlayer> entering = new ArrayList<>();
+        for (CorePlayer player : CorePlayer.PLAYER_MANAGER.getOnlinePlayers()) {
+            if (!player.isOnline() || !isInRange(hologram, player, player.getLocation())) continue;
+
+            shown.computeIfAbsent(player, p -> identitySet()).add(hologram);
+            entering.add(player);
+        }
+        hologram.show(entering);
+
+        if (task == null) {
+            task = new BukkitRunnable() {
+
+                @Override
+                public void run() {
+                    update();
+                }
+            }.runTaskTimer(Core.get(), UPDATE_TICKS, UPDATE_TICKS);
+        }
+    }
+
+    /**
+     * Stops tracking a hologram and hides it from its viewers.
+     */
+    public void untrack(final Hologram hologram) {
+        notNull(hologram, "hologram");
+        Chunk chunk = tracked.remove(hologram);
+        if (chunk == null) return;
+
+        Map<Long, List<Hologram>> chunks = index.get(chunk.world);
+        List<Hologram> holograms = chunks.get(chunk.key);
+        holograms.removeIf(other -> other == hologram);
+        if (holograms.isEmpty()) chunks.remove(chunk.key);
+        if (chunks.isEmpty()) index.remove(chunk.world);
+
+        List<CorePlayer> viewers = new ArrayList<>(hologram.getViewers());
+        for (CorePlayer viewer : viewers) {
+            Set<Hologram> holos = shown.get(viewer);
+            if (holos != null && holos.remove(hologram) && holos.isEmpty()) shown.remove(viewer);
+        }
+        hologram.hide(viewers);
+
+        maxViewDistance = DEFAULT_VIEW_DISTANCE;
+        for (Hologram other : tracked.keySet()) {
+            maxViewDistance = Math.max(maxViewDistance, getViewDistance(other));
+        }
+
+        if (tracked.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Hides a hologram from the players it's shown to.  Players still in
+     * range of it are shown it again on the next update, unless the
+     * hologram was destroyed for them.
+     */
+    public void hide(final Hologram hologram,
+                     final Collection<CorePlayer> players) {
+        List<CorePlayer> leaving = new ArrayList<>(players.size());
+        for (CorePlayer player : players) {
+            Set<Hologram> holos = shown.get(player);
+            if (holos == null || !holos.remove(hologram)) continue;
+
+            if (holos.isEmpty()) shown.remove(player);
+            leaving.add(player);
+        }
+
+        hologram.hide(leaving);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(final PlayerRespawnEvent event) {
+        forget(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(final PlayerChangedWorldEvent event) {
+        forget(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(final PlayerTeleportEvent event) {
+        Location from = event.getFrom(), to = event.getTo();
+        if (to == null) return;
+
+        // out of range of every hologram shown at the start, the client unloads them
+        if (!from.getWorld().equals(to.getWorld())
+                || from.distanceSquared(to) > maxViewDistance * maxViewDistance) {
+            forget(event.getPlayer());
+        }
+    }
+
+    /**
+     * Stops counting a player as a viewer of the holograms shown to him,
+     * without sending him anything.
+     */
+    private void forget(final Player bukkitPlayer) {
+        CorePlayer player = CorePlayer.PLAYER_MANAGER.get(bukkitPlayer.getUniqueId());
+        if (player == null) return;
+
+        Set<Hologram> holograms = shown.remove(player);
+        if (holograms == null) return;
+
+        for (Hologram hologram : holograms) {
+            hologram.forget(player);
+        }
+    }
+
+    private void update() {
+        Map<Hologram, List<CorePlayer>> entering = new IdentityHashMap<>();
+        Map<Hologram, List<CorePlayer>> leaving = new IdentityHashMap<>();
+        Map<CorePlayer, Set<Hologram>> previous = new IdentityHashMap<>(shown);
+        int chunkRadius = (int) Math.ceil(maxViewDistance / 16);
+        int chunkArea = (2 * chunkRadius + 1) * (2 * chunkRadius + 1);
+
+        shown.clear();
+        for (CorePlayer player : CorePlayer.PLAYER_MANAGER.getOnlinePlayers()) {
+            if (!player.isOnline()) continue;
+
+            Set<Hologram> before = previous.remove(player);
+            Set<Hologram> now = identitySet();
+
+            Location location = player.getLocation();
+            Map<Long, List<Hologram>> chunks = index.get(location.getWorld().getName());
+            if (chunks != null) {
+                if (chunks.size() < chunkArea) {
+                    // fewer chunks with holograms than chunks in range
+                    for (List<Hologram> holograms : chunks.values()) {
+                        collect(holograms, player, location, now);
+                    }
+                } else {
+                    int chunkX = location.getBlockX() >> 4, chunkZ = location.getBlockZ() >> 4;
+                    for (int x = chunkX - chunkRadius; x <= chunkX + chunkRadius; x++) {
+                        for (int z = chunkZ - chunkRadius; z <= chunkZ + chunkRadius; z++) {
+                            List<Hologram> holograms = chunks.get(chunkKey(x, z));
+                            if (holograms != null) collect(holograms, player, location, now);
+                        }
+                    }
+                }
+            }
+
+            for (Hologram hologram : now) {
+                if (before == null || !before.remove(hologram)) {
+                    entering.computeIfAbsent(hologram, h -> new ArrayList<>()).add(player);
+                }
+            }
+            if (before != null) {
+                for (Hologram hologram : before) {
+                    leaving.computeIfAbsent(hologram, h -> new ArrayList<>()).add(player);
+                }
+            }
+
+            if (!now.isEmpty()) shown.put(player, now);
+        }
+
+        // players who logged out
+        for (Map.Entry<CorePlayer, Set<Hologram>> entry : previous.entrySet()) {
+            for (Hologram hologram : entry.getValue()) {
+                leaving.computeIfAbsent(hologram, h -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        leaving.forEach(Hologram::hide);
+        entering.forEach(Hologram::show);
+    }
+
+    private void collect(final List<Hologram> holograms,
+                         final CorePlayer player,
+                         final Location location,
+                         final Set<Hologram> inRange) {
+        for (Hologram hologram : holograms) {
+            if (isInRange(hologram, player, location)) inRange.add(hologram);
+        }
+    }
+
+    private static boolean isInRange(final Hologram hologram,
+                                     final CorePlayer player,
+                                     final Location location) {
+        Position position = hologram.getPosition();
+        if (!position.getWorld().equals(location.getWorld().getName())) return false;
+
+        double x = position.getX() - location.getX();
+        double y = position.getY() - location.getY();
+        double z = position.getZ() - location.getZ();
+        double distance = getViewDistance(hologram);
+        if (x * x + y * y + z * z > distance * distance) return false;
+        if (hologram.isHiddenFrom(player.getUuid())) return false;
+
+        return !hologram.hasVisibleFor() || isVisibleFor(hologram, player.getUuid());
+    }
+
+    private static boolean isVisibleFor(final Hologram hologram,
+                                        final UUID uuid) {
+        for (HologramViewer viewer : hologram.getVisibleFor()) {
+            if (uuid.equals(viewer.getUuid())) return true;
+        }
+
+        return false;
+    }
+
+    private static double getViewDistance(final Hologram hologram) {
+        return hologram.hasRadius() ? hologram.getRadius() : DEFAULT_VIEW_DISTANCE;
+    }
+
+    private static long chunkKey(final int x,
+                                 final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static final class Chunk {
+
+        private final String world;
+        private final long key;
+
+        private Chunk(final String world,
+                      final long key) {
+            this.world = world;
+            this.key = key;
+        }
+    }
+}
@@ -10,38 +10,59 @@ import com.comphenix.protocol.wrappers.WrappedDataWatcher;
 import com.comphenix.protocol.wrappers.WrappedDataWatcher.WrappedDataWatcherObject;
 import com.comphenix.protocol.wrappers.WrappedWatchableObject;
 import com.maulss.core.bukkit.Core;
-import com.maulss.core.bukkit.entity.EntityCreator;
-import com.maulss.core.bukkit.entity.SimpleEntityCreator;
+import com.maulss.core.bukkit.hologram.Hologram;
 import com.maulss.core.bukkit.hologram.parser.HologramComponent;
+import com.maulss.core.bukkit.packet.AbstractPacket;
 import com.maulss.core.bukkit.packet.wrapper.WrapperPlayServerEntityDestroy;
 import com.maulss.core.bukkit.packet.wrapper.WrapperPlayServerEntityMetadata;
 import com.maulss.core.bukkit.packet.wrapper.WrapperPlayServerSpawnEntityLiving;
 import com.maulss.core.bukkit.player.CorePlayer;
 import com.maulss.core.bukkit.world.Position;
-import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.math.Vector3D;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.bukkit.ChatColor;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.comphenix.protocol.wrappers.WrappedDataWatcher.Registry.get;
 import static org.apache.commons.lang3.Validate.notNull;
 
+/**
+ * A line of a {@link Hologram}, shown as armor stands which only exist in
+ * the packets sent to its viewers.
+ *
+ * <p>The armor stands have virtual entity ids, so no entity is spawned on
+ * the server.  A line is shown with one armor stand per step of opacity,
+ * each stacked on the last one.</p>
+ *
+ * <p>Packets are built once per locale of the viewers and the same packet
+ * is sent to every viewer of the locale.  Text updates only send the name
+ * of the armor stands, and only to locales whose name changed.</p>
+ */
 public abstract class HologramLine implements HologramComponent {
 
     public static final int LINE_OPACITY_THRESHOLD = 20;
 
-    private static final EntityCreator ARMOR_STAND = new SimpleEntityCreator("EntityArmorStand");
+    // Counted down from the top, far from the ids the server gives out
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(Integer.MAX_VALUE);
 
-    private transient Entity associatedEntity;
+    private transient int[] entityIds;
+    private transient Hologram hologram;
+    private transient Position location;
+    // The name last sent to the viewers of each locale
+    private transient Map<String, String> sentNames;
 
     public abstract String getText();
 
@@ -60,159 +81,179 @@ public abstract class HologramLine implements HologramComponent {
         return null;
     }
 
-    public final Entity getEntity() {
-        return associatedEntity;
+    /**
+     * @return the virtual ids of the armor stands showing this line
+     */
+    public final int[] getEntityIds() {
+        if (entityIds == null) {
+            entityIds = new int[Math.max(1, Math.round(LINE_OPACITY_THRESHOLD * getOpacity()))];
+            for (int x = 0; x < entityIds.length; x++) {
+                entityIds[x] = NEXT_ENTITY_ID.getAndDecrement();
+            }
+        }
+
+        return entityIds.clone();
     }
 
-    public final Entity spawn(final Position position,
-                              final double yOffset,
-                              Collection<CorePlayer> players) {
-        // support for non-textual lines
-        if (getText() == null) return null;
+    public final Optional<Position> getLocation() {
+        return Optional.ofNullable(location).map(Position::clone);
+    }
 
+    /**
+     * Places the line in a hologram, below the position by the offset.
+     * Done by the hologram when it's activated, before the line is spawned.
+     */
+    public final void place(final Hologram hologram,
+                            final Position position,
+                            final double yOffset) {
+        notNull(hologram, "hologram");
         notNull(position, "position");
 
-        if (associatedEntity != null) associatedEntity.remove();
+        this.hologram = hologram;
+        this.location = position.clone().subtract(new Vector3D(0d, yOffset + getHeight(), 0d));
+        this.sentNames = null;
+    }
+
+    /**
+     * Shows the line to players, who should become viewers of its hologram
+     * once it's spawned.  The current viewers are sent any name change
+     * first, so every viewer of a locale has the same name.
+     */
+    public final void spawn(final Collection<CorePlayer> players) {
+        // support for non-textual lines
+        if (getText() == null || location == null || players.isEmpty()) return;
+
+        // the new players aren't viewers yet, so only the others are sent names
+        refresh();
+
+        for (Map.Entry<String, List<CorePlayer>> entry : byLocale(players).entrySet()) {
+            String name = names().computeIfAbsent(entry.getKey(), this::translate);
+            send(entry.getValue(), spawnPackets(name));
+        }
+    }
+
+    public final void update(final String text) {
+        setText(text);
+        refresh();
+    }
+
+    /**
+     * Sends the name of the line to the viewers of each locale whose name
+     * changed since it was last sent.
+     */
+    public final void refresh() {
+        // support for non-textual lines
+        if (getText() == null || hologram == null) return;
 
-        // Create appropriate armor stand entity
-        associatedEntity = ARMOR_STAND.create(position.clone()
-                        .subtract(new Vector3D(0d, yOffset + getHeight(), 0d))
-        );
+        Map<String, List<CorePlayer>> viewers = byLocale(hologram.getViewers());
+        Map<String, String> names = names();
+        names.keySet().retainAll(viewers.keySet());
 
-        if (players == null)
-            players = CorePlayer.PLAYER_MANAGER.getOnlinePlayers();
+        for (Map.Entry<String, List<CorePlayer>> entry : viewers.entrySet()) {
+            String name = translate(entry.getKey());
+            if (name.equals(names.put(entry.getKey(), name))) continue;
 
-        if (players.isEmpty()) return associatedEntity;
+            send(entry.getValue(), metadataPackets(name));
+        }
+    }
 
-        WrapperPlayServerSpawnEntityLiving packet = new WrapperPlayServerSpawnEntityLiving();
-        packet.setEntityID(associatedEntity.getEntityId());
-        packet.setType(EntityType.ARMOR_STAND);
-        packet.setUniqueId(associatedEntity.getUniqueId());
-        packet.setX(associatedEntity.getLocation().getX());
-        packet.setY(associatedEntity.getLocation().getY());
-        packet.setZ(associatedEntity.getLocation().getZ());
+    private String translate(final String locale) {
+        // support for color coding and locales
+        return ChatColor.translateAlternateColorCodes('&',
+                Core.getSettings().get(locale, getText()));
+    }
+
+    private Map<String, String> names() {
+        if (sentNames == null) sentNames = new HashMap<>();
+        return sentNames;
+    }
+
+    private AbstractPacket[] spawnPackets(final String name) {
+        int[] ids = getEntityIds();
+        AbstractPacket[] packets = new AbstractPacket[ids.length];
 
         WrappedDataWatcher meta = new WrappedDataWatcher();
         meta.setObject(new WrappedDataWatcherObject(0, get(Byte.class)), (byte) 0x20);
+        meta.setObject(new WrappedDataWatcherObject(2, get(String.class)), name);
         meta.setObject(new WrappedDataWatcherObject(3, get(Boolean.class)), true);
         meta.setObject(new WrappedDataWatcherObject(4, get(Boolean.class)), true);
         meta.setObject(new WrappedDataWatcherObject(5, get(Boolean.class)), true);
-        meta.setObject(new WrappedDataWatcherObject(11, get(Byte.class)), (byte) 0x01);
-        meta.setObject(new WrappedDataWatcherObject(11, get(Byte.class)), (byte) 0x04);
-        meta.setObject(new WrappedDataWatcherObject(11, get(Byte.class)), (byte) 0x08);
         meta.setObject(new WrappedDataWatcherObject(11, get(Byte.class)), (byte) 0x10);
 
-        // reuse packet but change title each time
-        for (CorePlayer player : players) {
-            if (!update0(players, player))
-                continue;
-
-            // support for color coding and locales
-            meta.setObject(
-                    new WrappedDataWatcherObject(2, get(String.class)),
-                    translate(player)
-            );
-
-            // update meta per player
+        for (int x = 0; x < ids.length; x++) {
+            WrapperPlayServerSpawnEntityLiving packet = new WrapperPlayServerSpawnEntityLiving();
+            packet.setEntityID(ids[x]);
+            packet.setType(EntityType.ARMOR_STAND);
+            packet.setUniqueId(new UUID(0L, ids[x]));
+            packet.setX(location.getX());
+            packet.setY(location.getY());
+            packet.setZ(location.getZ());
             packet.setMetadata(meta);
-
-            // send multiple times for opacity
-            for (int x = 0; x < LINE_OPACITY_THRESHOLD * getOpacity(); x++) {
-                player.sendPacket(packet);
-            }
+            packets[x] = packet;
         }
 
-        return associatedEntity;
+        return packets;
     }
 
-    private boolean update0(Collection<CorePlayer> players,
-                            final CorePlayer player) {
-        if (players == null)
-            players = CorePlayer.PLAYER_MANAGER.getOnlinePlayers();
+    private AbstractPacket[] metadataPackets(final String name) {
+        int[] ids = getEntityIds();
+        AbstractPacket[] packets = new AbstractPacket[ids.length];
 
-        if (players.isEmpty()) return false;
+        List<WrappedWatchableObject> meta = Collections.singletonList(new WrappedWatchableObject(
+                new WrappedDataWatcherObject(2, get(String.class)),
+                name
+        ));
 
-        // make sure armor stand is available
-        if (associatedEntity == null) {
-            destroy(player);
-            return false;
+        for (int x = 0; x < ids.length; x++) {
+            WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata();
+            packet.setEntityID(ids[x]);
+            packet.setMetadata(meta);
+            packets[x] = packet;
         }
 
-        // check if player is allowed
-        if (!players.contains(player)) {
-            destroy(player);
-            return false;
-        }
+        return packets;
+    }
 
-        // check if player is within radius
-        if (getRadius() != null) {
-            double dist = associatedEntity.getLocation().distance(player.getLocation());
-            if (getRadius() < dist) {
-                destroy(player);
-                return false;
-            }
+    private static Map<String, List<CorePlayer>> byLocale(final Collection<CorePlayer> players) {
+        Map<String, List<CorePlayer>> locales = new HashMap<>();
+        for (CorePlayer player : players) {
+            if (!player.isOnline()) continue;
+            locales.computeIfAbsent(player.getLocale(), locale -> new ArrayList<>()).add(player);
         }
 
-        return true;
+        return locales;
     }
 
-    public final void update(final String text) {
-        setText(text);
-
-        // support for non-textual lines
-        if (getText() == null) return;
-
-        List<CorePlayer> players = CorePlayer.PLAYER_MANAGER.getOnlinePlayers();
-        if (players.isEmpty()) return;
-
-        WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata();
-
-        packet.setEntityID(associatedEntity.getEntityId());
-
-        EnhancedList<WrappedWatchableObject> meta = new EnhancedList<>(1);
-
+    private static void send(final Collection<CorePlayer> players,
+                             final AbstractPacket... packets) {
         for (CorePlayer player : players) {
-            meta.clear();
-            meta.add(new WrappedWatchableObject(
-                    new WrappedDataWatcherObject(2, get(String.class)),
-                    translate(player)
-            ));
-
-            packet.setMetadata(meta);
-
-            player.sendPacket(packet);
+            for (AbstractPacket packet : packets) {
+                player.sendPacket(packet);
+            }
         }
     }
 
-    private String translate(final CorePlayer player) {
-        return ChatColor.translateAlternateColorCodes('&',
-                Core.getSettings().get(player.getLocale(), getText()));
-    }
-
     public final void destroy(CorePlayer... player) {
         destroy(Arrays.asList(player));
     }
 
+    /**
+     * Removes the line from every viewer of its hologram.
+     */
     public final void destroy() {
-        destroy(CorePlayer.PLAYER_MANAGER.getOnlinePlayers());
-
-        if (associatedEntity != null) {
-            associatedEntity.remove();
-            associatedEntity = null;
-        }
+        if (hologram != null) destroy(hologram.getViewers());
+        sentNames = null;
     }
 
     public final void destroy(Collection<CorePlayer> players) {
-        if (!players.isEmpty() && associatedEntity != null) {
-            // reusable packet for efficiency
-            WrapperPlayServerEntityDestroy packet = new WrapperPlayServerEntityDestroy();
+        if (players.isEmpty() || entityIds == null) return;
 
-            // pack entity IDs into array
-            packet.setEntityIds(new int[]{associatedEntity.getEntityId()});
+        // one packet for every armor stand of the line
+        WrapperPlayServerEntityDestroy packet = new WrapperPlayServerEntityDestroy();
+        packet.setEntityIds(getEntityIds());
 
-            for (CorePlayer player : players) {
-                player.sendPacket(packet);
-            }
+        for (CorePlayer player : players) {
+            if (player.isOnline()) player.sendPacket(packet);
         }
     }
 
@@ -21,6 +21,7 @@ public final class MainConfig extends CoreConfigFile {
     public int chatViolationCooldown;
     public boolean efficientWorldManagement;
     public List<String> allowedCmds;
+    public boolean profileCache;
 
     private MainConfig() {
         Core.get().logger().enableDebugging(debug);
@@ -45,7 +46,9 @@ public final class MainConfig extends CoreConfigFile {
 
                 "efficient-world-management",
 
-                "allowed-commands-when-disabled"
+                "allowed-commands-when-disabled",
+
+                "profile-cache"
         };
     }
 
@@ -84,4 +87,8 @@ public final class MainConfig extends CoreConfigFile {
     public static List<String> getAllowedCommands() {
         return INSTANCE.allowedCmds;
     }
+
+    public static boolean isProfileCache() {
+        return INSTANCE.profileCache;
+    }
 }
\ No newline at end of file
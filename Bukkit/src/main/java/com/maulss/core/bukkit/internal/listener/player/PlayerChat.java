@@ -40,20 +40,20 @@ final class PlayerChat implements Listener {
         String msg = event.getMessage().replace("%", "%%");
 
         // Block all messages that aren't supposed to be sent
-        for (ChatBlockFilter filter : ChatFilters.getInstance()) {
-            if (event.isCancelled()) break;
-
-            if (filter.block(player, msg)) {
-                event.setCancelled(true);
+        Optional<ChatBlockFilter> blocked = event.isCancelled()
+                ? Optional.empty()
+                : ChatFilters.getInstance().test(player, msg);
+        if (blocked.isPresent()) {
+            ChatBlockFilter filter = blocked.get();
+            event.setCancelled(true);
 
-                // why?
-                Optional<String> reason = filter.getReason();
-                reason.ifPresent(s -> player.sendMessage(s));
+            // why?
+            Optional<String> reason = filter.getReason();
+            reason.ifPresent(s -> player.sendMessage(s));
 
-                // add chat violation
-                if (filter.violate())
-                    player.getViolations().getChatViolation().addViolation();
-            }
+            // add chat violation
+            if (filter.violate())
+                player.getViolations().getChatViolation().addViolation();
         }
 
         // Keep a log of all chat messages
@@ -32,6 +32,7 @@ import com.maulss.core.bukkit.player.statistic.PremiumHolder;
 import com.maulss.core.bukkit.player.statistic.RankHolder;
 import com.maulss.core.bukkit.player.statistic.TokensHolder;
 import com.maulss.core.bukkit.util.Firework;
+import com.maulss.core.cache.ProfileCache;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.database.DatabaseKey;
 import com.maulss.core.database.Value;
@@ -42,7 +43,6 @@ import com.mongodb.async.client.MongoCollection;
 import org.apache.commons.lang3.text.WordUtils;
 import org.bson.Document;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.attribute.Attribute;
@@ -53,11 +53,13 @@ import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -82,11 +84,14 @@ public final class  CorePlayer
             PLUGIN_MANAGER  = CORE.getServer().getPluginManager();
 
     /*
-     * Cached profiles may include names/uuids of players that may not exist.
-     * To check if they are a real profile simply call hasPlayed() or hasEverPlayed().
+     * Offline profiles by uuid and name, loaded at most once at a time.
+     * Players that don't exist are remembered briefly and passed back as null.
      */
-    private static final EnhancedList<CorePlayer>
-            CACHED_PLAYERS  = new EnhancedList<>();
+    private static final OfflinePlayerCache
+            OFFLINE_PLAYERS = new OfflinePlayerCache((uuid, name, callback) -> {
+                if (uuid != null) new CorePlayer(uuid, callback);
+                else new CorePlayer(name, callback);
+            });
 
     /*
      * Delegates to the virtual in-game player that this class is wrapped around
@@ -99,7 +104,7 @@ public final class  CorePlayer
     /*
      * Used as a callback for concurrent loading of offline players.
      */
-    private transient Consumer<CorePlayer>
+    private transient BiConsumer<CorePlayer, Throwable>
             onLoad          = null;
 
     /*
@@ -177,18 +182,16 @@ public final class  CorePlayer
 
     // For offline or fake players
     private CorePlayer(final String name,
-                       final Consumer<CorePlayer> callback) {
+                       final BiConsumer<CorePlayer, Throwable> callback) {
         super(name);
         this.onLoad = callback;
-        CACHED_PLAYERS.add(this);
     }
 
     // For offline or fake players
     private CorePlayer(final UUID uuid,
-                       final Consumer<CorePlayer> callback) {
+                       final BiConsumer<CorePlayer, Throwable> callback) {
         super(uuid);
         this.onLoad = callback;
-        CACHED_PLAYERS.add(this);
     }
 
     // For online connected players
@@ -200,7 +203,7 @@ public final class  CorePlayer
 
         // Player's name and stats may have changed since his last query
         // - Remove him from cache
-        CACHED_PLAYERS.remove(this);
+        OFFLINE_PLAYERS.invalidate(player.getUniqueId(), player.getName());
 
         nameHistory.add(player.getName());
         ipHistory.add(assumedHostName);
@@ -232,7 +235,7 @@ public final class  CorePlayer
 
             if (!isOnline()) {
                 if (onLoad != null)
-                    onLoad.accept(this);
+                    onLoad.accept(this, null);
                 return;
             }
 
@@ -248,7 +251,7 @@ public final class  CorePlayer
         } else {
             if (!isOnline()) {
                 if (onLoad != null)
-                    onLoad.accept(null);
+                    onLoad.accept(null, getLoadError());
                 return;
             }
 
@@ -657,21 +660,7 @@ public final class  CorePlayer
     public void sendMessage(final String path,
                             final Object... components) {
         if (!isOnline() || path == null) return;
-
-        String message = SETTINGS.get(locale, path);
-
-        /*
-         * Check if the path actually exists in the messages cache.
-         * If not, block the message if it's a path or send it if it's not.
-         */
-        if (message.equals(path)) {
-            if (!path.contains(" ") && !path.equals(String.valueOf(getLogger().getNoPrefixChar()))) {
-                getLogger().debug("Blocking message '%s' from player %s (locale: %s)", path, this, locale);
-                return;
-            }
-        }
-
-        handleMessage(String.format(message, components));
+        SETTINGS.buildMessage(locale, path, components).ifPresent(player::sendMessage);
     }
 
     /**
@@ -718,7 +707,7 @@ public final class  CorePlayer
     public void sendMessage(final String path,
                             final String[] keys,
                             final Object... vals) {
-        handleMessage(Logger.constructReplacements(SETTINGS.get(locale, path), keys, vals));
+        player.sendMessage(SETTINGS.buildMessage(locale, path, keys, vals));
     }
 
     /**
@@ -759,18 +748,7 @@ public final class  CorePlayer
      */
     public void sendMessage(final String path,
                             final Map<String, Object> replacements) {
-        handleMessage(Logger.constructReplacements(SETTINGS.get(locale, path), replacements));
-    }
-
-    private void handleMessage(final String message) {
-
-        /*
-         * Furnish the message further by applying color codes,
-         * components, prefix and player's set locale and send it to player.
-         */
-        player.sendMessage(ChatColor.translateAlternateColorCodes('&',
-                getLogger().prefix(message, SETTINGS.get(locale, "chat.prefix"))
-        ));
+        player.sendMessage(SETTINGS.buildMessage(locale, path, replacements));
     }
 
     // ================================ //
@@ -1129,13 +1107,16 @@ public final class  CorePlayer
                 .put(CorePlayerInfo.PLAYING,        new Value<>(false))
                 .build());
 
+        // The player may join another server next
+        flushCachedProfile();
+
         // Destroy violation managers to prevent memory leaks
         violations.destroy();
 
         PLAYER_MANAGER.remove(this);
 
         // Add offline player to cache
-        CACHED_PLAYERS.add(this);
+        OFFLINE_PLAYERS.put(this);
     }
 
     @Override
@@ -1153,6 +1134,16 @@ public final class  CorePlayer
         return COLLECTION;
     }
 
+    /**
+     * @return the shared cache of {@link Core#getProfileCache()} if the
+     * statistics are stored in the default collection
+     */
+    @Nullable
+    @Override
+    protected ProfileCache<CoreProfile> getProfileCache() {
+        return getCollection() == COLLECTION ? Core.getProfileCache() : null;
+    }
+
     /**
      * Creates a new instance of this player if he doesn't exist,
      * or returns an existing instance.
@@ -1181,16 +1172,8 @@ public final class  CorePlayer
         if (player != null) {
             callback.accept(player);
         } else {
-            // player is offline - find him in cache
-            for (CorePlayer cachePlayer : CACHED_PLAYERS) {
-                if (cachePlayer.getName().equalsIgnoreCase(name)) {
-                    // we found the player
-                    callback.accept(cachePlayer);
-                }
-            }
-
-            // not connected and not in cache - request offline player
-            new CorePlayer(name, callback);
+            // player is offline - find him in cache or request him
+            OFFLINE_PLAYERS.get(name, callback);
         }
     }
 
@@ -1200,16 +1183,8 @@ public final class  CorePlayer
         if (player != null) {
             callback.accept(player);
         } else {
-            // player is offline - find him in cache
-            for (CorePlayer cachePlayer : CACHED_PLAYERS) {
-                if (cachePlayer.getUuid().equals(uuid)) {
-                    // we found the player
-                    callback.accept(cachePlayer);
-                }
-            }
-
-            // not connected and not in cache - request offline player
-            new CorePlayer(uuid, callback);
+            // player is offline - find him in cache or request him
+            OFFLINE_PLAYERS.get(uuid, callback);
         }
     }
 
@@ -0,0 +1,328 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.bukkit.player;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache of offline {@link CorePlayer}s, indexed by unique ID and
+ * lower case name.
+ *
+ * <p>Concurrent requests for the same player share a single database load,
+ * and players that don't exist are remembered for a short while so that
+ * repeated lookups of a wrong name don't reach the database.  Loads that
+ * failed are not remembered, and a load that doesn't call back in time is
+ * given up on so the next lookup starts a new one.</p>
+ *
+ * <p>Cached players expire a fixed time after they were loaded, since their
+ * statistics may have been changed by another server.</p>
+ */
+final class OfflinePlayerCache {
+
+    static final int    DEFAULT_MAXIMUM_SIZE    = 500;
+    static final long   DEFAULT_TTL_MILLIS      = TimeUnit.MINUTES.toMillis(5);
+    static final long   DEFAULT_NEGATIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long   DEFAULT_LOAD_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Loads a player from the database, calling back with {@code null} if he
+     * doesn't exist, or with {@code null} and the error if he couldn't be
+     * loaded.  Exactly one of {@code uuid} and {@code name} is given.
+     */
+    @FunctionalInterface
+    interface Loader {
+
+        void load(@Nullable UUID uuid,
+                  @Nullable String name,
+                  BiConsumer<CorePlayer, Throwable> callback);
+    }
+
+    private final Loader loader;
+    private final int maximumSize;
+    private final long ttlMillis;
+    private final long negativeMillis;
+    private final long loadTimeoutMillis;
+
+    // Guarded by this, in least recently used order
+    private final LinkedHashMap<UUID, Entry> byUuid = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Entry> byName = new HashMap<>();
+    private final Map<Object, Long> missing = new HashMap<>();
+    private final Map<Object, Load> loading = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    OfflinePlayerCache(final Loader loader) {
+        this(loader, DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_MILLIS,
+                DEFAULT_LOAD_TIMEOUT_MILLIS);
+    }
+
+    OfflinePlayerCache(final Loader loader,
+                       final int maximumSize,
+                       final long ttlMillis,
+                       final long negativeMillis,
+                       final long loadTimeoutMillis) {
+        this.loader = Validate.notNull(loader, "loader");
+        Validate.isTrue(maximumSize > 0, "maximumSize must be positive");
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttlMillis;
+        this.negativeMillis = negativeMillis;
+        this.loadTimeoutMillis = loadTimeoutMillis;
+    }
+
+    /**
+     * Gets a player by unique ID, loading him if he isn't cached.
+     *
+     * @param callback called with the player, or {@code null} if he doesn't exist
+     *                 or couldn't be loaded
+     */
+    void get(final UUID uuid,
+             final Consumer<CorePlayer> callback) {
+        Validate.notNull(uuid, "uuid");
+        get(uuid, uuid, null, callback);
+    }
+
+    /**
+     * Gets a player by name, loading him if he isn't cached.
+     *
+     * @param callback called with the player, or {@code null} if he doesn't exist
+     *                 or couldn't be loaded
+     */
+    void get(final String name,
+             final Consumer<CorePlayer> callback) {
+        Validate.notNull(name, "name");
+        get(key(name), null, name, callback);
+    }
+
+    /**
+     * Caches a player that just went offline.
+     */
+    synchronized void put(final CorePlayer player) {
+        Validate.notNull(player, "player");
+        store(player);
+    }
+
+    /**
+     * Removes a player from the cache, such as when he comes online.
+     */
+    synchronized void invalidate(final UUID uuid,
+                                 @Nullable final String name) {
+        Entry entry = byUuid.remove(uuid);
+        if (entry != null) byName.remove(key(entry.player.getName()), entry);
+        if (name != null) missing.remove(key(name));
+        missing.remove(uuid);
+    }
+
+    synchronized int size() {
+        return byUuid.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getLoads() {
+        return loads.get();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringBuilder(this)
+                .append("size", byUuid.size())
+                .append("missing", missing.size())
+                .append("loading", loading.size())
+                .append("hits", hits.get())
+                .append("misses", misses.get())
+                .append("loads", loads.get())
+                .toString();
+    }
+
+    private void get(final Object key,
+                     @Nullable final UUID uuid,
+                     @Nullable final String name,
+                     final Consumer<CorePlayer> callback) {
+        Validate.notNull(callback, "callback");
+
+        CorePlayer cached = null;
+        Load load = null;
+        List<Consumer<CorePlayer>> timedOut = null;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Entry entry = uuid != null ? byUuid.get(uuid) : byName.get(key);
+
+            if (entry != null && now - entry.loadedAt < ttlMillis) {
+                // access the uuid index so the entry counts as recently used
+                byUuid.get(entry.player.getUuid());
+                cached = entry.player;
+                hits.incrementAndGet();
+            } else {
+                if (entry != null) remove(entry);
+
+                Long missingSince = missing.get(key);
+                if (missingSince != null && now - missingSince < negativeMillis) {
+                    // known not to exist
+                    hits.incrementAndGet();
+                } else {
+                    misses.incrementAndGet();
+
+                    Load current = loading.get(key);
+                    if (current != null && now - current.startedAt < loadTimeoutMillis) {
+                        // someone is already loading this player
+                        current.waiting.add(callback);
+                        return;
+                    }
+
+                    // a load that never called back waits on this one instead
+                    load = new Load(now);
+                    if (current != null) load.waiting.addAll(current.waiting);
+                    load.waiting.add(callback);
+                    loading.put(key, load);
+                    timedOut = expireLoading(now);
+                }
+            }
+        }
+
+        if (timedOut != null) {
+            for (Consumer<CorePlayer> waiting : timedOut) {
+                waiting.accept(null);
+            }
+        }
+
+        if (load == null) {
+            callback.accept(cached);
+            return;
+        }
+
+        // load outside of the lock, the loader may call back on this thread
+        loads.incrementAndGet();
+        Load started = load;
+        loader.load(uuid, name, (player, error) -> complete(key, started, player, error));
+    }
+
+    private void complete(final Object key,
+                          final Load load,
+                          @Nullable final CorePlayer player,
+                          @Nullable final Throwable error) {
+        List<Consumer<CorePlayer>> waiting = null;
+        synchronized (this) {
+            // a load that timed out was replaced, its waiters moved on
+            if (loading.get(key) == load) {
+                loading.remove(key);
+                waiting = load.waiting;
+            }
+
+            if (player != null) {
+                store(player);
+            } else if (error == null) {
+                missing.put(key, System.currentTimeMillis());
+                expireMissing();
+            }
+        }
+
+        // a player reloading his stats later calls back again without waiters
+        if (waiting == null) return;
+
+        for (Consumer<CorePlayer> callback : waiting) {
+            callback.accept(player);
+        }
+    }
+
+    private void store(final CorePlayer player) {
+        if (player.getUuid() == null) return;
+
+        Entry previous = byUuid.get(player.getUuid());
+        if (previous != null) remove(previous);
+
+        Entry entry = new Entry(player, System.currentTimeMillis());
+        byUuid.put(player.getUuid(), entry);
+        if (player.getName() != null) byName.put(key(player.getName()), entry);
+        missing.remove(player.getUuid());
+        if (player.getName() != null) missing.remove(key(player.getName()));
+
+        // evict the least recently used players
+        Iterator<Entry> iterator = byUuid.values().iterator();
+        while (byUuid.size() > maximumSize && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            if (eldest.player.getName() != null) byName.remove(key(eldest.player.getName()), eldest);
+        }
+    }
+
+    private void remove(final Entry entry) {
+        byUuid.remove(entry.player.getUuid(), entry);
+        if (entry.player.getName() != null) byName.remove(key(entry.player.getName()), entry);
+    }
+
+    private void expireMissing() {
+        // the negative cache is small and short lived, so expire it on write
+        if (missing.size() <= maximumSize) return;
+
+        long now = System.currentTimeMillis();
+        missing.values().removeIf(since -> now - since >= negativeMillis);
+    }
+
+    /**
+     * Gives up on loads of other players that didn't call back in time.
+     *
+     * @return the callbacks that were waiting on them, to be called back
+     *         outside of the lock, or {@code null} if none timed out
+     */
+    private List<Consumer<CorePlayer>> expireLoading(final long now) {
+        // only worth a look once loads start piling up
+        if (loading.size() <= maximumSize) return null;
+
+        List<Consumer<CorePlayer>> timedOut = null;
+        Iterator<Load> iterator = loading.values().iterator();
+        while (iterator.hasNext()) {
+            Load load = iterator.next();
+            if (now - load.startedAt < loadTimeoutMillis) continue;
+
+            iterator.remove();
+            if (timedOut == null) timedOut = new ArrayList<>();
+            timedOut.addAll(load.waiting);
+        }
+        return timedOut;
+    }
+
+    private static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Load {
+
+        private final long startedAt;
+        private final List<Consumer<CorePlayer>> waiting = new ArrayList<>(1);
+
+        private Load(final long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static final class Entry {
+
+        private final CorePlayer player;
+        private final long loadedAt;
+
+        private Entry(final CorePlayer player,
+                      final long loadedAt) {
+            this.player = player;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
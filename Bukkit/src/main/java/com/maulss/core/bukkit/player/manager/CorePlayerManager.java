@@ -66,15 +66,15 @@ public final class CorePlayerManager extends PlayerManager<CorePlayer> {
      */
     public CorePlayer add(final Player player,
                           final Optional<String> hostName) {
-        CorePlayer cp = get(player.getName());
+        CorePlayer cp = get(player.getUniqueId());
 
         if (cp != null) {
             return cp;
         }
 
+        // if another thread registered the player meanwhile, its instance is kept
         //noinspection deprecation
-        PLAYERS.add(cp = CorePlayer._init(player, hostName));
-        return cp;
+        return register(CorePlayer._init(player, hostName));
     }
 
     public static CorePlayerManager getInstance() {
@@ -12,17 +12,30 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerEvent;
 
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A manager that can hold subclass profiles of {@link
  * Profile} while keeping only a single instance of
  * each profile.
  *
+ * <p>Online players are indexed by unique ID and lower
+ * case name, so lookups are O(1) and safe from async
+ * events.  {@link #getOnlinePlayers()} returns a snapshot
+ * that is only rebuilt when a player is added or removed.</p>
+ *
  * @param <P> Any profile extending {@link Profile}
  */
 public abstract class PlayerManager<P extends Profile> implements Iterable<P> {
 
+    private final Map<UUID, P> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, P> byName = new ConcurrentHashMap<>();
+    private volatile ImmutableList<P> snapshot = ImmutableList.of();
+
     /**
      * Gets the {@link P} instance from his name.
      *
@@ -33,14 +46,7 @@ public abstract class PlayerManager<P extends Profile> implements Iterable<P> {
      */
     public P get(final String name) {
         Validate.notNull(name);
-
-        for (P player : getOnlinePlayers()) {
-            if (player.getName().equalsIgnoreCase(name)) {
-                return player;
-            }
-        }
-
-        return null;
+        return byName.get(name.toLowerCase(Locale.ROOT));
     }
 
     /**
@@ -53,14 +59,7 @@ public abstract class PlayerManager<P extends Profile> implements Iterable<P> {
      */
     public P get(final UUID id) {
         Validate.notNull(id);
-
-        for (P player : getOnlinePlayers()) {
-            if (player.getUuid().equals(id)) {
-                return player;
-            }
-        }
-
-        return null;
+        return byUuid.get(id);
     }
 
     /**
@@ -74,31 +73,67 @@ public abstract class PlayerManager<P extends Profile> implements Iterable<P> {
      * 			{@code null} if not.
      */
     public P get(final PlayerEvent event) {
-        return get(event.getPlayer().getName());
+        return get(event.getPlayer().getUniqueId());
     }
 
     /**
      * @return All online players that are registered in this player manager in an unmodifiable list.
      */
     public ImmutableList<P> getOnlinePlayers() {
-        // Return an unmodifiable list to make sure the actual list isn't modified externally
-        return delegate().getImmutableElements();
+        // The snapshot is immutable, so it can be shared without copying
+        return snapshot;
     }
 
     /**
      * @return A random {@link P} instance.
      */
     public P getRandomElement() {
-        return delegate().getRandomElement();
+        ImmutableList<P> players = snapshot;
+        return players.isEmpty() ? null : players.get(ThreadLocalRandom.current().nextInt(players.size()));
+    }
+
+    /**
+     * @return The amount of online players registered in this player manager.
+     */
+    public int size() {
+        return byUuid.size();
     }
 
     protected abstract EnhancedList<P> delegate();
 
     public abstract P add(final Player player);
 
-    public P remove(final P player) {
+    /**
+     * Registers a profile in the indexes of this player manager.
+     *
+     * <p>If a profile with the same unique ID is already
+     * registered, that profile is returned instead.</p>
+     *
+     * @param   player
+     * 			The profile to register.
+     * @return	The registered {@link P} instance.
+     */
+    protected synchronized P register(final P player) {
+        Validate.notNull(player);
+
+        P registered = byUuid.putIfAbsent(player.getUuid(), player);
+        if (registered != null) return registered;
+
+        byName.put(player.getName().toLowerCase(Locale.ROOT), player);
+        delegate().add(player);
+        snapshot = delegate().getImmutableElements();
+        return player;
+    }
+
+    public synchronized P remove(final P player) {
         Validate.notNull(player);
+
+        if (byUuid.remove(player.getUuid(), player)) {
+            byName.remove(player.getName().toLowerCase(Locale.ROOT), player);
+        }
+
         delegate().remove(player);
+        snapshot = delegate().getImmutableElements();
         return player;
     }
 
@@ -109,6 +144,6 @@ public abstract class PlayerManager<P extends Profile> implements Iterable<P> {
 
     @Override
     public final String toString() {
-        return delegate().toString();
+        return snapshot.toString();
     }
 }
\ No newline at end of file
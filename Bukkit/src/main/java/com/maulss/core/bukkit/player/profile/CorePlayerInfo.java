@@ -24,7 +24,8 @@ public class CorePlayerInfo extends PlayerInfo {
             TOKENS          = new CorePlayerInfo("tokens",      0),
             RANK            = new CorePlayerInfo("rank",        CoreRank.DEFAULT),
             PREMIUM         = new CorePlayerInfo("premium",     false),
-            LOCALE          = new CorePlayerInfo("locale",      Core.getSettings().getDefaultLocale());
+            LOCALE          = new CorePlayerInfo("locale",      Core.getSettings().getDefaultLocale()),
+            LAST_MODIFIED   = new CorePlayerInfo("lastModified", null);
 
     public CorePlayerInfo(final String key,
                           final Object def) {
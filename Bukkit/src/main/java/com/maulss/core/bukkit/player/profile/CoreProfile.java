@@ -10,19 +10,28 @@ import com.maulss.core.CoreException;
 import com.maulss.core.Logger;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.player.statistic.StatisticHolder;
+import com.maulss.core.cache.CachedProfile;
+import com.maulss.core.cache.ProfileCache;
 import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Value;
 import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.VoidBulkWriteResult;
+import com.maulss.core.database.callback.VoidCallback;
 import com.maulss.core.database.callback.VoidUpdateResult;
 import com.maulss.core.database.mongo.MongoIdentity;
 import com.maulss.core.database.mongo.data.MongoDataOperator;
 import com.maulss.core.service.timer.Timer;
 import com.maulss.core.util.UUIDUtil;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
 import org.bukkit.Bukkit;
 
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -85,6 +94,13 @@ public abstract class CoreProfile
     protected transient StatisticHolder
             statisticHolder = this;
 
+    /*
+     * Why the profile couldn't be loaded, so a failed load isn't taken for a
+     * player that never played before.
+     */
+    private volatile transient Throwable
+            loadError       = null;
+
     // ================================ //
     // ==== Construction ============== //
     // ================================ //
@@ -177,6 +193,8 @@ public abstract class CoreProfile
                                     throwable
                             );
 
+                            if (throwable != null) loadError = throwable;
+
                             Optional<Document> downloadedDoc = Optional.ofNullable(document);
                             if (downloadedDoc.isPresent()) {
                                 this.name = document.getString(PlayerInfo.NAME.getKey());
@@ -223,7 +241,9 @@ public abstract class CoreProfile
      * profile needs them to finish loading, eg: {@link CoreProfile}.</p>
      *
      * <p>If the player is not found in the database, ie: the player hasn't
-     * played the server before - then {@link Optional#empty()} is passed.</p>
+     * played the server before - then {@link Optional#empty()} is passed.
+     * It is also passed if the database couldn't be reached, in which case
+     * {@link #getLoadError()} returns the error.</p>
      *
      * @param document
      *         the optional document that holds the statistics
@@ -238,14 +258,145 @@ public abstract class CoreProfile
      * <p>Typically used for updating cached offline players</p>
      */
     protected final void refreshStats() {
+        ProfileCache<CoreProfile> cache = getProfileCache();
+        if (cache != null) {
+            // Served from memory unless another server wrote it since
+            cache.refresh(this, (profile, t) -> {
+                logIf(t != null, "Error loading '%s' ('%s'): %s", name, uuid, t);
+                loadError = t;
+                everPlayed = true;
+                finishLoading(profile != null && profile.isStored()
+                        ? Optional.of(new Document(profile.getFields()))
+                        : Optional.empty());
+            });
+            return;
+        }
+
         // Async download custom stats from database
         retrieve((result, t) -> {
             logIf(t != null, "Error loading '%s' ('%s'): %s", name, uuid, t);
+            loadError = t;
             everPlayed = true;
             finishLoading(Optional.ofNullable(result));
         });
     }
 
+    /**
+     * Returns the cache the {@link #getCollection() collection document} is
+     * loaded through.  Profiles of players hopping between servers are then
+     * loaded from memory instead of being downloaded on every join, unless
+     * another server wrote them since.
+     *
+     * <p>By default no cache is used.  Sub classes that store their
+     * statistics through the same cache should return a single shared
+     * instance, eg: one backed by a {@link
+     * com.maulss.core.cache.MongoProfileStore}, and {@link
+     * #flushCachedProfile() flush} the profile once the player leaves.</p>
+     *
+     * @return the profile cache, or {@code null} to always download
+     */
+    @Nullable
+    protected ProfileCache<CoreProfile> getProfileCache() {
+        return null;
+    }
+
+    /**
+     * Writes a field through the {@link #getProfileCache() profile cache}
+     * while the profile is cached, so the next {@link #refreshStats()} sees
+     * it and the cache writes it back later.  An {@code $INC} is written
+     * back as an {@code $inc} of the amounts added, so amounts added by
+     * other servers meanwhile are kept.  The callback completes once the
+     * field has been changed in memory.
+     *
+     * <p>Otherwise, and for operators the cache can't express, the field is
+     * written straight to the collection and the cached profile is dropped
+     * once the write completes.</p>
+     */
+    @Override
+    public void update(final DatabaseKey stat,
+                       final Object obj,
+                       final MongoDataOperator operator,
+                       final DatabaseCallback<UpdateResult> doAfter) {
+        CachedProfile<CoreProfile> cached = getCachedProfile();
+        if (cached != null && operator == MongoDataOperator.$SET) {
+            cached.set(stat, obj);
+            doAfter.onResult(new VoidUpdateResult());
+        } else if (cached != null && operator == MongoDataOperator.$INC && obj instanceof Integer) {
+            cached.add(stat, (Integer) obj);
+            doAfter.onResult(new VoidUpdateResult());
+        } else {
+            MongoIdentity.super.update(stat, obj, operator, invalidating(doAfter));
+        }
+    }
+
+    /**
+     * Sets the fields through the {@link #getProfileCache() profile cache}
+     * while the profile is cached.
+     *
+     * @see #update(DatabaseKey, Object, MongoDataOperator, DatabaseCallback)
+     */
+    @Override
+    public void update(final Map<DatabaseKey, Value> operations,
+                       final DatabaseCallback<BulkWriteResult> doAfter) {
+        CachedProfile<CoreProfile> cached = getCachedProfile();
+        if (cached == null) {
+            MongoIdentity.super.update(operations, doAfter);
+            return;
+        }
+
+        // Every operation is a $set, same as when written directly
+        for (Map.Entry<DatabaseKey, Value> entry : operations.entrySet()) {
+            cached.set(entry.getKey(), entry.getValue().getValue());
+        }
+        doAfter.onResult(new VoidBulkWriteResult());
+    }
+
+    @Override
+    public void update(final List<WriteModel<Document>> operations,
+                       final DatabaseCallback<BulkWriteResult> doAfter) {
+        MongoIdentity.super.update(operations, invalidating(doAfter));
+    }
+
+    @Override
+    public void insert(final Map<DatabaseKey, Object> map,
+                       final VoidCallback doAfter) {
+        MongoIdentity.super.insert(map, error -> {
+            invalidateCachedProfile();
+            doAfter.onResult(error);
+        });
+    }
+
+    /**
+     * Writes the unwritten changes of the cached profile now, so another
+     * server the player joins next loads them.
+     */
+    protected final void flushCachedProfile() {
+        ProfileCache<CoreProfile> cache = getProfileCache();
+        if (cache != null) cache.flush(uuid);
+    }
+
+    @Nullable
+    private CachedProfile<CoreProfile> getCachedProfile() {
+        ProfileCache<CoreProfile> cache = getProfileCache();
+        return cache == null ? null : cache.getIfPresent(uuid);
+    }
+
+    private void invalidateCachedProfile() {
+        ProfileCache<CoreProfile> cache = getProfileCache();
+        if (cache != null) cache.invalidate(uuid);
+    }
+
+    /**
+     * Drops the cached profile once a write made around the cache has
+     * completed, so it's read again with the write.
+     */
+    private <T> DatabaseCallback<T> invalidating(final DatabaseCallback<T> callback) {
+        return (result, error) -> {
+            invalidateCachedProfile();
+            callback.onResult(result, error);
+        };
+    }
+
     // ================================ //
     // ==== Profile Data ============== //
     // ================================ //
@@ -283,6 +434,15 @@ public abstract class CoreProfile
         return loaded;
     }
 
+    /**
+     * @return the error the last database lookup failed with, or {@code null}
+     * if it succeeded or the player simply wasn't found
+     */
+    @Nullable
+    public Throwable getLoadError() {
+        return loadError;
+    }
+
     // ================================ //
     // ==== Utilities ================= //
     // ================================ //
@@ -332,6 +492,8 @@ public abstract class CoreProfile
         Core.getPlayerCollection().updateOne(getSearchQuery(),
                 new Document(MongoDataOperator.$SET.getOperator(),
                         new Document(PlayerInfo.NAME.getKey(), name)), (result, t) -> {
+                    invalidateCachedProfile();
+
                     if (t != null) {
                         CoreProfile.this.name = name;
                     }
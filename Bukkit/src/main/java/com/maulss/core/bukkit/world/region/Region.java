@@ -11,6 +11,7 @@ import com.comphenix.protocol.wrappers.WrappedBlockData;
 import com.google.common.annotations.Beta;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.gson.reflect.TypeToken;
 import com.maulss.core.bukkit.Core;
@@ -30,6 +31,7 @@ import org.bukkit.configuration.serialization.ConfigurationSerializable;
 import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -63,6 +65,7 @@ public abstract class Region implements
 
     private static final long serialVersionUID = 3272199880401532227L;
     private static final long MAX_BLOCK_CHANGE = 0x7fffffff;
+    private static final int MAX_RANDOM_ATTEMPTS = 64;
 
     protected final String world;
     protected final int priority;
@@ -178,6 +181,26 @@ public abstract class Region implements
      */
     public abstract boolean contains(final Vector3D vector);
 
+    /**
+     * Checks if a block coordinate is located inside the region.  Used when
+     * scanning the region, so implementations should answer it without
+     * creating a {@link Vector3D}.
+     *
+     * @param   x
+     *          The x coordinate of the block
+     * @param   y
+     *          The y coordinate of the block
+     * @param   z
+     *          The z coordinate of the block
+     * @return  True if the block is inside of the region.  False if otherwise
+     * @see     #contains(Vector3D)
+     */
+    public boolean contains(final int x,
+                            final int y,
+                            final int z) {
+        return contains(new Vector3D(x, y, z));
+    }
+
     /**
      * Checks if a different {@link Region} object contains within this region
      * by making sure all points in {@param region} are also points of the region
@@ -196,9 +219,33 @@ public abstract class Region implements
         if (equals(region)) return true;
         if (!world.equals(region.world)) return false;
 
-        // check if there are any points outside of the region
-        for (Vector3D point : this) {
-            if (!contains(point)) return false;
+        // a convex region holds everything between its points, so it
+        // contains the other region if it contains its bounding box
+        if (isConvex()
+                && contains(region.getMinX(), region.getMinY(), region.getMinZ())
+                && contains(region.getMinX(), region.getMinY(), region.getMaxZ())
+                && contains(region.getMinX(), region.getMaxY(), region.getMinZ())
+                && contains(region.getMinX(), region.getMaxY(), region.getMaxZ())
+                && contains(region.getMaxX(), region.getMinY(), region.getMinZ())
+                && contains(region.getMaxX(), region.getMinY(), region.getMaxZ())
+                && contains(region.getMaxX(), region.getMaxY(), region.getMinZ())
+                && contains(region.getMaxX(), region.getMaxY(), region.getMaxZ()))
+            return true;
+
+        // compare the columns of the other region with the columns of this one
+        for (int x = region.getMinX(); x <= region.getMaxX(); x++) {
+            for (int z = region.getMinZ(); z <= region.getMaxZ(); z++) {
+                int bottom = region.getColumnBottom(x, z), top = region.getColumnTop(x, z);
+                if (bottom > top) continue;
+
+                if (isConvex() && region.isConvex()) {
+                    if (getColumnBottom(x, z) > bottom || getColumnTop(x, z) < top) return false;
+                    continue;
+                }
+
+                for (int y = bottom; y <= top; y++)
+                    if (region.contains(x, y, z) && !contains(x, y, z)) return false;
+            }
         }
 
         return true;
@@ -209,6 +256,9 @@ public abstract class Region implements
      * region by making a check to see if at least a single point in {@param region}
      * has the same coordinates as {@code this} region.
      *
+     * <p>Only the columns where both bounding boxes overlap are checked,
+     * each by the heights of both regions in it.</p>
+     *
      * @param   region
      * 			The region to check whether it intersects this region
      * @return  True if {@param region} collides with {@code this} region.  False if otherwise
@@ -218,14 +268,127 @@ public abstract class Region implements
         if (equals(region)) return true;
         if (!world.equals(region.world)) return false;
 
-        // check if any point is in region
-        for (Vector3D point : this) {
-            if (contains(point)) return true;
+        int minX = Math.max(getMinX(), region.getMinX()), maxX = Math.min(getMaxX(), region.getMaxX());
+        int minY = Math.max(getMinY(), region.getMinY()), maxY = Math.min(getMaxY(), region.getMaxY());
+        int minZ = Math.max(getMinZ(), region.getMinZ()), maxZ = Math.min(getMaxZ(), region.getMaxZ());
+        if (minX > maxX || minY > maxY || minZ > maxZ) return false;
+
+        // check if any column in the overlapping bounds has a height in both regions
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                int bottom = Math.max(getColumnBottom(x, z), region.getColumnBottom(x, z));
+                int top = Math.min(getColumnTop(x, z), region.getColumnTop(x, z));
+                if (bottom > top) continue;
+
+                if (isConvex() && region.isConvex()) return true;
+
+                for (int y = bottom; y <= top; y++)
+                    if (contains(x, y, z) && region.contains(x, y, z)) return true;
+            }
         }
 
         return false;
     }
 
+    /**
+     * @return  True if every point on a line between two points of the
+     * 			region is also inside the region, which lets {@link
+     * 			#contains(Region)} check only the corners of the other region
+     * 			and every column be treated as a single run of blocks.
+     */
+    protected boolean isConvex() {
+        return false;
+    }
+
+    /**
+     * Gets the lowest block of the region in a column.  Shapes should
+     * answer this without walking the column.
+     *
+     * @param   x
+     *          The x coordinate of the column
+     * @param   z
+     *          The z coordinate of the column
+     * @return  The y coordinate of the lowest block, greater than {@link
+     *          #getColumnTop(int, int)} if the column is outside the region
+     */
+    protected int getColumnBottom(final int x,
+                                  final int z) {
+        for (int y = getMinY(); y <= getMaxY(); y++)
+            if (contains(x, y, z)) return y;
+
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the highest block of the region in a column.
+     *
+     * @param   x
+     *          The x coordinate of the column
+     * @param   z
+     *          The z coordinate of the column
+     * @return  The y coordinate of the highest block, less than {@link
+     *          #getColumnBottom(int, int)} if the column is outside the region
+     * @see     #getColumnBottom(int, int)
+     */
+    protected int getColumnTop(final int x,
+                               final int z) {
+        for (int y = getMaxY(); y >= getMinY(); y--)
+            if (contains(x, y, z)) return y;
+
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Stores the bounds of {@link #getMin()} and {@link #getMax()} in the
+     * {@code minX} to {@code maxZ} fields.  Called at the end of {@link
+     * #calculate()}.
+     */
+    protected final void calculateBounds() {
+        minX = getMinX();
+        minY = getMinY();
+        minZ = getMinZ();
+        maxX = getMaxX();
+        maxY = getMaxY();
+        maxZ = getMaxZ();
+    }
+
+    /**
+     * Collects the points on the surface of a convex region, ie; the points
+     * which have at least one of the six blocks next to them outside of the
+     * region.  Only the ends of each column and the heights the columns next
+     * to it don't reach are visited, not the inside of the region.
+     *
+     * @return The points on the surface of the region.
+     */
+    protected final EnhancedList<Vector3D> getColumnWalls() {
+        EnhancedList<Vector3D> points = new EnhancedList<>();
+
+        for (int x = getMinX(); x <= getMaxX(); x++) {
+            for (int z = getMinZ(); z <= getMaxZ(); z++) {
+                int bottom = getColumnBottom(x, z), top = getColumnTop(x, z);
+                if (bottom > top) continue;
+
+                // the heights reached by all four columns next to this one
+                long inner = Math.max(
+                        Math.max(getColumnBottom(x + 1, z), getColumnBottom(x - 1, z)),
+                        Math.max(getColumnBottom(x, z + 1), getColumnBottom(x, z - 1)));
+                long outer = Math.min(
+                        Math.min(getColumnTop(x + 1, z), getColumnTop(x - 1, z)),
+                        Math.min(getColumnTop(x, z + 1), getColumnTop(x, z - 1)));
+
+                // the bottom and whatever is below the inner heights, then
+                // the top and whatever is above them
+                long lowEnd = Math.min(top, Math.max(bottom, inner - 1));
+                long highStart = Math.max(lowEnd + 1, Math.min(top, outer + 1));
+
+                for (long y = bottom; y <= lowEnd; y++) points.add(new Vector3D(x, y, z));
+                for (long y = highStart; y <= top; y++) points.add(new Vector3D(x, y, z));
+            }
+        }
+
+        return points;
+    }
+
     /**
      * Fill the region with a certain type of {@link Material}
      * by looping through the X axis, the Y axis and the Z axis.
@@ -253,7 +416,7 @@ public abstract class Region implements
      */
     public final synchronized int fill(final Material material,
                                        final float chance) {
-        return fill(getBlocks(), material, chance);
+        return fill(blockIterator(), material, chance);
     }
 
     /**
@@ -282,7 +445,7 @@ public abstract class Region implements
      */
     public final synchronized int fillWalls(final Material material,
                                             final float chance) {
-        return fill(getWallBlocks(), material, chance);
+        return fill(getWallBlocks().iterator(), material, chance);
     }
 
     /**
@@ -311,17 +474,34 @@ public abstract class Region implements
      */
     public final synchronized int fillEdges(final Material material,
                                             final float chance) {
-        return fill(getEdgeBlocks(), material, chance);
+        return fill(getEdgeBlocks().iterator(), material, chance);
     }
 
     /**
-     * Get all the {@link Block}s in the entire region.
+     * Get all the {@link Block}s in the entire region.  This keeps every
+     * block in memory, prefer {@link #blockIterator()} for anything but
+     * small regions.
      *
      * @return The blocks that were found in the region.
      * @see Block
      */
     public final synchronized EnhancedList<Block> getBlocks() {
-        return toBlocks(getPoints());
+        EnhancedList<Block> blocks = new EnhancedList<>();
+        blockIterator().forEachRemaining(blocks::add);
+        return blocks;
+    }
+
+    /**
+     * Iterates the {@link Block}s in the entire region, getting each block
+     * only once it's reached.
+     *
+     * @return The blocks in the region.
+     * @see #iterator()
+     */
+    public final synchronized Iterator<Block> blockIterator() {
+        World world = Bukkit.getWorld(this.world);
+        return Iterators.transform(iterator(),
+                point -> world.getBlockAt(point.getFloorX(), point.getFloorY(), point.getFloorZ()));
     }
 
     /**
@@ -376,6 +556,8 @@ public abstract class Region implements
             flags.put(flag, allow);
         }
 
+        // keep the denied flags of the region index up to date
+        RegionManager.INSTANCE.refresh(this);
         return this;
     }
 
@@ -477,7 +659,16 @@ public abstract class Region implements
         }
     }
 
-    public abstract ImmutableList<Vector3D> getPoints();
+    /**
+     * Collects every point in the region.  This keeps one object per block
+     * in memory, so prefer iterating the region or {@link #contains(int,
+     * int, int)} for anything but small regions.
+     *
+     * @return All points in the region.
+     */
+    public synchronized ImmutableList<Vector3D> getPoints() {
+        return ImmutableList.copyOf(iterator());
+    }
 
     public abstract RegionType getType();
 
@@ -511,6 +702,19 @@ public abstract class Region implements
      * @see		EnhancedList#getRandomElement()
      */
     public final synchronized Vector3D getRandomPoint() {
+        Random random = ThreadLocalRandom.current();
+        int lengthX = getMaxX() - getMinX() + 1;
+        int lengthY = getMaxY() - getMinY() + 1;
+        int lengthZ = getMaxZ() - getMinZ() + 1;
+
+        // pick random points in the bounds until one is inside
+        for (int i = 0; i < MAX_RANDOM_ATTEMPTS; i++) {
+            int x = getMinX() + random.nextInt(lengthX);
+            int y = getMinY() + random.nextInt(lengthY);
+            int z = getMinZ() + random.nextInt(lengthZ);
+            if (contains(x, y, z)) return new Vector3D(x, y, z);
+        }
+
         return new EnhancedList<>(getPoints()).getRandomElement();
     }
 
@@ -552,7 +756,7 @@ public abstract class Region implements
 
     @Override
     public final synchronized Iterator<Vector3D> iterator() {
-        return getPoints().iterator();
+        return new PointIterator();
     }
 
     public final synchronized String toJson() {
@@ -590,12 +794,13 @@ public abstract class Region implements
                 .collect(Collectors.toCollection(EnhancedList::new));
     }
 
-    private static int fill(final List<Block> blocks,
+    private static int fill(final Iterator<Block> blocks,
                             final Material material,
                             final float chance) {
         int changed = 0;
 
-        for (Block block : blocks) {
+        while (blocks.hasNext()) {
+            Block block = blocks.next();
             if (changed == MAX_BLOCK_CHANGE) return changed;
 
             if (Math.random() <= chance && !block.getType().equals(material)) {
@@ -610,4 +815,51 @@ public abstract class Region implements
     public static <R extends Region> Type type() {
         return new TypeToken<R>() {}.getType();
     }
+
+    /**
+     * Walks the columns of the region and only creates the points which are
+     * inside, one at a time.
+     */
+    private final class PointIterator implements Iterator<Vector3D> {
+
+        private final int minX = getMinX(), minZ = getMinZ();
+        private final int maxX = getMaxX(), maxZ = getMaxZ();
+        private final boolean convex = isConvex();
+        private int x = minX, z = minZ;
+        // the rest of the current column
+        private int y = 0, top = -1;
+        private Vector3D next = advance();
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Vector3D next() {
+            if (next == null) throw new NoSuchElementException();
+
+            Vector3D point = next;
+            next = advance();
+            return point;
+        }
+
+        private Vector3D advance() {
+            while (true) {
+                while (y <= top) {
+                    int py = y++;
+                    if (convex || contains(x, py, z - 1)) return new Vector3D(x, py, z - 1);
+                }
+
+                if (z > maxZ) {
+                    if (++x > maxX) return null;
+                    z = minZ;
+                }
+
+                y = getColumnBottom(x, z);
+                top = getColumnTop(x, z);
+                z++;
+            }
+        }
+    }
 }
\ No newline at end of file
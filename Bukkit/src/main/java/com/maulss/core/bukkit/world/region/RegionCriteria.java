@@ -76,29 +76,55 @@ public final class RegionCriteria {
         int len = list.size();
         if (len == 0) return list;
 
-        RegionList regions = new RegionList(list);
+        RegionList regions = new RegionList(len);
+        for (Region region : list)
+            regions.addIf(test(region), region);
 
-        worlds.ifPresent(strings -> list.forEach(region ->
-                strings.forEach(world -> regions.removeIf(
-                        !region.getWorld().equals(world), region))));
+        return regions;
+    }
 
-        predicates.ifPresent(predicates -> list.forEach(region ->
-                predicates.forEach(predicate -> regions.removeIf(
-                        !predicate.test(region), region))));
+    /**
+     * Checks every criterion against a single region.
+     *
+     * @param region
+     *         the region to check
+     * @return whether the region matches all criteria
+     */
+    public boolean test(final Region region) {
+        if (worlds.isPresent() && !worlds.get().contains(region.getWorld()))
+            return false;
+
+        if (types.isPresent() && !types.get().contains(region.getType()))
+            return false;
+
+        if (coords.isPresent()) {
+            for (Vector3D coord : coords.get())
+                if (!region.contains(coord)) return false;
+        }
 
-        types.ifPresent(regionTypes -> list.forEach(region -> regions.removeIf(
-                !regionTypes.contains(region.getType()), region)));
+        if (flags.isPresent()) {
+            for (Map.Entry<Flag, Optional<Boolean>> entry : flags.get().entrySet()) {
+                Flag flag = entry.getKey();
+                Optional<Boolean> allow = entry.getValue();
+                if (!region.hasFlag(flag) || (allow.isPresent() && region.isAllowed(flag) == allow.get()))
+                    return false;
+            }
+        }
 
-        coords.ifPresent(vector3DS -> list.forEach(region ->
-                vector3DS.forEach(coord -> regions.removeIf(
-                        !region.contains(coord),region))));
+        if (predicates.isPresent()) {
+            for (Predicate<Region> predicate : predicates.get())
+                if (!predicate.test(region)) return false;
+        }
 
-        flags.ifPresent(flagOptionalMap -> list.forEach(region ->
-                flagOptionalMap.forEach((flag, allow) -> regions.removeIf(
-                        !region.hasFlag(flag) || (allow.isPresent()
-                                && region.isAllowed(flag) == allow.get()), region))));
+        return true;
+    }
 
-        return regions;
+    Optional<List<String>> getWorlds() {
+        return worlds;
+    }
+
+    Optional<List<Vector3D>> getCoords() {
+        return coords;
     }
 
     @Override
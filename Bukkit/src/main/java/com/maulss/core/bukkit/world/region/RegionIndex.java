@@ -0,0 +1,360 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 1:10 PM.
+ */
+
+package com.maulss.core.bukkit.world.region;
+
+import com.maulss.core.bukkit.world.region.flag.Flag;
+import com.maulss.core.math.Vector3D;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spatial index of the registered regions of each world, bucketed by the
+ * chunks their bounding box overlaps.
+ *
+ * <p>A point query looks up the bucket of the point's chunk in O(1), checks
+ * the cached bounding boxes and only then calls {@link
+ * Region#contains(Vector3D)} on the remaining candidates.  Regions spanning
+ * more than {@link #MAX_BUCKETED_CHUNKS} chunks are kept in a per-world list
+ * instead of every bucket they overlap.</p>
+ *
+ * <p>Every bucket also holds a bitset of the {@link Flag}s denied by any of
+ * its regions, indexed by {@link Flag#getId()}, so flag checks in chunks
+ * without a denying region return after a single lookup.</p>
+ *
+ * <p>Buckets are copied on write, so queries never lock and can be run from
+ * any thread.</p>
+ */
+final class RegionIndex {
+
+    /**
+     * Regions overlapping more chunks than this are checked on every query of
+     * their world rather than stored in each bucket.
+     */
+    static final int MAX_BUCKETED_CHUNKS = 1024;
+
+    private static final Entry[] EMPTY = new Entry[0];
+    private static final long[] NONE = new long[0];
+
+    private final Map<String, WorldIndex> worlds = new ConcurrentHashMap<>();
+
+    // Guarded by this, keyed by identity since a region's hash changes with its flags
+    private final Map<Region, Entry> entries = new IdentityHashMap<>();
+
+    // Flags denied by any region of any world
+    private volatile long[] denied = NONE;
+
+    synchronized void add(final Region region) {
+        Validate.notNull(region, "region");
+        if (entries.containsKey(region)) return;
+
+        Entry entry = new Entry(region);
+        entries.put(region, entry);
+        WorldIndex index = worlds.computeIfAbsent(region.getWorld(), world -> new WorldIndex());
+
+        if (entry.getChunks() > MAX_BUCKETED_CHUNKS) {
+            index.large = new Bucket(append(index.large.entries, entry));
+        } else {
+            for (int cx = entry.minX >> 4; cx <= entry.maxX >> 4; cx++) {
+                for (int cz = entry.minZ >> 4; cz <= entry.maxZ >> 4; cz++) {
+                    Bucket bucket = index.buckets.get(key(cx, cz));
+                    index.buckets.put(key(cx, cz), new Bucket(
+                            bucket == null ? new Entry[] {entry} : append(bucket.entries, entry)));
+                }
+            }
+        }
+
+        index.publish();
+        denied = or(denied, entry.denied);
+    }
+
+    synchronized void remove(final Region region) {
+        Validate.notNull(region, "region");
+        Entry entry = entries.remove(region);
+        if (entry == null) return;
+
+        WorldIndex index = worlds.get(region.getWorld());
+        if (entry.getChunks() > MAX_BUCKETED_CHUNKS) {
+            index.large = new Bucket(without(index.large.entries, region));
+        } else {
+            for (int cx = entry.minX >> 4; cx <= entry.maxX >> 4; cx++) {
+                for (int cz = entry.minZ >> 4; cz <= entry.maxZ >> 4; cz++) {
+                    Entry[] remaining = without(index.buckets.get(key(cx, cz)).entries, region);
+                    if (remaining.length == 0) {
+                        index.buckets.remove(key(cx, cz));
+                    } else {
+                        index.buckets.put(key(cx, cz), new Bucket(remaining));
+                    }
+                }
+            }
+        }
+
+        index.publish();
+
+        long[] all = NONE;
+        for (Entry other : entries.values()) {
+            all = or(all, other.denied);
+        }
+        denied = all;
+    }
+
+    /**
+     * Re-indexes a region after its bounds or flags changed.  Does nothing if
+     * the region isn't indexed.
+     */
+    synchronized void refresh(final Region region) {
+        if (!entries.containsKey(region)) return;
+
+        remove(region);
+        add(region);
+    }
+
+    synchronized void clear() {
+        worlds.clear();
+        entries.clear();
+        denied = NONE;
+    }
+
+    /**
+     * Adds every region of the world containing the point to a list.
+     *
+     * @param world
+     *         name of the world
+     * @param point
+     *         the point to check
+     * @param into
+     *         the list to add the regions to
+     */
+    void query(final String world,
+               final Vector3D point,
+               final List<Region> into) {
+        WorldIndex index = worlds.get(world);
+        if (index == null) return;
+
+        int x = point.getFloorX();
+        int y = point.getFloorY();
+        int z = point.getFloorZ();
+
+        Bucket bucket = index.table.get(key(x >> 4, z >> 4));
+        if (bucket != null) collect(bucket.entries, x, y, z, point, into);
+        collect(index.large.entries, x, y, z, point, into);
+    }
+
+    /**
+     * @return whether any indexed region denies the flag
+     */
+    boolean isDenied(final int flag) {
+        return get(denied, flag);
+    }
+
+    /**
+     * Checks if a block is inside any region denying a flag.
+     *
+     * @param flag
+     *         the {@link Flag#getId() id} of the flag
+     * @param world
+     *         name of the world of the block
+     * @return whether the flag is denied at the block
+     */
+    boolean isDenied(final int flag,
+                     final String world,
+                     final int x,
+                     final int y,
+                     final int z) {
+        WorldIndex index = worlds.get(world);
+        if (index == null) return false;
+
+        Bucket bucket = index.table.get(key(x >> 4, z >> 4));
+        return bucket != null && bucket.denies(flag, x, y, z)
+                || index.large.denies(flag, x, y, z);
+    }
+
+    private static void collect(final Entry[] entries,
+                                final int x,
+                                final int y,
+                                final int z,
+                                final Vector3D point,
+                                final List<Region> into) {
+        for (Entry entry : entries) {
+            if (entry.bounds(x, y, z) && entry.region.contains(point)) {
+                into.add(entry.region);
+            }
+        }
+    }
+
+    private static long key(final int chunkX,
+                            final int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xffffffffL);
+    }
+
+    private static Entry[] append(final Entry[] entries,
+                                  final Entry entry) {
+        Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+        copy[entries.length] = entry;
+        return copy;
+    }
+
+    private static Entry[] without(final Entry[] entries,
+                                   final Region region) {
+        int n = 0;
+        Entry[] copy = new Entry[entries.length];
+        for (Entry entry : entries) {
+            if (entry.region != region) copy[n++] = entry;
+        }
+
+        return n == entries.length ? entries : n == 0 ? EMPTY : Arrays.copyOf(copy, n);
+    }
+
+    private static long[] or(final long[] a,
+                             final long[] b) {
+        long[] result = Arrays.copyOf(a.length >= b.length ? a : b, Math.max(a.length, b.length));
+        long[] other = a.length >= b.length ? b : a;
+        for (int i = 0; i < other.length; i++) {
+            result[i] |= other[i];
+        }
+
+        return result;
+    }
+
+    private static boolean get(final long[] bits,
+                               final int bit) {
+        int word = bit >>> 6;
+        return word < bits.length && (bits[word] & (1L << bit)) != 0;
+    }
+
+    private static final class WorldIndex {
+
+        // Guarded by the index, read through the published table
+        private final Map<Long, Bucket> buckets = new HashMap<>();
+        private volatile ChunkTable table = new ChunkTable(buckets);
+        private volatile Bucket large = new Bucket(EMPTY);
+
+        private void publish() {
+            table = new ChunkTable(buckets);
+        }
+    }
+
+    /**
+     * Immutable open addressing table of the buckets by chunk key, so
+     * lookups don't box the key.
+     */
+    private static final class ChunkTable {
+
+        private final long[] keys;
+        private final Bucket[] buckets;
+        private final int mask;
+
+        private ChunkTable(final Map<Long, Bucket> buckets) {
+            int capacity = Integer.highestOneBit(Math.max(2, buckets.size() * 2) - 1) << 1;
+            this.keys = new long[capacity];
+            this.buckets = new Bucket[capacity];
+            this.mask = capacity - 1;
+
+            for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                int i = index(entry.getKey());
+                while (this.buckets[i] != null) i = (i + 1) & mask;
+                this.keys[i] = entry.getKey();
+                this.buckets[i] = entry.getValue();
+            }
+        }
+
+        private Bucket get(final long key) {
+            for (int i = index(key); buckets[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return buckets[i];
+            }
+
+            return null;
+        }
+
+        private int index(final long key) {
+            long h = key * 0x9e3779b97f4a7c15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * The regions overlapping a chunk with the flags any of them denies.
+     */
+    private static final class Bucket {
+
+        private final Entry[] entries;
+        private final long[] denied;
+
+        private Bucket(final Entry[] entries) {
+            this.entries = entries;
+
+            long[] denied = NONE;
+            for (Entry entry : entries) {
+                denied = or(denied, entry.denied);
+            }
+            this.denied = denied;
+        }
+
+        private boolean denies(final int flag,
+                               final int x,
+                               final int y,
+                               final int z) {
+            if (!get(denied, flag)) return false;
+
+            for (Entry entry : entries) {
+                if (get(entry.denied, flag) && entry.bounds(x, y, z) && entry.region.contains(x, y, z)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * A region with its bounding box and denied flags, which are cached since
+     * {@link Region#getMinX()} and friends are computed on every call.
+     */
+    private static final class Entry {
+
+        private final Region region;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final long[] denied;
+
+        private Entry(final Region region) {
+            this.region = region;
+            this.minX = region.getMinX();
+            this.minY = region.getMinY();
+            this.minZ = region.getMinZ();
+            this.maxX = region.getMaxX();
+            this.maxY = region.getMaxY();
+            this.maxZ = region.getMaxZ();
+
+            long[] denied = NONE;
+            for (Map.Entry<Flag, Boolean> flag : region.getFlags().entrySet()) {
+                if (!Boolean.FALSE.equals(flag.getValue())) continue;
+
+                int id = flag.getKey().getId();
+                if (id >>> 6 >= denied.length) denied = Arrays.copyOf(denied, (id >>> 6) + 1);
+                denied[id >>> 6] |= 1L << id;
+            }
+            this.denied = denied;
+        }
+
+        private long getChunks() {
+            return ((long) (maxX >> 4) - (minX >> 4) + 1) * ((long) (maxZ >> 4) - (minZ >> 4) + 1);
+        }
+
+        private boolean bounds(final int x,
+                               final int y,
+                               final int z) {
+            return x >= minX && x <= maxX
+                    && y >= minY && y <= maxY
+                    && z >= minZ && z <= maxZ;
+        }
+    }
+}
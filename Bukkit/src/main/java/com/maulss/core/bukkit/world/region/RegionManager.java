@@ -8,7 +8,10 @@ package com.maulss.core.bukkit.world.region;
 
 import com.google.common.collect.ImmutableList;
 import com.maulss.core.bukkit.Core;
+import com.maulss.core.bukkit.world.Position;
+import com.maulss.core.bukkit.world.region.flag.Flag;
 import com.maulss.core.bukkit.world.region.type.RegionType;
+import com.maulss.core.math.Vector3D;
 import com.maulss.core.text.StringUtil;
 import com.maulss.core.util.FileUtil;
 import org.apache.commons.lang3.Validate;
@@ -18,6 +21,8 @@ import org.bukkit.configuration.serialization.ConfigurationSerialization;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.maulss.core.bukkit.CoreLogger.*;
@@ -30,6 +35,7 @@ public final class RegionManager {
             + File.separator
             + "regions.json";
     private final RegionList regions = new RegionList();
+    private final RegionIndex index = new RegionIndex();
     private boolean loaded = false;
 
     private RegionManager() {}
@@ -42,6 +48,7 @@ public final class RegionManager {
         Regions.validateRegion(region);
 
         regions.add(region);
+        index.add(region);
 
         debug(
                 "Registered %s region #%s: %s",
@@ -68,6 +75,49 @@ public final class RegionManager {
         return regions;
     }
 
+    public boolean unregister(Region region) {
+        Validate.notNull(region);
+        int i = regions.indexOf(region);
+        if (i == -1) return false;
+
+        // the index holds the registered instance
+        region = regions.remove(i);
+        index.remove(region);
+        debug("Unregistered %s region: %s", region.getType(), region);
+        return true;
+    }
+
+    /**
+     * Updates the index after a registered region changed, such as when a
+     * flag was added.  Does nothing if the region isn't registered.
+     *
+     * @param region the region that changed
+     */
+    public void refresh(Region region) {
+        Validate.notNull(region);
+        index.refresh(region);
+    }
+
+    /**
+     * @param flag the flag to check
+     * @return whether any registered region denies the flag
+     */
+    public boolean isDenied(Flag flag) {
+        return index.isDenied(flag.getId());
+    }
+
+    /**
+     * Checks if a block is inside a registered region denying a flag.  This
+     * doesn't create any objects, so it can be called for every event.
+     *
+     * @param flag  the flag to check
+     * @param world the name of the world of the block
+     * @return whether the flag is denied at the block
+     */
+    public boolean isDenied(Flag flag, String world, int x, int y, int z) {
+        return index.isDenied(flag.getId(), world, x, y, z);
+    }
+
     public boolean isRegistered(Region region) {
         return regions.contains(region);
     }
@@ -127,7 +177,44 @@ public final class RegionManager {
     }
 
     public ImmutableList<Region> getRegions(RegionCriteria criteria) {
-        return criteria.searchIn(regions).getImmutableElements();
+        Optional<List<String>> worlds = criteria.getWorlds();
+        Optional<List<Vector3D>> coords = criteria.getCoords();
+
+        // without a world and a point every region has to be checked
+        if (!worlds.isPresent() || !coords.isPresent() || coords.get().isEmpty())
+            return criteria.searchIn(regions).getImmutableElements();
+
+        // a region containing every point must contain the first one, so
+        // only the regions of its chunk are candidates
+        RegionList candidates = new RegionList();
+        Vector3D point = coords.get().get(0);
+        for (String world : worlds.get())
+            index.query(world, point, candidates);
+
+        return criteria.searchIn(candidates).getImmutableElements();
+    }
+
+    /**
+     * Gets every registered region containing a point, using the spatial
+     * index rather than checking each region.
+     *
+     * @param world
+     *         name of the world of the point
+     * @param point
+     *         the point to check
+     * @return the regions which contain the point
+     */
+    public ImmutableList<Region> getRegionsAt(String world, Vector3D point) {
+        Validate.notNull(world);
+        Validate.notNull(point);
+
+        RegionList containing = new RegionList();
+        index.query(world, point, containing);
+        return containing.getImmutableElements();
+    }
+
+    public ImmutableList<Region> getRegionsAt(Position position) {
+        return getRegionsAt(position.getWorld(), position);
     }
 
     public ImmutableList<Region> getRegions() {
@@ -92,7 +92,7 @@ public final class Regions {
         return reg;
     }
 
-    public static synchronized RegionManager getManager() {
+    public static RegionManager getManager() {
         return RegionManager.INSTANCE;
     }
 }
\ No newline at end of file
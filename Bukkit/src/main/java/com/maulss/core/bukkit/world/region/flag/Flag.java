@@ -1,21 +1,16 @@
 package com.maulss.core.bukkit.world.region.flag;
 
-import com.maulss.core.bukkit.Core;
-import com.maulss.core.bukkit.world.Position;
-import com.maulss.core.bukkit.world.region.Region;
-import com.maulss.core.bukkit.world.region.RegionCriteria;
+import com.maulss.core.bukkit.world.region.RegionManager;
 import com.maulss.core.bukkit.world.region.Regions;
 import com.maulss.core.collect.EnhancedList;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.event.*;
 import org.bukkit.plugin.EventExecutor;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -24,7 +19,6 @@ import static org.apache.commons.lang3.Validate.notNull;
 
 public class Flag<E extends Event & Cancellable> implements EventExecutor {
 
-    private static final EventPriority EVENT_PRIORITY = EventPriority.MONITOR;
     private static final EnhancedList<Flag> ALL_FLAGS = new EnhancedList<>();
 
     public static final Flag
@@ -58,22 +52,31 @@ public class Flag<E extends Event & Cancellable> implements EventExecutor {
 
     protected String flagName;
     protected transient IFlag<E> flag;
+    private final transient int id;
 
     protected Flag(final IFlag<E> flag) {
         this.flag = flag;
-        ALL_FLAGS.add(this);
-        Bukkit.getPluginManager().registerEvent(
-                flag.getEvent(),
-                new Listener() {},
-                EVENT_PRIORITY,
-                this, Core.get()
-        );
+
+        synchronized (ALL_FLAGS) {
+            this.id = ALL_FLAGS.size();
+            ALL_FLAGS.add(this);
+        }
+
+        FlagDispatcher.register(this, flag.getEvent());
     }
 
     public String getName() {
         return flagName;
     }
 
+    /**
+     * @return the index of the flag in the order flags were created, used
+     * by {@link #from(int)} and the region index's flag bitsets
+     */
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return flagName;
@@ -90,6 +93,11 @@ public class Flag<E extends Event & Cancellable> implements EventExecutor {
         if (!flag.getEvent().isInstance(providedEvent))
             return; // wrong event
 
+        RegionManager regions = Regions.getManager();
+
+        if (!regions.isDenied(this))
+            return; // no region denies this flag
+
         E event = (E) providedEvent;
         Optional<Predicate<E>> predicate = flag.onCondition();
 
@@ -102,16 +110,9 @@ public class Flag<E extends Event & Cancellable> implements EventExecutor {
             throw new EventException("Flag action event "
                     + flagName + " must contain location of action: ");
 
-        Position location = new Position(loc);
-
-        // obtain registered regions with current flag registered
-        List<Region> regions = Regions.getRegions(new RegionCriteria()
-                .in(loc.getWorld())
-                .at(location)
-                .withFlags(new FlagMap(this, true)));
-
-        // there should be maximum 1 region with this criteria
-        if (regions.isEmpty()) return;
+        // check the regions of the chunk denying this flag
+        if (!regions.isDenied(this, loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()))
+            return;
 
         // cancel the event if criteria matches
         event.setCancelled(true);
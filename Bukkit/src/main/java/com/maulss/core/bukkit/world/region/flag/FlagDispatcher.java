@@ -0,0 +1,67 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 2:20 PM.
+ */
+
+package com.maulss.core.bukkit.world.region.flag;
+
+import com.maulss.core.bukkit.Core;
+import org.bukkit.Bukkit;
+import org.bukkit.event.*;
+import org.bukkit.plugin.EventExecutor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dispatch table of the {@link Flag}s by the event they are checked on.
+ *
+ * <p>A single executor is registered for each event class, which runs every
+ * flag of that event in the order they were created.</p>
+ */
+final class FlagDispatcher {
+
+    private static final EventPriority EVENT_PRIORITY = EventPriority.MONITOR;
+
+    // Guarded by FlagDispatcher.class
+    private static final Map<Class<? extends Event>, Dispatch> TABLE = new HashMap<>();
+
+    private FlagDispatcher() {}
+
+    /**
+     * Adds a flag to the table, registering an executor for its event if it
+     * is the first flag of that event.
+     */
+    static synchronized void register(final Flag<?> flag,
+                                      final Class<? extends Event> event) {
+        Dispatch dispatch = TABLE.get(event);
+        if (dispatch == null) {
+            TABLE.put(event, dispatch = new Dispatch());
+            Bukkit.getPluginManager().registerEvent(
+                    event,
+                    new Listener() {},
+                    EVENT_PRIORITY,
+                    dispatch, Core.get()
+            );
+        }
+
+        Flag<?>[] flags = Arrays.copyOf(dispatch.flags, dispatch.flags.length + 1);
+        flags[dispatch.flags.length] = flag;
+        dispatch.flags = flags;
+    }
+
+    private static final class Dispatch implements EventExecutor {
+
+        private volatile Flag<?>[] flags = new Flag<?>[0];
+
+        @Override
+        public void execute(final Listener listener,
+                            final Event event) throws EventException {
+            for (Flag<?> flag : flags) {
+                flag.execute(listener, event);
+            }
+        }
+    }
+}
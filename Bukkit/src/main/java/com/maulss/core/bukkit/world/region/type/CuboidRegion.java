@@ -6,7 +6,6 @@
 
 package com.maulss.core.bukkit.world.region.type;
 
-import com.google.common.collect.ImmutableList;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
 import com.maulss.core.bukkit.world.region.Region;
@@ -19,7 +18,6 @@ import com.maulss.core.bukkit.world.schematic.SchematicType;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.collect.EnhancedMap;
 import com.maulss.core.math.Vector3D;
-import com.maulss.core.math.Vector3DList;
 import com.maulss.core.util.MathUtil;
 import org.apache.commons.lang3.Validate;
 import org.bukkit.Bukkit;
@@ -35,7 +33,6 @@ public class CuboidRegion extends Region {
     private final Vector3D min, max;
 
     // do not serialize these
-    private transient Vector3DList points;
     private transient int volume, length, width, height;
 
     public CuboidRegion(final String world,
@@ -51,13 +48,7 @@ public class CuboidRegion extends Region {
 
     @Override
     public void calculate() {
-        points = new Vector3DList();
-
-        // find points in region
-        for (int x = getMinX(); x <= getMaxX(); x++)
-            for (int y = getMinY(); y <= getMaxY(); y++)
-                for (int z = getMinZ(); z <= getMaxZ(); z++)
-                    points.add(new Vector3D(x, y, z));
+        calculateBounds();
 
         // calculate dimensions
         length  = MathUtil.floor(getMaxX() - getMinX() + 1);
@@ -65,7 +56,7 @@ public class CuboidRegion extends Region {
         width   = MathUtil.floor(getMaxZ() - getMinZ() + 1);
         volume  = width * height * length;
 
-        CoreLogger.debug("CUBOID: Measured volume: %s; Calculated volume: %s", points.size(), volume);
+        CoreLogger.debug("CUBOID: Calculated volume: %s", volume);
     }
 
     @Override
@@ -110,19 +101,19 @@ public class CuboidRegion extends Region {
         Validate.notNull(name);
         Validate.notNull(schemType);
 
-        short[] blocks = new short[points.size()];
-        byte[] blockData = new byte[points.size()];
-        int x = 0;
-        for (Vector3D point : points) {
-            Block block = world.getBlockAt(
-                    point.getFloorX(),
-                    point.getFloorY(),
-                    point.getFloorZ()
-            );
-
-            blocks[x] = (byte) block.getTypeId();
-            blockData[x] = block.getData();
-            x++;
+        short[] blocks = new short[volume];
+        byte[] blockData = new byte[volume];
+        int i = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Block block = world.getBlockAt(x, y, z);
+
+                    blocks[i] = (byte) block.getTypeId();
+                    blockData[i] = block.getData();
+                    i++;
+                }
+            }
         }
 
         SchematicData data = new SchematicData(
@@ -136,27 +127,65 @@ public class CuboidRegion extends Region {
 
     @Override
     public boolean contains(Vector3D vector) {
-        return vector.getX() >= minX
-                && vector.getX() <= maxX
-                && vector.getY() >= minY
-                && vector.getY() <= maxY
-                && vector.getZ() >= minZ
-                && vector.getZ() <= maxZ;
+        return contains(vector.getFloorX(), vector.getFloorY(), vector.getFloorZ());
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX
+                && y >= minY && y <= maxY
+                && z >= minZ && z <= maxZ;
+    }
+
+    @Override
+    public boolean contains(Region region) {
+        // everything in the other region is within its bounds
+        return getWorld().equals(region.getWorld())
+                && region.getMinX() >= minX && region.getMaxX() <= maxX
+                && region.getMinY() >= minY && region.getMaxY() <= maxY
+                && region.getMinZ() >= minZ && region.getMaxZ() <= maxZ
+                || super.contains(region);
+    }
+
+    @Override
+    public boolean intersects(Region region) {
+        if (!(region instanceof CuboidRegion)) return super.intersects(region);
+
+        // two cuboids intersect if their bounds overlap
+        return getWorld().equals(region.getWorld())
+                && region.getMinX() <= maxX && region.getMaxX() >= minX
+                && region.getMinY() <= maxY && region.getMaxY() >= minY
+                && region.getMinZ() <= maxZ && region.getMaxZ() >= minZ;
+    }
+
+    @Override
+    protected boolean isConvex() {
+        return true;
+    }
+
+    @Override
+    protected int getColumnBottom(int x, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ ? minY : Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected int getColumnTop(int x, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ ? maxY : Integer.MIN_VALUE;
     }
 
     @Override
     public EnhancedList<Vector3D> getWalls() {
         EnhancedList<Vector3D> points = new EnhancedList<>();
 
-        for (Vector3D vector : this) {
-            int x = vector.getFloorX();
-            int y = vector.getFloorY();
-            int z = vector.getFloorZ();
+        // walk the six faces only, skipping the inside of the cuboid
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                boolean side = x == minX || x == maxX || y == minY || y == maxY;
+                int step = side ? 1 : Math.max(1, maxZ - minZ);
 
-            if (x == minX || x == maxX ||
-                    y == minY || y == maxY ||
-                    z == minZ || z == maxZ) {
-                points.add(vector);
+                for (int z = minZ; z <= maxZ; z += step) {
+                    points.add(new Vector3D(x, y, z));
+                }
             }
         }
 
@@ -167,28 +196,38 @@ public class CuboidRegion extends Region {
     public EnhancedList<Vector3D> getEdges() {
         EnhancedList<Vector3D> points = new EnhancedList<>();
 
-        for (Vector3D vector : this) {
-            int x = vector.getFloorX();
-            int y = vector.getFloorY();
-            int z = vector.getFloorZ();
+        // the twelve lines between the corners, each corner added once
+        for (int x = minX; x <= maxX; x++) {
+            for (int y : new int[] {minY, maxY}) {
+                for (int z : new int[] {minZ, maxZ}) {
+                    points.add(new Vector3D(x, y, z));
+                    if (minZ == maxZ) break;
+                }
+                if (minY == maxY) break;
+            }
+        }
 
-            boolean edge = false;
+        for (int x : new int[] {minX, maxX}) {
+            for (int y = minY + 1; y < maxY; y++) {
+                for (int z : new int[] {minZ, maxZ}) {
+                    points.add(new Vector3D(x, y, z));
+                    if (minZ == maxZ) break;
+                }
+            }
 
-            if ((x == minX || x == maxX) && (y == minY || y == maxY)) edge = true;
-            if ((z == minZ || z == maxZ) && (y == minY || y == maxY)) edge = true;
-            if ((x == minX || x == maxX) && (z == minZ || z == maxZ)) edge = true;
+            for (int y : new int[] {minY, maxY}) {
+                for (int z = minZ + 1; z < maxZ; z++) {
+                    points.add(new Vector3D(x, y, z));
+                }
+                if (minY == maxY) break;
+            }
 
-            points.addIf(edge, vector);
+            if (minX == maxX) break;
         }
 
         return points;
     }
 
-    @Override
-    public ImmutableList<Vector3D> getPoints() {
-        return points.getImmutableElements();
-    }
-
     @Override
     public RegionType getType() {
         return RegionType.CUBOID;
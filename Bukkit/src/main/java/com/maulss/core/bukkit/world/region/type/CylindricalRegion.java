@@ -7,7 +7,6 @@
 package com.maulss.core.bukkit.world.region.type;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ImmutableList;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
 import com.maulss.core.bukkit.world.region.Region;
@@ -16,7 +15,6 @@ import com.maulss.core.bukkit.world.region.Regions;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.collect.EnhancedMap;
 import com.maulss.core.math.Vector3D;
-import com.maulss.core.math.Vector3DList;
 import com.maulss.core.util.MathUtil;
 import org.apache.commons.lang3.Validate;
 
@@ -31,7 +29,6 @@ public class CylindricalRegion extends Region {
     private final int radius, height;
 
     // do not serialize these
-    private transient Vector3DList points;
     private transient Vector3D min, max;
     private transient int volume;
 
@@ -49,12 +46,6 @@ public class CylindricalRegion extends Region {
 
     @Override
     public void calculate() {
-        // TODO: calculate points
-        points = new Vector3DList();
-
-        // find points in region
-
-
         // calculate dimensions
         volume = MathUtil.round(Math.PI * Math.pow(radius, 2) * height);
 
@@ -70,7 +61,9 @@ public class CylindricalRegion extends Region {
                 base.getZ() + radius
         );
 
-        CoreLogger.debug("CYLINDER: Measured volume: %s; Calculated volume: %s", points.size(), volume);
+        calculateBounds();
+
+        CoreLogger.debug("CYLINDER: Calculated volume: %s", volume);
     }
 
     public Vector3D getBase() {
@@ -102,24 +95,62 @@ public class CylindricalRegion extends Region {
 
     @Override
     public boolean contains(Vector3D vector) {
-        return vector.getY() >= base.getY()
-                && vector.getY() <= base.getY() + height
-                && Math.pow(vector.getX() - base.getX(), 2) + Math.pow(vector.getZ() - base.getZ(), 2) < Math.pow(radius, 2);
+        return contains(vector.getFloorX(), vector.getFloorY(), vector.getFloorZ());
     }
 
     @Override
-    public EnhancedList<Vector3D> getWalls() {
-        throw new UnsupportedOperationException();
+    public boolean contains(int x, int y, int z) {
+        double dx = x - base.getX(), dz = z - base.getZ();
+        return y >= base.getY()
+                && y <= base.getY() + height
+                && dx * dx + dz * dz < radius * radius;
     }
 
     @Override
-    public EnhancedList<Vector3D> getEdges() {
-        throw new UnsupportedOperationException();
+    protected boolean isConvex() {
+        return true;
+    }
+
+    @Override
+    protected int getColumnBottom(int x, int z) {
+        return isInside(x, z) ? base.getFloorY() : Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected int getColumnTop(int x, int z) {
+        return isInside(x, z) ? base.getFloorY() + height : Integer.MIN_VALUE;
+    }
+
+    private boolean isInside(int x, int z) {
+        double dx = x - base.getX(), dz = z - base.getZ();
+        return dx * dx + dz * dz < radius * radius;
+    }
+
+    @Override
+    public EnhancedList<Vector3D> getWalls() {
+        return getColumnWalls();
     }
 
+    /**
+     * @return the rims of the top and bottom of the cylinder
+     */
     @Override
-    public ImmutableList<Vector3D> getPoints() {
-        return points.getImmutableElements();
+    public EnhancedList<Vector3D> getEdges() {
+        EnhancedList<Vector3D> points = new EnhancedList<>();
+        int bottom = base.getFloorY(), top = bottom + height;
+
+        // the columns on the side of the circle
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                if (!isInside(x, z) || isInside(x + 1, z) && isInside(x - 1, z)
+                        && isInside(x, z + 1) && isInside(x, z - 1)) continue;
+
+                points.add(new Vector3D(x, bottom, z));
+                if (top != bottom) points.add(new Vector3D(x, top, z));
+            }
+        }
+
+        return points;
     }
 
     @Override
@@ -7,7 +7,6 @@
 package com.maulss.core.bukkit.world.region.type;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ImmutableList;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
 import com.maulss.core.bukkit.world.region.Region;
@@ -16,7 +15,6 @@ import com.maulss.core.bukkit.world.region.Regions;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.collect.EnhancedMap;
 import com.maulss.core.math.Vector3D;
-import com.maulss.core.math.Vector3DList;
 import org.apache.commons.lang3.Validate;
 
 import java.util.Map;
@@ -30,37 +28,63 @@ public class PyramidalRegion extends Region {
     private int radius, height;
 
     // do not serialize these
-    private transient Vector3DList points;
     private transient Vector3D min, max;
     private transient int volume;
 
+    /**
+     * Creates a step pyramid, which is as high as its radius.
+     *
+     * @param world  the world of the region
+     * @param base   the center of the bottom layer
+     * @param radius the distance from the center to the sides of the bottom layer
+     */
     protected PyramidalRegion(String world,
                               Vector3D base,
                               int radius) {
-        super(world);
-        this.base = Validate.notNull(base, "The base point can not be null").floor();
-
-        calculate();
+        this(world, base, Math.abs(radius), Math.abs(radius));
     }
 
+    /**
+     * Creates a step pyramid up to a peak above its base.
+     *
+     * @param world the world of the region
+     * @param base  the center of the bottom layer
+     * @param peak  the top of the pyramid, only its height is used
+     */
     protected PyramidalRegion(String world,
                               Vector3D base,
                               Vector3D peak) {
+        this(world, base, heightBetween(base, peak), heightBetween(base, peak));
+    }
+
+    protected PyramidalRegion(String world,
+                              Vector3D base,
+                              int radius,
+                              int height) {
         super(world);
         this.base = Validate.notNull(base, "The base point can not be null").floor();
+        this.radius = Math.abs(radius);
+        this.height = Math.abs(height);
 
         calculate();
     }
 
-    @Override
-    public void calculate() {
-        points = new Vector3DList();
+    private static int heightBetween(final Vector3D base,
+                                     final Vector3D peak) {
+        Validate.notNull(base, "The base point can not be null");
+        Validate.notNull(peak, "The peak point can not be null");
 
-        // TODO: find points in region
-
-
-        // TODO: calculate dimensions
+        return Math.abs(peak.getFloorY() - base.getFloorY());
+    }
 
+    @Override
+    public void calculate() {
+        // calculate dimensions, each layer is a square narrowing towards the peak
+        volume = 0;
+        for (int y = 0; y <= height; y++) {
+            int side = 2 * getRadiusAt(y) + 1;
+            volume += side * side;
+        }
 
         min = new Vector3D(
                 base.getX() - radius,
@@ -74,7 +98,19 @@ public class PyramidalRegion extends Region {
                 base.getZ() + radius
         );
 
-        CoreLogger.debug("PYRAMID: Measured volume: %s; Calculated volume: %s", points.size(), volume);
+        calculateBounds();
+
+        CoreLogger.debug("PYRAMID: Calculated volume: %s", volume);
+    }
+
+    /**
+     * @param layer the layer above the base, {@code 0} being the base itself
+     * @return the distance from the center to the sides of the layer
+     */
+    public int getRadiusAt(int layer) {
+        if (layer < 0 || layer > height) return -1;
+        if (height == 0) return radius;
+        return radius * (height - layer) / height;
     }
 
     public Vector3D getBase() {
@@ -106,22 +142,81 @@ public class PyramidalRegion extends Region {
 
     @Override
     public boolean contains(Vector3D vector) {
-        throw new UnsupportedOperationException();
+        return contains(vector.getFloorX(), vector.getFloorY(), vector.getFloorZ());
     }
 
     @Override
-    public EnhancedList<Vector3D> getWalls() {
-        throw new UnsupportedOperationException();
+    public boolean contains(int x, int y, int z) {
+        int r = getRadiusAt(y - base.getFloorY());
+        return Math.abs(x - base.getFloorX()) <= r
+                && Math.abs(z - base.getFloorZ()) <= r;
     }
 
     @Override
-    public EnhancedList<Vector3D> getEdges() {
-        throw new UnsupportedOperationException();
+    protected boolean isConvex() {
+        return true;
+    }
+
+    @Override
+    protected int getColumnBottom(int x, int z) {
+        return getTopLayer(x, z) < 0 ? Integer.MAX_VALUE : base.getFloorY();
+    }
+
+    @Override
+    protected int getColumnTop(int x, int z) {
+        int layer = getTopLayer(x, z);
+        return layer < 0 ? Integer.MIN_VALUE : base.getFloorY() + layer;
+    }
+
+    /**
+     * @return the highest layer whose square covers the column, or {@code -1}
+     * if none does
+     */
+    private int getTopLayer(int x, int z) {
+        long distance = Math.max(Math.abs(x - base.getFloorX()), Math.abs(z - base.getFloorZ()));
+        if (distance > radius) return -1;
+        if (height == 0 || radius == 0) return height;
+
+        // radius * (height - layer) / height >= distance, rounded like getRadiusAt
+        long needed = (distance * height + radius - 1) / radius;
+        return (int) (height - needed);
     }
 
     @Override
-    public ImmutableList<Vector3D> getPoints() {
-        return points.getImmutableElements();
+    public EnhancedList<Vector3D> getWalls() {
+        return getColumnWalls();
+    }
+
+    /**
+     * @return the sides of the base and the lines from its corners to the peak
+     */
+    @Override
+    public EnhancedList<Vector3D> getEdges() {
+        EnhancedList<Vector3D> points = new EnhancedList<>();
+        int bx = base.getFloorX(), by = base.getFloorY(), bz = base.getFloorZ();
+
+        // the sides of the base
+        for (int i = -radius; i <= radius; i++) {
+            points.add(new Vector3D(bx + i, by, bz - radius));
+            if (radius != 0) points.add(new Vector3D(bx + i, by, bz + radius));
+        }
+        for (int i = -radius + 1; i < radius; i++) {
+            points.add(new Vector3D(bx - radius, by, bz + i));
+            points.add(new Vector3D(bx + radius, by, bz + i));
+        }
+
+        // the corners of every layer above it
+        for (int layer = 1; layer <= height; layer++) {
+            int r = getRadiusAt(layer);
+            points.add(new Vector3D(bx - r, by + layer, bz - r));
+            if (r == 0) continue;
+
+            points.add(new Vector3D(bx + r, by + layer, bz - r));
+            points.add(new Vector3D(bx - r, by + layer, bz + r));
+            points.add(new Vector3D(bx + r, by + layer, bz + r));
+        }
+
+        return points;
     }
 
     @Override
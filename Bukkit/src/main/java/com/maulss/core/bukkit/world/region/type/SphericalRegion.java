@@ -7,7 +7,6 @@
 package com.maulss.core.bukkit.world.region.type;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ImmutableList;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
 import com.maulss.core.bukkit.world.region.Region;
@@ -16,7 +15,6 @@ import com.maulss.core.bukkit.world.region.Regions;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.collect.EnhancedMap;
 import com.maulss.core.math.Vector3D;
-import com.maulss.core.math.Vector3DList;
 import com.maulss.core.util.MathUtil;
 import org.apache.commons.lang3.Validate;
 
@@ -31,7 +29,6 @@ public class SphericalRegion extends Region {
     private final int radius;
 
     // do not serialize these
-    private transient Vector3DList points;
     private transient int volume;
     private transient Vector3D min, max;
 
@@ -47,24 +44,14 @@ public class SphericalRegion extends Region {
 
     @Override
     public void calculate() {
-        points = new Vector3DList();
-
-        int xCoord = (int) center.getX();
-        int yCoord = (int) center.getY();
-        int zCoord = (int) center.getZ();
-
-        // find points in region
-        for (int x = -radius; x <= radius; x++)
-            for (int z = -radius; z <= radius; z++)
-                for (int y = -radius; y <= radius; y++)
-                    points.add(new Vector3D(xCoord + x, yCoord + y, zCoord + z));
-
         // calculate dimensions
         volume  = MathUtil.round(4 * Math.PI * Math.pow(radius, 3) / 3);
         min     = center.clone().subtract(radius);
         max     = center.clone().add(radius);
 
-        CoreLogger.debug("SPHERE: Measured volume: %s; Calculated volume: %s", points.size(), volume);
+        calculateBounds();
+
+        CoreLogger.debug("SPHERE: Calculated volume: %s", volume);
     }
 
     public Vector3D getCenter() {
@@ -92,22 +79,85 @@ public class SphericalRegion extends Region {
 
     @Override
     public boolean contains(Vector3D vector) {
-        return center.distanceSquared(vector) <= Math.pow(radius, 2);
+        return contains(vector.getFloorX(), vector.getFloorY(), vector.getFloorZ());
     }
 
     @Override
-    public EnhancedList<Vector3D> getWalls() {
-        throw new UnsupportedOperationException();
+    public boolean contains(int x, int y, int z) {
+        double dx = x - center.getX(), dy = y - center.getY(), dz = z - center.getZ();
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
     }
 
     @Override
-    public EnhancedList<Vector3D> getEdges() {
-        throw new UnsupportedOperationException();
+    public boolean contains(Region region) {
+        if (region instanceof SphericalRegion && getWorld().equals(region.getWorld())) {
+            // every block of a sphere inside this one is in this one too
+            SphericalRegion other = (SphericalRegion) region;
+            double reach = radius - other.radius;
+            if (reach >= 0 && center.distanceSquared(other.center) <= reach * reach) return true;
+        }
+
+        return super.contains(region);
+    }
+
+    @Override
+    public boolean intersects(Region region) {
+        if (!(region instanceof SphericalRegion)) return super.intersects(region);
+
+        // two spheres intersect if their centers are close enough
+        SphericalRegion other = (SphericalRegion) region;
+        double reach = radius + other.radius;
+        return getWorld().equals(other.getWorld())
+                && center.distanceSquared(other.center) <= reach * reach
+                && super.intersects(region);
+    }
+
+    @Override
+    protected boolean isConvex() {
+        return true;
     }
 
     @Override
-    public ImmutableList<Vector3D> getPoints() {
-        return points.getImmutableElements();
+    protected int getColumnBottom(int x, int z) {
+        int half = getHalfHeight(x, z);
+        return half < 0 ? Integer.MAX_VALUE : center.getFloorY() - half;
+    }
+
+    @Override
+    protected int getColumnTop(int x, int z) {
+        int half = getHalfHeight(x, z);
+        return half < 0 ? Integer.MIN_VALUE : center.getFloorY() + half;
+    }
+
+    /**
+     * @return how far the column reaches above and below the center, or
+     * {@code -1} if it's outside the sphere
+     */
+    private int getHalfHeight(int x, int z) {
+        long dx = x - center.getFloorX(), dz = z - center.getFloorZ();
+        long left = (long) radius * radius - dx * dx - dz * dz;
+        if (left < 0) return -1;
+
+        // the largest half height whose square fits, correcting the root's rounding
+        long half = (long) Math.sqrt(left);
+        while (half * half > left) half--;
+        while ((half + 1) * (half + 1) <= left) half++;
+        return (int) half;
+    }
+
+    @Override
+    public EnhancedList<Vector3D> getWalls() {
+        return getColumnWalls();
+    }
+
+    /**
+     * A sphere has no edges.
+     *
+     * @return an empty list
+     */
+    @Override
+    public EnhancedList<Vector3D> getEdges() {
+        return new EnhancedList<>();
     }
 
     @Override
@@ -6,15 +6,11 @@
 
 package com.maulss.core.bukkit.world.schematic;
 
-import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
-import com.maulss.core.bukkit.world.Position;
-import com.maulss.core.math.Vector3D;
 import com.maulss.core.bukkit.world.schematic.codec.SchematicCodecException;
 import com.maulss.core.bukkit.world.schematic.codec.SchematicCodecFactory;
 import org.apache.commons.lang3.Validate;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -52,34 +48,10 @@ public class CuboidSchematic extends AbstractSchematic {
     public boolean paste(final Location baseLocation) {
         Validate.notNull(baseLocation);
 
-        short[] blocks = data.getBlocks();
-        byte[] blockData = data.getBlockData();
-
-        Vector3D size = data.getSize();
-        int width = size.getFloorX();
-        int height = size.getFloorY();
-        int length = size.getFloorZ();
-
-        for (int x = 0; x < width; ++x) {
-            for (int y = 0; y < height; ++y) {
-                for (int z = 0; z < length; ++z) {
-                    int index = y * width * length + z * width + x;
-                    Block block = new Location(
-                            baseLocation.getWorld(),
-                            x + baseLocation.getX(),
-                            y + baseLocation.getY(),
-                            z + baseLocation.getZ()
-                    ).getBlock();
-                    block.setTypeIdAndData(blocks[index], blockData[index], true);
-                    Core.get().debug("Block pasted at %s", block.getLocation());
-
-                    // TODO: Update block's NBT data to add tile entities
-                }
-            }
-        }
-
-        CoreLogger.debug("Pasted %s @ %s", getFullName(), new Position(baseLocation));
-
-        return true;
+        // Paste everything now, still batched by chunk with physics deferred
+        return !new SchematicPaste(this, baseLocation)
+                .run()
+                .getFuture()
+                .isCompletedExceptionally();
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 6:20 PM.
+ */
+
+package com.maulss.core.bukkit.world.schematic;
+
+import com.maulss.core.math.Vector3D;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.bukkit.Location;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A schematic of the {@link Schematics} library, of which only the size is
+ * known until its data is first used.
+ *
+ * <p>Data is decoded on the library's workers and kept in its cache, which
+ * may evict it again when the cache is full.</p>
+ */
+public final class LibrarySchematic extends AbstractSchematic {
+
+    private final File file;
+    private final Vector3D size;
+
+    LibrarySchematic(final File file,
+                     final Vector3D size) {
+        super(file);
+        this.file = file;
+        this.size = Validate.notNull(size);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the size, which is known without decoding the data
+     */
+    public Vector3D getSize() {
+        return size;
+    }
+
+    /**
+     * @return the size of the data in memory once decoded
+     */
+    public long getDecodedSize() {
+        return (long) size.getFloorX() * size.getFloorY() * size.getFloorZ() * 3;
+    }
+
+    /**
+     * @return whether the data is in the library's cache
+     */
+    public boolean isLoaded() {
+        return Schematics.isCached(this);
+    }
+
+    /**
+     * Gets the data, decoding it on the calling thread's behalf if it isn't
+     * cached.  Prefer {@link #getDataAsync()} on the main thread.
+     *
+     * @throws IllegalStateException if the data could not be decoded
+     */
+    @Override
+    public SchematicData getData() {
+        try {
+            return getDataAsync().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not load schematic " + getFullName(), e.getCause());
+        }
+    }
+
+    /**
+     * @return a future completed with the data once it was decoded
+     */
+    public CompletableFuture<SchematicData> getDataAsync() {
+        return Schematics.load(this);
+    }
+
+    @Override
+    public boolean paste(final Location baseLocation) {
+        Validate.notNull(baseLocation);
+        return !new SchematicPaste(this, getData(), baseLocation)
+                .run()
+                .getFuture()
+                .isCompletedExceptionally();
+    }
+
+    /**
+     * Decodes the data off the main thread before pasting.
+     */
+    @Override
+    public CompletableFuture<SchematicPaste> pasteAsync(final Location baseLocation) {
+        Validate.notNull(baseLocation);
+        return getDataAsync().thenCompose(data -> new SchematicPaste(this, data, baseLocation).start());
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("name", getFullName())
+                .append("size", size)
+                .append("loaded", isLoaded())
+                .toString();
+    }
+}
@@ -14,6 +14,7 @@ import org.bukkit.World;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
 
 public interface Schematic extends Serializable {
 
@@ -27,6 +28,16 @@ public interface Schematic extends Serializable {
 
     boolean paste(final Location baseLocation);
 
+    /**
+     * Pastes this schematic over as many ticks as needed, see {@link
+     * SchematicPaste} for more options.
+     *
+     * @return a future completed with the finished paste
+     */
+    default CompletableFuture<SchematicPaste> pasteAsync(final Location baseLocation) {
+        return new SchematicPaste(this, baseLocation).start();
+    }
+
     default File save(final World world) throws SchematicCodecException {
         return SchematicCodecFactory.getFactory()
                 .getCodec(getType())
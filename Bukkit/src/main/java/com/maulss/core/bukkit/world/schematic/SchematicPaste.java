@@ -0,0 +1,432 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 3:40 PM.
+ */
+
+package com.maulss.core.bukkit.world.schematic;
+
+import com.maulss.core.bukkit.Core;
+import com.maulss.core.bukkit.CoreLogger;
+import com.maulss.core.bukkit.world.Position;
+import com.maulss.core.math.Vector3D;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pastes a {@link Schematic} one chunk at a time, spread over as many ticks
+ * as needed to stay within a time budget per tick.
+ *
+ * <p>Blocks are set without physics.  Once every block of a chunk is set,
+ * physics are applied to the changed blocks that depend on them, such as
+ * liquids, falling blocks and torches, so a chunk is only updated once.</p>
+ *
+ * <pre>
+ * new SchematicPaste(schematic, location)
+ *         .setIgnoreAir(true)
+ *         .setTickBudget(5, TimeUnit.MILLISECONDS)
+ *         .start()
+ *         .thenAccept(paste -&gt; ...);
+ * </pre>
+ */
+public final class SchematicPaste {
+
+    public static final long    DEFAULT_TICK_BUDGET_NANOS   = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Blocks set between checks of the clock
+    private static final int    CLOCK_INTERVAL              = 256;
+
+    private final Schematic schematic;
+    private final Location baseLocation;
+    private SchematicData schematicData;
+    private final CompletableFuture<SchematicPaste> future = new CompletableFuture<>();
+
+    private boolean ignoreAir = false;
+    private boolean skipUnchanged = true;
+    private boolean applyPhysics = true;
+    private long tickBudgetNanos = DEFAULT_TICK_BUDGET_NANOS;
+    private Consumer<SchematicPaste> progressListener;
+
+    // Bounds of the paste in block coordinates, inclusive
+    private int minX, minY, minZ, maxX, maxY, maxZ;
+    private int width, length;
+
+    // Cursor, chunks are pasted along x then z and blocks along x, z then y
+    private int chunkX, chunkZ, x, y, z;
+    private boolean chunkStarted;
+    private int[] physics = new int[64];
+    private int physicsCount;
+
+    private volatile boolean started;
+    private volatile long total;
+    private volatile long processed;
+    private volatile long changed;
+    private volatile int chunks;
+    private volatile int ticks;
+    private volatile long activeNanos;
+    private volatile long startedAt;
+    private volatile long completedAt;
+
+    public SchematicPaste(final Schematic schematic,
+                          final Location baseLocation) {
+        this(schematic, null, baseLocation);
+    }
+
+    // For schematics whose data was already loaded
+    SchematicPaste(final Schematic schematic,
+                   final SchematicData data,
+                   final Location baseLocation) {
+        this.schematic = Validate.notNull(schematic, "schematic");
+        this.schematicData = data;
+        this.baseLocation = Validate.notNull(baseLocation, "baseLocation").clone();
+        Validate.notNull(baseLocation.getWorld(), "world");
+    }
+
+    /**
+     * @param ignoreAir whether air in the schematic leaves the world untouched
+     */
+    public SchematicPaste setIgnoreAir(final boolean ignoreAir) {
+        checkNotStarted();
+        this.ignoreAir = ignoreAir;
+        return this;
+    }
+
+    /**
+     * @param skipUnchanged whether blocks that already match the schematic
+     *                      are left alone
+     */
+    public SchematicPaste setSkipUnchanged(final boolean skipUnchanged) {
+        checkNotStarted();
+        this.skipUnchanged = skipUnchanged;
+        return this;
+    }
+
+    public SchematicPaste setApplyPhysics(final boolean applyPhysics) {
+        checkNotStarted();
+        this.applyPhysics = applyPhysics;
+        return this;
+    }
+
+    /**
+     * Sets the time the paste may take every tick.  The clock is checked every
+     * {@value #CLOCK_INTERVAL} blocks, so a tick may go over by that many.
+     */
+    public SchematicPaste setTickBudget(final long budget,
+                                        final TimeUnit unit) {
+        checkNotStarted();
+        Validate.notNull(unit, "unit");
+        Validate.isTrue(budget > 0, "budget must be positive");
+        this.tickBudgetNanos = unit.toNanos(budget);
+        return this;
+    }
+
+    /**
+     * @param progressListener called on the main thread after every tick the
+     *                         paste ran
+     */
+    public SchematicPaste setProgressListener(final Consumer<SchematicPaste> progressListener) {
+        checkNotStarted();
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Schedules the paste to start on the next tick.
+     *
+     * @return a future completed with this paste when every block was set
+     */
+    public CompletableFuture<SchematicPaste> start() {
+        prepare();
+        new BukkitRunnable() {
+
+            @Override
+            public void run() {
+                if (!tick(tickBudgetNanos)) cancel();
+            }
+        }.runTaskTimer(Core.get(), 1, 1);
+
+        return future;
+    }
+
+    /**
+     * Pastes every block on the calling thread, which must be the main
+     * thread.
+     *
+     * @return this paste, which is completed
+     */
+    public SchematicPaste run() {
+        prepare();
+        tick(Long.MAX_VALUE);
+        return this;
+    }
+
+    /**
+     * Stops the paste after the current tick.  Blocks already set are kept.
+     *
+     * @return whether the paste was still running
+     */
+    public boolean cancel() {
+        return future.cancel(false);
+    }
+
+    public CompletableFuture<SchematicPaste> getFuture() {
+        return future;
+    }
+
+    public Schematic getSchematic() {
+        return schematic;
+    }
+
+    public Location getBaseLocation() {
+        return baseLocation.clone();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return the number of blocks in the schematic within the world's height
+     */
+    public long getTotalBlocks() {
+        return total;
+    }
+
+    public long getProcessedBlocks() {
+        return processed;
+    }
+
+    /**
+     * @return the number of blocks actually set
+     */
+    public long getChangedBlocks() {
+        return changed;
+    }
+
+    public int getPastedChunks() {
+        return chunks;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return the share of blocks processed, between {@code 0} and {@code 1}
+     */
+    public double getProgress() {
+        long total = this.total;
+        return total == 0 ? (started ? 1 : 0) : (double) processed / total;
+    }
+
+    /**
+     * @return the time spent pasting, excluding the time between ticks
+     */
+    public long getActiveMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(activeNanos);
+    }
+
+    /**
+     * @return the time from the start until now, or until completion
+     */
+    public long getElapsedMillis() {
+        if (!started) return 0;
+
+        long end = completedAt != 0 ? completedAt : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    /**
+     * @return blocks processed per millisecond spent pasting
+     */
+    public double getBlocksPerMilli() {
+        long active = activeNanos;
+        return active == 0 ? 0 : processed / (active / 1_000_000D);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("schematic", schematic.getFullName())
+                .append("location", new Position(baseLocation))
+                .append("processed", processed)
+                .append("changed", changed)
+                .append("total", total)
+                .append("chunks", chunks)
+                .append("ticks", ticks)
+                .append("activeMillis", getActiveMillis())
+                .append("blocksPerMilli", String.format("%.2f", getBlocksPerMilli()))
+                .toString();
+    }
+
+    private void checkNotStarted() {
+        Validate.validState(!started, "paste has already started");
+    }
+
+    private synchronized void prepare() {
+        checkNotStarted();
+
+        // the data of a lazily loaded schematic may be evicted while pasting
+        if (schematicData == null) schematicData = schematic.getData();
+        Vector3D size = schematicData.getSize();
+        width = size.getFloorX();
+        length = size.getFloorZ();
+
+        minX = baseLocation.getBlockX();
+        minY = Math.max(0, baseLocation.getBlockY());
+        minZ = baseLocation.getBlockZ();
+        maxX = minX + width - 1;
+        maxY = Math.min(baseLocation.getWorld().getMaxHeight(), baseLocation.getBlockY() + size.getFloorY()) - 1;
+        maxZ = minZ + length - 1;
+
+        total = maxY < minY ? 0 : (long) width * length * (maxY - minY + 1);
+        chunkX = minX >> 4;
+        chunkZ = minZ >> 4;
+        startedAt = System.nanoTime();
+        started = true;
+    }
+
+    /**
+     * Pastes until the paste is done or the budget runs out.
+     *
+     * @return whether there is more to paste
+     */
+    private boolean tick(final long budgetNanos) {
+        if (future.isDone()) return false;
+
+        long start = System.nanoTime();
+        boolean more;
+        try {
+            more = paste(start, budgetNanos);
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+            return false;
+        } finally {
+            activeNanos += System.nanoTime() - start;
+            ticks++;
+        }
+
+        if (progressListener != null) progressListener.accept(this);
+
+        if (!more) {
+            completedAt = System.nanoTime();
+            CoreLogger.debug("Pasted %s @ %s", schematic.getFullName(), this);
+            future.complete(this);
+        }
+
+        return more;
+    }
+
+    private boolean paste(final long start,
+                          final long budgetNanos) {
+        if (total == 0) return false;
+
+        World world = baseLocation.getWorld();
+        short[] blocks = schematicData.getBlocks();
+        byte[] blockData = schematicData.getBlockData();
+
+        int sinceClock = 0;
+        long processed = this.processed;
+        long changed = this.changed;
+
+        try {
+            while (chunkZ <= maxZ >> 4) {
+                int fromX = Math.max(minX, chunkX << 4), toX = Math.min(maxX, (chunkX << 4) + 15);
+                int fromZ = Math.max(minZ, chunkZ << 4), toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+
+                if (!chunkStarted) {
+                    x = fromX;
+                    z = fromZ;
+                    y = minY;
+                    physicsCount = 0;
+                    chunkStarted = true;
+                }
+
+                // loads the chunk if needed
+                Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+
+                for (; y <= maxY; y++, z = fromZ) {
+                    int layer = (y - baseLocation.getBlockY()) * width * length;
+                    for (; z <= toZ; z++, x = fromX) {
+                        int row = layer + (z - minZ) * width - minX;
+                        for (; x <= toX; x++) {
+                            if (++sinceClock == CLOCK_INTERVAL) {
+                                sinceClock = 0;
+                                if (System.nanoTime() - start >= budgetNanos) return true;
+                            }
+
+                            processed++;
+                            int index = row + x;
+                            int id = blocks[index];
+                            byte data = blockData[index];
+                            if (ignoreAir && id == 0) continue;
+
+                            Block block = chunk.getBlock(x & 15, y, z & 15);
+                            if (skipUnchanged && block.getTypeId() == id && block.getData() == data) continue;
+
+                            block.setTypeIdAndData(id, data, false);
+                            changed++;
+                            if (applyPhysics && needsPhysics(id)) {
+                                addPhysics((y << 8) | ((z & 15) << 4) | (x & 15));
+                            }
+
+                            // TODO: Update block's NBT data to add tile entities
+                        }
+                    }
+                }
+
+                // chunk complete
+                applyPhysics(chunk);
+                chunkStarted = false;
+                chunks++;
+
+                if (++chunkX > maxX >> 4) {
+                    chunkX = minX >> 4;
+                    chunkZ++;
+                }
+            }
+
+            return false;
+        } finally {
+            this.processed = processed;
+            this.changed = changed;
+        }
+    }
+
+    private void addPhysics(final int packed) {
+        if (physicsCount == physics.length) physics = Arrays.copyOf(physics, physicsCount * 2);
+        physics[physicsCount++] = packed;
+    }
+
+    private void applyPhysics(final Chunk chunk) {
+        for (int i = 0; i < physicsCount; i++) {
+            int packed = physics[i];
+            chunk.getBlock(packed & 15, packed >>> 8, (packed >> 4) & 15)
+                    .getState()
+                    .update(true, true);
+        }
+
+        physicsCount = 0;
+    }
+
+    /**
+     * @return whether a block may change or break without physics, such as
+     * liquids, falling blocks and attached blocks
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean needsPhysics(final int id) {
+        Material material = Material.getMaterial(id);
+        return material != null && material != Material.AIR && (material.hasGravity() || !material.isSolid());
+    }
+}
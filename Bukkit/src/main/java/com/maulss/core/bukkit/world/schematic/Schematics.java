@@ -5,74 +5,259 @@
  */
 
 package com.maulss.core.bukkit.world.schematic;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.maulss.core.bukkit.Core;
 import com.maulss.core.bukkit.CoreLogger;
-import com.maulss.core.collect.EnhancedList;
+import com.maulss.core.bukkit.world.schematic.codec.SchematicCodecException;
+import com.maulss.core.bukkit.world.schematic.codec.SchematicCodecFactory;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.io.File;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 
+/**
+ * The library of schematics in the schematics folder.
+ *
+ * <p>Only the size of every schematic is read at startup.  Their data is
+ * decoded on first use on a small pool of workers and kept in a least
+ * recently used cache bounded by the decoded size, see {@link
+ * #setMaxCachedBytes(long)}.</p>
+ */
 public final class Schematics {
 
+    public static final long    DEFAULT_MAX_CACHED_BYTES    = 256L << 20;
+    public static final int     DEFAULT_THREADS             =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
     public static File FOLDER;
 
     private static Schematics instance;
-    private final EnhancedList<Schematic> loadedSchematics = new EnhancedList<>();
+
+    // By lower case full name
+    private final Map<String, LibrarySchematic> library = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(DEFAULT_THREADS,
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Schematic Loader-%d")
+                    .setDaemon(true)
+                    .build());
+
+    // Guarded by cache, in least recently used order
+    private final LinkedHashMap<LibrarySchematic, SchematicData> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<LibrarySchematic, CompletableFuture<SchematicData>> loading = new HashMap<>();
+    private long cachedBytes = 0;
+    private volatile long maxCachedBytes = DEFAULT_MAX_CACHED_BYTES;
 
     private Schematics() {}
 
+    /**
+     * Creates the schematics folder if needed.
+     *
+     * @param autoLoad whether to index the schematics in the folder
+     * @return whether every schematic was indexed
+     */
     public static boolean init(final boolean autoLoad) {
-        boolean ok = true;
+        if (instance != null)
+            throw new IllegalStateException("Schematics have already been init");
 
-        try {
-            if (instance != null)
-                throw new IllegalStateException("Schematics have already been init");
-
-            // default schematics folder
-            FOLDER = new File(String.format(
-                    "%s%sschematics",
-                    Core.get().getDataFolder().getPath(),
-                    File.separator
-            ));
-
-            // try generate schematics folder
-            if (!(ok = FOLDER.mkdir()) && autoLoad) {
-                instance = new Schematics();
-                File[] files = FOLDER.listFiles();
-                for (File file : files) {
-                    String name = file.getName();
-                    if (!name.contains(".") || !SchematicTypeFactory
-                            .getFactory()
-                            .existsExtension(FilenameUtils.getExtension(name))) continue;
-                    instance.loadedSchematics.add(new CuboidSchematic(file));
-                }
-            }
-        } catch (Exception exception) {
-            // loaded schematics will get gc'ed
-            instance = null;
-
-            if (autoLoad) {
-                CoreLogger.log("Caught %s while autoloading schematics", exception.getClass().getName());
-                exception.printStackTrace();
-                CoreLogger.log("Will retry to init with autoload disabled...");
-                // retry without auto loading
-                ok = init(false);
-            } else {
-                exception.printStackTrace();
-            }
+        // default schematics folder
+        FOLDER = new File(String.format(
+                "%s%sschematics",
+                Core.get().getDataFolder().getPath(),
+                File.separator
+        ));
+
+        instance = new Schematics();
+
+        // try generate schematics folder
+        if (!FOLDER.isDirectory() && !FOLDER.mkdirs()) {
+            CoreLogger.log("Could not create schematics folder %s", FOLDER.getPath());
+            return false;
         }
 
-        return ok;
+        return !autoLoad || instance.index();
     }
 
+    /**
+     * @return every indexed schematic, whether its data is loaded or not
+     */
     public static List<Schematic> getLoadedSchematics() {
-        return instance.loadedSchematics.getImmutableElements();
+        return ImmutableList.<Schematic>copyOf(instance.library.values());
+    }
+
+    /**
+     * @param name the name of the schematic, with or without extension
+     */
+    public static Optional<LibrarySchematic> getSchematic(final String name) {
+        Validate.notNull(name);
+
+        String key = name.toLowerCase(Locale.ROOT);
+        LibrarySchematic schematic = instance.library.get(key);
+        if (schematic != null) return Optional.of(schematic);
+
+        // without extension
+        for (LibrarySchematic other : instance.library.values()) {
+            if (other.getName().equalsIgnoreCase(name)) return Optional.of(other);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Decodes the data of schematics in the background, so they are cached
+     * by the time they are used.
+     *
+     * @return a future completed once every schematic was loaded or failed
+     */
+    public static CompletableFuture<Void> prefetch(final Collection<? extends LibrarySchematic> schematics) {
+        Validate.notNull(schematics);
+        return CompletableFuture.allOf(schematics.stream()
+                .map(schematic -> load(schematic).handle((data, throwable) -> data))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    public static CompletableFuture<Void> prefetchAll() {
+        return prefetch(instance.library.values());
+    }
+
+    /**
+     * Sets the decoded size the cache may hold.  The schematic used last is
+     * always kept, even if it is larger.
+     */
+    public static void setMaxCachedBytes(final long maxCachedBytes) {
+        Validate.isTrue(maxCachedBytes >= 0, "maxCachedBytes must not be negative");
+        instance.maxCachedBytes = maxCachedBytes;
+        synchronized (instance.cache) {
+            instance.evict();
+        }
+    }
+
+    public static long getCachedBytes() {
+        synchronized (instance.cache) {
+            return instance.cachedBytes;
+        }
+    }
+
+    /**
+     * Drops the cached data of every schematic.
+     */
+    public static void invalidateAll() {
+        synchronized (instance.cache) {
+            instance.cache.clear();
+            instance.cachedBytes = 0;
+        }
     }
 
     public static String getSchematicFromDefaultLocation(String fullName) {
         Validate.notNull(fullName);
         return FOLDER + File.separator + fullName;
     }
-}
\ No newline at end of file
+
+    static boolean isCached(final LibrarySchematic schematic) {
+        synchronized (instance.cache) {
+            return instance.cache.containsKey(schematic);
+        }
+    }
+
+    static CompletableFuture<SchematicData> load(final LibrarySchematic schematic) {
+        Validate.notNull(schematic);
+        return instance.get(schematic);
+    }
+
+    private CompletableFuture<SchematicData> get(final LibrarySchematic schematic) {
+        synchronized (cache) {
+            SchematicData data = cache.get(schematic);
+            if (data != null) return CompletableFuture.completedFuture(data);
+
+            // share a decode already in progress
+            CompletableFuture<SchematicData> future = loading.get(schematic);
+            if (future != null) return future;
+
+            future = CompletableFuture.supplyAsync(() -> decode(schematic), executor);
+            loading.put(schematic, future);
+            future.whenComplete((decoded, throwable) -> {
+                synchronized (cache) {
+                    loading.remove(schematic);
+                    if (decoded == null) return;
+
+                    if (cache.put(schematic, decoded) == null) cachedBytes += schematic.getDecodedSize();
+                    evict();
+                }
+            });
+
+            return future;
+        }
+    }
+
+    private SchematicData decode(final LibrarySchematic schematic) {
+        long start = System.nanoTime();
+        try {
+            SchematicData data = SchematicCodecFactory.getFactory()
+                    .getCodec(schematic.getType())
+                    .decode(schematic.getFile());
+            CoreLogger.debug("Loaded schematic %s in %sms",
+                    schematic.getFullName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return data;
+        } catch (SchematicCodecException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Guarded by cache
+    private void evict() {
+        Iterator<Map.Entry<LibrarySchematic, SchematicData>> iterator = cache.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && cache.size() > 1) {
+            LibrarySchematic eldest = iterator.next().getKey();
+            iterator.remove();
+            cachedBytes -= eldest.getDecodedSize();
+        }
+    }
+
+    /**
+     * Reads the size of every schematic in the folder on the workers.
+     *
+     * @return whether every schematic was indexed
+     */
+    private boolean index() {
+        File[] files = FOLDER.listFiles();
+        if (files == null) return false;
+
+        Map<File, CompletableFuture<LibrarySchematic>> indexing = new LinkedHashMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.contains(".") || !SchematicTypeFactory
+                    .getFactory()
+                    .existsExtension(FilenameUtils.getExtension(name))) continue;
+
+            indexing.put(file, CompletableFuture.supplyAsync(() -> {
+                SchematicType type = SchematicTypeFactory.getFactory().getSchematicType(file);
+                try {
+                    return new LibrarySchematic(file, SchematicCodecFactory.getFactory()
+                            .getCodec(type)
+                            .decodeSize(file));
+                } catch (SchematicCodecException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        boolean ok = true;
+        for (Map.Entry<File, CompletableFuture<LibrarySchematic>> entry : indexing.entrySet()) {
+            try {
+                LibrarySchematic schematic = entry.getValue().join();
+                library.put(schematic.getFullName().toLowerCase(Locale.ROOT), schematic);
+            } catch (CompletionException exception) {
+                // skip the broken file, the others are still usable
+                ok = false;
+                CoreLogger.log("Caught %s while indexing schematic %s",
+                        exception.getCause().getClass().getName(), entry.getKey().getName());
+                exception.getCause().printStackTrace();
+            }
+        }
+
+        CoreLogger.debug("Indexed %s schematics", library.size());
+        return ok;
+    }
+}
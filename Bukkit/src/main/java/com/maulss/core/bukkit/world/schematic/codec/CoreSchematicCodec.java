@@ -6,24 +6,343 @@
 
 package com.maulss.core.bukkit.world.schematic.codec;
 
+import com.maulss.core.bukkit.CoreLogger;
 import com.maulss.core.bukkit.world.schematic.Schematic;
 import com.maulss.core.bukkit.world.schematic.SchematicData;
+import com.maulss.core.bukkit.world.schematic.SchematicType;
+import com.maulss.core.bukkit.world.schematic.Schematics;
+import com.maulss.core.jnbt.NBTOutputStream;
+import com.maulss.core.jnbt.Tag;
+import com.maulss.core.jnbt.type.CompoundTag;
+import com.maulss.core.jnbt.type.IntTag;
+import com.maulss.core.jnbt.type.ListTag;
+import com.maulss.core.math.Vector3D;
+import org.apache.commons.lang3.Validate;
 import org.bukkit.World;
+import org.bukkit.util.BlockVector;
 
-import java.io.File;
+import java.io.*;
+import java.util.*;
+import java.util.zip.Deflater;
 
+import static com.maulss.core.bukkit.world.schematic.codec.CoreSchematicFile.*;
+
+/**
+ * The core schematic format, which stores blocks in sections of 16x16x16
+ * with a palette of the distinct blocks of each section and bit packed
+ * indices into it.  Sections are deflated when that makes them smaller.
+ *
+ * <pre>
+ * int      magic, short version, short flags
+ * int      width, height, length
+ * double[] origin and offset, if flagged
+ * long     tile entity offset, int tile entity length
+ * table    per section, by y, z then x:
+ *          long offset, int stored length, int raw length, byte compression
+ * sections short palette size, int[] palette of id &lt;&lt; 8 | data,
+ *          byte bits per index, long[] indices by y, z then x
+ * blob     tile entities as a GZIP compressed NBT list
+ * </pre>
+ *
+ * <p>Files are decoded through a {@link CoreSchematicFile}, which maps them
+ * into memory and can decode single sections.</p>
+ */
 public class CoreSchematicCodec implements SchematicCodec {
 
+    private static final int HEADER_SIZE = 4 + 2 + 2 + 4 * 3;
+
     CoreSchematicCodec() {}
 
     @Override
     public SchematicData decode(final File file) throws SchematicCodecException {
-        return null;
+        CoreSchematicFile schematicFile = CoreSchematicFile.open(file);
+        SchematicData data = schematicFile.decode();
+        CoreLogger.debug("Decoded %s", schematicFile);
+        return data;
     }
 
+    @Override
+    public Vector3D decodeSize(final File file) throws SchematicCodecException {
+        return CoreSchematicFile.open(file).getSize();
+    }
+
+    /**
+     * Encodes the data of a schematic, in whichever format it was loaded,
+     * into the schematic folder with the core extension.
+     */
     @Override
     public File encode(final Schematic schematic,
                        final World world) throws SchematicCodecException {
-        return null;
+        Validate.notNull(schematic, "schematic");
+        return encode(schematic.getData(), new File(Schematics.getSchematicFromDefaultLocation(
+                schematic.getName() + "." + SchematicType.CORE.getExtension())));
+    }
+
+    /**
+     * Encodes schematic data into a file.
+     *
+     * @param data the data to encode
+     * @param file the file to write, which is replaced if it exists
+     * @return the file
+     * @throws SchematicCodecException if the file can't be written
+     */
+    public File encode(final SchematicData data,
+                       final File file) throws SchematicCodecException {
+        Validate.notNull(data, "data");
+        Validate.notNull(file, "file");
+
+        Vector3D size = data.getSize();
+        int width = size.getFloorX();
+        int height = size.getFloorY();
+        int length = size.getFloorZ();
+        Validate.isTrue(data.getBlocks().length == width * height * length
+                && data.getBlockData().length == data.getBlocks().length,
+                "block arrays don't match the size");
+
+        int sectionsX = sections(width), sectionsY = sections(height), sectionsZ = sections(length);
+        int sectionCount = sectionsX * sectionsY * sectionsZ;
+
+        // Encode every section before writing, so the table can be written first
+        byte[][] stored = new byte[sectionCount][];
+        int[] raw = new int[sectionCount];
+        byte[] compression = new byte[sectionCount];
+
+        SectionEncoder encoder = new SectionEncoder();
+        try {
+            int section = 0;
+            for (int sy = 0; sy < sectionsY; sy++) {
+                for (int sz = 0; sz < sectionsZ; sz++) {
+                    for (int sx = 0; sx < sectionsX; sx++, section++) {
+                        byte[] bytes = encoder.encode(data, width, height, length, sx, sy, sz);
+                        byte[] deflated = encoder.deflate(bytes);
+
+                        raw[section] = bytes.length;
+                        if (deflated != null) {
+                            stored[section] = deflated;
+                            compression[section] = COMPRESSION_DEFLATE;
+                        } else {
+                            stored[section] = bytes;
+                            compression[section] = COMPRESSION_NONE;
+                        }
+                    }
+                }
+            }
+        } finally {
+            encoder.end();
+        }
+
+        byte[] tileEntities = encodeTileEntities(data);
+
+        int flags = (data.getOrigin().isPresent() ? FLAG_ORIGIN : 0)
+                | (data.getOffset().isPresent() ? FLAG_OFFSET : 0);
+        long position = HEADER_SIZE
+                + Integer.bitCount(flags) * 3 * 8
+                + 8 + 4
+                + (long) sectionCount * SECTION_ENTRY_BYTES;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(flags);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(length);
+            if (data.getOrigin().isPresent()) writeVector(out, data.getOrigin().get());
+            if (data.getOffset().isPresent()) writeVector(out, data.getOffset().get());
+
+            long sectionsEnd = position;
+            for (byte[] bytes : stored) {
+                sectionsEnd += bytes.length;
+            }
+            out.writeLong(tileEntities.length == 0 ? 0 : sectionsEnd);
+            out.writeInt(tileEntities.length);
+
+            for (int i = 0; i < sectionCount; i++) {
+                out.writeLong(position);
+                out.writeInt(stored[i].length);
+                out.writeInt(raw[i]);
+                out.writeByte(compression[i]);
+                position += stored[i].length;
+            }
+
+            for (byte[] bytes : stored) {
+                out.write(bytes);
+            }
+            out.write(tileEntities);
+        } catch (IOException e) {
+            throw new SchematicCodecException(e);
+        }
+
+        return file;
+    }
+
+    /**
+     * Converts a schematic of another format, such as an MCEdit schematic
+     * read by {@link NBTSchematicCodec}, into the core format.  The written
+     * file is decoded again and compared to the source, so a conversion
+     * that would lose blocks fails instead.
+     *
+     * @param source the schematic to convert
+     * @param decoder the codec of the source's format
+     * @param file the file to write, which is replaced if it exists
+     * @return the file
+     * @throws SchematicCodecException if the source can't be decoded, the
+     *                                 file can't be written or it doesn't
+     *                                 decode to the source
+     */
+    public File convert(final File source,
+                        final SchematicDecoder decoder,
+                        final File file) throws SchematicCodecException {
+        Validate.notNull(source, "source");
+        Validate.notNull(decoder, "decoder");
+
+        SchematicData data = decoder.decode(source);
+        encode(data, file);
+
+        SchematicData decoded = CoreSchematicFile.open(file).decode();
+        Set<BlockVector> tileEntities = data.getTileEntities().orElse(Collections.emptyMap()).keySet();
+        if (!data.equals(decoded)
+                || !tileEntities.equals(decoded.getTileEntities().orElse(Collections.emptyMap()).keySet())) {
+            throw new SchematicCodecException("%s doesn't decode to the blocks of %s", file.getName(), source.getName());
+        }
+
+        CoreLogger.debug("Converted %s to %s", source.getName(), file.getName());
+        return file;
+    }
+
+    private static byte[] encodeTileEntities(final SchematicData data) throws SchematicCodecException {
+        Map<BlockVector, Map<String, Tag>> tileEntities = data.getTileEntities().orElse(Collections.emptyMap());
+        if (tileEntities.isEmpty()) return new byte[0];
+
+        List<Tag> tags = new ArrayList<>(tileEntities.size());
+        for (Map.Entry<BlockVector, Map<String, Tag>> entry : tileEntities.entrySet()) {
+            Map<String, Tag> values = new HashMap<>(entry.getValue());
+            values.put("x", new IntTag(entry.getKey().getBlockX()));
+            values.put("y", new IntTag(entry.getKey().getBlockY()));
+            values.put("z", new IntTag(entry.getKey().getBlockZ()));
+            tags.add(new CompoundTag(values));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (NBTOutputStream out = new NBTOutputStream(bytes)) {
+            out.writeNamedTag("TileEntities", new ListTag(CompoundTag.class, tags));
+        } catch (IOException e) {
+            throw new SchematicCodecException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void writeVector(final DataOutputStream out,
+                                    final Vector3D vector) throws IOException {
+        out.writeDouble(vector.getX());
+        out.writeDouble(vector.getY());
+        out.writeDouble(vector.getZ());
+    }
+
+    /**
+     * Builds the palette and packed indices of sections, reusing its buffers
+     * between them.
+     */
+    private static final class SectionEncoder {
+
+        private static final int VOLUME = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+
+        // Open addressing table from block key to palette index, twice the
+        // largest palette so it never fills
+        private final int[] keys = new int[VOLUME * 2];
+        private final int[] indices = new int[VOLUME * 2];
+        private final int[] palette = new int[VOLUME];
+        private final int[] entries = new int[VOLUME];
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private byte[] deflateBuffer = new byte[VOLUME * 2];
+
+        private byte[] encode(final SchematicData data,
+                              final int width,
+                              final int height,
+                              final int length,
+                              final int sx,
+                              final int sy,
+                              final int sz) throws SchematicCodecException {
+            short[] blocks = data.getBlocks();
+            byte[] blockData = data.getBlockData();
+
+            int x0 = sx * SECTION_SIZE, y0 = sy * SECTION_SIZE, z0 = sz * SECTION_SIZE;
+            int w = Math.min(SECTION_SIZE, width - x0);
+            int h = Math.min(SECTION_SIZE, height - y0);
+            int l = Math.min(SECTION_SIZE, length - z0);
+
+            Arrays.fill(keys, -1);
+            int paletteSize = 0;
+            int i = 0;
+            for (int y = 0; y < h; y++) {
+                for (int z = 0; z < l; z++) {
+                    int index = ((y0 + y) * length + z0 + z) * width + x0;
+                    for (int x = 0; x < w; x++, i++, index++) {
+                        int key = (blocks[index] & 0xFFFF) << 8 | (blockData[index] & 0xFF);
+
+                        int slot = slot(key);
+                        while (keys[slot] != -1 && keys[slot] != key) slot = (slot + 1) & (keys.length - 1);
+                        if (keys[slot] == -1) {
+                            keys[slot] = key;
+                            indices[slot] = paletteSize;
+                            palette[paletteSize++] = key;
+                        }
+
+                        entries[i] = indices[slot];
+                    }
+                }
+            }
+
+            int bits = paletteSize == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+            long[] words = new long[words(i, bits)];
+            for (int entry = 0; bits > 0 && entry < i; entry++) {
+                set(words, entry, bits, entries[entry]);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(2 + paletteSize * 4 + 1 + words.length * 8);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeShort(paletteSize);
+                for (int p = 0; p < paletteSize; p++) {
+                    out.writeInt(palette[p]);
+                }
+                out.writeByte(bits);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            } catch (IOException e) {
+                throw new SchematicCodecException(e);
+            }
+
+            return bytes.toByteArray();
+        }
+
+        /**
+         * @return the deflated bytes, or {@code null} if deflating doesn't
+         * make them smaller
+         */
+        private byte[] deflate(final byte[] bytes) {
+            if (bytes.length < 64) return null;
+
+            deflater.reset();
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            int size = 0;
+            while (!deflater.finished() && size < bytes.length) {
+                if (size == deflateBuffer.length) deflateBuffer = Arrays.copyOf(deflateBuffer, size * 2);
+                size += deflater.deflate(deflateBuffer, size, deflateBuffer.length - size);
+            }
+
+            return deflater.finished() && size < bytes.length ? Arrays.copyOf(deflateBuffer, size) : null;
+        }
+
+        private void end() {
+            deflater.end();
+        }
+
+        private int slot(final int key) {
+            return (key * 0x9E3779B9 >>> 16) & (keys.length - 1);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,563 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 5:05 PM.
+ */
+
+package com.maulss.core.bukkit.world.schematic.codec;
+
+import com.maulss.core.bukkit.world.schematic.SchematicData;
+import com.maulss.core.jnbt.NBTStreamReader;
+import com.maulss.core.jnbt.Tag;
+import com.maulss.core.jnbt.type.IntTag;
+import com.maulss.core.math.Vector3D;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.bukkit.util.BlockVector;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.maulss.core.jnbt.NBTConstants.*;
+
+/**
+ * A memory mapped schematic in the format of {@link CoreSchematicCodec}.
+ *
+ * <p>Opening a file only reads its header and section table, so schematics
+ * can be kept open without holding their blocks in memory.  Sections are
+ * decoded on demand with {@link #readSection(int, int, int, Section)} into
+ * buffers the size of one section, or all at once with {@link
+ * #decode()}.</p>
+ *
+ * <p>Instances are immutable and may be read from any thread.</p>
+ */
+public final class CoreSchematicFile {
+
+    static final int    MAGIC               = 0x43534348; // CSCH
+    static final short  VERSION             = 1;
+
+    static final int    FLAG_ORIGIN         = 1,
+                        FLAG_OFFSET         = 1 << 1;
+
+    static final int    SECTION_SIZE        = 16;
+    static final int    SECTION_VOLUME      = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+    static final int    SECTION_ENTRY_BYTES = 8 + 4 + 4 + 1;
+
+    static final byte   COMPRESSION_NONE    = 0,
+                        COMPRESSION_DEFLATE = 1;
+
+    private final File file;
+    private final ByteBuffer buffer;
+
+    private final int width, height, length;
+    private final int sectionsX, sectionsY, sectionsZ;
+    private final Vector3D origin, offset;
+    private final long tileEntitiesOffset;
+    private final int tileEntitiesLength;
+    private final int sectionTable;
+
+    private volatile long decodeNanos = -1;
+
+    private CoreSchematicFile(final File file,
+                              final ByteBuffer buffer) throws SchematicCodecException {
+        this.file = file;
+        this.buffer = buffer;
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new SchematicCodecException("%s is not a core schematic", file.getName());
+            }
+
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new SchematicCodecException("%s has unsupported version %s", file.getName(), version);
+            }
+
+            int flags = buffer.getShort();
+            width = buffer.getInt();
+            height = buffer.getInt();
+            length = buffer.getInt();
+            Validate.isTrue(width >= 0 && height >= 0 && length >= 0, "negative size");
+
+            origin = (flags & FLAG_ORIGIN) != 0 ? readVector(buffer) : null;
+            offset = (flags & FLAG_OFFSET) != 0 ? readVector(buffer) : null;
+
+            tileEntitiesOffset = buffer.getLong();
+            tileEntitiesLength = buffer.getInt();
+
+            sectionsX = sections(width);
+            sectionsY = sections(height);
+            sectionsZ = sections(length);
+            sectionTable = buffer.position();
+
+            long tableEnd = sectionTable + (long) getSectionCount() * SECTION_ENTRY_BYTES;
+            if (tableEnd > buffer.limit()) {
+                throw new SchematicCodecException("%s is truncated", file.getName());
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SchematicCodecException("Malformed core schematic " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Maps a core schematic into memory, reading only its header.
+     *
+     * @param file the file to map
+     * @return the mapped schematic
+     * @throws SchematicCodecException if the file can't be read or isn't a
+     *                                 core schematic
+     */
+    public static CoreSchematicFile open(final File file) throws SchematicCodecException {
+        Validate.notNull(file, "file");
+
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new CoreSchematicFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw e instanceof SchematicCodecException ? (SchematicCodecException) e : new SchematicCodecException(e);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Vector3D getSize() {
+        return new Vector3D(width, height, length);
+    }
+
+    public int getVolume() {
+        return width * height * length;
+    }
+
+    public int getSectionsX() {
+        return sectionsX;
+    }
+
+    public int getSectionsY() {
+        return sectionsY;
+    }
+
+    public int getSectionsZ() {
+        return sectionsZ;
+    }
+
+    public int getSectionCount() {
+        return sectionsX * sectionsY * sectionsZ;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long getFileSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the size of the blocks in memory once decoded, one {@code
+     * short} and one {@code byte} per block
+     */
+    public long getDecodedSize() {
+        return getVolume() * 3L;
+    }
+
+    /**
+     * @return how many times smaller the file is than its decoded blocks
+     */
+    public double getCompressionRatio() {
+        return getFileSize() == 0 ? 0 : (double) getDecodedSize() / getFileSize();
+    }
+
+    /**
+     * @return the time the last {@link #decode()} took in milliseconds, or
+     * {@code -1} if it was never decoded
+     */
+    public double getDecodeMillis() {
+        long nanos = decodeNanos;
+        return nanos < 0 ? -1 : nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Decodes every section and the tile entities.
+     *
+     * @return the decoded schematic data
+     * @throws SchematicCodecException if the file is malformed
+     */
+    public SchematicData decode() throws SchematicCodecException {
+        long start = System.nanoTime();
+
+        short[] blocks = new short[getVolume()];
+        byte[] data = new byte[blocks.length];
+
+        Inflater inflater = new Inflater();
+        try {
+            for (int sy = 0; sy < sectionsY; sy++) {
+                for (int sz = 0; sz < sectionsZ; sz++) {
+                    for (int sx = 0; sx < sectionsX; sx++) {
+                        readSection(sx, sy, sz, blocks, data, inflater);
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+
+        SchematicData schematicData = new SchematicData(
+                blocks, data,
+                getSize(),
+                origin, offset, readTileEntities());
+
+        decodeNanos = System.nanoTime() - start;
+        return schematicData;
+    }
+
+    /**
+     * Decodes a single section into arrays holding the blocks of the whole
+     * schematic, in the layout of {@link SchematicData}.
+     *
+     * @param sx the section on the x axis
+     * @param sy the section on the y axis
+     * @param sz the section on the z axis
+     * @param blocks the block ids of the whole schematic
+     * @param data the block data of the whole schematic
+     * @throws SchematicCodecException if the section is malformed
+     * @see #readSection(int, int, int, Section)
+     */
+    public void readSection(final int sx,
+                            final int sy,
+                            final int sz,
+                            final short[] blocks,
+                            final byte[] data) throws SchematicCodecException {
+        Inflater inflater = new Inflater();
+        try {
+            readSection(sx, sy, sz, blocks, data, inflater);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decodes a single section into a reusable buffer the size of one
+     * section, so reading part of a schematic never allocates its whole
+     * volume.
+     *
+     * @param sx the section on the x axis
+     * @param sy the section on the y axis
+     * @param sz the section on the z axis
+     * @param section the buffer to decode into
+     * @return the buffer
+     * @throws SchematicCodecException if the section is malformed
+     */
+    public Section readSection(final int sx,
+                               final int sy,
+                               final int sz,
+                               final Section section) throws SchematicCodecException {
+        Validate.notNull(section, "section");
+        Validate.isTrue(sx >= 0 && sx < sectionsX && sy >= 0 && sy < sectionsY && sz >= 0 && sz < sectionsZ,
+                "section %s, %s, %s out of bounds", sx, sy, sz);
+
+        section.x = sx * SECTION_SIZE;
+        section.y = sy * SECTION_SIZE;
+        section.z = sz * SECTION_SIZE;
+        section.width = Math.min(SECTION_SIZE, width - section.x);
+        section.height = Math.min(SECTION_SIZE, height - section.y);
+        section.length = Math.min(SECTION_SIZE, length - section.z);
+
+        Inflater inflater = new Inflater();
+        try {
+            decodeSection(readSection(sx, sy, sz, inflater), sx, sy, sz,
+                    section.blocks, section.data, section.width, section.length, 0, 0, 0);
+        } finally {
+            inflater.end();
+        }
+        return section;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("file", file.getName())
+                .append("size", width + "x" + height + "x" + length)
+                .append("sections", getSectionCount())
+                .append("fileSize", getFileSize())
+                .append("compressionRatio", String.format("%.2f", getCompressionRatio()))
+                .append("decodeMillis", String.format("%.2f", getDecodeMillis()))
+                .toString();
+    }
+
+    private void readSection(final int sx,
+                             final int sy,
+                             final int sz,
+                             final short[] blocks,
+                             final byte[] data,
+                             final Inflater inflater) throws SchematicCodecException {
+        Validate.isTrue(sx >= 0 && sx < sectionsX && sy >= 0 && sy < sectionsY && sz >= 0 && sz < sectionsZ,
+                "section %s, %s, %s out of bounds", sx, sy, sz);
+        Validate.isTrue(blocks.length == getVolume() && data.length == getVolume(),
+                "arrays must hold %s blocks", getVolume());
+
+        int x0 = sx * SECTION_SIZE, y0 = sy * SECTION_SIZE, z0 = sz * SECTION_SIZE;
+        decodeSection(readSection(sx, sy, sz, inflater), sx, sy, sz, blocks, data, width, length, x0, y0, z0);
+    }
+
+    /**
+     * @return the stored bytes of a section, inflated if they were
+     * compressed
+     */
+    private ByteBuffer readSection(final int sx,
+                                   final int sy,
+                                   final int sz,
+                                   final Inflater inflater) throws SchematicCodecException {
+        ByteBuffer table = buffer.duplicate();
+        table.position(sectionTable + (((sy * sectionsZ) + sz) * sectionsX + sx) * SECTION_ENTRY_BYTES);
+
+        try {
+            long position = table.getLong();
+            int stored = table.getInt();
+            int raw = table.getInt();
+            byte compression = table.get();
+
+            if (position < 0 || position + stored > buffer.limit()) {
+                throw new SchematicCodecException("Section %s, %s, %s of %s is out of the file", sx, sy, sz, file.getName());
+            }
+
+            ByteBuffer section = buffer.duplicate();
+            section.position((int) position).limit((int) position + stored);
+
+            if (compression == COMPRESSION_DEFLATE) {
+                section = inflate(section, raw, inflater);
+            } else if (compression != COMPRESSION_NONE) {
+                throw new SchematicCodecException("Unknown compression %s", compression);
+            }
+
+            return section;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SchematicCodecException("Malformed section of " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Decodes the blocks of a section into arrays of the given width and
+     * length, placing its first block at the given index.
+     */
+    private void decodeSection(final ByteBuffer section,
+                               final int sx,
+                               final int sy,
+                               final int sz,
+                               final short[] blocks,
+                               final byte[] data,
+                               final int targetWidth,
+                               final int targetLength,
+                               final int tx,
+                               final int ty,
+                               final int tz) throws SchematicCodecException {
+        int x0 = sx * SECTION_SIZE, y0 = sy * SECTION_SIZE, z0 = sz * SECTION_SIZE;
+        int w = Math.min(SECTION_SIZE, width - x0);
+        int h = Math.min(SECTION_SIZE, height - y0);
+        int l = Math.min(SECTION_SIZE, length - z0);
+
+        try {
+            int paletteSize = section.getShort() & 0xFFFF;
+            if (paletteSize == 0) throw new SchematicCodecException("Empty palette in %s", file.getName());
+
+            short[] paletteIds = new short[paletteSize];
+            byte[] paletteData = new byte[paletteSize];
+            for (int i = 0; i < paletteSize; i++) {
+                int key = section.getInt();
+                paletteIds[i] = (short) (key >>> 8);
+                paletteData[i] = (byte) key;
+            }
+
+            int bits = section.get();
+            long mask = (1L << bits) - 1;
+            long[] words = new long[words(w * h * l, bits)];
+            section.asLongBuffer().get(words);
+
+            int i = 0;
+            for (int y = 0; y < h; y++) {
+                for (int z = 0; z < l; z++) {
+                    int index = ((ty + y) * targetLength + tz + z) * targetWidth + tx;
+                    for (int x = 0; x < w; x++, i++, index++) {
+                        int entry = bits == 0 ? 0 : (int) get(words, i, bits, mask);
+                        if (entry >= paletteSize) {
+                            throw new SchematicCodecException("Palette index %s out of %s in %s", entry, paletteSize, file.getName());
+                        }
+
+                        blocks[index] = paletteIds[entry];
+                        data[index] = paletteData[entry];
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SchematicCodecException("Malformed section of " + file.getName(), e);
+        }
+    }
+
+    private Map<BlockVector, Map<String, Tag>> readTileEntities() throws SchematicCodecException {
+        Map<BlockVector, Map<String, Tag>> tileEntities = new HashMap<>();
+        if (tileEntitiesLength == 0) return tileEntities;
+
+        byte[] bytes = new byte[tileEntitiesLength];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) tileEntitiesOffset);
+        slice.get(bytes);
+
+        try (NBTStreamReader reader = new NBTStreamReader(new ByteArrayInputStream(bytes))) {
+            if (reader.next() != TYPE_LIST) {
+                throw new SchematicCodecException("Malformed tile entities in %s", file.getName());
+            }
+
+            reader.enter();
+            while (reader.next() != TYPE_END) {
+                if (reader.getType() != TYPE_COMPOUND) continue;
+
+                Map<String, Tag> values = reader.readCompound();
+                tileEntities.put(new BlockVector(
+                        getInt(values, "x"),
+                        getInt(values, "y"),
+                        getInt(values, "z")
+                ), values);
+            }
+        } catch (IOException | IllegalStateException e) {
+            throw e instanceof SchematicCodecException ? (SchematicCodecException) e : new SchematicCodecException(e);
+        }
+
+        return tileEntities;
+    }
+
+    /**
+     * The blocks of one section, indexed by y, z then x relative to its
+     * corner like {@link SchematicData}, in arrays that hold a full section
+     * so the buffer can be reused for any section of any schematic.  Not
+     * to be shared between threads.
+     */
+    public static final class Section {
+
+        private final short[] blocks = new short[SECTION_VOLUME];
+        private final byte[] data = new byte[SECTION_VOLUME];
+        private int x, y, z;
+        private int width, height, length;
+
+        /**
+         * @return the corner of the section in the schematic
+         */
+        public Vector3D getPosition() {
+            return new Vector3D(x, y, z);
+        }
+
+        /**
+         * @return the size of the section, smaller than a full section at
+         * the edges of the schematic
+         */
+        public Vector3D getSize() {
+            return new Vector3D(width, height, length);
+        }
+
+        public short getBlock(final int x,
+                              final int y,
+                              final int z) {
+            return blocks[index(x, y, z)];
+        }
+
+        public byte getData(final int x,
+                            final int y,
+                            final int z) {
+            return data[index(x, y, z)];
+        }
+
+        private int index(final int x,
+                          final int y,
+                          final int z) {
+            Validate.isTrue(x >= 0 && x < width && y >= 0 && y < height && z >= 0 && z < length,
+                    "%s, %s, %s is out of the section", x, y, z);
+            return (y * length + z) * width + x;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this)
+                    .append("position", x + ", " + y + ", " + z)
+                    .append("size", width + "x" + height + "x" + length)
+                    .toString();
+        }
+    }
+
+    private static ByteBuffer inflate(final ByteBuffer section,
+                                      final int raw,
+                                      final Inflater inflater) throws SchematicCodecException {
+        byte[] input = new byte[section.remaining()];
+        section.get(input);
+
+        byte[] output = new byte[raw];
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int inflated = 0;
+            while (inflated < raw && !inflater.finished()) {
+                int n = inflater.inflate(output, inflated, raw - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                inflated += n;
+            }
+
+            if (inflated != raw) throw new SchematicCodecException("Section inflated to %s of %s bytes", inflated, raw);
+        } catch (DataFormatException e) {
+            throw new SchematicCodecException("Malformed compressed section", e);
+        }
+
+        return ByteBuffer.wrap(output);
+    }
+
+    private static int getInt(final Map<String, Tag> values,
+                              final String key) {
+        Tag tag = values.get(key);
+        return tag instanceof IntTag ? ((IntTag) tag).getValue() : 0;
+    }
+
+    private static Vector3D readVector(final ByteBuffer buffer) {
+        return new Vector3D(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    static int sections(final int blocks) {
+        return (blocks + SECTION_SIZE - 1) / SECTION_SIZE;
+    }
+
+    static int words(final int entries,
+                     final int bits) {
+        return (int) (((long) entries * bits + 63) >>> 6);
+    }
+
+    static long get(final long[] words,
+                    final int i,
+                    final int bits,
+                    final long mask) {
+        long bit = (long) i * bits;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+
+        long value = words[word] >>> shift;
+        if (shift + bits > 64) value |= words[word + 1] << (64 - shift);
+        return value & mask;
+    }
+
+    static void set(final long[] words,
+                    final int i,
+                    final int bits,
+                    final long value) {
+        long bit = (long) i * bits;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+
+        words[word] |= value << shift;
+        if (shift + bits > 64) words[word + 1] |= value >>> (64 - shift);
+    }
+}
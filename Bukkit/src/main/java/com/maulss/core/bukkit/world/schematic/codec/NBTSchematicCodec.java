@@ -6,9 +6,9 @@
 
 package com.maulss.core.bukkit.world.schematic.codec;
 
-import com.maulss.core.jnbt.NBTInputStream;
 import com.maulss.core.jnbt.NBTOutputStream;
-import com.maulss.core.jnbt.NamedTag;
+import com.maulss.core.jnbt.NBTStreamReader;
+import com.maulss.core.jnbt.NBTUtils;
 import com.maulss.core.jnbt.Tag;
 import com.maulss.core.jnbt.type.*;
 import com.maulss.core.bukkit.world.schematic.Schematic;
@@ -21,141 +21,186 @@ import org.bukkit.util.BlockVector;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import static com.maulss.core.jnbt.NBTUtils.getChildTag;
+import static com.maulss.core.jnbt.NBTConstants.*;
 
 public class NBTSchematicCodec implements SchematicCodec {
 
     private static final int MAX_SIZE = Short.MAX_VALUE - Short.MIN_VALUE;
+    private static final int BUFFER_SIZE = 8192;
 
     NBTSchematicCodec() {}
 
     @Override
     public SchematicData decode(final File file) throws SchematicCodecException {
-        try (
-                InputStream is = new FileInputStream(file);
-                NBTInputStream nbtStream = new NBTInputStream(is)
-        ) {
-            Vector3D origin;
-            Vector3D offset;
+        try (NBTStreamReader reader = new NBTStreamReader(new FileInputStream(file))) {
 
             // Schematic tag
-            NamedTag rootTag = nbtStream.readNamedTag();
-            nbtStream.close();
-            if (!rootTag.getName().equals("Schematic")) {
+            if (reader.next() != TYPE_COMPOUND || !"Schematic".equals(reader.getName())) {
                 throw new SchematicCodecException("Tag \"Schematic\" does not exist or is not first");
             }
 
-            CompoundTag schematicTag = (CompoundTag) rootTag.getTag();
+            int width = -1, height = -1, length = -1;
+            String materials = null;
+            short[] blocks = null;
+            byte[] blockData = null;
+            byte[] addId = null;
+            Map<BlockVector, Map<String, Tag>> tileEntitiesMap = new HashMap<>();
+
+            // Arrays are read straight into the final arrays, everything
+            // else but the tile entities is skipped without being read
+            byte[] buffer = new byte[BUFFER_SIZE];
+            reader.enter();
+            while (reader.next() != TYPE_END) {
+                switch (reader.getName()) {
+                    case "Width":
+                        width = readShort(reader);
+                        break;
+                    case "Height":
+                        height = readShort(reader);
+                        break;
+                    case "Length":
+                        length = readShort(reader);
+                        break;
+                    case "Materials":
+                        checkType(reader, TYPE_STRING);
+                        materials = reader.readString();
+                        break;
+                    case "Blocks":
+                        checkType(reader, TYPE_BYTE_ARRAY);
+                        blocks = new short[reader.getLength()];
+                        for (int offset = 0, read; (read = reader.readBytes(buffer, 0, buffer.length)) > 0; offset += read) {
+                            for (int i = 0; i < read; i++) {
+                                blocks[offset + i] = (short) (buffer[i] & 0xFF);
+                            }
+                        }
+                        break;
+                    case "Data":
+                        checkType(reader, TYPE_BYTE_ARRAY);
+                        blockData = reader.readByteArray();
+                        break;
+                    case "AddBlocks":
+                        // We support 4096 block IDs using the same method as vanilla Minecraft, where
+                        // the highest 4 bits are stored in a separate byte array.
+                        checkType(reader, TYPE_BYTE_ARRAY);
+                        addId = reader.readByteArray();
+                        break;
+                    case "TileEntities":
+                        checkType(reader, TYPE_LIST);
+                        readTileEntities(reader, tileEntitiesMap);
+                        break;
+                }
+            }
 
             // Check
-            Map<String, Tag> schematic = schematicTag.getValue();
-            if (!schematic.containsKey("Blocks")) {
+            if (blocks == null) {
                 throw new SchematicCodecException("Schematic file is missing a \"Blocks\" tag");
             }
-
-            // Get information
-            short width = getChildTag(schematic, "Width", ShortTag.class).getValue();
-            short length = getChildTag(schematic, "Length", ShortTag.class).getValue();
-            short height = getChildTag(schematic, "Height", ShortTag.class).getValue();
-
-            // In case origin is needed
-            /*
-            try {
-                int originX = getChildTag(schematic, "WEOriginX", IntTag.class).getValue();
-                int originY = getChildTag(schematic, "WEOriginY", IntTag.class).getValue();
-                int originZ = getChildTag(schematic, "WEOriginZ", IntTag.class).getValue();
-                origin = new Vector3D(originX, originY, originZ);
-            } catch (Exception e) {
-                // No origin data
-            }*/
-
-            // In case offset is needed
-            /*
-            try {
-                int offsetX = getChildTag(schematic, "WEOffsetX", IntTag.class).getValue();
-                int offsetY = getChildTag(schematic, "WEOffsetY", IntTag.class).getValue();
-                int offsetZ = getChildTag(schematic, "WEOffsetZ", IntTag.class).getValue();
-                offset = new Vector3D(offsetX, offsetY, offsetZ);
-            } catch (Exception e) {
-                // No offset data
-            }*/
+            if (blockData == null) {
+                throw new SchematicCodecException("Schematic file is missing a \"Data\" tag");
+            }
+            if (width < 0 || height < 0 || length < 0) {
+                throw new SchematicCodecException("Schematic file is missing its size");
+            }
 
             // Check type of Schematic
-            String materials = getChildTag(schematic, "Materials", StringTag.class).getValue();
-            if (!materials.equals("Alpha")) {
+            if (!"Alpha".equals(materials)) {
                 throw new SchematicCodecException("Schematic file is not an Alpha schematic");
             }
 
-            // Get blocks
-            byte[] blockId = getChildTag(schematic, "Blocks", ByteArrayTag.class).getValue();
-            byte[] blockData = getChildTag(schematic, "Data", ByteArrayTag.class).getValue();
-            byte[] addId = new byte[0];
-            short[] blocks = new short[blockId.length]; // Have to later combine IDs
-
-            // We support 4096 block IDs using the same method as vanilla Minecraft, where
-            // the highest 4 bits are stored in a separate byte array.
-            if (schematic.containsKey("AddBlocks")) {
-                addId = getChildTag(schematic, "AddBlocks", ByteArrayTag.class).getValue();
+            if (blocks.length != width * height * length || blockData.length != blocks.length) {
+                throw new SchematicCodecException("Schematic file has %s blocks and %s data for a size of %sx%sx%s",
+                        blocks.length, blockData.length, width, height, length);
             }
 
             // Combine the AddBlocks data with the first 8-bit block ID
-            for (int index = 0; index < blockId.length; index++) {
-                if ((index >> 1) >= addId.length) { // No corresponding AddBlocks index
-                    blocks[index] = (short) (blockId[index] & 0xFF);
-                } else {
+            if (addId != null) {
+                int end = Math.min(blocks.length, addId.length << 1);
+                for (int index = 0; index < end; index++) {
                     if ((index & 1) == 0) {
-                        blocks[index] = (short) (((addId[index >> 1] & 0x0F) << 8) + (blockId[index] & 0xFF));
+                        blocks[index] |= (addId[index >> 1] & 0x0F) << 8;
                     } else {
-                        blocks[index] = (short) (((addId[index >> 1] & 0xF0) << 4) + (blockId[index] & 0xFF));
+                        blocks[index] |= (addId[index >> 1] & 0xF0) << 4;
                     }
                 }
             }
 
-            // Need to pull out tile entities
-            List<Tag> tileEntities = getChildTag(schematic, "TileEntities", ListTag.class).getValue();
-            Map<BlockVector, Map<String, Tag>> tileEntitiesMap = new HashMap<>();
+            return new SchematicData(
+                    blocks, blockData,
+                    new Vector3D(width, height, length),
+                    null, null, tileEntitiesMap);
+        } catch (IOException | IllegalStateException e) {
+            throw e instanceof SchematicCodecException ? (SchematicCodecException) e : new SchematicCodecException(e);
+        }
+    }
+
+    @Override
+    public Vector3D decodeSize(final File file) throws SchematicCodecException {
+        try (NBTStreamReader reader = new NBTStreamReader(new FileInputStream(file))) {
+            if (reader.next() != TYPE_COMPOUND || !"Schematic".equals(reader.getName())) {
+                throw new SchematicCodecException("Tag \"Schematic\" does not exist or is not first");
+            }
 
-            for (Tag tag : tileEntities) {
-                if (!(tag instanceof CompoundTag)) continue;
-                CompoundTag t = (CompoundTag) tag;
+            // Stop as soon as the size is known, skipping arrays before it
+            int width = -1, height = -1, length = -1;
+            reader.enter();
+            while ((width < 0 || height < 0 || length < 0) && reader.next() != TYPE_END) {
+                switch (reader.getName()) {
+                    case "Width":
+                        width = readShort(reader);
+                        break;
+                    case "Height":
+                        height = readShort(reader);
+                        break;
+                    case "Length":
+                        length = readShort(reader);
+                        break;
+                }
+            }
 
-                int x = 0;
-                int y = 0;
-                int z = 0;
+            if (width < 0 || height < 0 || length < 0) {
+                throw new SchematicCodecException("Schematic file is missing its size");
+            }
 
-                Map<String, Tag> values = new HashMap<>();
+            return new Vector3D(width, height, length);
+        } catch (IOException | IllegalStateException e) {
+            throw e instanceof SchematicCodecException ? (SchematicCodecException) e : new SchematicCodecException(e);
+        }
+    }
 
-                for (Map.Entry<String, Tag> entry : t.getValue().entrySet()) {
-                    if (entry.getKey().equals("x")) {
-                        if (entry.getValue() instanceof IntTag) {
-                            x = ((IntTag) entry.getValue()).getValue();
-                        }
-                    } else if (entry.getKey().equals("y")) {
-                        if (entry.getValue() instanceof IntTag) {
-                            y = ((IntTag) entry.getValue()).getValue();
-                        }
-                    } else if (entry.getKey().equals("z")) {
-                        if (entry.getValue() instanceof IntTag) {
-                            z = ((IntTag) entry.getValue()).getValue();
-                        }
-                    }
+    private static void readTileEntities(final NBTStreamReader reader,
+                                         final Map<BlockVector, Map<String, Tag>> tileEntitiesMap) throws IOException {
+        reader.enter();
+        while (reader.next() != TYPE_END) {
+            if (reader.getType() != TYPE_COMPOUND) continue;
+
+            // Tile entities are small, keep their tags as they are read
+            Map<String, Tag> values = reader.readCompound();
+            tileEntitiesMap.put(new BlockVector(
+                    getInt(values, "x"),
+                    getInt(values, "y"),
+                    getInt(values, "z")
+            ), values);
+        }
+    }
 
-                    values.put(entry.getKey(), entry.getValue());
-                }
+    private static int getInt(final Map<String, Tag> values,
+                              final String key) {
+        Tag tag = values.get(key);
+        return tag instanceof IntTag ? ((IntTag) tag).getValue() : 0;
+    }
 
-                BlockVector vec = new BlockVector(x, y, z);
-                tileEntitiesMap.put(vec, values);
-            }
+    private static int readShort(final NBTStreamReader reader) throws IOException {
+        checkType(reader, TYPE_SHORT);
+        return reader.readShort() & 0xFFFF;
+    }
 
-            return new SchematicData(
-                    blocks, blockData,
-                    new Vector3D(width, height, length),
-                    null, null, tileEntitiesMap);
-        } catch (IOException e) {
-            throw new SchematicCodecException(e);
+    private static void checkType(final NBTStreamReader reader,
+                                  final int expected) throws SchematicCodecException {
+        if (reader.getType() != expected) {
+            throw new SchematicCodecException("%s tag is not of tag type %s",
+                    reader.getName(), NBTUtils.toTypeName(NBTUtils.fromTypeCode(expected)));
         }
     }
 
@@ -7,6 +7,7 @@
 package com.maulss.core.bukkit.world.schematic.codec;
 
 import com.maulss.core.bukkit.world.schematic.SchematicData;
+import com.maulss.core.math.Vector3D;
 
 import java.io.File;
 
@@ -14,4 +15,12 @@ import java.io.File;
 public interface SchematicDecoder {
 
     SchematicData decode(final File file) throws SchematicCodecException;
+
+    /**
+     * Reads only the size of a schematic, for indexing files without
+     * decoding their blocks.
+     */
+    default Vector3D decodeSize(final File file) throws SchematicCodecException {
+        return decode(file).getSize();
+    }
 }
\ No newline at end of file
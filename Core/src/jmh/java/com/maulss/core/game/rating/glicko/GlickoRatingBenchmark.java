@@ -0,0 +1,166 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 9:40 PM.
+ */
+
+package com.maulss.core.game.rating.glicko;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rates a period of random matches with {@link GlickoMatches} and {@link
+ * Glicko2RatingPeriod}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GlickoRatingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int competitors;
+
+    @Param({"10"})
+    public int matchesPerCompetitor;
+
+    private int[] firstPlayers, secondPlayers;
+    private GlickoMatch.Outcome[] outcomes;
+    private BenchmarkCompetitor[] players;
+
+    private GlickoMatches glickoMatches;
+    private Glicko2RatingPeriod ratingPeriod;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        int matches = competitors * matchesPerCompetitor / 2;
+        GlickoMatch.Outcome[] values = GlickoMatch.Outcome.values();
+
+        firstPlayers = new int[matches];
+        secondPlayers = new int[matches];
+        outcomes = new GlickoMatch.Outcome[matches];
+        for (int i = 0; i < matches; i++) {
+            firstPlayers[i] = random.nextInt(competitors);
+            do {
+                secondPlayers[i] = random.nextInt(competitors);
+            } while (secondPlayers[i] == firstPlayers[i]);
+            outcomes[i] = values[random.nextInt(values.length)];
+        }
+
+        players = new BenchmarkCompetitor[competitors];
+        for (int i = 0; i < competitors; i++) {
+            players[i] = new BenchmarkCompetitor(
+                    1000 + random.nextInt(1000),
+                    50 + random.nextDouble() * 300
+            );
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        for (BenchmarkCompetitor player : players) {
+            player.reset();
+        }
+
+        GlickoProfile[] profiles = new GlickoProfile[competitors];
+        for (int i = 0; i < competitors; i++) {
+            profiles[i] = new GlickoProfile(players[i]);
+        }
+
+        glickoMatches = new GlickoMatches();
+        ratingPeriod = new Glicko2RatingPeriod();
+        for (int i = 0; i < firstPlayers.length; i++) {
+            glickoMatches.addMatch(new GlickoMatch(
+                    profiles[firstPlayers[i]],
+                    profiles[secondPlayers[i]],
+                    outcomes[i]
+            ));
+            ratingPeriod.addMatch(players[firstPlayers[i]], players[secondPlayers[i]], outcomes[i]);
+        }
+    }
+
+    @Benchmark
+    public void glickoMatches() {
+        glickoMatches.applyNewData();
+    }
+
+    @Benchmark
+    public void glicko2RatingPeriod() {
+        ratingPeriod.applyNewData();
+    }
+
+    private static final class BenchmarkCompetitor implements GlickoCompetitor {
+
+        private final UUID uuid = UUID.randomUUID();
+        private final int initialRating;
+        private final double initialDeviation;
+
+        private int rating;
+        private double deviation;
+        private double volatility;
+
+        private BenchmarkCompetitor(final int rating,
+                                    final double deviation) {
+            this.initialRating = rating;
+            this.initialDeviation = deviation;
+            reset();
+        }
+
+        private void reset() {
+            rating = initialRating;
+            deviation = initialDeviation;
+            volatility = INITIAL_VOLATILITY;
+        }
+
+        @Override
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        @Override
+        public String getName() {
+            return uuid.toString();
+        }
+
+        @Override
+        public int getRating() {
+            return rating;
+        }
+
+        @Override
+        public void setRating(final int rating) {
+            this.rating = rating;
+        }
+
+        @Override
+        public boolean isProvisional() {
+            return false;
+        }
+
+        @Override
+        public double getRatingDeviation() {
+            return deviation;
+        }
+
+        @Override
+        public void setRatingDeviation(final double deviation) {
+            this.deviation = deviation;
+        }
+
+        @Override
+        public double getVolatility() {
+            return volatility;
+        }
+
+        @Override
+        public void setVolatility(final double volatility) {
+            this.volatility = volatility;
+        }
+    }
+}
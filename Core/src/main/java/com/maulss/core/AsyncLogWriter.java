@@ -0,0 +1,208 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the records of a {@link Logger} on a background thread.
+ *
+ * <p>Records are put in a bounded ring of preallocated slots, claimed with a
+ * compare and set so any number of threads can log without locking, and
+ * formatted only once the writer takes them out.</p>
+ */
+final class AsyncLogWriter implements Runnable {
+
+    private static final long   IDLE_PARK_NANOS     = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long   FULL_PARK_NANOS     = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Logger logger;
+    private final Logger.OverflowPolicy policy;
+    private final Record[] ring;
+    private final int mask;
+    private final Thread thread;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Only read and written by the writer, or under its lock once stopped
+    private long head = 0;
+    private long reportedDropped = 0;
+
+    private volatile boolean running = true;
+
+    // Set once the writer has exited, from then on submitters drain the ring
+    // themselves while holding this writer's lock
+    private volatile boolean stopped = false;
+
+    AsyncLogWriter(final Logger logger,
+                   final int capacity,
+                   final Logger.OverflowPolicy policy,
+                   final String name) {
+        this.logger = logger;
+        this.policy = policy;
+
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.ring = new Record[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Record(i);
+        }
+
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Puts a record in the ring, waiting for space or dropping it when the
+     * ring is full depending on the policy.
+     */
+    void submit(final PrintStream output,
+                final String prefix,
+                final String message,
+                final Object[] components) {
+        Record record;
+        long position = tail.get();
+        while (true) {
+            record = ring[(int) position & mask];
+            long difference = record.sequence - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (difference < 0) {
+                // full
+                if (policy == Logger.OverflowPolicy.DROP) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+
+                if (stopped) {
+                    synchronized (this) {
+                        drain();
+                    }
+                } else {
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                }
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+
+        record.output = output;
+        record.prefix = prefix;
+        record.message = message;
+        record.components = components;
+        record.sequence = position + 1;
+
+        // the writer may have made its last pass before this record was
+        // published, so write it here rather than leave it in the ring
+        if (stopped) {
+            synchronized (this) {
+                drain();
+            }
+        }
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the writer once every record already submitted was written.
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            if (drain()) continue;
+            if (!running && head == tail.get()) break;
+
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+
+        synchronized (this) {
+            stopped = true;
+            drain();
+            reportDropped();
+        }
+    }
+
+    /**
+     * Writes every published record in order, stopping at the first slot
+     * still being filled.  Only called by the writer until it stops, then
+     * only while holding this writer's lock.
+     *
+     * @return whether any record was written
+     */
+    private boolean drain() {
+        boolean wrote = false;
+        while (true) {
+            Record record = ring[(int) head & mask];
+            if (record.sequence != head + 1) break;
+
+            PrintStream output = record.output;
+            String message = logger.prefix(record.message, record.prefix);
+            Object[] components = record.components;
+
+            // free the slot before the slow part
+            record.output = null;
+            record.prefix = null;
+            record.message = null;
+            record.components = null;
+            record.sequence = head + ring.length;
+            head++;
+
+            try {
+                output.println(Logger.buildMessage(message, components));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            wrote = true;
+        }
+
+        if (wrote) reportDropped();
+        return wrote;
+    }
+
+    private void reportDropped() {
+        long dropped = this.dropped.get();
+        if (dropped == reportedDropped) return;
+
+        logger.getOutput().println(logger.prefix(String.format(
+                "Dropped %s log messages, the log buffer was full",
+                dropped - reportedDropped), ""));
+        reportedDropped = dropped;
+    }
+
+    private static final class Record {
+
+        private volatile long sequence;
+        private PrintStream output;
+        private String prefix;
+        private String message;
+        private Object[] components;
+
+        private Record(final long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class Logger {
     private char        noPrefixChar    = 126; // char "~"
     private PrintStream output          = System.out;
 
+    private volatile AsyncLogWriter writer;
 
     /**
      * Sets up logger with default configurations.
@@ -115,7 +116,8 @@ public class Logger {
      *          variable and may be zero.
      * @return  The already formatted string that has been outputted to
      *          the console.  If {@link IllegalFormatException} was
-     *          thrown, the string returned remains unformatted.
+     *          thrown, the string returned remains unformatted.  Empty
+     *          if the message is written asynchronously.
      * @throws  IllegalFormatException
      *          If a format string contains an illegal syntax, a format
      *          specifier that is incompatible with the given arguments,
@@ -127,9 +129,16 @@ public class Logger {
      * @see     #prefix(String, String)
      * @see     #setPrefix(String)
      * @see     #setNoPrefixChar(char)
+     * @see     #enableAsync(int, OverflowPolicy)
      */
     public Optional<String> log(final String string,
                                 final Object... components) {
+        AsyncLogWriter writer = this.writer;
+        if (writer != null) {
+            writer.submit(output, prefix, string, components);
+            return Optional.empty();
+        }
+
         return write(output, prefix(string, prefix), components);
     }
 
@@ -216,7 +225,9 @@ public class Logger {
      *          variable and may be zero.
      * @return  The already formatted string that has been outputted to
      *          the console.  If {@link IllegalFormatException} was
-     *          thrown, the string returned remains unformatted.
+     *          thrown, the string returned remains unformatted.  Empty
+     *          if debugging is disabled or the message is written
+     *          asynchronously.
      * @throws  IllegalFormatException
      *          If a format string contains an illegal syntax, a format
      *          specifier that is incompatible with the given arguments,
@@ -233,8 +244,16 @@ public class Logger {
      */
     public Optional<String> debug(final String string,
                                   final Object... components) {
-        String msg = prefix(string, debugPrefix);
-        return debug ? write(System.out, msg, components) : Optional.of(msg);
+        // nothing is built unless it will be written
+        if (!debug) return Optional.empty();
+
+        AsyncLogWriter writer = this.writer;
+        if (writer != null) {
+            writer.submit(System.out, debugPrefix, string, components);
+            return Optional.empty();
+        }
+
+        return write(System.out, prefix(string, debugPrefix), components);
     }
 
 
@@ -297,6 +316,70 @@ public class Logger {
     }
 
 
+    /**
+     * Hands messages to a background thread which formats and writes them,
+     * so logging costs the calling thread no more than putting the message
+     * and its components in a buffer.
+     *
+     * <p>Components are formatted later, so they should not be changed
+     * after being logged.  Messages still in the buffer are written by
+     * {@link #disableAsync()}.</p>
+     *
+     * @param   capacity
+     *          The number of messages the buffer holds, rounded up to a
+     *          power of two.
+     * @param   policy
+     *          What to do with messages logged while the buffer is full.
+     * @throws  IllegalStateException
+     *          If asynchronous logging is already enabled.
+     * @see     #disableAsync()
+     */
+    public synchronized void enableAsync(final int capacity,
+                                         final OverflowPolicy policy) {
+        Validate.isTrue(capacity > 0, "capacity must be positive");
+        notNull(policy);
+        Validate.validState(writer == null, "Asynchronous logging is already enabled");
+
+        writer = new AsyncLogWriter(this, capacity, policy, "Log Writer");
+    }
+
+
+    /**
+     * Goes back to writing messages on the calling thread, after writing
+     * every message still in the buffer.  Does nothing if asynchronous
+     * logging is not enabled.
+     *
+     * @see     #enableAsync(int, OverflowPolicy)
+     */
+    public synchronized void disableAsync() {
+        AsyncLogWriter writer = this.writer;
+        if (writer == null) return;
+
+        this.writer = null;
+        writer.shutdown();
+    }
+
+
+    /**
+     * @return  Whether messages are written on a background thread.
+     * @see     #enableAsync(int, OverflowPolicy)
+     */
+    public boolean isAsync() {
+        return writer != null;
+    }
+
+
+    /**
+     * @return  The number of messages dropped because the buffer was full,
+     *          since asynchronous logging was enabled.
+     * @see     OverflowPolicy#DROP
+     */
+    public long getDroppedMessages() {
+        AsyncLogWriter writer = this.writer;
+        return writer == null ? 0 : writer.getDropped();
+    }
+
+
     /**
      * @return  Whether or not debugging is allowed, AKA value inputted for {@link
      *          #enableDebugging(boolean)}.  By default the value is {@code false}.
@@ -496,4 +579,25 @@ public class Logger {
         output.println(message);
         return Optional.of(message);
     }
+
+
+    /**
+     * What asynchronous logging does with a message logged while its
+     * buffer is full.
+     *
+     * @see     #enableAsync(int, OverflowPolicy)
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The message is dropped and counted, and the count is written once
+         * there is room again.  Logging never waits.
+         */
+        DROP,
+
+        /**
+         * The logging thread waits until there is room.  No message is lost.
+         */
+        BLOCK
+    }
 }
\ No newline at end of file
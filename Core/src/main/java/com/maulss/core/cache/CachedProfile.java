@@ -0,0 +1,304 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.google.common.primitives.Ints;
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.ValueType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The fields of an {@link Identity} held by a {@link ProfileCache}.
+ *
+ * Fields changed through {@link #set(DatabaseKey, Object)} or {@link
+ * #add(DatabaseKey, int)} are marked dirty and written back by the cache in
+ * the background.  Only dirty fields are written.
+ *
+ * <p>Fields that were only added to are written back as the amount added,
+ * not as their new value, so amounts added by another server in the
+ * meantime aren't overwritten.  Their value here is only what this cache
+ * has seen until the profile is {@link ProfileCache#refresh(Identity,
+ * com.maulss.core.database.callback.DatabaseCallback) refreshed}.</p>
+ *
+ * @param <I>
+ *         the type of identity
+ */
+public final class CachedProfile<I extends Identity> {
+
+    private final I                         identity;
+    private boolean                         stored;
+
+    // Guarded by this
+    private final Map<String, Object>       fields;
+    private final Map<String, DatabaseKey>  dirty       = new LinkedHashMap<>();
+    // Amounts added to dirty fields that weren't set since their last write
+    private final Map<String, Long>         deltas      = new HashMap<>();
+    // Keys of the write in progress
+    private final Set<String>               flushed     = new HashSet<>();
+    private long                            dirtySince  = 0;
+    private long                            flushSince  = 0;
+    private boolean                         flushing    = false;
+
+    private volatile long                   lastAccess  = System.nanoTime();
+
+    CachedProfile(final I identity,
+                  @Nullable final Map<String, Object> fields) {
+        this.identity = checkNotNull(identity, "identity");
+        this.stored = fields != null;
+        this.fields = fields == null ? new HashMap<>() : new HashMap<>(fields);
+    }
+
+    public I getIdentity() {
+        return identity;
+    }
+
+    public UUID getUuid() {
+        return identity.getUuid();
+    }
+
+    /**
+     * @return whether the identity was found in the database when it was
+     * loaded
+     */
+    public synchronized boolean isStored() {
+        return stored;
+    }
+
+    /**
+     * @return the value of the field, or the key's default if it isn't set
+     */
+    @Nullable
+    public synchronized Object get(final DatabaseKey key) {
+        Object value = fields.get(key.getKey());
+        return value != null ? value : key.getDefault().orElse(null);
+    }
+
+    /**
+     * @return a copy of every field by key
+     */
+    public synchronized Map<String, Object> getFields() {
+        return new HashMap<>(fields);
+    }
+
+    /**
+     * @return the value of the field as an {@code int}, or {@code 0} if it
+     * isn't set or not a number
+     */
+    public int getInt(final DatabaseKey key) {
+        Object value = get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * Sets the value of a field and marks it dirty.
+     *
+     * @param key
+     *         the field
+     * @param value
+     *         the new value
+     * @return this instance
+     */
+    public synchronized CachedProfile<I> set(final DatabaseKey key,
+                                             @Nullable final Object value) {
+        checkNotNull(key, "key");
+
+        // Nothing to write if the value didn't change
+        if (Objects.equals(fields.get(key.getKey()), value) && fields.containsKey(key.getKey())) return this;
+
+        fields.put(key.getKey(), value);
+        deltas.remove(key.getKey());
+        markDirty(key);
+        return this;
+    }
+
+    /**
+     * Adds an amount to a numeric field and marks it dirty.  Unless the
+     * field was set since its last write, the amount is written rather than
+     * the new value.
+     *
+     * @param key
+     *         the field
+     * @param amount
+     *         the amount to add, negative to take
+     * @return this instance
+     */
+    public synchronized CachedProfile<I> add(final DatabaseKey key,
+                                             final int amount) {
+        checkNotNull(key, "key");
+        if (amount == 0) return this;
+
+        fields.put(key.getKey(), getInt(key) + amount);
+
+        // A pending set already holds the new value
+        if (!dirty.containsKey(key.getKey()) || deltas.containsKey(key.getKey())) {
+            deltas.merge(key.getKey(), (long) amount, Long::sum);
+        }
+        markDirty(key);
+        return this;
+    }
+
+    /**
+     * @return whether there are changes that haven't been written yet
+     */
+    public synchronized boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * @return the keys of the fields that haven't been written yet
+     */
+    public synchronized Set<DatabaseKey> getDirtyFields() {
+        return new LinkedHashSet<>(dirty.values());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringBuilder(this)
+                .append("identity", identity)
+                .append("stored", stored)
+                .append("fields", fields)
+                .append("dirty", dirty.keySet())
+                .append("flushing", flushed)
+                .toString();
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * @return the time the oldest change of the write in progress was made,
+     * in {@link System#nanoTime()}
+     */
+    synchronized long getFlushSince() {
+        return flushSince;
+    }
+
+    /**
+     * Replaces the fields with the ones loaded from the store.  Fields with
+     * unwritten changes, or that are being written, keep their value here;
+     * fields that were only added to get the amount added on top of the
+     * loaded value.
+     *
+     * @param fields
+     *         the loaded fields, or {@code null} if the identity isn't stored
+     */
+    synchronized void reload(@Nullable final Map<String, Object> fields) {
+        Map<String, Object> reloaded = fields == null ? new HashMap<>() : new HashMap<>(fields);
+        for (String key : dirty.keySet()) {
+            Long delta = deltas.get(key);
+            if (delta != null) {
+                Object value = reloaded.get(key);
+                reloaded.put(key, (value instanceof Number ? ((Number) value).intValue() : 0) + delta.intValue());
+            } else {
+                reloaded.put(key, this.fields.get(key));
+            }
+        }
+
+        // Unknown whether the load saw the write in progress, keep ours
+        for (String key : flushed) {
+            if (!dirty.containsKey(key)) reloaded.put(key, this.fields.get(key));
+        }
+
+        this.fields.clear();
+        this.fields.putAll(reloaded);
+        stored = fields != null;
+    }
+
+    /**
+     * Takes the dirty fields for a write and clears them.
+     *
+     * @param versionKey
+     *         the field to store the time of the write in, if any
+     * @return the changed fields, set to their new values or given the
+     * amount added to them, or {@code null} if there is nothing to write or a
+     * write is already in progress
+     */
+    @Nullable
+    synchronized Map<DatabaseKey, Value<?>> drain(@Nullable final DatabaseKey versionKey) {
+        // Writes of the same profile must not overtake each other
+        if (dirty.isEmpty() || flushing) return null;
+
+        if (versionKey != null) {
+            // Strictly increasing so two writes in the same millisecond differ
+            Object previous = fields.get(versionKey.getKey());
+            long version = System.currentTimeMillis();
+            if (previous instanceof Number) version = Math.max(version, ((Number) previous).longValue() + 1);
+
+            fields.put(versionKey.getKey(), version);
+            deltas.remove(versionKey.getKey());
+            dirty.put(versionKey.getKey(), versionKey);
+        }
+
+        Map<DatabaseKey, Value<?>> changes = new LinkedHashMap<>(dirty.size());
+        for (DatabaseKey key : dirty.values()) {
+            Long delta = deltas.get(key.getKey());
+            changes.put(key, delta == null
+                    ? new Value<>(fields.get(key.getKey()))
+                    : delta >= 0
+                            ? new Value<>(Ints.saturatedCast(delta), ValueType.GIVE)
+                            : new Value<>(Ints.saturatedCast(-delta), ValueType.TAKE));
+        }
+
+        flushed.addAll(dirty.keySet());
+        dirty.clear();
+        deltas.clear();
+        flushSince = dirtySince;
+        flushing = true;
+        return changes;
+    }
+
+    /**
+     * Completes a write started by {@link #drain(DatabaseKey)}.  If the write failed,
+     * fields that haven't been changed since are marked dirty again.
+     */
+    synchronized void drained(final Map<DatabaseKey, Value<?>> changes,
+                              final boolean failed) {
+        flushing = false;
+        flushed.clear();
+        if (!failed) return;
+
+        boolean clean = dirty.isEmpty();
+        for (Map.Entry<DatabaseKey, Value<?>> entry : changes.entrySet()) {
+            String key = entry.getKey().getKey();
+            Value<?> value = entry.getValue();
+            boolean changed = dirty.containsKey(key);
+
+            if (value.getType() == ValueType.SET) {
+                // The field still holds the value or a later one, set it again
+                deltas.remove(key);
+            } else if (!changed || deltas.containsKey(key)) {
+                long amount = ((Number) value.getValue()).longValue();
+                deltas.merge(key, value.getType() == ValueType.TAKE ? -amount : amount, Long::sum);
+            }
+            dirty.putIfAbsent(key, entry.getKey());
+        }
+        dirtySince = clean ? flushSince : Math.min(dirtySince, flushSince);
+    }
+
+    /**
+     * @return whether there are unwritten changes or a write is in progress
+     */
+    synchronized boolean isPending() {
+        return flushing || !dirty.isEmpty();
+    }
+
+    private void markDirty(final DatabaseKey key) {
+        if (dirty.isEmpty()) dirtySince = System.nanoTime();
+        dirty.put(key.getKey(), key);
+    }
+}
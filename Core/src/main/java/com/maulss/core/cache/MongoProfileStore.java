@@ -0,0 +1,92 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.VoidCallback;
+import com.maulss.core.database.mongo.MongoAccessThread;
+import com.maulss.core.database.mongo.MongoIdentity;
+import com.maulss.core.database.mongo.data.MongoDataOperator;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores profiles in the {@link MongoIdentity#getCollection() collection} of
+ * each identity.  Changed fields are written with a single upserting
+ * update, a {@code $set} of the new values and an {@code $inc} of the fields
+ * that were only added to.
+ *
+ * @param <I>
+ *         the type of identity stored
+ */
+public final class MongoProfileStore<I extends MongoIdentity> implements ProfileStore<I> {
+
+    @Override
+    public void load(final I identity,
+                     final DatabaseCallback<Map<String, Object>> callback) {
+        identity.retrieve((document, error) ->
+                callback.onResult(document == null ? null : new LinkedHashMap<>(document), error));
+    }
+
+    @Override
+    public void load(final I identity,
+                     final DatabaseKey key,
+                     final DatabaseCallback<Object> callback) {
+        MongoCollection<Document> coll = identity.getCollection();
+        if (coll == null) {
+            callback.onResult(null);
+            return;
+        }
+
+        coll.find(identity.getSearchQuery())
+                .projection(Projections.include(key.getKey()))
+                .first((document, error) -> callback.onResult(document == null ? null : document.get(key.getKey()), error));
+    }
+
+    @Override
+    public void store(final I identity,
+                      final Map<DatabaseKey, Value<?>> changes,
+                      final VoidCallback callback) {
+        MongoCollection<Document> coll = identity.getCollection();
+        if (coll == null || changes.isEmpty()) {
+            callback.onResult();
+            return;
+        }
+
+        Document set = new Document(), inc = new Document();
+        for (Map.Entry<DatabaseKey, Value<?>> entry : changes.entrySet()) {
+            Value<?> value = entry.getValue();
+            switch (value.getType()) {
+                case GIVE:
+                    inc.append(entry.getKey().getKey(), value.getValue());
+                    break;
+                case TAKE:
+                    inc.append(entry.getKey().getKey(), -((Number) value.getValue()).intValue());
+                    break;
+                default:
+                    set.append(entry.getKey().getKey(), value.getValue());
+                    break;
+            }
+        }
+
+        Document update = new Document();
+        if (!set.isEmpty()) update.append(MongoDataOperator.$SET.getOperator(), set);
+        if (!inc.isEmpty()) update.append(MongoDataOperator.$INC.getOperator(), inc);
+
+        coll.updateOne(
+                identity.getSearchQuery(),
+                update,
+                MongoAccessThread.UPDATE_OPTIONS,
+                (result, error) -> callback.onResult(error)
+        );
+    }
+}
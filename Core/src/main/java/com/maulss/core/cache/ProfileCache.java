@@ -0,0 +1,563 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.DatabaseFuture;
+import com.maulss.core.service.ServiceExecutor;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A size and time bounded cache of {@link CachedProfile profiles} in front of
+ * a {@link ProfileStore}.
+ *
+ * <p>Profiles are loaded through the store on the first {@link
+ * #get(Identity, DatabaseCallback) get} and served from memory afterwards.
+ * Concurrent gets of a profile that is still loading share a single load.</p>
+ *
+ * <p>Changes made to a profile are not written straight away.  Every flush
+ * interval the dirty fields of all profiles are written back, only sending
+ * the fields that changed.  Profiles that are evicted while they still have
+ * unwritten changes are written first and served from memory until the write
+ * has completed, so a reload never reads stale data.</p>
+ *
+ * <p>Profiles are evicted once the cache holds more than the maximum size,
+ * least recently used first, or once they haven't been accessed for the
+ * expiry time.</p>
+ *
+ * <p>The cache only sees changes made through it.  Identities that are also
+ * written elsewhere, e.g. by another server, should be {@link
+ * #refresh(Identity, DatabaseCallback) refreshed} when they are read again,
+ * e.g. when a player joins, and {@link #flush(UUID) flushed} once this
+ * server is done with them.  With a {@link
+ * ProfileCacheSettings#setVersionKey(DatabaseKey) version key} every write
+ * stores its time and a refresh only loads the profile again if another
+ * cache wrote it since.  Writes that bypass the caches don't change the
+ * version.</p>
+ *
+ * @param <I>
+ *         the type of identity cached
+ * @see ProfileCacheSettings
+ */
+public final class ProfileCache<I extends Identity> implements AutoCloseable {
+
+    // String constants
+    private static final String
+            LOAD_ERROR                      = "Could not load profile of %s:",
+            FLUSH_ERROR                     = "Could not write changed fields %s of %s:",
+            CACHE_CLOSED                    = "Profile cache is closed";
+
+    private final ProfileStore<I>                                       store;
+    private final ProfileCacheSettings                                  settings;
+    private final ScheduledExecutorService                              scheduler;
+
+    // Guarded by this
+    private final Map<UUID, CachedProfile<I>>                           profiles        = new LinkedHashMap<>(16, 0.75F, true);
+    private final Map<UUID, List<DatabaseCallback<CachedProfile<I>>>>   loading         = new HashMap<>();
+    private final Map<UUID, CachedProfile<I>>                           evicted         = new HashMap<>();
+    private boolean                                                     closed          = false;
+
+    // Metrics
+    private final LongAdder                                             hits            = new LongAdder();
+    private final LongAdder                                             misses          = new LongAdder();
+    private final LongAdder                                             loads           = new LongAdder();
+    private final LongAdder                                             loadErrors      = new LongAdder();
+    private final LongAdder                                             evictions       = new LongAdder();
+    private final LongAdder                                             flushes         = new LongAdder();
+    private final LongAdder                                             flushErrors     = new LongAdder();
+    private final LongAdder                                             fieldsWritten   = new LongAdder();
+    private final LongAdder                                             totalLagNanos   = new LongAdder();
+    private final AtomicLong                                            maxLagNanos     = new AtomicLong();
+
+    public ProfileCache(final ProfileStore<I> store) {
+        this(store, new ProfileCacheSettings());
+    }
+
+    public ProfileCache(final ProfileStore<I> store,
+                        final ProfileCacheSettings settings) {
+        this.store = checkNotNull(store, "store");
+        this.settings = checkNotNull(settings, "settings");
+
+        long interval = settings.getFlushIntervalMillis();
+        scheduler = ServiceExecutor.newScheduledExecutor("ProfileCache");
+        scheduler.scheduleWithFixedDelay(this::housekeeping, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the profile of an identity, loading it through the store if it
+     * isn't cached yet.
+     *
+     * @param identity
+     *         the identity to get the profile of
+     * @param callback
+     *         called with the profile, or the error if it couldn't be loaded
+     */
+    public void get(final I identity,
+                    final DatabaseCallback<CachedProfile<I>> callback) {
+        checkNotNull(identity, "identity");
+        checkNotNull(callback, "callback");
+
+        UUID uuid = identity.getUuid();
+        CachedProfile<I> profile = null;
+        boolean open;
+        synchronized (this) {
+            open = !closed;
+            if (open) {
+                profile = profiles.get(uuid);
+                if (profile == null) {
+                    // Still being written after eviction, take it back
+                    profile = evicted.remove(uuid);
+                    if (profile != null) profiles.put(uuid, profile);
+                }
+
+                if (profile == null) {
+                    misses.increment();
+
+                    // Share a load that is already in progress
+                    List<DatabaseCallback<CachedProfile<I>>> waiting = loading.get(uuid);
+                    if (waiting != null) {
+                        waiting.add(callback);
+                        return;
+                    }
+
+                    loading.put(uuid, new ArrayList<>(Collections.singletonList(callback)));
+                } else {
+                    hits.increment();
+                    profile.touch();
+                }
+            }
+        }
+
+        if (!open) {
+            callback.onResult(null, new IllegalStateException(CACHE_CLOSED));
+        } else if (profile != null) {
+            callback.onResult(profile);
+        } else {
+            load(identity);
+        }
+    }
+
+    /**
+     * Gets the profile of an identity like {@link #get(Identity,
+     * DatabaseCallback)}, but loads a cached profile again if it was written
+     * elsewhere since.  Unwritten changes made here are kept.
+     *
+     * @param identity
+     *         the identity to get the profile of
+     * @param callback
+     *         called with the profile, or the error if it couldn't be loaded
+     */
+    public void refresh(final I identity,
+                        final DatabaseCallback<CachedProfile<I>> callback) {
+        checkNotNull(identity, "identity");
+        checkNotNull(callback, "callback");
+
+        CachedProfile<I> profile = getIfPresent(identity.getUuid());
+        if (profile == null) {
+            get(identity, callback);
+            return;
+        }
+
+        DatabaseKey versionKey = settings.getVersionKey();
+        if (versionKey == null) {
+            reload(identity, profile, callback);
+            return;
+        }
+
+        try {
+            store.load(identity, versionKey, (version, error) -> {
+                if (error != null) {
+                    loadErrors.increment();
+                    callback.onResult(null, error);
+                } else if (sameVersion(version, profile.get(versionKey))) {
+                    hits.increment();
+                    callback.onResult(profile);
+                } else {
+                    reload(identity, profile, callback);
+                }
+            });
+        } catch (Throwable throwable) {
+            loadErrors.increment();
+            callback.onResult(null, throwable);
+        }
+    }
+
+    /**
+     * @return a future of the profile of the identity
+     * @see #get(Identity, DatabaseCallback)
+     */
+    public DatabaseFuture<CachedProfile<I>> getAsync(final I identity) {
+        DatabaseFuture<CachedProfile<I>> future = new DatabaseFuture<>();
+        get(identity, future);
+        return future;
+    }
+
+    /**
+     * @return the cached profile, or {@code null} if it isn't loaded
+     */
+    @Nullable
+    public synchronized CachedProfile<I> getIfPresent(final UUID uuid) {
+        CachedProfile<I> profile = profiles.get(uuid);
+        if (profile != null) profile.touch();
+        return profile;
+    }
+
+    /**
+     * Removes a profile from the cache, writing its unwritten changes first.
+     *
+     * @param uuid
+     *         the identifier of the profile
+     */
+    public void invalidate(final UUID uuid) {
+        CachedProfile<I> profile;
+        synchronized (this) {
+            profile = profiles.remove(uuid);
+            if (profile == null) return;
+            evict(profile);
+        }
+
+        flush(profile);
+    }
+
+    /**
+     * Writes the unwritten changes of a profile now, without waiting for the
+     * next flush interval.
+     *
+     * @param uuid
+     *         the identifier of the profile
+     */
+    public void flush(final UUID uuid) {
+        CachedProfile<I> profile;
+        synchronized (this) {
+            profile = profiles.get(uuid);
+            if (profile == null) profile = evicted.get(uuid);
+        }
+
+        if (profile != null) flush(profile);
+    }
+
+    /**
+     * Writes the unwritten changes of every profile.
+     */
+    public void flush() {
+        flush(dirtyProfiles());
+    }
+
+    /**
+     * @return the amount of cached profiles
+     */
+    public synchronized int size() {
+        return profiles.size();
+    }
+
+    /**
+     * @return the amount of gets served from memory
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the amount of gets that had to load the profile
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the share of gets served from memory, between {@code 0} and
+     * {@code 1}
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return the amount of profiles loaded from the store
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * @return the amount of loads that failed
+     */
+    public long getLoadErrors() {
+        return loadErrors.sum();
+    }
+
+    /**
+     * @return the amount of profiles evicted by size, expiry or invalidation
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the amount of writes made to the store
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * @return the amount of writes that failed and will be retried
+     */
+    public long getFlushErrors() {
+        return flushErrors.sum();
+    }
+
+    /**
+     * @return the amount of fields written to the store
+     */
+    public long getFieldsWritten() {
+        return fieldsWritten.sum();
+    }
+
+    /**
+     * @return the average time between a field being changed and it being
+     * written, in nanoseconds
+     */
+    public long getAverageFlushLagNanos() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : totalLagNanos.sum() / count;
+    }
+
+    /**
+     * @return the longest time between a field being changed and it being
+     * written, in nanoseconds
+     */
+    public long getMaxFlushLagNanos() {
+        return maxLagNanos.get();
+    }
+
+    /**
+     * Stops accepting gets and writes the unwritten changes of every profile.
+     * Writes that are still in progress complete in the background.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+
+        scheduler.shutdown();
+        flush();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringBuilder(this)
+                .append("settings", settings)
+                .append("size", profiles.size())
+                .append("evicted", evicted.size())
+                .append("hitRate", getHitRate())
+                .append("evictions", evictions.sum())
+                .append("flushes", flushes.sum())
+                .append("averageFlushLagNanos", getAverageFlushLagNanos())
+                .toString();
+    }
+
+    private void load(final I identity) {
+        try {
+            store.load(identity, (fields, error) -> loaded(identity, fields, error));
+        } catch (Throwable throwable) {
+            loaded(identity, null, throwable);
+        }
+    }
+
+    private void reload(final I identity,
+                        final CachedProfile<I> profile,
+                        final DatabaseCallback<CachedProfile<I>> callback) {
+        misses.increment();
+        try {
+            store.load(identity, (fields, error) -> {
+                if (error != null) {
+                    loadErrors.increment();
+                    identity.getLogger().log(LOAD_ERROR, identity.getUuid());
+                    error.printStackTrace();
+                    callback.onResult(null, error);
+                    return;
+                }
+
+                loads.increment();
+                profile.reload(fields);
+                callback.onResult(profile);
+            });
+        } catch (Throwable throwable) {
+            loadErrors.increment();
+            callback.onResult(null, throwable);
+        }
+    }
+
+    private void loaded(final I identity,
+                        @Nullable final Map<String, Object> fields,
+                        @Nullable final Throwable error) {
+        UUID uuid = identity.getUuid();
+        List<DatabaseCallback<CachedProfile<I>>> callbacks;
+        CachedProfile<I> profile = null;
+        List<CachedProfile<I>> overflow = Collections.emptyList();
+
+        synchronized (this) {
+            callbacks = loading.remove(uuid);
+            if (error == null) {
+                loads.increment();
+                profile = new CachedProfile<>(identity, fields);
+                if (!closed) {
+                    profiles.put(uuid, profile);
+                    overflow = evictOverflow();
+                }
+            } else {
+                loadErrors.increment();
+            }
+        }
+
+        if (error != null) {
+            identity.getLogger().log(LOAD_ERROR, uuid);
+            error.printStackTrace();
+        }
+
+        flush(overflow);
+        if (callbacks == null) return;
+        for (DatabaseCallback<CachedProfile<I>> callback : callbacks) {
+            try {
+                callback.onResult(profile, error);
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        }
+    }
+
+    // Must hold the lock
+    private List<CachedProfile<I>> evictOverflow() {
+        List<CachedProfile<I>> overflow = new ArrayList<>(0);
+        Iterator<CachedProfile<I>> iterator = profiles.values().iterator();
+        while (profiles.size() > settings.getMaximumSize() && iterator.hasNext()) {
+            CachedProfile<I> profile = iterator.next();
+            iterator.remove();
+            evict(profile);
+            overflow.add(profile);
+        }
+
+        return overflow;
+    }
+
+    // Must hold the lock
+    private void evict(final CachedProfile<I> profile) {
+        evictions.increment();
+
+        // Keep it reachable until its last changes have been written
+        if (profile.isPending()) evicted.put(profile.getUuid(), profile);
+    }
+
+    private void housekeeping() {
+        long ttl = TimeUnit.MILLISECONDS.toNanos(settings.getExpireAfterAccessMillis());
+        if (ttl > 0) {
+            long now = System.nanoTime();
+            synchronized (this) {
+                Iterator<CachedProfile<I>> iterator = profiles.values().iterator();
+                while (iterator.hasNext()) {
+                    CachedProfile<I> profile = iterator.next();
+                    if (now - profile.getLastAccess() < ttl) continue;
+
+                    iterator.remove();
+                    evict(profile);
+                }
+            }
+        }
+
+        flush();
+    }
+
+    private synchronized List<CachedProfile<I>> dirtyProfiles() {
+        List<CachedProfile<I>> dirty = new ArrayList<>();
+        for (CachedProfile<I> profile : profiles.values()) {
+            if (profile.isDirty()) dirty.add(profile);
+        }
+
+        dirty.addAll(evicted.values());
+        return dirty;
+    }
+
+    private void flush(final List<CachedProfile<I>> profiles) {
+        for (CachedProfile<I> profile : profiles) {
+            flush(profile);
+        }
+    }
+
+    private void flush(final CachedProfile<I> profile) {
+        Map<DatabaseKey, Value<?>> changes = profile.drain(settings.getVersionKey());
+        if (changes == null) {
+            // Nothing left to write, or the write in progress will pick it up
+            if (!profile.isPending()) release(profile);
+            return;
+        }
+
+        long since = profile.getFlushSince();
+        try {
+            store.store(profile.getIdentity(), changes, error -> flushed(profile, changes, since, error));
+        } catch (Throwable throwable) {
+            flushed(profile, changes, since, throwable);
+        }
+    }
+
+    private void flushed(final CachedProfile<I> profile,
+                         final Map<DatabaseKey, Value<?>> changes,
+                         final long since,
+                         @Nullable final Throwable error) {
+        profile.drained(changes, error != null);
+
+        if (error != null) {
+            // Retried on the next flush
+            flushErrors.increment();
+            profile.getIdentity().getLogger().log(FLUSH_ERROR, changes.keySet(), profile.getUuid());
+            error.printStackTrace();
+            return;
+        }
+
+        long lag = System.nanoTime() - since;
+        flushes.increment();
+        fieldsWritten.add(changes.size());
+        totalLagNanos.add(lag);
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+
+        boolean wasEvicted;
+        synchronized (this) {
+            wasEvicted = evicted.get(profile.getUuid()) == profile;
+        }
+
+        // Evicted profiles are written until they're clean
+        if (wasEvicted) flush(profile);
+    }
+
+    private static boolean sameVersion(@Nullable final Object stored,
+                                       @Nullable final Object cached) {
+        if (stored instanceof Number && cached instanceof Number) {
+            return ((Number) stored).longValue() == ((Number) cached).longValue();
+        }
+
+        return Objects.equals(stored, cached);
+    }
+
+    private synchronized void release(final CachedProfile<I> profile) {
+        evicted.remove(profile.getUuid(), profile);
+    }
+}
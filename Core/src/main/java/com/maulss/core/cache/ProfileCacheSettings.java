@@ -0,0 +1,128 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.database.DatabaseKey;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration used by {@link ProfileCache} to bound its size and schedule
+ * its writes.
+ *
+ * All setters return this instance so that settings can be chained.
+ *
+ * @see ProfileCache
+ */
+public final class ProfileCacheSettings {
+
+    private int     maximumSize             = 1000;
+    private long    expireAfterAccessMillis = TimeUnit.MINUTES.toMillis(10);
+    private long    flushIntervalMillis     = TimeUnit.SECONDS.toMillis(5);
+    private DatabaseKey versionKey          = null;
+
+    /**
+     * Sets the amount of profiles kept in memory.  The least recently used
+     * profile is evicted once the limit is reached.
+     *
+     * @param maximumSize
+     *         maximum amount of cached profiles
+     * @return this instance
+     */
+    public ProfileCacheSettings setMaximumSize(final int maximumSize) {
+        checkArgument(maximumSize > 0, "maximumSize must be positive");
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Sets how long a profile is kept after it was last accessed.  {@code 0}
+     * keeps profiles until they are evicted by size.
+     *
+     * @param duration
+     *         time since the last access
+     * @param unit
+     *         unit of {@code duration}
+     * @return this instance
+     */
+    public ProfileCacheSettings setExpireAfterAccess(final long duration,
+                                                    final TimeUnit unit) {
+        this.expireAfterAccessMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    /**
+     * Sets how often changed fields are written back to the database.  This is
+     * also how often expired profiles are evicted.
+     *
+     * @param interval
+     *         time between writes
+     * @param unit
+     *         unit of {@code interval}
+     * @return this instance
+     */
+    public ProfileCacheSettings setFlushInterval(final long interval,
+                                                final TimeUnit unit) {
+        long millis = toMillis(interval, unit);
+        checkArgument(millis > 0, "flush interval must be positive");
+        this.flushIntervalMillis = millis;
+        return this;
+    }
+
+    /**
+     * Sets the field the cache stores the time of its last write in.  A
+     * cached profile is then only loaded again on {@link
+     * ProfileCache#refresh(com.maulss.core.database.Identity,
+     * com.maulss.core.database.callback.DatabaseCallback) refresh} when
+     * another cache wrote it since, instead of every time.
+     *
+     * @param versionKey
+     *         the field, or {@code null} to always load on refresh
+     * @return this instance
+     */
+    public ProfileCacheSettings setVersionKey(@Nullable final DatabaseKey versionKey) {
+        this.versionKey = versionKey;
+        return this;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getExpireAfterAccessMillis() {
+        return expireAfterAccessMillis;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    @Nullable
+    public DatabaseKey getVersionKey() {
+        return versionKey;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("maximumSize", maximumSize)
+                .append("expireAfterAccessMillis", expireAfterAccessMillis)
+                .append("flushIntervalMillis", flushIntervalMillis)
+                .append("versionKey", versionKey == null ? null : versionKey.getKey())
+                .toString();
+    }
+
+    private static long toMillis(final long duration,
+                                 final TimeUnit unit) {
+        checkArgument(duration >= 0, "duration must not be negative");
+        return checkNotNull(unit, "unit").toMillis(duration);
+    }
+}
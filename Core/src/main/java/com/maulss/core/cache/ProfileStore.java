@@ -0,0 +1,74 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.VoidCallback;
+
+import java.util.Map;
+
+/**
+ * The database behind a {@link ProfileCache}.  Loads the fields of an
+ * {@link Identity} and writes back the ones that changed.
+ *
+ * @param <I>
+ *         the type of identity stored
+ * @see MongoProfileStore
+ * @see SQLProfileStore
+ */
+public interface ProfileStore<I extends Identity> {
+
+    /**
+     * Loads every field stored for the identity.
+     *
+     * @param identity
+     *         the identity to load
+     * @param callback
+     *         called with the fields by key, or {@code null} if the identity
+     *         isn't stored yet
+     */
+    void load(I identity,
+              DatabaseCallback<Map<String, Object>> callback);
+
+    /**
+     * Loads a single field stored for the identity.  By default every field
+     * is loaded.
+     *
+     * @param identity
+     *         the identity to load
+     * @param key
+     *         the field
+     * @param callback
+     *         called with the value of the field, or {@code null} if it or
+     *         the identity isn't stored
+     */
+    default void load(final I identity,
+                      final DatabaseKey key,
+                      final DatabaseCallback<Object> callback) {
+        load(identity, (fields, error) -> callback.onResult(fields == null ? null : fields.get(key.getKey()), error));
+    }
+
+    /**
+     * Writes the changed fields of the identity.
+     *
+     * @param identity
+     *         the identity to write
+     * @param changes
+     *         the fields that changed since the last write, either {@link
+     *         com.maulss.core.database.ValueType#SET set} to their new value
+     *         or {@link com.maulss.core.database.ValueType#GIVE given} or
+     *         {@link com.maulss.core.database.ValueType#TAKE taken} the
+     *         amount they were changed by
+     * @param callback
+     *         called once the write completed
+     */
+    void store(I identity,
+               Map<DatabaseKey, Value<?>> changes,
+               VoidCallback callback);
+}
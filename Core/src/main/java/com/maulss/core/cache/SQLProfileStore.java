@@ -0,0 +1,79 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.VoidCallback;
+import com.maulss.core.database.sql.SQLIdentity;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores profiles in the {@link SQLIdentity#getTable() table} of each
+ * identity.  Changed fields are written with a single {@code UPDATE}, adding
+ * to the fields that were only added to, so the row must already exist, e.g. by having been inserted on first join.
+ *
+ * @param <I>
+ *         the type of identity stored
+ */
+public final class SQLProfileStore<I extends SQLIdentity> implements ProfileStore<I> {
+
+    @Override
+    public void load(final I identity,
+                     final DatabaseCallback<Map<String, Object>> callback) {
+        identity.get((result, error) -> {
+            if (error != null) {
+                callback.onResult(null, error);
+                return;
+            }
+
+            Map<String, Object> fields = null;
+            try {
+                if (result.next()) {
+                    ResultSetMetaData meta = result.getMetaData();
+                    fields = new LinkedHashMap<>(meta.getColumnCount());
+                    for (int x = 1; x <= meta.getColumnCount(); ++x) {
+                        fields.put(meta.getColumnLabel(x), result.getObject(x));
+                    }
+                }
+            } catch (SQLException e) {
+                callback.onResult(null, e);
+                return;
+            }
+
+            callback.onResult(fields);
+        });
+    }
+
+    @Override
+    public void load(final I identity,
+                     final DatabaseKey key,
+                     final DatabaseCallback<Object> callback) {
+        identity.get(callback, key);
+    }
+
+    @Override
+    public void store(final I identity,
+                      final Map<DatabaseKey, Value<?>> changes,
+                      final VoidCallback callback) {
+        if (changes.isEmpty()) {
+            callback.onResult();
+            return;
+        }
+
+        identity.update(
+                (ResultSet result, Throwable error) -> callback.onResult(error),
+                changes.keySet().toArray(new DatabaseKey[changes.size()]),
+                changes.values().toArray(new Value<?>[changes.size()])
+        );
+    }
+}
@@ -5,10 +5,13 @@
 
 package com.maulss.core.database;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.maulss.core.Logger;
+import com.maulss.core.database.callback.DatabaseFuture;
 import com.maulss.core.database.callback.VoidCallback;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Represents any remote or local database.
@@ -51,6 +54,19 @@ public interface Database extends AutoCloseable {
      */
     Database connect(final VoidCallback callback);
 
+    /**
+     * Attempts to establish a new connection to the database.
+     *
+     * @return a future that is completed once connected, or completed
+     * exceptionally if the connection failed
+     * @see #connect(VoidCallback)
+     */
+    default DatabaseFuture<Void> connectAsync() {
+        DatabaseFuture<Void> future = newFuture();
+        connect(future.asVoidCallback());
+        return future;
+    }
+
     /**
      * Forces disconnect from the database.
      *
@@ -75,6 +91,39 @@ public interface Database extends AutoCloseable {
      */
     Database disconnect(final VoidCallback callback);
 
+    /**
+     * Forces disconnect from the database.
+     *
+     * @return a future that is completed once disconnected
+     * @see #disconnect(VoidCallback)
+     */
+    default DatabaseFuture<Void> disconnectAsync() {
+        DatabaseFuture<Void> future = newFuture();
+        disconnect(future.asVoidCallback());
+        return future;
+    }
+
+    /**
+     * Returns the executor that futures returned by this database are
+     * completed on, and so where their non-async continuations run.
+     *
+     * By default futures are completed on the thread that delivered the
+     * result.
+     *
+     * @return the executor for continuations
+     */
+    default Executor getContinuationExecutor() {
+        return MoreExecutors.directExecutor();
+    }
+
+    /**
+     * @return a new future that is completed on the {@link
+     * #getContinuationExecutor() continuation executor}
+     */
+    default <T> DatabaseFuture<T> newFuture() {
+        return new DatabaseFuture<>(getContinuationExecutor());
+    }
+
     /**
      * @return the logger associated with this database instance to track errors
      * and progression
@@ -0,0 +1,107 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.callback;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.maulss.core.service.ServiceExecutor;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link CompletableFuture} that doubles as a {@link DatabaseCallback}, so
+ * it can be passed to any callback based database operation and composed,
+ * joined or timed out afterwards.
+ *
+ * The future is completed on its continuation executor, which means that any
+ * non-async dependent stages run there as well.  By default this is the
+ * thread that delivered the result, typically a database thread.
+ *
+ * @param <T>
+ *         the type of the result
+ * @see com.maulss.core.database.Database#getContinuationExecutor()
+ */
+public class DatabaseFuture<T> extends CompletableFuture<T> implements DatabaseCallback<T> {
+
+    // Shared timer used to fail futures that take too long
+    private static final ScheduledExecutorService
+            TIMEOUTS            = ServiceExecutor.newScheduledExecutor("DatabaseTimeout");
+
+    private static final String
+            TIMED_OUT           = "Database operation did not complete within %s %s";
+
+    private final Executor continuationExecutor;
+
+    public DatabaseFuture() {
+        this(MoreExecutors.directExecutor());
+    }
+
+    /**
+     * @param continuationExecutor
+     *         the executor the future is completed on
+     */
+    public DatabaseFuture(final Executor continuationExecutor) {
+        this.continuationExecutor = checkNotNull(continuationExecutor, "continuation executor");
+    }
+
+    @Override
+    public void onResult(@Nullable final T result,
+                         @Nullable final Throwable error) {
+        continuationExecutor.execute(() -> {
+            if (error == null) {
+                complete(result);
+            } else {
+                completeExceptionally(error);
+            }
+        });
+    }
+
+    /**
+     * Fails this future with a {@link TimeoutException} if it hasn't been
+     * completed within the provided time.  The operation itself is not
+     * interrupted; its eventual result is ignored.
+     *
+     * @param timeout
+     *         maximum time to wait for the result
+     * @param unit
+     *         unit of {@code timeout}
+     * @return this instance
+     */
+    public DatabaseFuture<T> within(final long timeout,
+                                    final TimeUnit unit) {
+        checkArgument(timeout > 0, "timeout must be positive");
+        checkNotNull(unit, "unit");
+
+        if (isDone()) return this;
+
+        ScheduledFuture<?> timer = TIMEOUTS.schedule(() -> continuationExecutor.execute(() ->
+                completeExceptionally(new TimeoutException(String.format(TIMED_OUT, timeout, unit)))
+        ), timeout, unit);
+
+        // Don't keep the timer around once a result arrived
+        whenComplete((result, error) -> timer.cancel(false));
+        return this;
+    }
+
+    /**
+     * @return the executor this future is completed on
+     */
+    public Executor getContinuationExecutor() {
+        return continuationExecutor;
+    }
+
+    /**
+     * Adapts this future to operations that only report an error.
+     *
+     * @return a void callback that completes this future
+     */
+    public VoidCallback asVoidCallback() {
+        return error -> onResult(null, error);
+    }
+}
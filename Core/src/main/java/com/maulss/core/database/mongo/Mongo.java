@@ -5,7 +5,7 @@
 
 package com.maulss.core.database.mongo;
 
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.maulss.core.Logger;
 import com.maulss.core.database.Credentials;
 import com.maulss.core.database.Database;
@@ -28,9 +28,8 @@ import org.bson.codecs.configuration.CodecRegistry;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -46,12 +45,25 @@ public final class Mongo implements Database {
     // String constants
     private static final String
             // Connection start output
-            THREADS_START                   = "%s Mongo access threads started",
+            THREADS_START                   = "%s Mongo access threads started (capacity %s, %s)",
             CONNECTION_START                = "Connecting to Mongo at '%s:%s'",
+            DISPATCHER_TIMEOUT              = "Mongo queries were still pending after %s seconds, closing anyway",
 
             // Connection errors
             CONNECTION_ESTABLISHED_ERROR    = "Mongo connection already established",
-            CONNECTION_ABSENT_ERROR         = "Mongo connection doesn't exist";
+            CONNECTION_ABSENT_ERROR         = "Mongo connection doesn't exist",
+            THREADS_RUNNING_ERROR           = "Mongo access threads already set up";
+
+    /**
+     * Default amount of queries that can be queued before backpressure
+     * applies.
+     */
+    public static final int
+            DEFAULT_QUEUE_CAPACITY          = 8192;
+
+    // Seconds queued queries are given to run on disconnect
+    private static final long
+            DISCONNECT_TIMEOUT              = 10;
 
     // Singleton instance (for now)
     private static Mongo
@@ -85,6 +97,14 @@ public final class Mongo implements Database {
     private boolean
             init = false;
 
+    // Bounded query queue and its access threads
+    private volatile MongoDispatcher
+            dispatcher;
+
+    // Executor that futures returned by this database are completed on
+    private volatile Executor
+            continuationExecutor            = MoreExecutors.directExecutor();
+
     private Mongo(final Credentials credentials) {
         this.credentials = checkNotNull(credentials, "credentials");
         logger.setPrefix("Mongo DB: " + credentials.getDatabase() + "> ");
@@ -135,35 +155,71 @@ public final class Mongo implements Database {
     }
 
     /**
-     * Finds the amount of maximum amount of available (physical and virtual)
-     * processors and sets up n instances of concurrent simultaneous {@link
-     * MongoAccessThread Mongo Access Threads}.
+     * Sets the executor that futures returned by this database are completed
+     * on, e.g. the server's main thread instead of a Mongo driver thread.
      *
-     * These {@link Thread threads} specialise in queueing {@link
-     * com.maulss.core.database.mongo.query.MongoQuery queries} and executing
-     * them in their respective orders.
-     *
-     * The set up and queueing is set up synchronously while the execution is
-     * performed concurrently.
+     * @param continuationExecutor
+     *         the executor for continuations
+     * @return this instance
+     */
+    public Mongo setContinuationExecutor(final Executor continuationExecutor) {
+        this.continuationExecutor = checkNotNull(continuationExecutor, "continuation executor");
+        return this;
+    }
+
+    /**
+     * Sets up a {@link MongoDispatcher} with the {@link #DEFAULT_QUEUE_CAPACITY
+     * default capacity} that blocks submitters while its queue is full.
      *
      * @return this instance
-     * @see MongoAccessThread
-     * @see com.maulss.core.database.mongo.query.MongoQuery
+     * @see #setupThreads(int, MongoBackpressure)
      */
     public Mongo setupThreads() {
-        // create async Mongo access threads
-        List<MongoAccessThread> accessThreads = Lists.newArrayList();
+        return setupThreads(DEFAULT_QUEUE_CAPACITY, MongoBackpressure.BLOCK);
+    }
 
-        int count = Runtime.getRuntime().availableProcessors();
+    /**
+     * Finds the amount of maximum amount of available (physical and virtual)
+     * processors and sets up a {@link MongoDispatcher} drained by n - 1
+     * concurrent {@link MongoAccessThread Mongo Access Threads}.
+     *
+     * These {@link Thread threads} take {@link
+     * com.maulss.core.database.mongo.query.MongoQuery queries} off a bounded
+     * queue and execute them in their respective orders.  Once the queue
+     * holds {@code capacity} queries, {@code policy} decides what happens to
+     * further queries.
+     *
+     * @param capacity
+     *         maximum amount of queued queries
+     * @param policy
+     *         what to do with queries submitted while the queue is full
+     * @return this instance
+     * @throws IllegalStateException
+     *         If the threads have already been set up
+     * @see MongoDispatcher
+     * @see com.maulss.core.database.mongo.query.MongoQuery
+     */
+    public synchronized Mongo setupThreads(final int capacity,
+                                           final MongoBackpressure policy) {
+        if (dispatcher != null && !dispatcher.isClosed())
+            throw new IllegalStateException(THREADS_RUNNING_ERROR);
 
-        // open threads and keep them around
-        IntStream.range(0, count - 1).forEach(c -> accessThreads.add(new MongoAccessThread()));
-        accessThreads.forEach(Thread::start);
+        int count = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        dispatcher = new MongoDispatcher(logger, count, capacity, policy);
 
-        log(THREADS_START, count);
+        log(THREADS_START, count, capacity, policy);
         return this;
     }
 
+    /**
+     * @return the dispatcher executing queued queries, or {@code null} if
+     * {@link #setupThreads()} hasn't been called yet
+     */
+    @Nullable
+    public MongoDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     /**
      * @return the {@code Client} that handles the Mongo connection
      */
@@ -249,6 +305,9 @@ public final class Mongo implements Database {
     /**
      * Attempts to disconnect from the Mongo database.
      *
+     * The access threads are shut down first, after waiting for the queued
+     * queries to be answered, so none of them run against a closed client.
+     *
      * As soon as the connection is closed on another thread, the callback is
      * called with a {@code Throwable} if any errors occur. If no errors occur,
      * then {@code null} is passed through the callback instead.
@@ -266,6 +325,19 @@ public final class Mongo implements Database {
             return this;
         }
 
+        // Queued queries and held back updates need the client to be sent
+        MongoDispatcher dispatcher = this.dispatcher;
+        if (dispatcher != null) {
+            try {
+                if (!dispatcher.close(DISCONNECT_TIMEOUT, TimeUnit.SECONDS)) {
+                    logger.log(DISPATCHER_TIMEOUT, DISCONNECT_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.dispatcher = null;
+        }
+
         listener.getTimer().start();
         listener.setCloseCallback(callback);
 
@@ -277,6 +349,11 @@ public final class Mongo implements Database {
         return this;
     }
 
+    @Override
+    public Executor getContinuationExecutor() {
+        return continuationExecutor;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -292,6 +369,7 @@ public final class Mongo implements Database {
                 .append("codecRegistry", codecRegistry)
                 .append("description", description)
                 .append("init", init)
+                .append("dispatcher", dispatcher)
                 .toString();
     }
 
@@ -5,7 +5,6 @@
 
 package com.maulss.core.database.mongo;
 
-import com.google.common.base.Preconditions;
 import com.maulss.core.database.mongo.query.BulkWriteQuery;
 import com.maulss.core.database.mongo.query.DocumentSearchQuery;
 import com.maulss.core.database.mongo.query.MongoQuery;
@@ -14,56 +13,92 @@ import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.UpdateResult;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * Drains the queue of a {@link MongoDispatcher} and hands every query to the
+ * async Mongo driver.  Blocks while there is nothing to do.
+ *
+ * @see MongoDispatcher
+ */
 public class MongoAccessThread extends Thread {
 
-    public static final Queue<MongoQuery<?>> CONCURRENT_QUERIES = new ConcurrentLinkedQueue<>();
-
     public final static UpdateOptions UPDATE_OPTIONS = new UpdateOptions().upsert(true);
 
+    private final MongoDispatcher dispatcher;
+
+    /**
+     * Queues a query on the dispatcher of the current {@link Mongo} instance.
+     *
+     * @param query
+     *         query to execute
+     * @throws IllegalStateException
+     *         If {@link Mongo#setupThreads()} hasn't been called yet
+     * @see MongoDispatcher#submit(MongoQuery)
+     */
     public static void submitQuery(final MongoQuery<?> query) {
-        CONCURRENT_QUERIES.add(Preconditions.checkNotNull(query));
+        MongoDispatcher dispatcher = Mongo.get().getDispatcher();
+        if (dispatcher == null) throw new IllegalStateException("Mongo access threads have not been set up");
+        dispatcher.submit(query);
     }
 
-    MongoAccessThread() {}
+    MongoAccessThread(final MongoDispatcher dispatcher,
+                      final int id) {
+        super("MongoAccess-" + id);
+        this.dispatcher = checkNotNull(dispatcher, "dispatcher");
+        setDaemon(true);
+    }
 
     @Override
     public void run() {
-        while (true) {
+        while (dispatcher.isRunning()) {
+            MongoQuery<?> query;
             try {
-                // ALLOW THREAD TO SLEEP FOR 15ms BEFORE CONTINUING QUEUE //
-                Thread.sleep(15L);
-            } catch (InterruptedException ignored) {}
+                query = dispatcher.take();
+            } catch (InterruptedException e) {
+                // Shut down
+                break;
+            }
 
-            while (!CONCURRENT_QUERIES.isEmpty()) {
-                MongoQuery<?> query = CONCURRENT_QUERIES.poll();
-                if (query == null) continue;
+            try {
+                if (!dispatcher.coalesce(query)) execute(query);
+            } catch (Throwable throwable) {
+                dispatcher.failed(query, throwable);
+            } finally {
+                dispatcher.executed();
+            }
+        }
+    }
 
-                if (query instanceof SingleUpdateQuery) {
-                    SingleUpdateQuery<UpdateResult> updateQuery = (SingleUpdateQuery<UpdateResult>) query;
-                    updateQuery.getCollection().updateOne(
-                            updateQuery.getSearchQuery(),
-                            updateQuery.getNewDocument(),
-                            UPDATE_OPTIONS,
-                            updateQuery.getDoAfter()
-                    );
+    @SuppressWarnings("unchecked")
+    private void execute(final MongoQuery<?> query) {
+        try {
+            if (query instanceof SingleUpdateQuery) {
+                SingleUpdateQuery<UpdateResult> updateQuery = (SingleUpdateQuery<UpdateResult>) query;
+                updateQuery.getCollection().updateOne(
+                        updateQuery.getSearchQuery(),
+                        updateQuery.getNewDocument(),
+                        UPDATE_OPTIONS,
+                        dispatcher.track(updateQuery.getDoAfter())
+                );
 
-                } else if (query instanceof DocumentSearchQuery) {
-                    DocumentSearchQuery documentSearchQuery = (DocumentSearchQuery) query;
-                    documentSearchQuery.getCollection()
-                            .find(documentSearchQuery.getSearchQuery())
-                            .first(documentSearchQuery.getDoAfter());
+            } else if (query instanceof DocumentSearchQuery) {
+                DocumentSearchQuery documentSearchQuery = (DocumentSearchQuery) query;
+                documentSearchQuery.getCollection()
+                        .find(documentSearchQuery.getSearchQuery())
+                        .first(dispatcher.track(documentSearchQuery.getDoAfter()));
 
-                } else if (query instanceof BulkWriteQuery) {
-                    BulkWriteQuery<BulkWriteResult> bulkWriteQuery = (BulkWriteQuery<BulkWriteResult>) query;
-                    bulkWriteQuery.getCollection().bulkWrite(
-                            bulkWriteQuery.getModels(),
-                            bulkWriteQuery.getDoAfter()
-                    );
-                }
+            } else if (query instanceof BulkWriteQuery) {
+                BulkWriteQuery<BulkWriteResult> bulkWriteQuery = (BulkWriteQuery<BulkWriteResult>) query;
+                bulkWriteQuery.getCollection().bulkWrite(
+                        bulkWriteQuery.getModels(),
+                        dispatcher.track(bulkWriteQuery.getDoAfter())
+                );
             }
+        } catch (Throwable throwable) {
+            // The driver threw instead of calling back
+            dispatcher.untrack();
+            throw throwable;
         }
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.mongo;
+
+/**
+ * Decides what happens to a {@link com.maulss.core.database.mongo.query.MongoQuery
+ * query} that is submitted while the {@link MongoDispatcher} queue is full.
+ *
+ * @see MongoDispatcher
+ */
+public enum MongoBackpressure {
+
+    /**
+     * The submitting thread waits until there is room in the queue, or until
+     * the dispatcher's block timeout elapses after which the query is failed.
+     */
+    BLOCK,
+
+    /**
+     * The query is discarded without being counted as rejected, and its
+     * callback is called straight away with a {@link
+     * com.maulss.core.database.DatabaseException} saying it was dropped.
+     */
+    DROP,
+
+    /**
+     * The query's callback is called straight away with a {@link
+     * com.maulss.core.database.DatabaseException}.
+     */
+    FAIL
+}
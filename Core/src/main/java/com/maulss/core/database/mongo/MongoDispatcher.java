@@ -0,0 +1,479 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.mongo;
+
+import com.maulss.core.Logger;
+import com.maulss.core.database.DatabaseException;
+import com.maulss.core.database.mongo.query.MongoQuery;
+import com.maulss.core.database.mongo.query.SingleUpdateQuery;
+import com.mongodb.async.SingleResultCallback;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A bounded queue of {@link MongoQuery queries} drained by a fixed set of
+ * {@link MongoAccessThread Mongo access threads}.
+ *
+ * Access threads block on the queue while it is empty, so queries are picked
+ * up as soon as they are submitted and idle threads don't wake up at all.
+ * Once the queue is full, the {@link MongoBackpressure backpressure policy}
+ * decides whether submitters wait, or whether the query is dropped or failed.
+ *
+ * {@link SingleUpdateQuery Single updates} are not sent one by one but
+ * grouped per collection for a short {@link #setCoalescingWindow(long,
+ * TimeUnit) window} and sent as one bulk write.
+ *
+ * @see Mongo#setupThreads(int, MongoBackpressure)
+ */
+public final class MongoDispatcher implements AutoCloseable {
+
+    // String constants
+    private static final String
+            QUEUE_FULL                      = "Mongo dispatch queue is full (%s queries)",
+            DISPATCHER_CLOSED               = "Mongo dispatcher has been shut down",
+            QUERY_DROPPED                   = "Dropped %s as the Mongo dispatch queue is full",
+            QUERY_ERROR                     = "Could not dispatch %s:";
+
+    /**
+     * Default time single updates are held back to be coalesced, in
+     * milliseconds.
+     */
+    public static final long
+            DEFAULT_COALESCING_WINDOW       = 5;
+
+    // Maximum amount of models sent in a single bulk write
+    private static final int
+            MAX_BULK_SIZE                   = 1000;
+
+    private final Logger                    logger;
+    private final BlockingQueue<Dispatch>   queue;
+    private final int                       capacity;
+    private final MongoBackpressure         policy;
+    private final List<MongoAccessThread>   threads;
+
+    // Maximum time a BLOCK submitter waits, 0 waits indefinitely
+    private volatile long                   blockTimeoutNanos = 0;
+    private volatile boolean                closed            = false;
+    // No longer accepting queries, but still executing the queued ones
+    private volatile boolean                draining          = false;
+
+    // Groups single updates into bulk writes, null when disabled
+    private volatile MongoUpdateCoalescer   coalescer;
+
+    // Queries taken off the queue and not yet handed over, and driver
+    // operations that haven't called back yet
+    private final AtomicInteger             executing         = new AtomicInteger();
+    private final AtomicInteger             inFlight          = new AtomicInteger();
+
+    // Metrics
+    private final LongAdder                 submitted         = new LongAdder();
+    private final LongAdder                 dispatched        = new LongAdder();
+    private final LongAdder                 dropped           = new LongAdder();
+    private final LongAdder                 rejected          = new LongAdder();
+    private final LongAdder                 totalWaitNanos    = new LongAdder();
+    private final AtomicLong                maxWaitNanos      = new AtomicLong();
+    private final LongAdder                 coalesced         = new LongAdder();
+    private final LongAdder                 bulkWrites        = new LongAdder();
+
+    MongoDispatcher(final Logger logger,
+                    final int threads,
+                    final int capacity,
+                    final MongoBackpressure policy) {
+        checkArgument(threads > 0, "threads must be positive");
+        checkArgument(capacity > 0, "capacity must be positive");
+        this.logger = checkNotNull(logger, "logger");
+        this.policy = checkNotNull(policy, "policy");
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.coalescer = new MongoUpdateCoalescer(DEFAULT_COALESCING_WINDOW, TimeUnit.MILLISECONDS,
+                MAX_BULK_SIZE, coalesced, bulkWrites, inFlight);
+
+        this.threads = new ArrayList<>(threads);
+        for (int x = 0; x < threads; ++x) {
+            MongoAccessThread thread = new MongoAccessThread(this, x);
+            this.threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Sets how long a submitter waits for room in the queue under the {@link
+     * MongoBackpressure#BLOCK} policy before the query is failed.  {@code 0}
+     * waits indefinitely.
+     *
+     * @param timeout
+     *         time to wait
+     * @param unit
+     *         unit of {@code timeout}
+     * @return this instance
+     */
+    public MongoDispatcher setBlockTimeout(final long timeout,
+                                           final TimeUnit unit) {
+        checkArgument(timeout >= 0, "timeout must not be negative");
+        this.blockTimeoutNanos = checkNotNull(unit, "unit").toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Sets how long single updates are held back so that updates to the same
+     * collection can be sent as one bulk write.  {@code 0} sends every update
+     * on its own.
+     *
+     * @param window
+     *         time to hold updates back
+     * @param unit
+     *         unit of {@code window}
+     * @return this instance
+     */
+    public synchronized MongoDispatcher setCoalescingWindow(final long window,
+                                                            final TimeUnit unit) {
+        checkArgument(window >= 0, "window must not be negative");
+        checkNotNull(unit, "unit");
+
+        MongoUpdateCoalescer previous = coalescer;
+        coalescer = window == 0 || closed
+                ? null
+                : new MongoUpdateCoalescer(window, unit, MAX_BULK_SIZE, coalesced, bulkWrites, inFlight);
+
+        if (previous != null) previous.close();
+        return this;
+    }
+
+    /**
+     * Queues a query to be executed by the next free access thread, applying
+     * the backpressure policy if the queue is full.
+     *
+     * @param query
+     *         query to execute
+     */
+    public void submit(final MongoQuery<?> query) {
+        checkNotNull(query, "query");
+
+        if (closed || draining) {
+            fail(query, new DatabaseException(DISPATCHER_CLOSED));
+            return;
+        }
+
+        submitted.increment();
+        Dispatch dispatch = new Dispatch(query);
+        if (queue.offer(dispatch)) return;
+
+        switch (policy) {
+            case BLOCK:
+                try {
+                    long timeout = blockTimeoutNanos;
+                    if (timeout == 0) {
+                        queue.put(dispatch);
+                        return;
+                    }
+
+                    if (queue.offer(dispatch, timeout, TimeUnit.NANOSECONDS)) return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                // Interrupted or timed out
+                rejected.increment();
+                fail(query, new DatabaseException(QUEUE_FULL, capacity));
+                return;
+            case FAIL:
+                rejected.increment();
+                fail(query, new DatabaseException(QUEUE_FULL, capacity));
+                return;
+            case DROP:
+            default:
+                dropped.increment();
+                logger.debug(QUERY_DROPPED, query);
+
+                // Never leave the caller waiting on a query that won't run
+                fail(query, new DatabaseException(QUERY_DROPPED, query));
+        }
+    }
+
+    /**
+     * @return the amount of queries waiting to be executed
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the maximum amount of queries that can be queued
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the policy applied once the queue is full
+     */
+    public MongoBackpressure getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the amount of access threads draining the queue
+     */
+    public int getThreadCount() {
+        return threads.size();
+    }
+
+    /**
+     * @return the amount of queries submitted
+     */
+    public long getSubmittedQueries() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return the amount of queries handed to the driver
+     */
+    public long getDispatchedQueries() {
+        return dispatched.sum();
+    }
+
+    /**
+     * @return the amount of queries discarded under {@link
+     * MongoBackpressure#DROP}
+     */
+    public long getDroppedQueries() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the amount of queries failed because the queue was full
+     */
+    public long getRejectedQueries() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the average time a dispatched query spent in the queue, in
+     * nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long count = dispatched.sum();
+        return count == 0 ? 0 : totalWaitNanos.sum() / count;
+    }
+
+    /**
+     * @return the longest time a dispatched query spent in the queue, in
+     * nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * @return the amount of single updates that were merged into another
+     * update of the same document
+     */
+    public long getCoalescedUpdates() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the amount of bulk writes sent for coalesced single updates
+     */
+    public long getBulkWrites() {
+        return bulkWrites.sum();
+    }
+
+    /**
+     * Stops accepting queries and waits for the queued ones to be executed
+     * and answered by the driver before {@link #close() closing}, so the
+     * client can be closed afterwards without losing any of them.
+     *
+     * @param timeout
+     *         maximum time to wait
+     * @param unit
+     *         unit of {@code timeout}
+     * @return whether every query was answered in time, otherwise the
+     *         queries still queued are failed
+     * @throws InterruptedException
+     *         If interrupted while waiting, the dispatcher is closed anyway
+     */
+    public boolean close(final long timeout,
+                         final TimeUnit unit) throws InterruptedException {
+        checkNotNull(unit, "unit");
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (this) {
+            if (closed) return true;
+            draining = true;
+        }
+
+        try {
+            // Let the access threads empty the queue
+            while (!queue.isEmpty() || executing.get() > 0) {
+                if (System.nanoTime() - deadline >= 0) return false;
+                Thread.sleep(1);
+            }
+        } finally {
+            // Sends the held back updates too
+            close();
+        }
+
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) return false;
+            Thread.sleep(1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops the access threads, sends any updates held back for coalescing
+     * and fails every query still in the queue.
+     */
+    @Override
+    public void close() {
+        MongoUpdateCoalescer coalescer;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            coalescer = this.coalescer;
+            this.coalescer = null;
+        }
+
+        threads.forEach(Thread::interrupt);
+        if (coalescer != null) coalescer.close();
+
+        List<Dispatch> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        for (Dispatch dispatch : remaining) {
+            fail(dispatch.query, new DatabaseException(DISPATCHER_CLOSED));
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("threads", threads.size())
+                .append("capacity", capacity)
+                .append("policy", policy)
+                .append("depth", queue.size())
+                .append("submitted", submitted.sum())
+                .append("dispatched", dispatched.sum())
+                .append("dropped", dropped.sum())
+                .append("rejected", rejected.sum())
+                .append("averageWaitNanos", getAverageWaitNanos())
+                .append("maxWaitNanos", maxWaitNanos.get())
+                .append("coalesced", coalesced.sum())
+                .append("bulkWrites", bulkWrites.sum())
+                .toString();
+    }
+
+    /**
+     * Waits for the next query and records how long it has been queued.
+     *
+     * @return the next query to execute
+     * @throws InterruptedException
+     *         If the dispatcher is shut down while waiting
+     */
+    MongoQuery<?> take() throws InterruptedException {
+        Dispatch dispatch = queue.take();
+        executing.incrementAndGet();
+
+        long wait = System.nanoTime() - dispatch.queuedAt;
+        totalWaitNanos.add(wait);
+        maxWaitNanos.accumulateAndGet(wait, Math::max);
+        dispatched.increment();
+
+        return dispatch.query;
+    }
+
+    /**
+     * Hands a single update to the coalescer instead of executing it
+     * straight away.
+     *
+     * @return whether the query was taken over by the coalescer
+     */
+    boolean coalesce(final MongoQuery<?> query) {
+        MongoUpdateCoalescer coalescer = this.coalescer;
+        if (coalescer == null || !(query instanceof SingleUpdateQuery)) return false;
+
+        coalescer.add((SingleUpdateQuery<?>) query);
+        return true;
+    }
+
+    /**
+     * Reports a query that threw while being handed to the driver.
+     */
+    void failed(final MongoQuery<?> query,
+                final Throwable error) {
+        logger.log(QUERY_ERROR, query);
+        error.printStackTrace();
+        fail(query, error);
+    }
+
+    /**
+     * Called by an access thread once it handed a taken query over.
+     */
+    void executed() {
+        executing.decrementAndGet();
+    }
+
+    /**
+     * Counts a driver operation until it calls back.
+     */
+    <T> SingleResultCallback<T> track(final SingleResultCallback<T> callback) {
+        inFlight.incrementAndGet();
+        return (result, error) -> {
+            try {
+                callback.onResult(result, error);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Stops counting a tracked operation that never started.
+     */
+    void untrack() {
+        inFlight.decrementAndGet();
+    }
+
+    boolean isRunning() {
+        return !closed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fail(final MongoQuery<?> query,
+                             final Throwable error) {
+        try {
+            ((MongoQuery<Object>) query).getDoAfter().onResult(null, error);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        }
+    }
+
+    private static final class Dispatch {
+
+        private final MongoQuery<?> query;
+        private final long          queuedAt = System.nanoTime();
+
+        private Dispatch(final MongoQuery<?> query) {
+            this.query = query;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.google.common.collect.Lists;
 import com.maulss.core.Logger;
 import com.maulss.core.database.*;
 import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.DatabaseFuture;
 import com.maulss.core.database.callback.VoidBulkWriteResult;
 import com.maulss.core.database.callback.VoidCallback;
 import com.maulss.core.database.callback.VoidUpdateResult;
@@ -235,4 +236,54 @@ public interface MongoIdentity extends Identity {
 
         coll.bulkWrite(operations, doAfter);
     }
+
+    default DatabaseFuture<List<Document>> retrieveAllAsync() {
+        DatabaseFuture<List<Document>> future = Mongo.get().newFuture();
+        retrieveAll(future);
+        return future;
+    }
+
+    default DatabaseFuture<Document> retrieveAsync() {
+        DatabaseFuture<Document> future = Mongo.get().newFuture();
+        retrieve(future);
+        return future;
+    }
+
+    default DatabaseFuture<Void> insertAsync(final Map<DatabaseKey, Object> map) {
+        DatabaseFuture<Void> future = Mongo.get().newFuture();
+        insert(map, future.asVoidCallback());
+        return future;
+    }
+
+    default DatabaseFuture<UpdateResult> updateAsync(final DatabaseKey stat,
+                                                     final Object value) {
+        return updateAsync(stat, new Value<>(value));
+    }
+
+    default DatabaseFuture<UpdateResult> updateAsync(final DatabaseKey stat,
+                                                     final Value value) {
+        DatabaseFuture<UpdateResult> future = Mongo.get().newFuture();
+        update(stat, value, future);
+        return future;
+    }
+
+    default DatabaseFuture<UpdateResult> updateAsync(final DatabaseKey stat,
+                                                     final Object obj,
+                                                     final MongoDataOperator operator) {
+        DatabaseFuture<UpdateResult> future = Mongo.get().newFuture();
+        update(stat, obj, operator, future);
+        return future;
+    }
+
+    default DatabaseFuture<BulkWriteResult> updateAsync(final Map<DatabaseKey, Value> operations) {
+        DatabaseFuture<BulkWriteResult> future = Mongo.get().newFuture();
+        update(operations, future);
+        return future;
+    }
+
+    default DatabaseFuture<BulkWriteResult> updateAsync(final List<WriteModel<Document>> operations) {
+        DatabaseFuture<BulkWriteResult> future = Mongo.get().newFuture();
+        update(operations, future);
+        return future;
+    }
 }
\ No newline at end of file
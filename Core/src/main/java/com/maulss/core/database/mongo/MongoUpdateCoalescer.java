@@ -0,0 +1,362 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.mongo;
+
+import com.maulss.core.database.mongo.query.SingleUpdateQuery;
+import com.maulss.core.service.ServiceExecutor;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoWriteException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.*;
+
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Groups {@link SingleUpdateQuery single updates} per collection for a short
+ * window and sends each group as one unordered {@code bulkWrite}.
+ *
+ * Updates that target the same filter are merged into a single model where
+ * possible: {@code $set} values replace earlier ones, numeric {@code $inc}
+ * amounts are added up and updates of distinct fields are combined.  When two
+ * updates of the same filter can't be merged, the pending batch is sent first
+ * so that both never end up in the same unordered bulk write.
+ *
+ * Every original callback receives the {@link UpdateResult} of its own model,
+ * or the write error reported for it.
+ */
+final class MongoUpdateCoalescer implements AutoCloseable {
+
+    private static final String
+            SET                             = "$set",
+            INC                             = "$inc";
+
+    // Unordered so one failing model doesn't hold back the others
+    private static final BulkWriteOptions
+            OPTIONS                         = new BulkWriteOptions().ordered(false);
+
+    private final long                                  windowNanos;
+    private final int                                   maxBatchSize;
+    private final ScheduledExecutorService              timer;
+
+    // Pending batches per collection; guarded by this
+    private final Map<MongoNamespace, Batch>            batches     = new HashMap<>();
+
+    // Shared with the dispatcher so they survive the window being changed
+    private final LongAdder                             coalesced;
+    private final LongAdder                             bulkWrites;
+    // Bulk writes sent and not yet answered, shared with the dispatcher
+    private final AtomicInteger                         inFlight;
+
+    MongoUpdateCoalescer(final long window,
+                         final TimeUnit unit,
+                         final int maxBatchSize,
+                         final LongAdder coalesced,
+                         final LongAdder bulkWrites,
+                         final AtomicInteger inFlight) {
+        this.windowNanos = checkNotNull(unit, "unit").toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+        this.coalesced = checkNotNull(coalesced, "coalesced");
+        this.bulkWrites = checkNotNull(bulkWrites, "bulkWrites");
+        this.inFlight = checkNotNull(inFlight, "inFlight");
+        this.timer = ServiceExecutor.newScheduledExecutor("MongoCoalescer");
+    }
+
+    /**
+     * Adds an update to the pending batch of its collection.
+     */
+    void add(final SingleUpdateQuery<?> query) {
+        MongoCollection<Document> collection = query.getCollection();
+        BsonDocument filter = query.getSearchQuery().toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+        BsonDocument update = query.getNewDocument().toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+
+        @SuppressWarnings("unchecked")
+        SingleResultCallback<UpdateResult> callback = (SingleResultCallback<UpdateResult>) query.getDoAfter();
+
+        Batch flush = null;
+        synchronized (this) {
+            MongoNamespace namespace = collection.getNamespace();
+            Batch batch = batches.get(namespace);
+
+            if (batch != null && !batch.canMerge(filter, update)) {
+                // Send what we have first so both writes keep their order
+                flush = batches.remove(namespace);
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch(collection);
+                batches.put(namespace, batch);
+
+                Batch scheduled = batch;
+                timer.schedule(() -> flush(namespace, scheduled), windowNanos, TimeUnit.NANOSECONDS);
+            }
+
+            if (batch.add(filter, update, callback)) coalesced.increment();
+            if (batch.models.size() >= maxBatchSize) {
+                batches.remove(namespace);
+                if (flush != null) send(flush);
+                flush = batch;
+            }
+        }
+
+        if (flush != null) send(flush);
+    }
+
+    /**
+     * Sends every pending batch and stops the window timer.
+     */
+    @Override
+    public void close() {
+        List<Batch> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+
+        pending.forEach(this::send);
+        timer.shutdown();
+    }
+
+    private void flush(final MongoNamespace namespace,
+                       final Batch batch) {
+        synchronized (this) {
+            // The batch may already have been sent because it filled up
+            if (!batches.remove(namespace, batch)) return;
+        }
+
+        send(batch);
+    }
+
+    private void send(final Batch batch) {
+        bulkWrites.increment();
+
+        List<UpdateOneModel<Document>> models = new ArrayList<>(batch.models.size());
+        for (Model model : batch.models) {
+            models.add(new UpdateOneModel<>(model.filter, model.update, MongoAccessThread.UPDATE_OPTIONS));
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            batch.collection.bulkWrite(models, OPTIONS, (result, error) -> {
+                try {
+                    complete(batch, result, error);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private static void complete(final Batch batch,
+                                 final BulkWriteResult result,
+                                 final Throwable error) {
+        if (error instanceof MongoBulkWriteException) {
+            // Unordered, so every model without a write error was applied
+            MongoBulkWriteException bulkError = (MongoBulkWriteException) error;
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            for (BulkWriteError writeError : bulkError.getWriteErrors()) {
+                errors.put(writeError.getIndex(), writeError);
+            }
+
+            complete(batch, bulkError.getWriteResult(), errors, bulkError);
+        } else if (error != null) {
+            for (Model model : batch.models) {
+                model.complete(null, error);
+            }
+        } else {
+            complete(batch, result, Collections.emptyMap(), null);
+        }
+    }
+
+    private static void complete(final Batch batch,
+                                 final BulkWriteResult result,
+                                 final Map<Integer, BulkWriteError> errors,
+                                 final MongoBulkWriteException bulkError) {
+        if (!result.wasAcknowledged()) {
+            for (Model model : batch.models) {
+                model.complete(UpdateResult.unacknowledged(), null);
+            }
+            return;
+        }
+
+        Map<Integer, BsonValue> upserts = new HashMap<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            upserts.put(upsert.getIndex(), upsert.getId());
+        }
+
+        // Per model modified counts aren't reported, but are known when all or none were modified
+        int matched = result.getMatchedCount();
+        Long modified = null;
+        if (result.isModifiedCountAvailable()) {
+            if (result.getModifiedCount() == 0) modified = 0L;
+            else if (result.getModifiedCount() == matched) modified = 1L;
+        }
+
+        for (int x = 0; x < batch.models.size(); ++x) {
+            Model model = batch.models.get(x);
+
+            BulkWriteError writeError = errors.get(x);
+            if (writeError != null) {
+                model.complete(null, new MongoWriteException(writeError, bulkError.getServerAddress()));
+                continue;
+            }
+
+            BsonValue upsertedId = upserts.get(x);
+            model.complete(upsertedId != null
+                    ? UpdateResult.acknowledged(0, 0L, upsertedId)
+                    : UpdateResult.acknowledged(1, modified, null), null);
+        }
+    }
+
+    /**
+     * Pending updates of a single collection.
+     */
+    private static final class Batch {
+
+        private final MongoCollection<Document>     collection;
+        private final List<Model>                   models  = new ArrayList<>();
+        private final Map<BsonDocument, Model>      filters = new HashMap<>();
+
+        private Batch(final MongoCollection<Document> collection) {
+            this.collection = collection;
+        }
+
+        private boolean canMerge(final BsonDocument filter,
+                                 final BsonDocument update) {
+            Model model = filters.get(filter);
+            return model == null || model.canMerge(update);
+        }
+
+        /**
+         * @return whether the update was merged into an existing model
+         */
+        private boolean add(final BsonDocument filter,
+                            final BsonDocument update,
+                            final SingleResultCallback<UpdateResult> callback) {
+            Model model = filters.get(filter);
+            boolean merged = model != null;
+
+            if (merged) {
+                model.merge(update);
+            } else {
+                model = new Model(filter, update.clone());
+                filters.put(filter, model);
+                models.add(model);
+            }
+
+            model.callbacks.add(callback);
+            return merged;
+        }
+    }
+
+    /**
+     * A single update model and the callbacks of every update merged into it.
+     */
+    private static final class Model {
+
+        private final BsonDocument                              filter;
+        private final BsonDocument                              update;
+        private final List<SingleResultCallback<UpdateResult>>  callbacks = new ArrayList<>(1);
+
+        private Model(final BsonDocument filter,
+                      final BsonDocument update) {
+            this.filter = filter;
+            this.update = update;
+        }
+
+        private boolean canMerge(final BsonDocument next) {
+            for (Map.Entry<String, BsonValue> operator : next.entrySet()) {
+                String op = operator.getKey();
+                // Replacement documents can't be combined
+                if (!op.startsWith("$") || !operator.getValue().isDocument()) return false;
+
+                for (Map.Entry<String, BsonValue> field : operator.getValue().asDocument().entrySet()) {
+                    if (!canMerge(op, field.getKey(), field.getValue())) return false;
+                }
+            }
+
+            return true;
+        }
+
+        private boolean canMerge(final String op,
+                                 final String field,
+                                 final BsonValue value) {
+            for (Map.Entry<String, BsonValue> operator : update.entrySet()) {
+                if (!operator.getValue().isDocument()) return false;
+
+                for (String existing : operator.getValue().asDocument().keySet()) {
+                    if (!conflicts(existing, field)) continue;
+
+                    // The same field may only be written twice by $set, or by $inc with numbers
+                    if (!existing.equals(field) || !operator.getKey().equals(op)) return false;
+                    if (op.equals(SET)) continue;
+                    if (!op.equals(INC) || !value.isNumber()
+                            || !operator.getValue().asDocument().get(existing).isNumber()) return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void merge(final BsonDocument next) {
+            for (Map.Entry<String, BsonValue> operator : next.entrySet()) {
+                BsonDocument fields = update.containsKey(operator.getKey())
+                        ? update.getDocument(operator.getKey())
+                        : new BsonDocument();
+                update.put(operator.getKey(), fields);
+
+                for (Map.Entry<String, BsonValue> field : operator.getValue().asDocument().entrySet()) {
+                    BsonValue previous = fields.get(field.getKey());
+                    fields.put(field.getKey(), previous != null && operator.getKey().equals(INC)
+                            ? add(previous.asNumber(), field.getValue().asNumber())
+                            : field.getValue());
+                }
+            }
+        }
+
+        private void complete(final UpdateResult result,
+                              final Throwable error) {
+            for (SingleResultCallback<UpdateResult> callback : callbacks) {
+                try {
+                    callback.onResult(result, error);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            }
+        }
+
+        private static boolean conflicts(final String a,
+                                         final String b) {
+            return a.equals(b) || a.startsWith(b + '.') || b.startsWith(a + '.');
+        }
+
+        private static BsonNumber add(final BsonNumber a,
+                                      final BsonNumber b) {
+            if (a.isDouble() || b.isDouble()) return new BsonDouble(a.doubleValue() + b.doubleValue());
+            if (a.isInt64() || b.isInt64()) return new BsonInt64(a.longValue() + b.longValue());
+
+            long sum = (long) a.intValue() + b.intValue();
+            return sum == (int) sum ? new BsonInt32((int) sum) : new BsonInt64(sum);
+        }
+    }
+}
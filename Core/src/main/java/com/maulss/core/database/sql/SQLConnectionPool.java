@@ -0,0 +1,391 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import com.maulss.core.Logger;
+import com.maulss.core.database.DatabaseException;
+import com.maulss.core.service.ServiceExecutor;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A bounded pool of JDBC {@link Connection}s shared by every operation of a
+ * single {@link SQLDatabase}.
+ *
+ * Connections are validated when borrowed, connections above the minimum
+ * size are closed once they have been idle for too long, and connections
+ * that are held longer than the leak detection threshold are reported
+ * together with the stack trace of the thread that borrowed them.
+ *
+ * Every {@link #borrow()} must be paired with a {@link #release(Connection)},
+ * preferably in a {@code finally} block.
+ *
+ * @see SQLPoolSettings
+ */
+public final class SQLConnectionPool implements AutoCloseable {
+
+    // String constants
+    private static final String
+            // Outputs
+            POOL_OPEN               = "Opened connection pool with %s/%s connections",
+            POOL_CLOSE              = "Closed connection pool (%s connections)",
+            CONNECTION_EVICTED      = "Evicted idle connection (%s idle, %s total)",
+            CONNECTION_INVALID      = "Discarded invalid connection on borrow",
+            CONNECTION_LEAKED       = "Connection borrowed by '%s' has been held for %sms; possible leak:",
+
+            // Errors
+            POOL_CLOSED             = "Connection pool is closed",
+            BORROW_TIMEOUT          = "Timed out after %sms waiting for a free connection (%s in use)",
+            BORROW_INTERRUPTED      = "Interrupted while waiting for a free connection",
+            UNKNOWN_CONNECTION      = "Released a connection that does not belong to this pool",
+            NO_CONNECTION           = "Connection factory did not open a connection";
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        Connection open() throws DatabaseException;
+    }
+
+    private final ConnectionFactory             factory;
+    private final SQLPoolSettings               settings;
+    private final Logger                        logger;
+
+    // Idle connections; used as a stack so the most recently used ones are reused
+    private final BlockingDeque<IdleConnection> idle        = new LinkedBlockingDeque<>();
+
+    // Borrowed connections along with where they were borrowed from
+    private final Map<Connection, Lease>        leased      = new ConcurrentHashMap<>();
+
+    // One permit per connection that may still be borrowed
+    private final Semaphore                     permits;
+
+    // Prepared statements kept open for each connection
+    private final Map<Connection, SQLStatementCache> statements = new ConcurrentHashMap<>();
+    private final LongAdder                     statementHits   = new LongAdder();
+    private final LongAdder                     statementMisses = new LongAdder();
+
+    private final AtomicInteger                 total       = new AtomicInteger();
+    private final ScheduledExecutorService      housekeeper;
+
+    private volatile boolean                    closed      = false;
+
+    public SQLConnectionPool(final ConnectionFactory factory,
+                             final SQLPoolSettings settings,
+                             final Logger logger) throws DatabaseException {
+        this.factory = checkNotNull(factory, "factory");
+        this.settings = checkNotNull(settings, "settings");
+        this.logger = checkNotNull(logger, "logger");
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+
+        // Open the minimum amount of connections straight away so that the
+        // first queries don't have to pay for the handshake
+        try {
+            fill();
+        } catch (DatabaseException e) {
+            closeIdle();
+            throw e;
+        }
+
+        housekeeper = ServiceExecutor.newScheduledExecutor("SQLPool");
+        long interval = settings.getHousekeepingMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+
+        logger.debug(POOL_OPEN, total.get(), settings.getMaxSize());
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none are idle
+     * and the pool is not yet full.  If the pool is full, this blocks for up
+     * to the configured borrow timeout.
+     *
+     * @return a validated connection that must be passed back to {@link
+     * #release(Connection)}
+     * @throws DatabaseException
+     *         If the pool is closed, the timeout elapsed or a new connection
+     *         could not be opened
+     */
+    public Connection borrow() throws DatabaseException {
+        checkOpen();
+
+        long timeout = settings.getBorrowTimeoutMillis();
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new DatabaseException(BORROW_TIMEOUT, timeout, leased.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(BORROW_INTERRUPTED, e);
+        }
+
+        try {
+            Connection connection = null;
+            while (connection == null) {
+                IdleConnection candidate = idle.pollFirst();
+                if (candidate == null) {
+                    connection = create();
+                } else if (isValid(candidate.connection)) {
+                    connection = candidate.connection;
+                } else {
+                    logger.debug(CONNECTION_INVALID);
+                    discard(candidate.connection);
+                }
+            }
+
+            leased.put(connection, new Lease(settings.getLeakThresholdMillis() > 0));
+            return connection;
+        } catch (DatabaseException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a previously borrowed connection to the pool.  Closed
+     * connections are discarded instead of being reused.
+     *
+     * @param connection
+     *         the connection obtained from {@link #borrow()}
+     * @throws IllegalArgumentException
+     *         If the connection was not borrowed from this pool
+     */
+    public void release(final Connection connection) {
+        checkNotNull(connection, "connection");
+        if (leased.remove(connection) == null) {
+            throw new IllegalArgumentException(UNKNOWN_CONNECTION);
+        }
+
+        try {
+            if (closed || connection.isClosed()) {
+                discard(connection);
+            } else {
+                // Don't leak transaction state into the next borrower
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+
+                idle.offerFirst(new IdleConnection(connection));
+
+                // The pool may have been closed while this was being returned
+                if (closed) closeIdle();
+            }
+        } catch (SQLException e) {
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return the amount of connections that are currently borrowed
+     */
+    public int getActiveConnections() {
+        return leased.size();
+    }
+
+    /**
+     * @return the amount of open connections that are waiting to be borrowed
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * @return the amount of open connections, both idle and borrowed
+     */
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    /**
+     * @return the amount of threads currently waiting for a connection
+     */
+    public int getPendingBorrowers() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return how many times a cached prepared statement has been reused
+     */
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    /**
+     * @return how many times a statement had to be prepared by the driver
+     */
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    public SQLPoolSettings getSettings() {
+        return settings;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes every idle connection and stops housekeeping.  Borrowed
+     * connections are closed as soon as they are released.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        housekeeper.shutdownNow();
+        int count = total.get();
+        closeIdle();
+
+        logger.debug(POOL_CLOSE, count);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("active", getActiveConnections())
+                .append("idle", getIdleConnections())
+                .append("total", getTotalConnections())
+                .append("settings", settings)
+                .append("closed", closed)
+                .toString();
+    }
+
+    private void checkOpen() throws DatabaseException {
+        if (closed) throw new DatabaseException(POOL_CLOSED);
+    }
+
+    /**
+     * Returns the prepared statement cache of a connection borrowed from this
+     * pool.
+     *
+     * @param connection
+     *         a connection obtained from {@link #borrow()}
+     * @return the statement cache of the connection
+     */
+    SQLStatementCache getStatementCache(final Connection connection) {
+        return statements.computeIfAbsent(connection, c -> new SQLStatementCache(c,
+                settings.getStatementCacheSize(), statementHits, statementMisses));
+    }
+
+    private Connection create() throws DatabaseException {
+        Connection connection = factory.open();
+        if (connection == null) throw new DatabaseException(NO_CONNECTION);
+        total.incrementAndGet();
+        return connection;
+    }
+
+    private boolean isValid(final Connection connection) {
+        int timeout = settings.getValidationTimeout();
+        try {
+            return timeout == 0 ? !connection.isClosed() : connection.isValid(timeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(final Connection connection) {
+        total.decrementAndGet();
+
+        SQLStatementCache cache = statements.remove(connection);
+        if (cache != null) cache.close();
+
+        try {
+            connection.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private void closeIdle() {
+        IdleConnection next;
+        while ((next = idle.pollFirst()) != null) {
+            discard(next.connection);
+        }
+    }
+
+    // Tops the pool up to its minimum size without exceeding the maximum
+    private void fill() throws DatabaseException {
+        while (!closed && total.get() < settings.getMinSize() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(new IdleConnection(create()));
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict connections that have been idle for too long, starting
+            // with the least recently used ones at the tail
+            long idleTimeout = settings.getIdleTimeoutMillis();
+            if (idleTimeout > 0) {
+                Iterator<IdleConnection> iterator = idle.descendingIterator();
+                while (iterator.hasNext() && total.get() > settings.getMinSize()) {
+                    IdleConnection next = iterator.next();
+                    if (now - next.since > idleTimeout && idle.remove(next)) {
+                        discard(next.connection);
+                        logger.debug(CONNECTION_EVICTED, idle.size(), total.get());
+                    }
+                }
+            }
+
+            long leakThreshold = settings.getLeakThresholdMillis();
+            if (leakThreshold > 0) {
+                for (Lease lease : leased.values()) {
+                    long held = now - lease.since;
+                    if (held > leakThreshold && !lease.reported) {
+                        lease.reported = true;
+                        logger.log(CONNECTION_LEAKED, lease.thread, held);
+                        if (lease.trace != null) lease.trace.printStackTrace(logger.getOutput());
+                    }
+                }
+            }
+
+            fill();
+        } catch (Throwable throwable) {
+            // Never let the scheduled task die
+            throwable.printStackTrace();
+        }
+    }
+
+    private static final class IdleConnection {
+
+        private final Connection    connection;
+        private final long          since       = System.currentTimeMillis();
+
+        private IdleConnection(final Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private static final class Lease {
+
+        private final String        thread      = Thread.currentThread().getName();
+        private final long          since       = System.currentTimeMillis();
+        private final Throwable     trace;
+        private volatile boolean    reported    = false;
+
+        private Lease(final boolean trace) {
+            this.trace = trace ? new Throwable("Connection borrowed here") : null;
+        }
+    }
+}
@@ -6,21 +6,33 @@
 package com.maulss.core.database.sql;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.maulss.core.Logger;
 import com.maulss.core.database.*;
 import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.DatabaseFuture;
 import com.maulss.core.database.callback.UnhandledCallback;
 import com.maulss.core.database.callback.VoidCallback;
 import com.maulss.core.service.ServiceExecutor;
 import com.maulss.core.service.timer.Timer;
-import com.sun.rowset.CachedRowSetImpl;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nullable;
 import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
 import java.sql.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -36,6 +48,8 @@ public abstract class SQLDatabase implements Database {
             // Execution timing
             UPDATE_TIMING                   = "Database update: %sms",
             QUERY_TIMING                    = "Database query:  %sms",
+            STREAM_TIMING                   = "Database stream of %s rows: %sms",
+            BATCH_TIMING                    = "Database batch of %s statements: %sms",
 
             // SQL Syntax
             CREATE_DATABASE                 = "CREATE DATABASE `%s`;",
@@ -43,12 +57,17 @@ public abstract class SQLDatabase implements Database {
 
             // Errors
             INVALID_SYNTAX                  = "Invalid syntax",
-            COLUMNS_VALUES_NO_MATCH         = "Column count doesn't match value count";
+            COLUMNS_VALUES_NO_MATCH         = "Column count doesn't match value count",
+            NOT_CONNECTED                   = "Database is not connected";
 
+    // Parameters used for executions without any values
+    private static final Object[]
+            NO_VALUES                       = new Object[0];
+
+    // Creates the row sets that query results are copied into
+    private static final RowSetFactory
+            ROW_SETS                        = newRowSetFactory();
 
-    // Timer reference used for async stopwatch timing
-    private volatile Timer
-            cachedTimer                     = new Timer();
 
     // Logger used for outputs and debugging
     private final Logger
@@ -58,19 +77,44 @@ public abstract class SQLDatabase implements Database {
     private final DatabaseCallback
             unhandledCallback               = new UnhandledCallback(logger);
 
+    // Sizing and maintenance settings for the connection pool
+    private final SQLPoolSettings
+            poolSettings;
+
     // The executor used for executing updates, queries and other management
     private volatile ExecutorService
             executor;
 
-    // Connection pipeline to the database
-    private volatile Connection
-            connection;
+    // The executor that returned futures are completed on
+    private volatile Executor
+            continuationExecutor            = MoreExecutors.directExecutor();
+
+    // Pool of connections to the database shared by all executions
+    private volatile SQLConnectionPool
+            pool;
 
     public SQLDatabase() {
-        this(ServiceExecutor.newAsyncExecutor());
+        this(new SQLPoolSettings());
+    }
+
+    public SQLDatabase(final SQLPoolSettings poolSettings) {
+        this(poolSettings, newExecutor(poolSettings));
     }
 
     public SQLDatabase(final ExecutorService executor) {
+        this(new SQLPoolSettings(), executor);
+    }
+
+    /**
+     * @param poolSettings
+     *         settings for the connection pool
+     * @param executor
+     *         executor used for executions; should have as many threads as
+     *         the pool has connections in order to run them in parallel
+     */
+    public SQLDatabase(final SQLPoolSettings poolSettings,
+                       final ExecutorService executor) {
+        this.poolSettings = checkNotNull(poolSettings, "pool settings");
         this.executor = checkNotNull(executor, "executor");
     }
 
@@ -95,31 +139,45 @@ public abstract class SQLDatabase implements Database {
         }
 
         executor.execute(() -> {
-            cachedTimer.start();
+            Timer timer = new Timer().start();
 
             String connectUrl;
+            SQLConnectionPool pool = null;
             try {
-                connection = open();
-                connectUrl = connection.getMetaData().getURL();
+                pool = new SQLConnectionPool(this::open, poolSettings, logger);
+                Connection connection = pool.borrow();
+                try {
+                    connectUrl = connection.getMetaData().getURL();
+                } finally {
+                    pool.release(connection);
+                }
+
+                this.pool = pool;
             } catch (SQLException | DatabaseException e) {
+                // the pool's housekeeper and minimum connections would outlive it
+                if (pool != null) pool.close();
                 callback.onResult(e);
                 return;
             } finally {
-                cachedTimer.forceStop();
+                timer.forceStop();
             }
 
             debug(CONNECTION_OPEN, getName(), connectUrl,
-                    cachedTimer.getTime(TimeUnit.MILLISECONDS));
+                    timer.getTime(TimeUnit.MILLISECONDS));
+            callback.onResult();
         });
 
         return this;
     }
 
     /**
-     * Opens the connection for the database.  If the database type does not use
-     * {@link Connection} as its Connection variable, it has the
-     * ability to return null.  Null may also be returned if the connection to
-     * the database has not been made properly.
+     * Opens a new connection for the database.  This is called by the {@link
+     * SQLConnectionPool connection pool} whenever it needs to grow, so it may
+     * be called concurrently and more than once per {@link
+     * #connect(VoidCallback)}.  If the database type does not use {@link
+     * Connection} as its Connection variable, it has the ability to return
+     * null.  Null may also be returned if the connection to the database has
+     * not been made properly.
      *
      * @return Null if the database was not found, or the database type does not
      * work with the {@link Connection} object. Otherwise it returns
@@ -143,45 +201,68 @@ public abstract class SQLDatabase implements Database {
         return executor;
     }
 
+    /**
+     * Sets the executor that futures returned by this database are completed
+     * on.  Useful to run continuations on e.g. the server's main thread
+     * instead of a database thread.
+     *
+     * @param continuationExecutor
+     *         the executor for continuations
+     * @return this instance
+     */
+    public final SQLDatabase setContinuationExecutor(final Executor continuationExecutor) {
+        this.continuationExecutor = checkNotNull(continuationExecutor, "continuation executor");
+        return this;
+    }
+
+    @Override
+    public final Executor getContinuationExecutor() {
+        return continuationExecutor;
+    }
+
     @Override
     public final synchronized Logger getLogger() {
         return logger;
     }
 
+    /**
+     * @return The settings used to size and maintain the connection pool
+     */
+    public final SQLPoolSettings getPoolSettings() {
+        return poolSettings;
+    }
+
     @Override
     public final synchronized boolean isConnected() {
-        if (connection == null) return false;
-
-        try {
-            return !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return pool != null && !pool.isClosed();
     }
 
     @Override
     public final synchronized SQLDatabase disconnect(final VoidCallback callback) {
         if (isConnected()) {
-            cachedTimer.start();
+            Timer timer = new Timer().start();
 
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException ignored) {
-                callback.onResult(ignored);
-            } finally {
-                cachedTimer.forceStop();
-            }
+            pool.close();
+            pool = null;
 
-            debug(CONNECTION_CLOSE, cachedTimer.getTime(TimeUnit.MILLISECONDS));
+            timer.forceStop();
+            debug(CONNECTION_CLOSE, timer.getTime(TimeUnit.MILLISECONDS));
         }
 
+        callback.onResult();
         return this;
     }
 
+    /**
+     * Returns the pool that connections to this database are borrowed from.
+     * Any connection obtained through {@link SQLConnectionPool#borrow()} must
+     * be released back to the pool once it's no longer needed.
+     *
+     * @return The connection pool, or {@code null} if not connected
+     */
     @Nullable
-    public final synchronized Connection getConnection() {
-        return connection;
+    public final synchronized SQLConnectionPool getPool() {
+        return pool;
     }
 
     public final SQLTable getTable(final String name) {
@@ -210,111 +291,216 @@ public abstract class SQLDatabase implements Database {
 
     public final void query(final DatabaseCallback<ResultSet> callback,
                             final String query) {
+        query(callback, query, NO_VALUES);
+    }
+
+    public final void query(final DatabaseCallback<ResultSet> callback,
+                            final String query,
+                            final Object... values) {
         executor.execute(() -> {
 
             // Record heavy tasks with a timer as usual
-            cachedTimer.start();
+            Timer timer = new Timer().start();
 
             Throwable error = null;
             CachedRowSet result = null;
+            Connection connection = null;
             try {
                 checkExecution(query);
-
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-
-                Statement statement = connection.createStatement();
-                ResultSet row = statement.executeQuery(query);
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-                result.populate(row);
-
-                statement.close();
+                connection = borrow();
+
+                SQLStatementCache statements = getStatementCache(connection);
+                PreparedStatement statement = statements.prepare(query, false);
+                boolean executed = false;
+                try {
+                    set(statement, values);
+
+                    // Using CachedRowSet so that we can manipulate the ResultSet
+                    // later on after it was closed.  Use stream() for results
+                    // too large to be held in memory at once.
+                    result = ROW_SETS.createCachedRowSet();
+                    try (ResultSet row = statement.executeQuery()) {
+                        result.populate(row);
+                    }
+                    executed = true;
+                } finally {
+                    statements.done(statement, executed);
+                }
             } catch (Throwable throwable) {
                 error = throwable;
             } finally {
+                if (connection != null) release(connection);
                 callback.onResult(result, error);
-                cachedTimer.forceStop();
-                debug(QUERY_TIMING, cachedTimer.getTime(TimeUnit.MILLISECONDS));
+                timer.forceStop();
+                debug(QUERY_TIMING, timer.getTime(TimeUnit.MILLISECONDS));
             }
         });
     }
 
-    public final void query(final DatabaseCallback<ResultSet> callback,
-                            final String query,
-                            final Object... values) {
+    /**
+     * Executes a query.
+     *
+     * @param query
+     *         The query to execute
+     * @param values
+     *         The values for the query's parameters
+     * @return a future of the result, copied into memory
+     * @see #query(DatabaseCallback, String, Object...)
+     */
+    public final DatabaseFuture<ResultSet> queryAsync(final String query,
+                                                      final Object... values) {
+        DatabaseFuture<ResultSet> future = newFuture();
+        query(future, query, values);
+        return future;
+    }
+
+    /**
+     * Executes a query and streams its rows to the callback without copying
+     * the whole result into memory first.
+     *
+     * <p>The stream is lazy: each row is only fetched from the database and
+     * mapped once the callback pulls it, and at most {@param fetchSize} rows
+     * are buffered by the driver at a time.  The statement and connection
+     * stay open until the callback returns, after which the stream can no
+     * longer be used.  The callback is therefore called on the executor
+     * thread and should consume the stream straight away.</p>
+     *
+     * <p>Errors that occur while reading rows are thrown from the stream as
+     * {@link SQLStreamException}s.</p>
+     *
+     * @param callback
+     *         The callback with the optional error and the row stream
+     * @param mapper
+     *         Maps each row while the statement is still open
+     * @param fetchSize
+     *         The amount of rows the driver should fetch at once, or {@code
+     *         0} to let the driver decide.  See {@link
+     *         com.maulss.core.database.sql.mysql.MySQL#STREAMING_FETCH_SIZE}
+     *         for MySQL.
+     * @param query
+     *         The query to execute
+     * @param values
+     *         The values for the query's parameters
+     * @param <T>
+     *         The type rows are mapped to
+     * @see SQLRowMapper
+     */
+    public final <T> void stream(final DatabaseCallback<Stream<T>> callback,
+                                 final SQLRowMapper<? extends T> mapper,
+                                 final int fetchSize,
+                                 final String query,
+                                 final Object... values) {
+        checkNotNull(callback, "callback");
+        checkNotNull(mapper, "mapper");
+
         executor.execute(() -> {
 
             // Record heavy tasks with a timer as usual
-            cachedTimer.start();
+            Timer timer = new Timer().start();
 
             Throwable error = null;
-            CachedRowSet result = null;
+            Connection connection = null;
+            SQLStatementCache statements = null;
+            PreparedStatement statement = null;
+            RowSpliterator<T> rows = null;
             try {
                 checkExecution(query);
+                connection = borrow();
 
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-
-                PreparedStatement statement = connection.prepareStatement(query);
+                statements = getStatementCache(connection);
+                statement = statements.prepare(query, false);
                 set(statement, values);
+                statement.setFetchSize(fetchSize);
 
-                ResultSet row = statement.executeQuery(query);
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-                result.populate(row);
-
-                statement.close();
+                rows = new RowSpliterator<>(statement.executeQuery(), mapper);
             } catch (Throwable throwable) {
                 error = throwable;
+            }
+
+            try {
+                callback.onResult(rows == null ? null : StreamSupport.stream(rows, false), error);
             } finally {
-                callback.onResult(result, error);
-                cachedTimer.forceStop();
-                debug(QUERY_TIMING, cachedTimer.getTime(TimeUnit.MILLISECONDS));
+                if (rows != null) rows.close();
+                if (statement != null) {
+                    boolean reusable = rows != null;
+                    try {
+                        // Cached statements are shared with regular queries
+                        statement.setFetchSize(0);
+                    } catch (SQLException ignored) {
+                        reusable = false;
+                    }
+                    statements.done(statement, reusable);
+                }
+
+                if (connection != null) release(connection);
+                timer.forceStop();
+                debug(STREAM_TIMING, rows == null ? 0 : rows.count, timer.getTime(TimeUnit.MILLISECONDS));
             }
         });
     }
 
+    /**
+     * Executes a query and reduces its streamed rows to a single result
+     * while the statement is still open.
+     *
+     * @param reducer
+     *         Consumes the row stream, e.g. by collecting it
+     * @param mapper
+     *         Maps each row while the statement is still open
+     * @param fetchSize
+     *         The amount of rows the driver should fetch at once
+     * @param query
+     *         The query to execute
+     * @param values
+     *         The values for the query's parameters
+     * @return a future of the reduced result
+     * @see #stream(DatabaseCallback, SQLRowMapper, int, String, Object...)
+     */
+    public final <T, R> DatabaseFuture<R> streamAsync(final Function<? super Stream<T>, ? extends R> reducer,
+                                                      final SQLRowMapper<? extends T> mapper,
+                                                      final int fetchSize,
+                                                      final String query,
+                                                      final Object... values) {
+        checkNotNull(reducer, "reducer");
+
+        DatabaseFuture<R> future = newFuture();
+        this.<T>stream((rows, error) -> {
+            R result = null;
+            try {
+                if (error == null) result = reducer.apply(rows);
+            } catch (Throwable throwable) {
+                error = throwable;
+            }
+
+            future.onResult(result, error);
+        }, mapper, fetchSize, query, values);
+        return future;
+    }
+
+    /**
+     * Executes an update.
+     *
+     * @param update
+     *         The update to execute
+     * @param values
+     *         The values for the update's parameters
+     * @return a future of the auto-generated keys
+     * @see #update(DatabaseCallback, String, Object...)
+     */
+    public final DatabaseFuture<ResultSet> updateAsync(final String update,
+                                                       final Object... values) {
+        DatabaseFuture<ResultSet> future = newFuture();
+        update(future, update, values);
+        return future;
+    }
+
     public final void update(final String update) {
         update(unhandledCallback, update);
     }
 
     public final void update(final DatabaseCallback<ResultSet> callback,
                              final String update) {
-        executor.execute(() -> {
-
-            // Record heavy tasks with a timer as usual
-            cachedTimer.start();
-
-            Throwable error = null;
-            CachedRowSet result = null;
-            try {
-                checkExecution(update);
-
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-
-                PreparedStatement statement = connection.prepareStatement(update,
-                        Statement.RETURN_GENERATED_KEYS);
-                statement.executeUpdate();
-
-                // Make sure the execution returns the auto-generated keys
-                result.populate(statement.getGeneratedKeys());
-
-                statement.close();
-            } catch (Throwable throwable) {
-                error = throwable;
-            } finally {
-                callback.onResult(result, error);
-                cachedTimer.forceStop();
-                debug(UPDATE_TIMING, cachedTimer.getTime(TimeUnit.MILLISECONDS));
-            }
-        });
+        update(callback, update, NO_VALUES);
     }
 
     public final void update(final String update,
@@ -328,57 +514,164 @@ public abstract class SQLDatabase implements Database {
         executor.execute(() -> {
 
             // Record heavy tasks with a timer as usual
-            cachedTimer.start();
+            Timer timer = new Timer().start();
 
             Throwable error = null;
             CachedRowSet result = null;
+            Connection connection = null;
             try {
                 checkExecution(update);
-
-                // Using CachedRowSet so that we can manipulate the ResultSet
-                // later on after it was closed.
-                result = new CachedRowSetImpl();
-
-                PreparedStatement statement = connection.prepareStatement(update,
-                        Statement.RETURN_GENERATED_KEYS);
-                set(statement, values);
-
-                statement.executeUpdate();
-
-                // Make sure the execution returns the auto-generated keys
-                result.populate(statement.getGeneratedKeys());
-
-                statement.close();
+                connection = borrow();
+
+                SQLStatementCache statements = getStatementCache(connection);
+                PreparedStatement statement = statements.prepare(update, true);
+                boolean executed = false;
+                try {
+                    set(statement, values);
+                    statement.executeUpdate();
+
+                    // Make sure the execution returns the auto-generated keys
+                    result = ROW_SETS.createCachedRowSet();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        result.populate(keys);
+                    }
+                    executed = true;
+                } finally {
+                    statements.done(statement, executed);
+                }
             } catch (Throwable throwable) {
                 error = throwable;
             } finally {
+                if (connection != null) release(connection);
                 callback.onResult(result, error);
-                cachedTimer.forceStop();
-                debug(UPDATE_TIMING, cachedTimer.getTime(TimeUnit.MILLISECONDS));
+                timer.forceStop();
+                debug(UPDATE_TIMING, timer.getTime(TimeUnit.MILLISECONDS));
             }
         });
     }
 
+    /**
+     * Executes groups of statements as JDBC batches within a single
+     * transaction on the calling thread.  Either every statement is
+     * committed or none of them are.
+     *
+     * @param batches
+     *         parameter sets to batch for each SQL statement, executed in
+     *         iteration order; the same statement may occur more than once
+     * @return the total amount of rows affected
+     * @throws DatabaseException
+     *         If any statement fails, after the transaction was rolled back
+     */
+    final int executeBatch(final List<? extends Map.Entry<String, List<Object[]>>> batches)
+            throws DatabaseException {
+        checkNotNull(batches, "batches");
+
+        Timer timer = new Timer().start();
+        Connection connection = borrow();
+        try {
+            SQLStatementCache statements = getStatementCache(connection);
+            connection.setAutoCommit(false);
+
+            int rows = 0;
+            try {
+                for (Map.Entry<String, List<Object[]>> batch : batches) {
+                    checkExecution(batch.getKey());
+
+                    PreparedStatement statement = statements.prepare(batch.getKey(), false);
+                    boolean executed = false;
+                    try {
+                        for (Object[] values : batch.getValue()) {
+                            set(statement, values);
+                            statement.addBatch();
+                        }
+
+                        for (int count : statement.executeBatch()) {
+                            // Drivers may not know the exact count per row
+                            if (count > 0) rows += count;
+                        }
+                        executed = true;
+                    } finally {
+                        // A partial batch must never reach the next caller
+                        statements.done(statement, executed);
+                    }
+                }
+
+                connection.commit();
+            } catch (SQLException | DatabaseException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            return rows;
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            release(connection);
+            timer.forceStop();
+            debug(BATCH_TIMING, batches.size(), timer.getTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
     private void set(final PreparedStatement statement,
                      final Object... values) throws DatabaseException {
         checkNotNull(statement, "statement");
 
-        int x = 0;
-        while (x < values.length) {
+        for (int x = 0; x < values.length; ++x) {
             try {
-                statement.setObject(++x, values[x]);
+                // JDBC parameters are 1-indexed
+                statement.setObject(x + 1, values[x]);
             } catch (SQLException e) {
                 throw new DatabaseException(e);
             }
         }
     }
 
+    /**
+     * Returns the prepared statement cache of a borrowed connection.
+     */
+    final SQLStatementCache getStatementCache(final Connection connection) throws DatabaseException {
+        SQLConnectionPool pool = this.pool;
+        if (pool == null) throw new DatabaseException(NOT_CONNECTED);
+        return pool.getStatementCache(connection);
+    }
+
+    /**
+     * Borrows a connection from the pool on behalf of an execution.  The
+     * caller is responsible for releasing it.
+     */
+    final Connection borrow() throws DatabaseException {
+        SQLConnectionPool pool = this.pool;
+        if (pool == null) throw new DatabaseException(NOT_CONNECTED);
+        return pool.borrow();
+    }
+
+    /**
+     * Releases a connection obtained through {@link #borrow()}.
+     */
+    final void release(final Connection connection) {
+        SQLConnectionPool pool = this.pool;
+        try {
+            if (pool != null) {
+                pool.release(connection);
+                return;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Borrowed from a pool that has since been replaced
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException ignored) {}
+    }
+
     private boolean checkExecution(final String execution,
                                    final Object... vars) throws DatabaseException {
         // Make sure Database != null and is also connected
         synchronized (this) {
             if (executor.isShutdown())
-                executor = ServiceExecutor.newAsyncExecutor();
+                executor = newExecutor(poolSettings);
         }
 
         Throwable error = null;
@@ -398,4 +691,52 @@ public abstract class SQLDatabase implements Database {
 
         throw new DatabaseException(error);
     }
-}
\ No newline at end of file
+
+    private static ExecutorService newExecutor(final SQLPoolSettings settings) {
+        return ServiceExecutor.newPooledExecutor("SQL", settings.getMaxSize());
+    }
+
+    private static RowSetFactory newRowSetFactory() {
+        try {
+            return RowSetProvider.newFactory();
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Pulls rows from an open {@link ResultSet} one at a time.
+     */
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ResultSet                 rows;
+        private final SQLRowMapper<? extends T> mapper;
+        private long                            count = 0;
+
+        private RowSpliterator(final ResultSet rows,
+                               final SQLRowMapper<? extends T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rows = rows;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            try {
+                if (!rows.next()) return false;
+                action.accept(mapper.map(rows));
+            } catch (SQLException e) {
+                throw new SQLStreamException(e);
+            }
+
+            ++count;
+            return true;
+        }
+
+        private void close() {
+            try {
+                rows.close();
+            } catch (SQLException ignored) {}
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package com.maulss.core.database.sql;
 
 import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.DatabaseFuture;
 import com.maulss.core.database.DatabaseKey;
 import com.maulss.core.database.Identity;
 import com.maulss.core.database.Value;
@@ -115,4 +116,53 @@ public interface SQLIdentity extends Identity {
     default void get(final DatabaseCallback<ResultSet> callback) {
         getTable().get(callback, this);
     }
+
+    default DatabaseFuture<Boolean> containsAsync() {
+        return getTable().containsAsync(this);
+    }
+
+    default DatabaseFuture<Void> deleteAsync() {
+        return getTable().deleteAsync(this);
+    }
+
+    default DatabaseFuture<ResultSet> insertIntoAsync(final SQLKey[] columns,
+                                                      final Object... values) {
+        return getTable().insertIntoAsync(columns, values);
+    }
+
+    default DatabaseFuture<ResultSet> insertAsync(final Object... values) {
+        return getTable().insertAsync(values);
+    }
+
+    default DatabaseFuture<ResultSet> updateAsync(final DatabaseKey column,
+                                                  final Value value) {
+        return getTable().updateAsync(this, column, value);
+    }
+
+    default DatabaseFuture<ResultSet> updateAsync(final DatabaseKey column,
+                                                  final Object value) {
+        return getTable().updateAsync(this, column, value);
+    }
+
+    default DatabaseFuture<ResultSet> updateAsync(final DatabaseKey[] columns,
+                                                  final Value... values) {
+        return getTable().updateAsync(this, columns, values);
+    }
+
+    default DatabaseFuture<ResultSet> updateAsync(final DatabaseKey[] columns,
+                                                  final Object... values) {
+        return getTable().updateAsync(this, columns, values);
+    }
+
+    default DatabaseFuture<Object> getAsync(final DatabaseKey column) {
+        return getTable().getAsync(this, column);
+    }
+
+    default DatabaseFuture<List<Object>> getAsync(final DatabaseKey... columns) {
+        return getTable().getAsync(this, columns);
+    }
+
+    default DatabaseFuture<ResultSet> getAsync() {
+        return getTable().getAsync(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration used by {@link SQLConnectionPool} to size and maintain its
+ * connections.
+ *
+ * All setters return this instance so that settings can be chained.  Any
+ * duration set to {@code 0} disables the feature it controls.
+ *
+ * @see SQLConnectionPool
+ */
+public final class SQLPoolSettings {
+
+    private int     minSize                 = 2;
+    private int     maxSize                 = 10;
+    private long    borrowTimeoutMillis     = TimeUnit.SECONDS.toMillis(10);
+    private int     validationTimeoutSecs   = 2;
+    private long    idleTimeoutMillis       = TimeUnit.MINUTES.toMillis(10);
+    private long    leakThresholdMillis     = TimeUnit.MINUTES.toMillis(1);
+    private long    housekeepingMillis      = TimeUnit.SECONDS.toMillis(30);
+    private int     statementCacheSize      = 64;
+
+    /**
+     * Sets the amount of connections that are kept open even while idle.
+     *
+     * @param minSize
+     *         minimum amount of open connections
+     * @return this instance
+     */
+    public SQLPoolSettings setMinSize(final int minSize) {
+        checkArgument(minSize >= 0, "minSize must not be negative");
+        this.minSize = minSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of connections that may be open at once.  This
+     * is also the amount of threads used for a database's default executor.
+     *
+     * @param maxSize
+     *         maximum amount of open connections
+     * @return this instance
+     */
+    public SQLPoolSettings setMaxSize(final int maxSize) {
+        checkArgument(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Sets how long a borrower waits for a free connection before failing.
+     *
+     * @param timeout
+     *         time to wait
+     * @param unit
+     *         unit of {@code timeout}
+     * @return this instance
+     */
+    public SQLPoolSettings setBorrowTimeout(final long timeout,
+                                           final TimeUnit unit) {
+        this.borrowTimeoutMillis = toMillis(timeout, unit);
+        return this;
+    }
+
+    /**
+     * Sets how long {@link java.sql.Connection#isValid(int)} may take when a
+     * connection is validated on borrow.  {@code 0} disables validation.
+     *
+     * @param seconds
+     *         validation timeout in seconds
+     * @return this instance
+     */
+    public SQLPoolSettings setValidationTimeout(final int seconds) {
+        checkArgument(seconds >= 0, "validation timeout must not be negative");
+        this.validationTimeoutSecs = seconds;
+        return this;
+    }
+
+    /**
+     * Sets how long a connection above {@link #getMinSize()} may stay idle
+     * before it is closed.
+     *
+     * @param timeout
+     *         idle time
+     * @param unit
+     *         unit of {@code timeout}
+     * @return this instance
+     */
+    public SQLPoolSettings setIdleTimeout(final long timeout,
+                                         final TimeUnit unit) {
+        this.idleTimeoutMillis = toMillis(timeout, unit);
+        return this;
+    }
+
+    /**
+     * Sets how long a connection may be borrowed before it is reported as a
+     * possible leak, along with the stack trace of the borrower.
+     *
+     * @param threshold
+     *         lease time after which a leak is reported
+     * @param unit
+     *         unit of {@code threshold}
+     * @return this instance
+     */
+    public SQLPoolSettings setLeakDetectionThreshold(final long threshold,
+                                                    final TimeUnit unit) {
+        this.leakThresholdMillis = toMillis(threshold, unit);
+        return this;
+    }
+
+    /**
+     * Sets how often idle eviction, refilling and leak detection are run.
+     *
+     * @param interval
+     *         time between housekeeping runs
+     * @param unit
+     *         unit of {@code interval}
+     * @return this instance
+     */
+    public SQLPoolSettings setHousekeepingInterval(final long interval,
+                                                  final TimeUnit unit) {
+        long millis = toMillis(interval, unit);
+        checkArgument(millis > 0, "housekeeping interval must be positive");
+        this.housekeepingMillis = millis;
+        return this;
+    }
+
+    /**
+     * Sets how many prepared statements are kept open per connection.  The
+     * least recently used statement is closed once the limit is reached.
+     * {@code 0} disables statement caching.
+     *
+     * @param size
+     *         amount of cached statements per connection
+     * @return this instance
+     */
+    public SQLPoolSettings setStatementCacheSize(final int size) {
+        checkArgument(size >= 0, "statement cache size must not be negative");
+        this.statementCacheSize = size;
+        return this;
+    }
+
+    public int getMinSize() {
+        return Math.min(minSize, maxSize);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeoutSecs;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    public long getHousekeepingMillis() {
+        return housekeepingMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("minSize", minSize)
+                .append("maxSize", maxSize)
+                .append("borrowTimeoutMillis", borrowTimeoutMillis)
+                .append("validationTimeoutSecs", validationTimeoutSecs)
+                .append("idleTimeoutMillis", idleTimeoutMillis)
+                .append("leakThresholdMillis", leakThresholdMillis)
+                .append("housekeepingMillis", housekeepingMillis)
+                .append("statementCacheSize", statementCacheSize)
+                .toString();
+    }
+
+    private static long toMillis(final long duration,
+                                 final TimeUnit unit) {
+        checkArgument(duration >= 0, "duration must not be negative");
+        return checkNotNull(unit, "unit").toMillis(duration);
+    }
+}
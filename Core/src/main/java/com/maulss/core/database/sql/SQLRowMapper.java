@@ -0,0 +1,26 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} into an object.
+ *
+ * The mapper is called while the statement is still open, once per row, and
+ * must not move the cursor itself.
+ *
+ * @param <T>
+ *         the type rows are mapped to
+ * @see SQLDatabase#stream(com.maulss.core.database.callback.DatabaseCallback,
+ * SQLRowMapper, int, String, Object...)
+ */
+@FunctionalInterface
+public interface SQLRowMapper<T> {
+
+    T map(final ResultSet row) throws SQLException;
+}
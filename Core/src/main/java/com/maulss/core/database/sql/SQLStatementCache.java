@@ -0,0 +1,157 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A least recently used cache of {@link PreparedStatement}s belonging to a
+ * single pooled {@link Connection}, keyed by their SQL text.
+ *
+ * A connection is only ever used by the thread that borrowed it, so the
+ * cache itself is not synchronized.  Hit and miss counters are shared with
+ * the owning {@link SQLConnectionPool} so they survive connections being
+ * evicted.
+ *
+ * Statements obtained through {@link #prepare(String, boolean)} must be
+ * handed back to {@link #done(PreparedStatement, boolean)} instead of being
+ * closed.
+ */
+final class SQLStatementCache implements AutoCloseable {
+
+    private final Connection                            connection;
+    private final int                                   capacity;
+    private final LongAdder                             hits;
+    private final LongAdder                             misses;
+
+    // Statements that return generated keys can't be shared with plain ones
+    private final Map<String, PreparedStatement>        statements;
+    private final Map<String, PreparedStatement>        keyStatements;
+
+    SQLStatementCache(final Connection connection,
+                      final int capacity,
+                      final LongAdder hits,
+                      final LongAdder misses) {
+        this.connection = checkNotNull(connection, "connection");
+        this.capacity = capacity;
+        this.hits = checkNotNull(hits, "hits");
+        this.misses = checkNotNull(misses, "misses");
+        this.statements = newLru();
+        this.keyStatements = newLru();
+    }
+
+    /**
+     * Returns the cached statement for the SQL, preparing it if it hasn't
+     * been prepared on this connection yet.
+     *
+     * @param sql
+     *         the SQL text of the statement
+     * @param generatedKeys
+     *         whether the statement should return auto-generated keys
+     * @return a statement with no parameters set
+     * @throws SQLException
+     *         If the statement could not be prepared
+     */
+    PreparedStatement prepare(final String sql,
+                              final boolean generatedKeys) throws SQLException {
+        Map<String, PreparedStatement> cache = generatedKeys ? keyStatements : statements;
+
+        PreparedStatement statement = cache.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+            return statement;
+        }
+
+        misses.increment();
+        statement = generatedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+
+        if (capacity > 0) cache.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Hands a statement back after its execution.  Cached statements have
+     * their parameters and batch cleared, any others are closed.  Statements
+     * which failed may be left with a partial batch or in any other state,
+     * so they are evicted and closed rather than reused.
+     *
+     * @param statement
+     *         the statement obtained from {@link #prepare(String, boolean)}
+     * @param reusable
+     *         whether the statement executed without throwing
+     */
+    void done(final PreparedStatement statement,
+              final boolean reusable) {
+        try {
+            // Every statement is retained while the cache is enabled
+            if (capacity > 0 && reusable) {
+                statement.clearParameters();
+                statement.clearBatch();
+            } else {
+                evict(statement);
+            }
+        } catch (SQLException ignored) {
+            evict(statement);
+        }
+    }
+
+    private void evict(final PreparedStatement statement) {
+        statements.values().removeIf(cached -> cached == statement);
+        keyStatements.values().removeIf(cached -> cached == statement);
+
+        try {
+            statement.close();
+        } catch (SQLException ignored) {}
+    }
+
+    int size() {
+        return statements.size() + keyStatements.size();
+    }
+
+    @Override
+    public void close() {
+        closeAll(statements);
+        closeAll(keyStatements);
+    }
+
+    private Map<String, PreparedStatement> newLru() {
+        return new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+
+            private static final long serialVersionUID = 6102376408237265915L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= capacity) return false;
+
+                try {
+                    eldest.getValue().close();
+                } catch (SQLException ignored) {}
+                return true;
+            }
+        };
+    }
+
+    private static void closeAll(final Map<String, PreparedStatement> cache) {
+        Iterator<PreparedStatement> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            try {
+                iterator.next().close();
+            } catch (SQLException ignored) {}
+            iterator.remove();
+        }
+    }
+}
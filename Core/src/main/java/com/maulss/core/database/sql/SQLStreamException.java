@@ -0,0 +1,26 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown from a streamed query result when the next row could not be read
+ * or mapped.  The cause is always the original {@link SQLException}.
+ */
+public class SQLStreamException extends RuntimeException {
+
+    private static final long serialVersionUID = -3158042281739261570L;
+
+    public SQLStreamException(final SQLException cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -8,13 +8,15 @@ package com.maulss.core.database.sql;
 import com.maulss.core.collect.EnhancedList;
 import com.maulss.core.database.*;
 import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.database.callback.DatabaseFuture;
 
+import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.Validate.isTrue;
@@ -26,19 +28,7 @@ public class SQLTable {
 
     // SQL Syntax
     private static final String
-            CREATE                          = "CREATE TABLE IF NOT EXISTS `%s` (%s);",
-
-            SELECT_COUNT                    = "SELECT count(*) FROM `%s`;",
-            SELECT_ALL                      = "SELECT * FROM `%s`;",
-            SELECT_ALL_WHERE                = "SELECT * FROM `%s` WHERE `%s` = ? LIMIT 1;",
-            SELECT_WHERE                    = "SELECT %s FROM `%s` WHERE `%s` = ? LIMIT 1;",
-
-            UPDATE_SET_WHERE                = "UPDATE `%s` SET %s WHERE `%s` = ?;",
-
-            DELETE_WHERE                    = "DELETE FROM `%s` WHERE `%s` = ?;",
-
-            INSERT_VALUES                   = "INSERT INTO `%s` VALUES (%s);",
-            INSERT_INTO_VALUES              = "INSERT INTO `%s` (%s) VALUES (%s);";
+            CREATE                          = "CREATE TABLE IF NOT EXISTS `%s` (%s);";
 
     // Error messages
     private static final String
@@ -51,19 +41,27 @@ public class SQLTable {
             EMPTY_COLUMNS                   = "There should be more than 0 columns to look up",
             COLUMN_VALUE_LENGTH_NO_MATCH    = "The amount of columns in the database does not match the amount of values that were put in",
 
-            TABLE_CHECK_NO_CONNECTION       = "Tried checking if table exists without connection";
+            TABLE_CHECK_NO_CONNECTION       = "Tried checking if table exists without connection",
+            WRITE_BUFFER_ENABLED            = "A write buffer has already been enabled for this table";
 
 
     private final SQLDatabase       database;
     private final DatabaseCallback  callbackHandler;
     private final String            table;
 
+    // Statements compiled once per shape, see SQLTemplates
+    private final SQLTemplates      templates;
+
+    // Optional write-behind buffer for inserts and updates
+    private volatile SQLWriteBuffer writeBuffer;
+
     SQLTable(final SQLDatabase database,
              final DatabaseCallback callbackHandler,
              final String table) {
         this.database           = notNull(database, "database");
         this.callbackHandler    = notNull(callbackHandler, "callbackHandler");
         this.table              = notNull(table, "table");
+        this.templates          = new SQLTemplates(table);
     }
 
 
@@ -189,12 +187,14 @@ public class SQLTable {
         database.getExecutor().execute(() -> {
             Throwable error = null;
             Boolean exists = null;
+            Connection connection = null;
             try {
                 if (!database.isConnected()) {
                     throw new DatabaseException(TABLE_CHECK_NO_CONNECTION);
                 }
 
-                DatabaseMetaData meta = database.getConnection().getMetaData();
+                connection = database.borrow();
+                DatabaseMetaData meta = connection.getMetaData();
                 // Obtain all tables that match the criteria -- Should only be 1
                 ResultSet res = meta.getTables(null, null, getName(), new String[] {"TABLE"});
                 exists = res.next();
@@ -202,6 +202,7 @@ public class SQLTable {
             } catch (Exception e) {
                 error = e;
             } finally {
+                if (connection != null) database.release(connection);
                 callback.onResult(exists, error);
             }
         });
@@ -269,25 +270,14 @@ public class SQLTable {
         notEmpty(values, EMPTY_VALUES);
         isTrue(columns.length == values.length, COLUMN_VALUE_LENGTH_NO_MATCH);
 
-        StringBuilder colBuilder = new StringBuilder();
-        StringBuilder valBuilder = new StringBuilder();
+        String insert = templates.insertInto(columns);
 
-        for (int x = 0; x < columns.length; ++x) {
-            colBuilder.append("`").append(columns[x].getKey()).append("`");
-            valBuilder.append("?");
-
-            if (columns.length - 1 != x) {
-                colBuilder.append(", ");
-                valBuilder.append(", ");
-            }
+        SQLWriteBuffer buffer = writeBuffer;
+        if (buffer != null) {
+            buffer.insert(callback, insert, values);
+        } else {
+            database.update(callback, insert, values);
         }
-
-        database.update(callback, String.format(
-                INSERT_INTO_VALUES,
-                this,
-                colBuilder,
-                valBuilder
-        ), values);
     }
 
 
@@ -340,17 +330,14 @@ public class SQLTable {
         notNull(values, NULL_VALUES);
         notEmpty(values, EMPTY_VALUES);
 
-        StringBuilder valBuilder = new StringBuilder();
-
-        for (int x = 0; x < values.length; ++x) {
-            valBuilder.append("?");
+        String insert = templates.insert(values.length);
 
-            if (values.length - 1 != x) {
-                valBuilder.append(", ");
-            }
+        SQLWriteBuffer buffer = writeBuffer;
+        if (buffer != null) {
+            buffer.insert(callback, insert, values);
+        } else {
+            database.update(callback, insert, values);
         }
-
-        database.update(callback, String.format(INSERT_VALUES, this, valBuilder), values);
     }
 
 
@@ -384,11 +371,15 @@ public class SQLTable {
         notNull(callback, NULL_CALLBACK);
         notNull(identity, NULL_IDENTITY);
 
-        database.update(String.format(
-                DELETE_WHERE,
-                this,
-                identity.getDatabaseKey().getKey()
-        ), identity.getUuid());
+        String delete = templates.deleteWhere(identity.getDatabaseKey());
+
+        // Queued so that buffered writes of the row can't land after it
+        SQLWriteBuffer buffer = writeBuffer;
+        if (buffer != null) {
+            buffer.delete((result, error) -> callback.onResult(null, error), delete, identity.getUuid());
+        } else {
+            database.update((result, error) -> callback.onResult(null, error), delete, identity.getUuid());
+        }
     }
 
 
@@ -408,7 +399,7 @@ public class SQLTable {
         get((result, t) -> {
             Boolean contains = null;
             try {
-                contains = result.next();
+                if (t == null) contains = result.next();
             } catch (SQLException e) {
                 t = e;
             } finally {
@@ -690,39 +681,25 @@ public class SQLTable {
         int len = columns.length;
         isTrue(len == values.length, COLUMN_VALUE_LENGTH_NO_MATCH);
 
-        Object[] vals = new String[len + 1];
-        StringBuilder sb = new StringBuilder();
+        SQLWriteBuffer buffer = writeBuffer;
+        if (buffer != null) {
+            buffer.update(callback, identity, columns, values);
+            return;
+        }
+
+        Object[] vals = new Object[len + 1];
         for (int x = 0; x < len; ++x) {
-            sb.append("`");
-            sb.append(columns[x].getKey());
-            sb.append("` = ");
-
-            Value<?> value = values[x];
-            vals[x] = value.toString();
-            // I'm not even going to bother explaining what is going on here.
-            sb.append(value.isInteger() && !value.getType().equals(ValueType.SET)
-                    ? String.format(
-                    Locale.ENGLISH,
-                    "`%s` %s ?",
-                    columns[x].getKey(),
-                    value.getType().equals(ValueType.GIVE) ? "+" : "-")
-                    : "?"
-            );
-
-            if (x != len - 1) {
-                sb.append(", ");
-            }
+            vals[x] = values[x].getValue();
         }
 
         // append UUID to the last element index
         vals[len] = identity.getUuid();
 
         // execute and wait for callback
-        database.update(callback, String.format(
-                UPDATE_SET_WHERE,
-                this,
-                sb,
-                identity.getDatabaseKey().getKey()
+        database.update(callback, templates.update(
+                columns,
+                values,
+                identity.getDatabaseKey()
         ), vals);
     }
 
@@ -747,7 +724,7 @@ public class SQLTable {
                           final Identity identity,
                           final DatabaseKey column) {
         get(
-                (result, t) -> callback.onResult(result.get(0), t),
+                (result, t) -> callback.onResult(result.isEmpty() ? null : result.get(0), t),
                 identity,
                 new DatabaseKey[] {column}
         );
@@ -789,9 +766,8 @@ public class SQLTable {
             List<Object> values = new EnhancedList<>(len);
             try {
                 if (result != null && result.next()) {
-                    int x = 0;
-                    while (x < len) {
-                        values.set(++x - 1, result.getObject(x));
+                    for (int x = 1; x <= len; ++x) {
+                        values.add(result.getObject(x));
                     }
                 }
             } catch (final Throwable error) {
@@ -799,18 +775,7 @@ public class SQLTable {
             } finally {
                 callback.onResult(values, t);
             }
-        }, String.format(
-                SELECT_WHERE,
-                new EnhancedList<String>(len) {{
-                    addAll(Stream.of(columns)
-                            .map(column -> String.format("`%s`", column.getKey()))
-                            .collect(Collectors.toList())
-                    );
-                    // In the form of "x, y, z" as opposed to "[x,y,z]"
-                }}.toReadableList(", "),
-                this,
-                identity.getDatabaseKey().getKey()
-        ), identity.getUuid());
+        }, templates.selectWhere(columns, identity.getDatabaseKey()), identity.getUuid());
     }
 
 
@@ -833,11 +798,7 @@ public class SQLTable {
         notNull(callback, NULL_CALLBACK);
         notNull(identity, NULL_IDENTITY);
 
-        database.query(callback, String.format(
-                SELECT_ALL_WHERE,
-                this,
-                identity.getDatabaseKey().getKey()
-        ), identity.getUuid());
+        database.query(callback, templates.selectAllWhere(identity.getDatabaseKey()), identity.getUuid());
     }
 
 
@@ -853,7 +814,32 @@ public class SQLTable {
      */
     public void getAll(final DatabaseCallback<ResultSet> callback) {
         notNull(callback, NULL_CALLBACK);
-        database.query(callback, String.format(SELECT_ALL, this));
+        database.query(callback, templates.selectAll());
+    }
+
+
+    /**
+     * Streams all rows (entries) of the entire table to the callback, mapping
+     * each row while the statement is still open.  Unlike {@link
+     * #getAll(DatabaseCallback)}, the rows are never held in memory all at
+     * once.  The stream can only be used until the callback returns.
+     *
+     * @param callback
+     *         The callback with the optional error and the row stream
+     * @param mapper
+     *         Maps each row into an object
+     * @param fetchSize
+     *         The amount of rows the driver should fetch at once
+     * @throws NullPointerException
+     *         If {@code callback == null || mapper == null}.
+     * @see SQLDatabase#stream(DatabaseCallback, SQLRowMapper, int, String,
+     * Object...)
+     */
+    public <T> void streamAll(final DatabaseCallback<Stream<T>> callback,
+                              final SQLRowMapper<? extends T> mapper,
+                              final int fetchSize) {
+        notNull(callback, NULL_CALLBACK);
+        database.stream(callback, mapper, fetchSize, templates.selectAll());
     }
 
 
@@ -872,7 +858,7 @@ public class SQLTable {
         database.query((result, t) -> {
             Integer rows = null;
             Throwable error = t;
-            if (error != null) {
+            if (error == null) {
                 try {
                     if (result.next()) {
                         rows = result.getInt(1);
@@ -882,7 +868,275 @@ public class SQLTable {
                 }
             }
             callback.onResult(rows, error);
-        }, String.format(SELECT_COUNT, this));
+        }, templates.selectCount());
+    }
+
+
+    /**
+     * Creates a new table with the specified array of {@link SQLKey} types.
+     *
+     * @param columns
+     *         The list of types of columns to be inserted into the database.
+     * @param index
+     *         The column that will be marked as an index, or {@code null}.
+     * @return A future that completes once the table was created.
+     * @see #create(DatabaseCallback, SQLKey[], DatabaseKey)
+     */
+    public DatabaseFuture<ResultSet> createAsync(final SQLKey[] columns,
+                                                 final DatabaseKey index) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        create(future, columns, index);
+        return future;
+    }
+
+
+    /**
+     * @return A future of whether this table exists in the database.
+     * @see #exists(DatabaseCallback)
+     */
+    public DatabaseFuture<Boolean> existsAsync() {
+        DatabaseFuture<Boolean> future = database.newFuture();
+        exists(future);
+        return future;
+    }
+
+
+    /**
+     * Inserts a new entry into the table containing the {@param columns}.
+     *
+     * @param columns
+     *         The columns that correspond to the columns in the database.
+     * @param values
+     *         The values to insert.  Each value must correspond to each
+     *         column.
+     * @return A future of the auto-generated keys.
+     * @see #insertInto(DatabaseCallback, SQLKey[], Object...)
+     */
+    public DatabaseFuture<ResultSet> insertIntoAsync(final SQLKey[] columns,
+                                                     final Object... values) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        insertInto(future, columns, values);
+        return future;
+    }
+
+
+    /**
+     * Inserts a new entry into the table with the provided values.
+     *
+     * @param values
+     *         The values to insert.  Each value must correspond to each column
+     *         in the table.
+     * @return A future of the auto-generated keys.
+     * @see #insert(DatabaseCallback, Object...)
+     */
+    public DatabaseFuture<ResultSet> insertAsync(final Object... values) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        insert(future, values);
+        return future;
+    }
+
+
+    /**
+     * Deletes an entire row from the table.
+     *
+     * @param identity
+     *         The known identity which is used as an index in the database.
+     * @return A future that completes once the row was deleted.
+     * @see #delete(DatabaseCallback, Identity)
+     */
+    public DatabaseFuture<Void> deleteAsync(final Identity identity) {
+        DatabaseFuture<Void> future = database.newFuture();
+        delete(future, identity);
+        return future;
+    }
+
+
+    /**
+     * @param identity
+     *         The known identity which is used as an index in the database.
+     * @return A future of whether the {@link Identity} exists in this table.
+     * @see #contains(DatabaseCallback, Identity)
+     */
+    public DatabaseFuture<Boolean> containsAsync(final Identity identity) {
+        DatabaseFuture<Boolean> future = database.newFuture();
+        contains(future, identity);
+        return future;
+    }
+
+
+    /**
+     * Updates a value in the database for the specified {@link Identity}.
+     *
+     * @return A future that completes once the update was executed.
+     * @see #update(DatabaseCallback, Identity, DatabaseKey, Value)
+     */
+    public final DatabaseFuture<ResultSet> updateAsync(final Identity identity,
+                                                       final DatabaseKey column,
+                                                       final Value value) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        update(future, identity, column, value);
+        return future;
+    }
+
+
+    /**
+     * Sets a value in the database for the specified {@link Identity}.
+     *
+     * @return A future that completes once the update was executed.
+     * @see #update(DatabaseCallback, Identity, DatabaseKey, Object)
+     */
+    public final DatabaseFuture<ResultSet> updateAsync(final Identity identity,
+                                                       final DatabaseKey column,
+                                                       final Object value) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        update(future, identity, column, value);
+        return future;
+    }
+
+
+    /**
+     * Sets multiple values at once in the database for the specified {@link
+     * Identity}.
+     *
+     * @return A future that completes once the update was executed.
+     * @see #update(DatabaseCallback, Identity, DatabaseKey[], Object...)
+     */
+    public final DatabaseFuture<ResultSet> updateAsync(final Identity identity,
+                                                       final DatabaseKey[] columns,
+                                                       final Object... values) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        update(future, identity, columns, values);
+        return future;
+    }
+
+
+    /**
+     * Updates multiple values at once in the database for the specified
+     * {@link Identity}.
+     *
+     * @return A future that completes once the update was executed.
+     * @see #update(DatabaseCallback, Identity, DatabaseKey[], Value[])
+     */
+    public DatabaseFuture<ResultSet> updateAsync(final Identity identity,
+                                                 final DatabaseKey[] columns,
+                                                 final Value<?>... values) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        update(future, identity, columns, values);
+        return future;
+    }
+
+
+    /**
+     * @return A future of the value found in {@param column} for the {@link
+     * Identity}, or {@code null} if it wasn't found.
+     * @see #get(DatabaseCallback, Identity, DatabaseKey)
+     */
+    public final DatabaseFuture<Object> getAsync(final Identity identity,
+                                                 final DatabaseKey column) {
+        DatabaseFuture<Object> future = database.newFuture();
+        get(future, identity, column);
+        return future;
+    }
+
+
+    /**
+     * @return A future of the values found in {@param columns} for the
+     * {@link Identity}.
+     * @see #get(DatabaseCallback, Identity, DatabaseKey...)
+     */
+    public DatabaseFuture<List<Object>> getAsync(final Identity identity,
+                                                 final DatabaseKey... columns) {
+        DatabaseFuture<List<Object>> future = database.newFuture();
+        get(future, identity, columns);
+        return future;
+    }
+
+
+    /**
+     * @return A future of the entire row of the {@link Identity}.
+     * @see #get(DatabaseCallback, Identity)
+     */
+    public DatabaseFuture<ResultSet> getAsync(final Identity identity) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        get(future, identity);
+        return future;
+    }
+
+
+    /**
+     * @return A future of all rows in the table.
+     * @see #getAll(DatabaseCallback)
+     */
+    public DatabaseFuture<ResultSet> getAllAsync() {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        getAll(future);
+        return future;
+    }
+
+
+    /**
+     * @return A future of the amount of rows in the table.
+     * @see #getTotalRows(DatabaseCallback)
+     */
+    public DatabaseFuture<Integer> getTotalRowsAsync() {
+        DatabaseFuture<Integer> future = database.newFuture();
+        getTotalRows(future);
+        return future;
+    }
+
+
+    /**
+     * Enables write-behind buffering for inserts, updates and deletes made
+     * through this table.  Queued writes keep their order, updates are
+     * coalesced per {@link Identity} wherever that doesn't reorder them, and
+     * they are flushed in a single transaction once {@param maxSize} writes
+     * are queued or every {@param interval}, whichever comes first.
+     *
+     * <p>Callbacks of buffered writes are completed once the flush containing
+     * them has been committed, with a {@code null} result.</p>
+     *
+     * @param maxSize
+     *         The amount of queued writes that triggers a flush.
+     * @param interval
+     *         The time between periodic flushes.
+     * @param unit
+     *         The unit of {@param interval}.
+     * @return The new write buffer.
+     * @throws IllegalStateException
+     *         If a write buffer is already enabled.
+     * @see SQLWriteBuffer
+     */
+    public synchronized SQLWriteBuffer enableWriteBuffer(final int maxSize,
+                                                         final long interval,
+                                                         final TimeUnit unit) {
+        if (writeBuffer != null) {
+            throw new IllegalStateException(WRITE_BUFFER_ENABLED);
+        }
+
+        return writeBuffer = new SQLWriteBuffer(this, templates, maxSize, interval, unit);
+    }
+
+
+    /**
+     * Flushes any buffered writes and goes back to executing writes straight
+     * away.  Blocks until the final flush has completed.
+     */
+    public synchronized void disableWriteBuffer() {
+        SQLWriteBuffer buffer = writeBuffer;
+        if (buffer != null) {
+            writeBuffer = null;
+            buffer.close();
+        }
+    }
+
+
+    /**
+     * @return The write buffer of this table, or {@code null} if writes are
+     * executed straight away
+     */
+    @Nullable
+    public final SQLWriteBuffer getWriteBuffer() {
+        return writeBuffer;
     }
 
 
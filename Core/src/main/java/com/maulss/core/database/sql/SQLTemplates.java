@@ -0,0 +1,275 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.ValueType;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiles the SQL statements used by a {@link SQLTable} once per statement
+ * shape and hands out the same {@code String} instance on every later call.
+ *
+ * Reusing the exact same SQL text also means that every execution of a shape
+ * hits the same entry in a connection's {@link SQLStatementCache}.
+ */
+final class SQLTemplates {
+
+    // SQL Syntax
+    private static final String
+            SELECT_COUNT                    = "SELECT count(*) FROM `%s`;",
+            SELECT_ALL                      = "SELECT * FROM `%s`;",
+            SELECT_ALL_WHERE                = "SELECT * FROM `%s` WHERE `%s` = ? LIMIT 1;",
+            SELECT_WHERE                    = "SELECT %s FROM `%s` WHERE `%s` = ? LIMIT 1;",
+
+            UPDATE_SET_WHERE                = "UPDATE `%s` SET %s WHERE `%s` = ?;",
+
+            DELETE_WHERE                    = "DELETE FROM `%s` WHERE `%s` = ?;",
+
+            INSERT_VALUES                   = "INSERT INTO `%s` VALUES (%s);",
+            INSERT_INTO_VALUES              = "INSERT INTO `%s` (%s) VALUES (%s);";
+
+    // Update operations applied to a column
+    private static final byte
+            OP_SET                          = 0,
+            OP_GIVE                         = 1,
+            OP_TAKE                         = 2;
+
+    private enum Shape {
+        SELECT_ALL_WHERE, SELECT_WHERE, UPDATE_SET_WHERE, DELETE_WHERE, INSERT_INTO_VALUES
+    }
+
+    private final String                    table;
+    private final String                    selectCount;
+    private final String                    selectAll;
+
+    private final ConcurrentMap<Key, String> compiled = new ConcurrentHashMap<>();
+
+    // INSERT INTO ... VALUES templates indexed by the amount of values
+    private volatile String[]               insertValues = new String[0];
+
+    SQLTemplates(final String table) {
+        this.table = table;
+        this.selectCount = String.format(SELECT_COUNT, table);
+        this.selectAll = String.format(SELECT_ALL, table);
+    }
+
+    String selectCount() {
+        return selectCount;
+    }
+
+    String selectAll() {
+        return selectAll;
+    }
+
+    String selectAllWhere(final DatabaseKey where) {
+        return get(new Key(Shape.SELECT_ALL_WHERE, where, null, null));
+    }
+
+    String selectWhere(final DatabaseKey[] columns,
+                       final DatabaseKey where) {
+        return get(new Key(Shape.SELECT_WHERE, where, columns, null));
+    }
+
+    String deleteWhere(final DatabaseKey where) {
+        return get(new Key(Shape.DELETE_WHERE, where, null, null));
+    }
+
+    String insertInto(final DatabaseKey[] columns) {
+        return get(new Key(Shape.INSERT_INTO_VALUES, null, columns, null));
+    }
+
+    String update(final DatabaseKey[] columns,
+                  final Value<?>[] values,
+                  final DatabaseKey where) {
+        byte[] ops = new byte[values.length];
+        for (int x = 0; x < values.length; ++x) {
+            ops[x] = operation(values[x]);
+        }
+
+        return get(new Key(Shape.UPDATE_SET_WHERE, where, columns, ops));
+    }
+
+    String insert(final int count) {
+        String[] templates = insertValues;
+        if (count < templates.length && templates[count] != null) {
+            return templates[count];
+        }
+
+        synchronized (this) {
+            templates = insertValues;
+            if (count >= templates.length) {
+                templates = Arrays.copyOf(templates, count + 1);
+            } else if (templates[count] != null) {
+                return templates[count];
+            } else {
+                templates = templates.clone();
+            }
+
+            String template = String.format(INSERT_VALUES, table, placeholders(count));
+            templates[count] = template;
+            insertValues = templates;
+            return template;
+        }
+    }
+
+    private String get(final Key key) {
+        String template = compiled.get(key);
+        if (template != null) return template;
+
+        // Only copy the caller's arrays once the shape is actually stored
+        Key stored = key.copy();
+        template = compile(stored);
+        String previous = compiled.putIfAbsent(stored, template);
+        return previous == null ? template : previous;
+    }
+
+    private String compile(final Key key) {
+        switch (key.shape) {
+            case SELECT_ALL_WHERE:
+                return String.format(SELECT_ALL_WHERE, table, key.where);
+            case SELECT_WHERE:
+                return String.format(SELECT_WHERE, columnList(key.columns), table, key.where);
+            case DELETE_WHERE:
+                return String.format(DELETE_WHERE, table, key.where);
+            case INSERT_INTO_VALUES:
+                return String.format(INSERT_INTO_VALUES, table,
+                        columnList(key.columns), placeholders(key.columns.length));
+            case UPDATE_SET_WHERE:
+                StringBuilder sb = new StringBuilder();
+                for (int x = 0; x < key.columns.length; ++x) {
+                    String column = key.columns[x];
+                    sb.append('`').append(column).append("` = ");
+
+                    byte op = key.ops[x];
+                    if (op == OP_SET) {
+                        sb.append('?');
+                    } else {
+                        sb.append('`').append(column).append("` ")
+                                .append(op == OP_GIVE ? '+' : '-').append(" ?");
+                    }
+
+                    if (x != key.columns.length - 1) sb.append(", ");
+                }
+
+                return String.format(UPDATE_SET_WHERE, table, sb, key.where);
+            default:
+                throw new IllegalStateException(key.shape.name());
+        }
+    }
+
+    private static byte operation(final Value<?> value) {
+        ValueType type = value.getType();
+        if (type == ValueType.SET || !value.isInteger()) return OP_SET;
+        return type == ValueType.GIVE ? OP_GIVE : OP_TAKE;
+    }
+
+    private static String columnList(final String[] columns) {
+        StringBuilder sb = new StringBuilder();
+        for (int x = 0; x < columns.length; ++x) {
+            sb.append('`').append(columns[x]).append('`');
+            if (x != columns.length - 1) sb.append(", ");
+        }
+
+        return sb.toString();
+    }
+
+    private static String placeholders(final int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int x = 0; x < count; ++x) {
+            sb.append('?');
+            if (x != count - 1) sb.append(", ");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Identifies a statement shape.  Lookup keys reference the caller's
+     * column array directly; stored keys hold their own copies.
+     */
+    private static final class Key {
+
+        private final Shape         shape;
+        private final String        where;
+        private final DatabaseKey[] keys;
+        private final String[]      columns;
+        private final byte[]        ops;
+        private final int           hash;
+
+        private Key(final Shape shape,
+                    final DatabaseKey where,
+                    final DatabaseKey[] keys,
+                    final byte[] ops) {
+            this(shape, where == null ? null : where.getKey(), keys, null, ops);
+        }
+
+        private Key(final Shape shape,
+                    final String where,
+                    final DatabaseKey[] keys,
+                    final String[] columns,
+                    final byte[] ops) {
+            this.shape = shape;
+            this.where = where;
+            this.keys = keys;
+            this.columns = columns;
+            this.ops = ops;
+
+            int hash = shape.hashCode();
+            hash = 31 * hash + (where == null ? 0 : where.hashCode());
+            for (int x = 0, len = length(); x < len; ++x) {
+                hash = 31 * hash + column(x).hashCode();
+            }
+            this.hash = 31 * hash + Arrays.hashCode(ops);
+        }
+
+        private Key copy() {
+            String[] columns = new String[length()];
+            for (int x = 0; x < columns.length; ++x) {
+                columns[x] = column(x);
+            }
+
+            return new Key(shape, where, null, columns, ops == null ? null : ops.clone());
+        }
+
+        private int length() {
+            if (columns != null) return columns.length;
+            return keys == null ? 0 : keys.length;
+        }
+
+        private String column(final int index) {
+            return columns != null ? columns[index] : keys[index].getKey();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            if (hash != key.hash || shape != key.shape) return false;
+            if (where == null ? key.where != null : !where.equals(key.where)) return false;
+            if (!Arrays.equals(ops, key.ops)) return false;
+
+            int len = length();
+            if (len != key.length()) return false;
+            for (int x = 0; x < len; ++x) {
+                if (!column(x).equals(key.column(x))) return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
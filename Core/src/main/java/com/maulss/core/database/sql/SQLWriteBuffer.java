@@ -0,0 +1,403 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.ValueType;
+import com.maulss.core.database.callback.DatabaseCallback;
+import com.maulss.core.service.ServiceExecutor;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An opt-in write-behind buffer for a {@link SQLTable}.
+ *
+ * Inserts, updates and deletes are queued in the order they were submitted
+ * instead of being executed straight away.  Updates to the same
+ * {@link Identity} are coalesced into a single statement: {@link
+ * ValueType#SET} values replace earlier ones, while {@link ValueType#GIVE}
+ * and {@link ValueType#TAKE} amounts are added up.  An update is never
+ * merged across an insert, or across a delete of the same identity.
+ *
+ * The queue is flushed once it holds {@code maxSize} writes or every {@code
+ * interval}, whichever comes first.  A flush executes the queued writes in
+ * submission order inside one transaction, batching runs of consecutive
+ * writes that share a statement, and completes every original callback
+ * once the transaction has been committed.  Buffered writes complete with a
+ * {@code null} result as generated keys can't be matched back to individual
+ * rows of a batch.
+ *
+ * If any statement of a flush fails the whole transaction is rolled back and
+ * every write of the flush completes with that error.  Writes are not
+ * retried or queued again, as the failing write would fail every following
+ * flush too; callers that need the write must submit it again.
+ *
+ * Flushes run one at a time on the buffer's own thread so that writes are
+ * never committed out of order.
+ *
+ * @see SQLTable#enableWriteBuffer(int, long, TimeUnit)
+ */
+public final class SQLWriteBuffer implements AutoCloseable {
+
+    private final SQLTable                              table;
+    private final SQLTemplates                          templates;
+    private final int                                   maxSize;
+    private final ScheduledExecutorService              flusher;
+
+    // Queued writes in submission order; guarded by this
+    private List<PendingWrite>                          queue       = new ArrayList<>();
+    // The last queued update of each identity, if it may still be merged into
+    private final Map<UUID, PendingUpdate>              updates     = new HashMap<>();
+    private boolean                                     closed      = false;
+
+    private final AtomicLong                            queued      = new AtomicLong();
+    private final AtomicLong                            written     = new AtomicLong();
+    private final AtomicLong                            flushes     = new AtomicLong();
+
+    SQLWriteBuffer(final SQLTable table,
+                   final SQLTemplates templates,
+                   final int maxSize,
+                   final long interval,
+                   final TimeUnit unit) {
+        checkArgument(maxSize > 0, "maxSize must be positive");
+        checkArgument(interval > 0, "interval must be positive");
+        this.table = checkNotNull(table, "table");
+        this.templates = checkNotNull(templates, "templates");
+        this.maxSize = maxSize;
+
+        flusher = ServiceExecutor.newScheduledExecutor("SQLWriteBuffer-" + table.getName());
+        flusher.scheduleWithFixedDelay(this::flushNow, interval, interval, checkNotNull(unit, "unit"));
+    }
+
+    /**
+     * Queues an insert.
+     */
+    synchronized void insert(final DatabaseCallback<ResultSet> callback,
+                             final String sql,
+                             final Object[] values) {
+        checkOpen();
+
+        PendingWrite write = new PendingWrite(sql, values.clone());
+        write.callbacks.add(callback);
+
+        // The inserted row may be one with a queued update, which must not
+        // be moved before the insert
+        updates.clear();
+        added(write);
+    }
+
+    /**
+     * Queues a delete, so it runs after every write queued before it.
+     */
+    synchronized void delete(final DatabaseCallback<ResultSet> callback,
+                             final String sql,
+                             final UUID uuid) {
+        checkOpen();
+
+        PendingWrite write = new PendingWrite(sql, new Object[]{uuid});
+        write.callbacks.add(callback);
+
+        updates.remove(uuid);
+        added(write);
+    }
+
+    /**
+     * Queues an update, merging it into a pending update of the same
+     * identity where possible.
+     */
+    synchronized void update(final DatabaseCallback<ResultSet> callback,
+                             final Identity identity,
+                             final DatabaseKey[] columns,
+                             final Value<?>[] values) {
+        checkOpen();
+
+        DatabaseKey where = identity.getDatabaseKey();
+
+        PendingUpdate update = updates.get(identity.getUuid());
+        if (update != null && update.canMerge(where, columns, values)) {
+            update.merge(columns, values);
+            update.callbacks.add(callback);
+            queued.incrementAndGet();
+            return;
+        }
+
+        // Can't be expressed in one statement; queue it after the other
+        update = new PendingUpdate(where, identity.getUuid());
+        update.merge(columns, values);
+        update.callbacks.add(callback);
+
+        updates.put(identity.getUuid(), update);
+        added(update);
+    }
+
+    /**
+     * Flushes all queued writes asynchronously.
+     */
+    public synchronized void flush() {
+        queueFlush();
+    }
+
+    /**
+     * @return the amount of writes waiting to be flushed
+     */
+    public synchronized int getPendingWrites() {
+        return queue.size();
+    }
+
+    /**
+     * @return the amount of writes that have been queued, before coalescing
+     */
+    public long getQueuedWrites() {
+        return queued.get();
+    }
+
+    /**
+     * @return the amount of statements that have been executed after
+     * coalescing
+     */
+    public long getExecutedWrites() {
+        return written.get();
+    }
+
+    /**
+     * @return the amount of flushes that have been executed
+     */
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * Flushes all queued writes and stops accepting new ones.  Blocks until
+     * the final flush has completed or the timeout elapsed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            queueFlush();
+        }
+
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("table", table)
+                .append("maxSize", maxSize)
+                .append("pending", getPendingWrites())
+                .append("queued", queued.get())
+                .append("executed", written.get())
+                .append("flushes", flushes.get())
+                .toString();
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Write buffer of " + table + " is closed");
+    }
+
+    // Must hold the lock
+    private void added(final PendingWrite write) {
+        queue.add(write);
+        queued.incrementAndGet();
+        if (queue.size() >= maxSize) queueFlush();
+    }
+
+    // Must hold the lock
+    private void queueFlush() {
+        if (queue.isEmpty()) return;
+
+        // Swap the queue out so the flush works on its own snapshot
+        List<PendingWrite> writes = queue;
+        queue = new ArrayList<>();
+        updates.clear();
+
+        flusher.execute(() -> flush(writes));
+    }
+
+    private void flushNow() {
+        synchronized (this) {
+            queueFlush();
+        }
+    }
+
+    private void flush(final List<PendingWrite> writes) {
+        List<Map.Entry<String, List<Object[]>>> batches = batch(writes);
+
+        Throwable error = null;
+        try {
+            table.getDatabase().executeBatch(batches);
+            written.addAndGet(writes.size());
+            flushes.incrementAndGet();
+        } catch (Throwable throwable) {
+            error = throwable;
+        }
+
+        for (PendingWrite write : writes) {
+            for (DatabaseCallback<ResultSet> callback : write.callbacks) {
+                try {
+                    callback.onResult(null, error);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Groups runs of consecutive writes sharing a statement into batches,
+     * keeping the order writes were queued in.
+     */
+    static List<Map.Entry<String, List<Object[]>>> batch(final List<? extends PendingWrite> writes) {
+        List<Map.Entry<String, List<Object[]>>> batches = new ArrayList<>();
+
+        String previous = null;
+        List<Object[]> batch = null;
+        for (PendingWrite write : writes) {
+            String sql = write.sql();
+            if (batch == null || !sql.equals(previous)) {
+                batch = new ArrayList<>();
+                batches.add(new AbstractMap.SimpleImmutableEntry<>(sql, batch));
+                previous = sql;
+            }
+
+            batch.add(write.values());
+        }
+
+        return batches;
+    }
+
+    static class PendingWrite {
+
+        final List<DatabaseCallback<ResultSet>> callbacks = new ArrayList<>(1);
+        private final String sql;
+        private final Object[] values;
+
+        PendingWrite(final String sql,
+                             final Object[] values) {
+            this.sql = sql;
+            this.values = values;
+        }
+
+        String sql() {
+            return sql;
+        }
+
+        Object[] values() {
+            return values;
+        }
+    }
+
+    private final class PendingUpdate extends PendingWrite {
+
+        private final DatabaseKey                   where;
+        private final UUID                          uuid;
+        private final Map<String, DatabaseKey>      columns = new LinkedHashMap<>();
+        private final Map<String, Value<?>>         values  = new LinkedHashMap<>();
+
+        private PendingUpdate(final DatabaseKey where,
+                              final UUID uuid) {
+            super(null, null);
+            this.where = where;
+            this.uuid = uuid;
+        }
+
+        private boolean canMerge(final DatabaseKey where,
+                                 final DatabaseKey[] columns,
+                                 final Value<?>[] values) {
+            if (!this.where.getKey().equals(where.getKey())) return false;
+
+            for (int x = 0; x < columns.length; ++x) {
+                Value<?> previous = this.values.get(columns[x].getKey());
+                if (previous != null && combine(previous, values[x]) == null) return false;
+            }
+
+            return true;
+        }
+
+        private void merge(final DatabaseKey[] columns,
+                           final Value<?>[] values) {
+            for (int x = 0; x < columns.length; ++x) {
+                String column = columns[x].getKey();
+                Value<?> previous = this.values.get(column);
+
+                this.columns.putIfAbsent(column, columns[x]);
+                this.values.put(column, previous == null ? values[x] : combine(previous, values[x]));
+            }
+        }
+
+        @Override
+        String sql() {
+            return templates.update(
+                    columns.values().toArray(new DatabaseKey[columns.size()]),
+                    values.values().toArray(new Value<?>[values.size()]),
+                    where
+            );
+        }
+
+        @Override
+        Object[] values() {
+            Object[] params = new Object[values.size() + 1];
+            int x = 0;
+            for (Value<?> value : values.values()) {
+                params[x++] = value.getValue();
+            }
+
+            params[x] = uuid;
+            return params;
+        }
+    }
+
+    /**
+     * Combines two values written to the same column.
+     *
+     * @return the combined value, or {@code null} if both can't be expressed
+     * as one
+     */
+    static Value<?> combine(final Value<?> previous,
+                            final Value<?> next) {
+        // Absolute values always win
+        if (next.getType() == ValueType.SET || !next.isInteger()) return next;
+
+        // A relative change on top of a non-numeric value
+        if (!previous.isInteger()) return null;
+
+        long delta = signed(next);
+        if (previous.getType() == ValueType.SET) {
+            return new Value<>(toInt(Integer.parseInt(previous.toString()) + delta), ValueType.SET);
+        }
+
+        long sum = signed(previous) + delta;
+        return sum >= 0
+                ? new Value<>(toInt(sum), ValueType.GIVE)
+                : new Value<>(toInt(-sum), ValueType.TAKE);
+    }
+
+    private static long signed(final Value<?> value) {
+        long amount = Integer.parseInt(value.toString());
+        return value.getType() == ValueType.TAKE ? -amount : amount;
+    }
+
+    private static int toInt(final long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+}
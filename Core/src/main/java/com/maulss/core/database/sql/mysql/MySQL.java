@@ -8,6 +8,7 @@ package com.maulss.core.database.sql.mysql;
 import com.maulss.core.database.Credentials;
 import com.maulss.core.database.DatabaseException;
 import com.maulss.core.database.sql.SQLDatabase;
+import com.maulss.core.database.sql.SQLPoolSettings;
 import com.maulss.core.service.ServiceExecutor;
 
 import java.sql.Connection;
@@ -20,6 +21,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class MySQL extends SQLDatabase {
 
+    /**
+     * Fetch size that makes Connector/J stream results row by row instead of
+     * reading the whole result into memory.
+     *
+     * @see SQLDatabase#stream(com.maulss.core.database.callback.DatabaseCallback,
+     * com.maulss.core.database.sql.SQLRowMapper, int, String, Object...)
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
     // String constants
     private static final String
             // MySQL connector-J driver class path
@@ -29,10 +39,6 @@ public final class MySQL extends SQLDatabase {
             DRIVER_NOT_FOUND    = "MySQL driver is not installed on the system",
             DEFAULT_CREDENTIALS = "Credentials have been provided but haven't been changed from default";
 
-    // Async executor
-    private static final ExecutorService
-            MYSQL_EXECUTOR      = ServiceExecutor.newAsyncExecutor("MySQL");
-
     // Internal checking to make sure credentials aren't default
     private final boolean
             creds;
@@ -45,7 +51,12 @@ public final class MySQL extends SQLDatabase {
             database;
 
     public MySQL(final Credentials credentials) {
-        super(MYSQL_EXECUTOR);
+        this(credentials, new SQLPoolSettings());
+    }
+
+    public MySQL(final Credentials credentials,
+                 final SQLPoolSettings poolSettings) {
+        super(poolSettings, newExecutor(poolSettings));
         checkNotNull(credentials, "credentials");
         creds = credentials.isSet();
         properties = new Properties();
@@ -58,7 +69,14 @@ public final class MySQL extends SQLDatabase {
     public MySQL(final String url,
                  final String database,
                  final Properties properties) {
-        super(MYSQL_EXECUTOR);
+        this(url, database, properties, new SQLPoolSettings());
+    }
+
+    public MySQL(final String url,
+                 final String database,
+                 final Properties properties,
+                 final SQLPoolSettings poolSettings) {
+        super(poolSettings, newExecutor(poolSettings));
         creds = true;
         this.properties = checkNotNull(properties, "properties");
         this.url = checkNotNull(url, "url");
@@ -88,4 +106,10 @@ public final class MySQL extends SQLDatabase {
     public String getName() {
         return database;
     }
+
+    // Each database gets its own executor sized to its pool
+    private static ExecutorService newExecutor(final SQLPoolSettings poolSettings) {
+        checkNotNull(poolSettings, "pool settings");
+        return ServiceExecutor.newPooledExecutor("MySQL", poolSettings.getMaxSize());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,697 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:25 PM.
+ */
+
+package com.maulss.core.game.rating.elo;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in memory leaderboard of Elo ratings, ranking players from the highest
+ * rating down.
+ *
+ * <p>Players are kept in an order statistic tree, a treap whose nodes know
+ * the size of their subtree, so updating a rating, finding the rank of a
+ * player and finding the player at a rank take {@code O(log n)}, and a page
+ * of {@code k} players {@code O(log n + k)}.  Players of equal rating are
+ * ordered by their id.</p>
+ *
+ * <p>The leaderboard can be written to and read from a snapshot, so it
+ * doesn't have to be built from the database again after a restart.</p>
+ *
+ * <p>Thread safe, queries may run concurrently.</p>
+ */
+public final class EloLeaderboard {
+
+    private static final int SNAPSHOT_MAGIC = 0x454C4F4C; // ELOL
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * Sets the rating of a player, adding the player if needed.
+     */
+    public void update(final UUID uuid,
+                       final int rating) {
+        Validate.notNull(uuid);
+
+        lock.writeLock().lock();
+        try {
+            put(uuid, rating);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the rating of a competitor, adding it if needed.
+     */
+    public void update(final EloCompetitor competitor) {
+        Validate.notNull(competitor);
+        update(competitor.getUuid(), competitor.getRating());
+    }
+
+    /**
+     * @return whether the player was on the leaderboard
+     */
+    public boolean remove(final UUID uuid) {
+        Validate.notNull(uuid);
+
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.remove(uuid);
+            if (node == null) return false;
+
+            root = remove(root, node.rating, uuid);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rates a match with {@link EloCalculator}, sets the new ratings of both
+     * competitors and moves them on the leaderboard.
+     *
+     * @param outcome the outcome for the first competitor
+     * @return the record of the match, to keep in a match log
+     */
+    public EloMatchRecord recordMatch(final EloCompetitor first,
+                                      final EloCompetitor second,
+                                      final EloMatchOutcome outcome) {
+        EloMatchRecord record = EloMatchRecord.of(first, second, outcome);
+
+        int firstRating = EloCalculator.newRating(first, second, outcome);
+        int secondRating = EloCalculator.newRating(second, first, outcome.getOpposite());
+        first.setRating(firstRating);
+        second.setRating(secondRating);
+
+        lock.writeLock().lock();
+        try {
+            put(first.getUuid(), firstRating);
+            put(second.getUuid(), secondRating);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return record;
+    }
+
+    /**
+     * Rates a log of matches in order on top of the current ratings, players
+     * who aren't on the leaderboard starting at {@link
+     * EloCompetitor#INITIAL_RATING}.
+     *
+     * <p>Matches are split into shards of players who never played anyone
+     * outside their shard, directly or not, and shards are rated in
+     * parallel.  Within a shard matches are rated in the order of the log,
+     * so the result is the same as rating the log one match at a time.</p>
+     *
+     * <p>The leaderboard is locked for the whole replay, so queries and
+     * updates wait for it to finish.</p>
+     *
+     * @param log the matches, oldest first
+     * @param pool the pool to rate shards on
+     */
+    public void replay(final List<EloMatchRecord> log,
+                       final ForkJoinPool pool) {
+        Validate.noNullElements(log);
+        Validate.notNull(pool);
+        if (log.isEmpty()) return;
+
+        // Dense ids for the players of the log
+        Map<UUID, Integer> ids = new HashMap<>();
+        List<UUID> players = new ArrayList<>();
+        int matches = log.size();
+        int[] first = new int[matches], second = new int[matches];
+        for (int m = 0; m < matches; m++) {
+            first[m] = id(ids, players, log.get(m).getFirstPlayer());
+            second[m] = id(ids, players, log.get(m).getSecondPlayer());
+        }
+
+        // Held until the new ratings are stored, so no update made meanwhile is overwritten
+        lock.writeLock().lock();
+        try {
+            replay(log, first, second, players, pool);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replay(final List<EloMatchRecord> log,
+                        final int[] first,
+                        final int[] second,
+                        final List<UUID> players,
+                        final ForkJoinPool pool) {
+        int matches = log.size();
+        int[] ratings = new int[players.size()];
+        for (int p = 0; p < ratings.length; p++) {
+            Node node = nodes.get(players.get(p));
+            ratings[p] = node == null ? EloCompetitor.INITIAL_RATING : node.rating;
+        }
+
+        // Group the matches by the shard of their players, keeping their order
+        int[] parents = new int[ratings.length];
+        for (int p = 0; p < parents.length; p++) parents[p] = p;
+        for (int m = 0; m < matches; m++) {
+            parents[find(parents, first[m])] = find(parents, second[m]);
+        }
+
+        int[] shardOf = new int[ratings.length];
+        Arrays.fill(shardOf, -1);
+        int shards = 0;
+        int[] matchShards = new int[matches];
+        for (int m = 0; m < matches; m++) {
+            int root = find(parents, first[m]);
+            if (shardOf[root] == -1) shardOf[root] = shards++;
+            matchShards[m] = shardOf[root];
+        }
+
+        int[] offsets = new int[shards + 1];
+        for (int m = 0; m < matches; m++) offsets[matchShards[m] + 1]++;
+        for (int s = 0; s < shards; s++) offsets[s + 1] += offsets[s];
+        int[] order = new int[matches];
+        int[] next = Arrays.copyOf(offsets, shards);
+        for (int m = 0; m < matches; m++) order[next[matchShards[m]]++] = m;
+
+        pool.invoke(new ReplayTask(log, first, second, ratings, offsets, order, 0, shards));
+
+        for (int p = 0; p < ratings.length; p++) {
+            put(players.get(p), ratings[p]);
+        }
+    }
+
+    /**
+     * Rates a log of matches on the common pool.
+     *
+     * @see #replay(List, ForkJoinPool)
+     */
+    public void replay(final List<EloMatchRecord> log) {
+        replay(log, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return the rating of a player on the leaderboard
+     */
+    public OptionalInt getRating(final UUID uuid) {
+        Validate.notNull(uuid);
+
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node == null ? OptionalInt.empty() : OptionalInt.of(node.rating);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the rank of a player, {@code 1} being the highest rating
+     */
+    public OptionalInt getRank(final UUID uuid) {
+        Validate.notNull(uuid);
+
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node == null ? OptionalInt.empty() : OptionalInt.of(rank(node.rating, uuid) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of players with a higher rating
+     */
+    public int countAbove(final int rating) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                if (node.rating > rating) {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param rank the rank, {@code 1} being the highest rating
+     * @return the player at the rank
+     */
+    public Optional<Entry> getEntry(final int rank) {
+        List<Entry> entries = getEntries(rank, 1);
+        return entries.isEmpty() ? Optional.empty() : Optional.of(entries.get(0));
+    }
+
+    /**
+     * @return the players with the highest ratings, highest first
+     */
+    public List<Entry> getTop(final int count) {
+        return getEntries(1, count);
+    }
+
+    /**
+     * @param fromRank the rank of the first player, {@code 1} being the
+     *                 highest rating
+     * @param count the number of players at most
+     * @return the players from the rank down
+     */
+    public List<Entry> getEntries(final int fromRank,
+                                  final int count) {
+        Validate.isTrue(fromRank > 0, "rank must be positive");
+        Validate.isTrue(count >= 0, "count must not be negative");
+
+        lock.readLock().lock();
+        try {
+            int from = fromRank - 1;
+            int to = (int) Math.min(size(root), (long) from + count);
+            if (from >= to) return Collections.emptyList();
+
+            List<Entry> entries = new ArrayList<>(to - from);
+            collect(root, 0, from, to, entries);
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every player and rating, highest first.
+     */
+    public void writeSnapshot(final OutputStream output) throws IOException {
+        Validate.notNull(output);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+            out.writeInt(size(root));
+            write(root, out);
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a snapshot to a file, replacing it only once the snapshot is
+     * complete.
+     */
+    public void writeSnapshot(final File file) throws IOException {
+        Validate.notNull(file);
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try (OutputStream output = new FileOutputStream(temporary)) {
+            writeSnapshot(output);
+        }
+
+        Files.move(temporary.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replaces the leaderboard with a snapshot.
+     *
+     * @throws IOException if the snapshot can't be read or isn't one
+     */
+    public void readSnapshot(final InputStream input) throws IOException {
+        Validate.notNull(input);
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a leaderboard snapshot");
+        int version = in.readUnsignedShort();
+        if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+        int size = in.readInt();
+        if (size < 0) throw new IOException("Invalid snapshot size " + size);
+
+        // Read fully before replacing anything
+        UUID[] uuids = new UUID[size];
+        int[] ratings = new int[size];
+        for (int i = 0; i < size; i++) {
+            uuids[i] = new UUID(in.readLong(), in.readLong());
+            ratings[i] = in.readInt();
+        }
+
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            root = null;
+            for (int i = 0; i < size; i++) {
+                put(uuids[i], ratings[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the leaderboard with a snapshot file.
+     */
+    public void readSnapshot(final File file) throws IOException {
+        Validate.notNull(file);
+
+        try (InputStream input = new FileInputStream(file)) {
+            readSnapshot(input);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("size", size())
+                .toString();
+    }
+
+    // Guarded by the write lock
+    private void put(final UUID uuid,
+                     final int rating) {
+        Node node = nodes.get(uuid);
+        if (node != null) {
+            if (node.rating == rating) return;
+            root = remove(root, node.rating, uuid);
+        }
+
+        node = new Node(uuid, rating, ThreadLocalRandom.current().nextInt());
+        nodes.put(uuid, node);
+        root = insert(root, node);
+    }
+
+    private int rank(final int rating,
+                     final UUID uuid) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int order = order(rating, uuid, node);
+            if (order < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (order == 0) break;
+
+                rank++;
+                node = node.right;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Adds the entries of a subtree between two ranks, 0 based and the
+     * subtree starting at {@code offset}.
+     */
+    private static void collect(final Node node,
+                                final int offset,
+                                final int from,
+                                final int to,
+                                final List<Entry> entries) {
+        if (node == null || offset >= to || offset + node.size <= from) return;
+
+        int index = offset + size(node.left);
+        collect(node.left, offset, from, to, entries);
+        if (index >= from && index < to) entries.add(new Entry(node.uuid, node.rating, index + 1));
+        collect(node.right, index + 1, from, to, entries);
+    }
+
+    private static void write(final Node node,
+                              final DataOutputStream out) throws IOException {
+        if (node == null) return;
+
+        write(node.left, out);
+        out.writeLong(node.uuid.getMostSignificantBits());
+        out.writeLong(node.uuid.getLeastSignificantBits());
+        out.writeInt(node.rating);
+        write(node.right, out);
+    }
+
+    /**
+     * @return negative if a player of the rating and id comes before the
+     * node, highest rating first
+     */
+    private static int order(final int rating,
+                             final UUID uuid,
+                             final Node node) {
+        int order = Integer.compare(node.rating, rating);
+        return order != 0 ? order : uuid.compareTo(node.uuid);
+    }
+
+    private static Node insert(final Node node,
+                               final Node item) {
+        if (node == null) return item;
+
+        if (item.priority > node.priority) {
+            Node[] split = split(node, item.rating, item.uuid);
+            item.left = split[0];
+            item.right = split[1];
+            return update(item);
+        }
+
+        if (order(item.rating, item.uuid, node) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        return update(node);
+    }
+
+    private static Node remove(final Node node,
+                               final int rating,
+                               final UUID uuid) {
+        if (node == null) return null;
+
+        int order = order(rating, uuid, node);
+        if (order == 0) return merge(node.left, node.right);
+
+        if (order < 0) {
+            node.left = remove(node.left, rating, uuid);
+        } else {
+            node.right = remove(node.right, rating, uuid);
+        }
+        return update(node);
+    }
+
+    /**
+     * @return the nodes before the key and the nodes after it
+     */
+    private static Node[] split(final Node node,
+                                final int rating,
+                                final UUID uuid) {
+        if (node == null) return new Node[2];
+
+        if (order(rating, uuid, node) < 0) {
+            Node[] split = split(node.left, rating, uuid);
+            node.left = split[1];
+            split[1] = update(node);
+            return split;
+        } else {
+            Node[] split = split(node.right, rating, uuid);
+            node.right = split[0];
+            split[0] = update(node);
+            return split;
+        }
+    }
+
+    private static Node merge(final Node left,
+                              final Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        } else {
+            right.left = merge(left, right.left);
+            return update(right);
+        }
+    }
+
+    private static Node update(final Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(final Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int id(final Map<UUID, Integer> ids,
+                          final List<UUID> players,
+                          final UUID uuid) {
+        Integer id = ids.get(uuid);
+        if (id != null) return id;
+
+        players.add(uuid);
+        ids.put(uuid, players.size() - 1);
+        return players.size() - 1;
+    }
+
+    private static int find(final int[] parents,
+                            int player) {
+        while (parents[player] != player) {
+            player = parents[player] = parents[parents[player]];
+        }
+        return player;
+    }
+
+    /**
+     * A player on the leaderboard at the time it was queried.
+     */
+    public static final class Entry {
+
+        private final UUID uuid;
+        private final int rating;
+        private final int rank;
+
+        private Entry(final UUID uuid,
+                      final int rating,
+                      final int rank) {
+            this.uuid = uuid;
+            this.rating = rating;
+            this.rank = rank;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+
+        /**
+         * @return the rank, {@code 1} being the highest rating
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this)
+                    .append("uuid", uuid)
+                    .append("rating", rating)
+                    .append("rank", rank)
+                    .toString();
+        }
+    }
+
+    private static final class Node {
+
+        private final UUID uuid;
+        private final int rating;
+        private final int priority;
+        private Node left, right;
+        private int size = 1;
+
+        private Node(final UUID uuid,
+                     final int rating,
+                     final int priority) {
+            this.uuid = uuid;
+            this.rating = rating;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Rates the matches of a range of shards, one shard at a time.
+     */
+    private static final class ReplayTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -3017480541927470514L;
+
+        // Shards rated by a single task
+        private static final int THRESHOLD = 64;
+
+        private final List<EloMatchRecord> log;
+        private final int[] first, second, ratings, offsets, order;
+        private final int from, to;
+
+        private ReplayTask(final List<EloMatchRecord> log,
+                           final int[] first,
+                           final int[] second,
+                           final int[] ratings,
+                           final int[] offsets,
+                           final int[] order,
+                           final int from,
+                           final int to) {
+            this.log = log;
+            this.first = first;
+            this.second = second;
+            this.ratings = ratings;
+            this.offsets = offsets;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD && offsets[to] - offsets[from] > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ReplayTask(log, first, second, ratings, offsets, order, from, middle),
+                        new ReplayTask(log, first, second, ratings, offsets, order, middle, to)
+                );
+                return;
+            }
+
+            for (int i = offsets[from]; i < offsets[to]; i++) {
+                int m = order[i];
+                EloMatchRecord record = log.get(m);
+                int a = first[m], b = second[m];
+                int ratingA = ratings[a], ratingB = ratings[b];
+
+                ratings[a] = EloCalculator.newRating(ratingA, ratingB,
+                        record.getOutcome(), record.isFirstProvisional());
+                ratings[b] = EloCalculator.newRating(ratingB, ratingA,
+                        record.getOutcome().getOpposite(), record.isSecondProvisional());
+            }
+        }
+    }
+}
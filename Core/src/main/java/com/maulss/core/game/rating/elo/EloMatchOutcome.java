@@ -21,4 +21,12 @@ public enum EloMatchOutcome {
     public double getScore() {
         return score;
     }
+
+    public EloMatchOutcome getOpposite() {
+        switch (this) {
+            case WIN:   return LOSS;
+            case LOSS:  return WIN;
+            default:    return DRAW;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:10 PM.
+ */
+
+package com.maulss.core.game.rating.elo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.UUID;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * A match as it was played, which {@link EloLeaderboard#replay} can rate
+ * again later.
+ */
+public final class EloMatchRecord {
+
+    private final UUID firstPlayer;
+    private final UUID secondPlayer;
+    private final boolean firstProvisional;
+    private final boolean secondProvisional;
+    private final EloMatchOutcome outcome;
+
+    /**
+     * @param outcome the outcome for the first player
+     */
+    public EloMatchRecord(final UUID firstPlayer,
+                          final boolean firstProvisional,
+                          final UUID secondPlayer,
+                          final boolean secondProvisional,
+                          final EloMatchOutcome outcome) {
+        this.firstPlayer        = notNull(firstPlayer);
+        this.secondPlayer       = notNull(secondPlayer);
+        this.firstProvisional   = firstProvisional;
+        this.secondProvisional  = secondProvisional;
+        this.outcome            = notNull(outcome);
+        isTrue(!firstPlayer.equals(secondPlayer), "a player can't play itself");
+    }
+
+    /**
+     * Records a match between two competitors as they are now.
+     *
+     * @param outcome the outcome for the first competitor
+     */
+    public static EloMatchRecord of(final EloCompetitor first,
+                                    final EloCompetitor second,
+                                    final EloMatchOutcome outcome) {
+        return new EloMatchRecord(
+                first.getUuid(), first.isProvisional(),
+                second.getUuid(), second.isProvisional(),
+                outcome
+        );
+    }
+
+    public UUID getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public UUID getSecondPlayer() {
+        return secondPlayer;
+    }
+
+    public boolean isFirstProvisional() {
+        return firstProvisional;
+    }
+
+    public boolean isSecondProvisional() {
+        return secondProvisional;
+    }
+
+    /**
+     * @return the outcome for the first player
+     */
+    public EloMatchOutcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("firstPlayer", firstPlayer)
+                .append("secondPlayer", secondPlayer)
+                .append("outcome", outcome)
+                .toString();
+    }
+}
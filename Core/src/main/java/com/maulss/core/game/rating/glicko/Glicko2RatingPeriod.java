@@ -0,0 +1,354 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 9:05 PM.
+ */
+
+package com.maulss.core.game.rating.glicko;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A rating period of the Glicko-2 system, which rates every competitor
+ * from all of their matches in the period at once.  See <a
+ * href='http://www.glicko.net/glicko/glicko2.pdf'>the Glicko-2 paper</a>.
+ *
+ * <p>Competitors and matches are kept in primitive arrays by index rather
+ * than in objects, each competitor's {@code g(φ)} is computed once per
+ * period rather than once per opponent, and competitors are rated in
+ * parallel on a {@link ForkJoinPool}.  Large seasons of matches can be
+ * rated in a single period.</p>
+ *
+ * <p>Not thread safe, although {@link #applyNewData(ForkJoinPool)} itself
+ * runs on many threads.</p>
+ */
+public final class Glicko2RatingPeriod {
+
+    public static final double DEFAULT_TAU = 0.5d;
+
+    private static final int MAX_RATING = 2950;
+    private static final int MIN_RATING = 50;
+    private static final int MAX_DEVIATION = 350;
+    private static final int MIN_DEVIATION = 50;
+
+    // Glicko-2 scale
+    private static final double SCALE = 173.7178d;
+    private static final double CONVERGENCE = 0.000001d;
+    private static final double PI_SQUARED = Math.PI * Math.PI;
+
+    // Competitors rated by a single task
+    private static final int THRESHOLD = 512;
+
+    private final double tau;
+
+    private final List<GlickoCompetitor> competitors = new ArrayList<>();
+    private final Map<GlickoCompetitor, Integer> indices = new IdentityHashMap<>();
+
+    // Matches, the score being the first competitor's
+    private int[] first = new int[64];
+    private int[] second = new int[64];
+    private double[] scores = new double[64];
+    private int matches = 0;
+
+    /**
+     * Creates a rating period with the default system constant of {@value
+     * #DEFAULT_TAU}.
+     */
+    public Glicko2RatingPeriod() {
+        this(DEFAULT_TAU);
+    }
+
+    /**
+     * @param tau the system constant, which constrains the change in
+     *            volatility; reasonable values are between 0.3 and 1.2
+     */
+    public Glicko2RatingPeriod(final double tau) {
+        Validate.isTrue(tau > 0, "tau must be positive");
+        this.tau = tau;
+    }
+
+    /**
+     * Adds a competitor to the period, which has its deviation increased
+     * even if it plays no match.
+     *
+     * @return the index of the competitor
+     */
+    public int addCompetitor(final GlickoCompetitor competitor) {
+        Validate.notNull(competitor);
+
+        Integer index = indices.get(competitor);
+        if (index != null) return index;
+
+        competitors.add(competitor);
+        indices.put(competitor, competitors.size() - 1);
+        return competitors.size() - 1;
+    }
+
+    /**
+     * Adds a match of the period, adding its competitors if needed.
+     *
+     * @param outcome the outcome for the first competitor
+     */
+    public void addMatch(final GlickoCompetitor firstCompetitor,
+                         final GlickoCompetitor secondCompetitor,
+                         final GlickoMatch.Outcome outcome) {
+        Validate.notNull(outcome);
+        Validate.isTrue(firstCompetitor != secondCompetitor, "a competitor can't play itself");
+
+        if (matches == first.length) {
+            int capacity = matches * 2;
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+
+        first[matches] = addCompetitor(firstCompetitor);
+        second[matches] = addCompetitor(secondCompetitor);
+        scores[matches] = outcome.getScore();
+        matches++;
+    }
+
+    public int getCompetitorCount() {
+        return competitors.size();
+    }
+
+    public int getMatchCount() {
+        return matches;
+    }
+
+    /**
+     * Rates every competitor on the common pool.
+     *
+     * @see #applyNewData(ForkJoinPool)
+     */
+    public void applyNewData() {
+        applyNewData(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rates every competitor from their matches in the period, sets their
+     * new rating, deviation and volatility, and clears the period.
+     *
+     * <p>Ratings are kept between {@value #MIN_RATING} and {@value
+     * #MAX_RATING} and deviations between {@value #MIN_DEVIATION} and
+     * {@value #MAX_DEVIATION}, same as {@link GlickoCalculator}.</p>
+     *
+     * @param pool the pool to rate competitors on
+     */
+    public void applyNewData(final ForkJoinPool pool) {
+        Validate.notNull(pool);
+
+        int size = competitors.size();
+        if (size == 0) return;
+
+        Period period = new Period(size);
+        for (int i = 0; i < size; i++) {
+            GlickoCompetitor competitor = competitors.get(i);
+            double phi = competitor.getRatingDeviation() / SCALE;
+
+            period.mu[i] = (competitor.getRating() - GlickoCompetitor.INITIAL_RATING) / SCALE;
+            period.phi[i] = phi;
+            period.sigma[i] = competitor.getVolatility();
+            period.g[i] = 1 / Math.sqrt(1 + 3 * phi * phi / PI_SQUARED);
+        }
+        period.index(first, second, scores, matches);
+
+        pool.invoke(new RateTask(period, 0, size));
+
+        for (int i = 0; i < size; i++) {
+            GlickoCompetitor competitor = competitors.get(i);
+            competitor.setRating((int) Math.min(MAX_RATING, Math.max(MIN_RATING,
+                    Math.round(period.newMu[i] * SCALE + GlickoCompetitor.INITIAL_RATING))));
+            competitor.setRatingDeviation(Math.min(MAX_DEVIATION, Math.max(MIN_DEVIATION,
+                    period.newPhi[i] * SCALE)));
+            competitor.setVolatility(period.newSigma[i]);
+        }
+
+        clear();
+    }
+
+    /**
+     * Removes every competitor and match from the period.
+     */
+    public void clear() {
+        competitors.clear();
+        indices.clear();
+        matches = 0;
+    }
+
+    /**
+     * The state of a period on the Glicko-2 scale, with the matches indexed
+     * by competitor.
+     */
+    private static final class Period {
+
+        private final double[] mu, phi, sigma, g;
+        private final double[] newMu, newPhi, newSigma;
+
+        // The games of competitor i are at offsets[i] until offsets[i + 1]
+        private final int[] offsets;
+        private int[] opponents;
+        private double[] scores;
+
+        private Period(final int size) {
+            this.mu = new double[size];
+            this.phi = new double[size];
+            this.sigma = new double[size];
+            this.g = new double[size];
+            this.newMu = new double[size];
+            this.newPhi = new double[size];
+            this.newSigma = new double[size];
+            this.offsets = new int[size + 1];
+        }
+
+        private void index(final int[] first,
+                           final int[] second,
+                           final double[] matchScores,
+                           final int matches) {
+            for (int m = 0; m < matches; m++) {
+                offsets[first[m] + 1]++;
+                offsets[second[m] + 1]++;
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+
+            opponents = new int[matches * 2];
+            scores = new double[matches * 2];
+            int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+            for (int m = 0; m < matches; m++) {
+                int a = first[m], b = second[m];
+
+                opponents[next[a]] = b;
+                scores[next[a]++] = matchScores[m];
+                opponents[next[b]] = a;
+                scores[next[b]++] = 1 - matchScores[m];
+            }
+        }
+    }
+
+    private final class RateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 6253165437210485637L;
+
+        private final Period period;
+        private final int from, to;
+
+        private RateTask(final Period period,
+                         final int from,
+                         final int to) {
+            this.period = period;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    rate(period, i);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RateTask(period, from, middle), new RateTask(period, middle, to));
+        }
+    }
+
+    private void rate(final Period period,
+                      final int i) {
+        double mu = period.mu[i];
+        double phi = period.phi[i];
+        double sigma = period.sigma[i];
+
+        int start = period.offsets[i], end = period.offsets[i + 1];
+        if (start == end) {
+            // only the deviation grows without games
+            period.newMu[i] = mu;
+            period.newPhi[i] = Math.sqrt(phi * phi + sigma * sigma);
+            period.newSigma[i] = sigma;
+            return;
+        }
+
+        double variance = 0, improvement = 0;
+        for (int k = start; k < end; k++) {
+            int opponent = period.opponents[k];
+            double g = period.g[opponent];
+            double e = 1 / (1 + Math.exp(-g * (mu - period.mu[opponent])));
+
+            variance += g * g * e * (1 - e);
+            improvement += g * (period.scores[k] - e);
+        }
+        double v = 1 / variance;
+        double delta = v * improvement;
+
+        double newSigma = volatility(phi, sigma, v, delta);
+        double phiStar = Math.sqrt(phi * phi + newSigma * newSigma);
+        double newPhi = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / v);
+
+        period.newMu[i] = mu + newPhi * newPhi * improvement;
+        period.newPhi[i] = newPhi;
+        period.newSigma[i] = newSigma;
+    }
+
+    /**
+     * Finds the new volatility with the Illinois algorithm, step 5 of the
+     * paper.
+     */
+    private double volatility(final double phi,
+                              final double sigma,
+                              final double v,
+                              final double delta) {
+        double phiSquared = phi * phi;
+        double deltaSquared = delta * delta;
+        double a = Math.log(sigma * sigma);
+
+        double A = a, B;
+        if (deltaSquared > phiSquared + v) {
+            B = Math.log(deltaSquared - phiSquared - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phiSquared, v, deltaSquared) < 0) k++;
+            B = a - k * tau;
+        }
+
+        double fA = f(A, a, phiSquared, v, deltaSquared);
+        double fB = f(B, a, phiSquared, v, deltaSquared);
+        while (Math.abs(B - A) > CONVERGENCE) {
+            double C = A + (A - B) * fA / (fB - fA);
+            double fC = f(C, a, phiSquared, v, deltaSquared);
+
+            if (fC * fB <= 0) {
+                A = B;
+                fA = fB;
+            } else {
+                fA /= 2;
+            }
+
+            B = C;
+            fB = fC;
+        }
+
+        return Math.exp(A / 2);
+    }
+
+    private double f(final double x,
+                     final double a,
+                     final double phiSquared,
+                     final double v,
+                     final double deltaSquared) {
+        double ex = Math.exp(x);
+        double denominator = phiSquared + v + ex;
+        return ex * (deltaSquared - phiSquared - v - ex) / (2 * denominator * denominator)
+                - (x - a) / (tau * tau);
+    }
+}
@@ -13,11 +13,26 @@ public interface GlickoCompetitor extends Competitor {
 
     int INITIAL_RATING = 1500;
     double INITIAL_DEVIATION = 350d;
+    double INITIAL_VOLATILITY = 0.06d;
 
     double getRatingDeviation();
 
     void setRatingDeviation(double deviation);
 
+    /**
+     * @return the Glicko-2 volatility, the degree of expected fluctuation
+     * in the rating
+     */
+    default double getVolatility() {
+        return INITIAL_VOLATILITY;
+    }
+
+    /**
+     * Called by {@link Glicko2RatingPeriod} with the new volatility, which
+     * competitors that keep it should store.
+     */
+    default void setVolatility(double volatility) {}
+
     default double getRelativeGlickoRating() {
         return MathUtil.round((double) getRating() / (double) INITIAL_RATING, 2);
     }
@@ -0,0 +1,481 @@
+package com.maulss.core.jnbt;
+
+import com.maulss.core.jnbt.type.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static com.maulss.core.jnbt.NBTConstants.*;
+
+/**
+ * This class reads <strong>NBT</strong> streams one tag at a time, without
+ * building an object graph like {@link NBTInputStream}.
+ *
+ * <p>The reader is a cursor over the tags of the stream.  {@link #next()}
+ * moves to the next tag of the current compound or list, or returns
+ * {@link NBTConstants#TYPE_END} once it has no more.  The payload of the
+ * current tag may then be read with one of the {@code read} methods, entered
+ * with {@link #enter()} if it is a compound or list, or skipped.  Payloads
+ * that weren't read are skipped by the next call to {@link #next()}.</p>
+ *
+ * <pre>
+ * reader.next();   // the root compound
+ * reader.enter();
+ * while (reader.next() != TYPE_END) {
+ *     if (reader.getName().equals("Blocks")) {
+ *         byte[] blocks = new byte[reader.getLength()];
+ *         reader.readBytes(blocks, 0, blocks.length);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>Byte and int arrays may be read in parts into buffers of the caller, so
+ * large arrays don't have to be held in memory more than once.</p>
+ */
+public final class NBTStreamReader implements Closeable {
+
+    private static final int FRAME_COMPOUND = 0, FRAME_LIST = 1;
+
+    private final DataInputStream is;
+
+    // The containers entered, innermost last
+    private int[] frames = new int[8];
+    private int[] listTypes = new int[8];
+    private int[] listRemaining = new int[8];
+    private int depth = 0;
+    private boolean rootRead = false;
+
+    // The current tag
+    private int type = TYPE_END;
+    private String name;
+    private boolean pending = false;
+    private int arrayRemaining = -1;
+
+    /**
+     * Creates a new {@code NBTStreamReader}, which will source its data
+     * from the specified GZIP compressed input stream.
+     *
+     * @param is the input stream
+     * @throws IOException if an I/O error occurs
+     */
+    public NBTStreamReader(final InputStream is) throws IOException {
+        this(is, true);
+    }
+
+    /**
+     * Creates a new {@code NBTStreamReader}, which will source its data
+     * from the specified input stream.
+     *
+     * @param is the input stream
+     * @param compressed whether the stream is GZIP compressed
+     * @throws IOException if an I/O error occurs
+     */
+    public NBTStreamReader(final InputStream is,
+                           final boolean compressed) throws IOException {
+        InputStream source = compressed ? new GZIPInputStream(is, 8192) : is;
+        this.is = new DataInputStream(new BufferedInputStream(source, 8192));
+    }
+
+    /**
+     * Moves to the next tag of the current compound or list, skipping what
+     * is left of the payload of the current tag.
+     *
+     * <p>At the end of a compound or list, this returns {@link
+     * NBTConstants#TYPE_END} and leaves it, so the next call moves to the
+     * tag after it.</p>
+     *
+     * @return the type of the tag moved to
+     * @throws IOException if an I/O error occurs
+     */
+    public int next() throws IOException {
+        skip();
+
+        if (depth == 0) {
+            if (rootRead) return setCurrent(TYPE_END, null, false);
+
+            rootRead = true;
+            return readNamed();
+        }
+
+        if (frames[depth - 1] == FRAME_COMPOUND) {
+            if (readNamed() == TYPE_END) depth--;
+            return type;
+        }
+
+        if (listRemaining[depth - 1] == 0) {
+            depth--;
+            return setCurrent(TYPE_END, null, false);
+        }
+
+        listRemaining[depth - 1]--;
+        return setCurrent(listTypes[depth - 1], null, true);
+    }
+
+    /**
+     * @return the type of the current tag
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the current tag, or {@code null} if it is an
+     * element of a list or the end of a container
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of compounds and lists entered
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Enters the current compound or list, so {@link #next()} moves to its
+     * first tag.
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the current tag isn't an unread
+     *                               compound or list
+     */
+    public void enter() throws IOException {
+        if (type != TYPE_COMPOUND && type != TYPE_LIST) {
+            throw new IllegalStateException("Tag " + name + " is not a TAG_Compound or TAG_List");
+        }
+        checkPending();
+
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+            listTypes = Arrays.copyOf(listTypes, depth * 2);
+            listRemaining = Arrays.copyOf(listRemaining, depth * 2);
+        }
+
+        if (type == TYPE_COMPOUND) {
+            frames[depth] = FRAME_COMPOUND;
+        } else {
+            frames[depth] = FRAME_LIST;
+            listTypes[depth] = is.readByte() & 0xFF;
+            listRemaining[depth] = Math.max(0, is.readInt());
+            if (listRemaining[depth] > 0 && listTypes[depth] == TYPE_END) {
+                throw new IOException("TAG_End not permitted in a list.");
+            }
+        }
+
+        depth++;
+        pending = false;
+    }
+
+    /**
+     * @return the type of the elements of the list entered last
+     * @throws IllegalStateException if the innermost container isn't a list
+     */
+    public int getListType() {
+        checkList();
+        return listTypes[depth - 1];
+    }
+
+    /**
+     * @return the number of elements left in the list entered last
+     * @throws IllegalStateException if the innermost container isn't a list
+     */
+    public int getListRemaining() {
+        checkList();
+        return listRemaining[depth - 1];
+    }
+
+    public byte readByte() throws IOException {
+        checkPayload(TYPE_BYTE);
+        return is.readByte();
+    }
+
+    public short readShort() throws IOException {
+        checkPayload(TYPE_SHORT);
+        return is.readShort();
+    }
+
+    public int readInt() throws IOException {
+        checkPayload(TYPE_INT);
+        return is.readInt();
+    }
+
+    public long readLong() throws IOException {
+        checkPayload(TYPE_LONG);
+        return is.readLong();
+    }
+
+    public float readFloat() throws IOException {
+        checkPayload(TYPE_FLOAT);
+        return is.readFloat();
+    }
+
+    public double readDouble() throws IOException {
+        checkPayload(TYPE_DOUBLE);
+        return is.readDouble();
+    }
+
+    public String readString() throws IOException {
+        checkPayload(TYPE_STRING);
+        return readUtf();
+    }
+
+    /**
+     * Gets the number of elements left to read of the current byte or int
+     * array.
+     *
+     * @return the number of elements left
+     * @throws IOException if an I/O error occurs
+     */
+    public int getLength() throws IOException {
+        if (type != TYPE_BYTE_ARRAY && type != TYPE_INT_ARRAY) {
+            throw new IllegalStateException("Tag " + name + " is not an array");
+        }
+
+        if (!pending) return 0;
+        if (arrayRemaining < 0) {
+            arrayRemaining = is.readInt();
+            if (arrayRemaining < 0) throw new IOException("Negative array length " + arrayRemaining);
+        }
+
+        return arrayRemaining;
+    }
+
+    /**
+     * Reads bytes of the current byte array into a buffer.
+     *
+     * @param buffer the buffer to read into
+     * @param offset the index to start writing at
+     * @param length the maximum number of bytes to read
+     * @return the number of bytes read, {@code 0} if the array was read
+     * completely
+     * @throws IOException if an I/O error occurs
+     */
+    public int readBytes(final byte[] buffer,
+                         final int offset,
+                         final int length) throws IOException {
+        checkType(TYPE_BYTE_ARRAY);
+        int count = Math.min(length, getLength());
+        is.readFully(buffer, offset, count);
+        consumeArray(count);
+        return count;
+    }
+
+    /**
+     * Reads what is left of the current byte array into a new array.
+     */
+    public byte[] readByteArray() throws IOException {
+        checkType(TYPE_BYTE_ARRAY);
+        byte[] bytes = new byte[getLength()];
+        readBytes(bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Reads ints of the current int array into a buffer.
+     *
+     * @param buffer the buffer to read into
+     * @param offset the index to start writing at
+     * @param length the maximum number of ints to read
+     * @return the number of ints read, {@code 0} if the array was read
+     * completely
+     * @throws IOException if an I/O error occurs
+     */
+    public int readInts(final int[] buffer,
+                        final int offset,
+                        final int length) throws IOException {
+        checkType(TYPE_INT_ARRAY);
+        int count = Math.min(length, getLength());
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = is.readInt();
+        }
+        consumeArray(count);
+        return count;
+    }
+
+    /**
+     * Reads what is left of the current int array into a new array.
+     */
+    public int[] readIntArray() throws IOException {
+        checkType(TYPE_INT_ARRAY);
+        int[] ints = new int[getLength()];
+        readInts(ints, 0, ints.length);
+        return ints;
+    }
+
+    /**
+     * Reads the whole payload of the current tag into a {@link Tag}, for
+     * small subtrees that are easier to handle as objects.
+     *
+     * @return the tag that was read
+     * @throws IOException if an I/O error occurs
+     */
+    public Tag readTag() throws IOException {
+        switch (type) {
+        case TYPE_BYTE:         return new ByteTag(readByte());
+        case TYPE_SHORT:        return new ShortTag(readShort());
+        case TYPE_INT:          return new IntTag(readInt());
+        case TYPE_LONG:         return new LongTag(readLong());
+        case TYPE_FLOAT:        return new FloatTag(readFloat());
+        case TYPE_DOUBLE:       return new DoubleTag(readDouble());
+        case TYPE_BYTE_ARRAY:   return new ByteArrayTag(readByteArray());
+        case TYPE_STRING:       return new StringTag(readString());
+        case TYPE_INT_ARRAY:    return new IntArrayTag(readIntArray());
+        case TYPE_LIST:
+            enter();
+            int childType = getListType();
+            List<Tag> tagList = new ArrayList<>(getListRemaining());
+            while (next() != TYPE_END) {
+                tagList.add(readTag());
+            }
+
+            return new ListTag(NBTUtils.fromTypeCode(childType), tagList);
+        case TYPE_COMPOUND:
+            return new CompoundTag(readCompound());
+        default:
+            throw new IllegalStateException("No tag to read");
+        }
+    }
+
+    /**
+     * Reads the current compound into a map of its tags by name.
+     *
+     * @return the tags that were read
+     * @throws IOException if an I/O error occurs
+     */
+    public Map<String, Tag> readCompound() throws IOException {
+        checkType(TYPE_COMPOUND);
+        enter();
+
+        Map<String, Tag> tagMap = new HashMap<>();
+        while (next() != TYPE_END) {
+            String name = this.name;
+            tagMap.put(name, readTag());
+        }
+
+        return tagMap;
+    }
+
+    /**
+     * Skips what is left of the payload of the current tag, including every
+     * tag inside it.  Does nothing if the payload was read.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void skip() throws IOException {
+        if (!pending) return;
+
+        switch (type) {
+        case TYPE_BYTE:         skipFully(1); break;
+        case TYPE_SHORT:        skipFully(2); break;
+        case TYPE_INT:
+        case TYPE_FLOAT:        skipFully(4); break;
+        case TYPE_LONG:
+        case TYPE_DOUBLE:       skipFully(8); break;
+        case TYPE_STRING:       skipFully(is.readUnsignedShort()); break;
+        case TYPE_BYTE_ARRAY:   skipFully(getLength()); break;
+        case TYPE_INT_ARRAY:    skipFully(getLength() * 4L); break;
+        case TYPE_LIST:
+        case TYPE_COMPOUND:
+            int until = depth;
+            enter();
+            while (depth > until) {
+                next();
+            }
+            break;
+        default:
+            throw new IOException("Invalid tag type: " + type + ".");
+        }
+
+        pending = false;
+        arrayRemaining = -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        is.close();
+    }
+
+    private int readNamed() throws IOException {
+        int type = is.readByte() & 0xFF;
+        if (type == TYPE_END) {
+            if (depth == 0) {
+                throw new IOException("TAG_End found without a TAG_Compound/TAG_List tag preceding it.");
+            }
+
+            return setCurrent(TYPE_END, null, false);
+        }
+
+        if (type > TYPE_INT_ARRAY) throw new IOException("Invalid tag type: " + type + ".");
+        return setCurrent(type, readUtf(), true);
+    }
+
+    private int setCurrent(final int type,
+                           final String name,
+                           final boolean pending) {
+        this.type = type;
+        this.name = name;
+        this.pending = pending;
+        this.arrayRemaining = -1;
+        return type;
+    }
+
+    private String readUtf() throws IOException {
+        int length = is.readUnsignedShort();
+        if (length == 0) return "";
+
+        byte[] bytes = new byte[length];
+        is.readFully(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    private void consumeArray(final int count) {
+        arrayRemaining -= count;
+        if (arrayRemaining == 0) {
+            pending = false;
+            arrayRemaining = -1;
+        }
+    }
+
+    private void skipFully(long count) throws IOException {
+        while (count > 0) {
+            int skipped = is.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+            if (skipped == 0) {
+                // skipBytes doesn't tell end of stream apart
+                is.readByte();
+                skipped = 1;
+            }
+
+            count -= skipped;
+        }
+    }
+
+    private void checkPending() {
+        if (!pending) throw new IllegalStateException("Payload of tag " + name + " was already read");
+    }
+
+    private void checkType(final int expected) {
+        if (type != expected) {
+            throw new IllegalStateException("Tag " + name + " is not of tag type "
+                    + NBTUtils.fromTypeCode(expected).getSimpleName());
+        }
+    }
+
+    private void checkPayload(final int expected) {
+        checkType(expected);
+        checkPending();
+        pending = false;
+    }
+
+    private void checkList() {
+        if (depth == 0 || frames[depth - 1] != FRAME_LIST) {
+            throw new IllegalStateException("Not inside a TAG_List");
+        }
+    }
+}
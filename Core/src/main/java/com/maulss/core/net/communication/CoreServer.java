@@ -24,6 +24,7 @@ public class CoreServer implements Serializable {
     private final String internalName;
     private final String address;
     private final int port;
+    private final ServerProtocol protocol;
 
     public CoreServer(final String internalName,
                       final String address) {
@@ -33,9 +34,17 @@ public class CoreServer implements Serializable {
     public CoreServer(final String internalName,
                       final String address,
                       final int port) {
+        this(internalName, address, port, ServerProtocol.JSON);
+    }
+
+    public CoreServer(final String internalName,
+                      final String address,
+                      final int port,
+                      final ServerProtocol protocol) {
         this.internalName = Validate.notNull(internalName, "internalName");
         this.address = Validate.notNull(address, "address");
         this.port = port;
+        this.protocol = Validate.notNull(protocol, "protocol");
     }
 
     public String getInternalName() {
@@ -54,6 +63,13 @@ public class CoreServer implements Serializable {
         return port;
     }
 
+    /**
+     * @return the wire format used to exchange commands with this server
+     */
+    public ServerProtocol getProtocol() {
+        return protocol;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -84,6 +100,7 @@ public class CoreServer implements Serializable {
                 .append("internalName", internalName)
                 .append("address", address)
                 .append("port", port)
+                .append("protocol", protocol)
                 .toString();
     }
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ package com.maulss.core.net.communication;
 import com.maulss.core.collect.EnhancedList;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public final class CoreServerRegistry {
 
@@ -18,6 +20,14 @@ public final class CoreServerRegistry {
         servers.add(server);
     }
 
+    public boolean contains(CoreServer server) {
+        return servers.contains(server);
+    }
+
+    public List<CoreServer> getServers() {
+        return Collections.unmodifiableList(servers);
+    }
+
     public static CoreServerRegistry newRegistry(CoreServer... servers) {
         CoreServerRegistry registry = new CoreServerRegistry();
         for (CoreServer server : servers) {
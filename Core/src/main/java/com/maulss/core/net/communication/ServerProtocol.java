@@ -0,0 +1,28 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:12 AM.
+ */
+
+package com.maulss.core.net.communication;
+
+/**
+ * The wire format used to exchange {@link
+ * com.maulss.core.net.communication.command.Command commands} with a {@link
+ * CoreServer}.  Both ends of a connection must use the same protocol.
+ */
+public enum ServerProtocol {
+
+    /**
+     * Commands as JSON text, one per line.  Kept for compatibility with
+     * servers that haven't been updated yet.
+     */
+    JSON,
+
+    /**
+     * Length-prefixed binary frames holding a VarInt command id followed by
+     * the payload written by the command's {@link
+     * com.maulss.core.net.communication.command.PayloadSerializer serializer}.
+     */
+    BINARY
+}
@@ -11,28 +11,99 @@ import org.apache.commons.lang3.Validate;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class CommandRegistry {
 
     private final EnhancedMap<Command, CommandProcess> commands = new EnhancedMap<>();
 
-    public CommandProcess add(final Command command,
-                              final CommandProcess process) {
+    // Lookups used by the protocol codecs, keyed by lower case name
+    private final Map<String, Command> names = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, Command> byId = new ConcurrentHashMap<>();
+    private final Map<String, PayloadSerializer> serializers = new ConcurrentHashMap<>();
+    private int nextId = 0;
+
+    /**
+     * Registers a command with the next free id.  Both ends of a binary
+     * connection must register their commands in the same order, or use
+     * {@link #add(int, Command, CommandProcess)} with explicit ids.
+     */
+    public synchronized CommandProcess add(final Command command,
+                                           final CommandProcess process) {
+        Validate.notNull(command, "command");
+        Integer id = ids.get(key(command.getName()));
+        if (id == null) {
+            while (byId.containsKey(nextId)) ++nextId;
+            id = nextId;
+        }
+
+        return add(id, command, process);
+    }
+
+    /**
+     * Registers a command with the id it is sent with over the binary
+     * protocol.
+     */
+    public synchronized CommandProcess add(final int id,
+                                           final Command command,
+                                           final CommandProcess process) {
         Validate.notNull(command, "command");
         Validate.notNull(process, "process");
+        Validate.isTrue(id >= 0, "id must not be negative");
+
+        String key = key(command.getName());
+        Command previous = byId.get(id);
+        Validate.isTrue(previous == null || key(previous.getName()).equals(key),
+                "id %s is already used by command `%s`", id, previous == null ? null : previous.getName());
+
+        Integer previousId = ids.put(key, id);
+        if (previousId != null && previousId != id) byId.remove(previousId);
+
+        Command replaced = names.put(key, command);
+        if (replaced != null && !replaced.equals(command)) commands.remove(replaced);
+
+        byId.put(id, command);
         return commands.put(command, process);
     }
 
     public Optional<Command> getCommand(final String command) {
         Validate.notNull(command, "command");
-        for (Map.Entry<Command, CommandProcess> entry : commands.entrySet()) {
-            Command cmd = entry.getKey();
-            if (cmd.getName().equalsIgnoreCase(command)) {
-                return Optional.of(cmd);
-            }
-        }
+        return Optional.ofNullable(names.get(key(command)));
+    }
 
-        return Optional.empty();
+    /**
+     * @return the command registered with the binary protocol id
+     */
+    public Optional<Command> getCommand(final int id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * @return the binary protocol id of the command
+     */
+    public OptionalInt getId(final String command) {
+        Validate.notNull(command, "command");
+        Integer id = ids.get(key(command));
+        return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+    }
+
+    /**
+     * Sets the serializer used for the data of a command sent over the binary
+     * protocol.  Commands without a serializer use {@link
+     * JsonPayloadSerializer}.
+     */
+    public void setSerializer(final String command,
+                              final PayloadSerializer serializer) {
+        Validate.notNull(command, "command");
+        Validate.notNull(serializer, "serializer");
+        serializers.put(key(command), serializer);
+    }
+
+    public PayloadSerializer getSerializer(final String command) {
+        Validate.notNull(command, "command");
+        return serializers.getOrDefault(key(command), JsonPayloadSerializer.INSTANCE);
     }
 
     public Optional<CommandProcess> getProcess(final String command) {
@@ -47,4 +118,8 @@ public final class CommandRegistry {
     public boolean isRegistered(final String command) {
         return getCommand(command).isPresent();
     }
-}
\ No newline at end of file
+
+    private static String key(final String command) {
+        return command.toLowerCase();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:19 AM.
+ */
+
+package com.maulss.core.net.communication.command;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Default {@link PayloadSerializer} writing the command data as UTF-8 JSON
+ * text.  Reads straight from the buffer without copying it into a {@code
+ * String} first.
+ */
+public final class JsonPayloadSerializer implements PayloadSerializer {
+
+    public static final JsonPayloadSerializer INSTANCE = new JsonPayloadSerializer();
+
+    private JsonPayloadSerializer() {}
+
+    @Override
+    public void write(final JsonElement data,
+                      final ByteBuf out) {
+        ByteBufUtil.writeUtf8(out, data.toString());
+    }
+
+    @Override
+    public JsonElement read(final ByteBuf in) throws CommandException {
+        try {
+            return new JsonParser().parse(new InputStreamReader(new ByteBufInputStream(in), StandardCharsets.UTF_8));
+        } catch (JsonParseException ex) {
+            throw new CommandException("Received command data that can't be parsed", ex);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:15 AM.
+ */
+
+package com.maulss.core.net.communication.command;
+
+import com.google.gson.JsonElement;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Writes and reads the data of a {@link Command} for the binary protocol.
+ *
+ * Serializers are registered per command in the {@link CommandRegistry} so
+ * that frequently sent commands can use a compact layout instead of JSON
+ * text.  The payload is the remainder of the frame, so a serializer doesn't
+ * need to write its own length.
+ *
+ * @see JsonPayloadSerializer
+ * @see CommandRegistry#setSerializer(String, PayloadSerializer)
+ */
+public interface PayloadSerializer {
+
+    /**
+     * Writes the data of a command.
+     *
+     * @param data
+     *         the command data, never {@code null}
+     * @param out
+     *         the buffer to write to
+     * @throws CommandException
+     *         If the data can't be written by this serializer
+     */
+    void write(JsonElement data,
+               ByteBuf out) throws CommandException;
+
+    /**
+     * Reads the data of a command.
+     *
+     * @param in
+     *         the payload, holding at least one readable byte
+     * @return the command data
+     * @throws CommandException
+     *         If the payload is malformed
+     */
+    JsonElement read(ByteBuf in) throws CommandException;
+}
@@ -0,0 +1,81 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:47 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import com.maulss.core.net.communication.command.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+import org.apache.commons.lang3.Validate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Converts between frames and {@link Command commands} for the binary
+ * protocol.
+ *
+ * <p>A frame holds the command's VarInt id as registered in the {@link
+ * CommandRegistry}, one byte for its {@link CommandType} and, if the command
+ * has data, the payload written by the command's {@link PayloadSerializer}.</p>
+ *
+ * <p>Outbound frames are allocated from the channel's allocator, pooled by
+ * default.</p>
+ */
+public class NettyBinaryCodec extends MessageToMessageCodec<ByteBuf, Command> {
+
+    private static final CommandType[] TYPES = CommandType.values();
+
+    private final CommandRegistry cmdReg;
+
+    public NettyBinaryCodec(final CommandRegistry cmdReg) {
+        this.cmdReg = Validate.notNull(cmdReg, "cmdReg");
+    }
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx,
+                          final Command cmd,
+                          final List<Object> out) throws Exception {
+        OptionalInt id = cmdReg.getId(cmd.getName());
+        if (!id.isPresent())
+            throw new CommandException("Attempted sending command `%s` that hasn't been registered", cmd.getName());
+
+        ByteBuf frame = ctx.alloc().ioBuffer();
+        try {
+            VarInts.write(frame, id.getAsInt());
+            frame.writeByte(cmd.getType().ordinal());
+            if (cmd.getCommandData().isPresent()) {
+                cmdReg.getSerializer(cmd.getName()).write(cmd.getCommandData().get(), frame);
+            }
+        } catch (Throwable throwable) {
+            frame.release();
+            throw throwable;
+        }
+
+        out.add(frame);
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx,
+                          final ByteBuf frame,
+                          final List<Object> out) throws Exception {
+        int id = VarInts.read(frame);
+        Optional<Command> registered = cmdReg.getCommand(id);
+        if (!registered.isPresent())
+            throw new CommandException("Received command with id %s that hasn't been registered", id);
+
+        int type = frame.readUnsignedByte();
+        if (type >= TYPES.length)
+            throw new CommandException("Received command `%s` with unknown type %s", registered.get().getName(), type);
+
+        String name = registered.get().getName();
+        out.add(new Command(name, TYPES[type], frame.isReadable()
+                ? Optional.of(cmdReg.getSerializer(name).read(frame))
+                : Optional.empty()));
+    }
+}
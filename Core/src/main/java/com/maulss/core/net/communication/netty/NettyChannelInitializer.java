@@ -7,25 +7,37 @@
 package com.maulss.core.net.communication.netty;
 
 import com.maulss.core.net.communication.CoreServer;
+import com.maulss.core.net.communication.command.CommandRegistry;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.ssl.SslContext;
 import org.apache.commons.lang3.Validate;
 
+import javax.annotation.Nullable;
+
 public class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
 
     private final SslContext sslCtx;
     private final CoreServer server;
+    private final CommandRegistry cmdReg;
 
     public NettyChannelInitializer(final SslContext sslCtx,
                                    final CoreServer server) {
+        this(sslCtx, server, null);
+    }
+
+    /**
+     * @param cmdReg
+     *         registry of command ids, required if the server uses the
+     *         binary protocol
+     */
+    public NettyChannelInitializer(final SslContext sslCtx,
+                                   final CoreServer server,
+                                   @Nullable final CommandRegistry cmdReg) {
         this.sslCtx = Validate.notNull(sslCtx, "sslCtx");
         this.server = Validate.notNull(server, "server");
+        this.cmdReg = cmdReg;
     }
 
     @Override
@@ -37,10 +49,8 @@ public class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
         // and accept any invalid certificates in the client side.
         pipeline.addLast(sslCtx.newHandler(channel.alloc(), server.getAddress(), server.getPort()));
 
-        // On top of the SSL handler, add the text line codec.
-        pipeline.addLast(new DelimiterBasedFrameDecoder(8192, Delimiters.lineDelimiter()));
-        pipeline.addLast(new StringDecoder());
-        pipeline.addLast(new StringEncoder());
+        // On top of the SSL handler, add the codec of the server's protocol.
+        NettyPipeline.addCodec(pipeline, server.getProtocol(), cmdReg);
 
         // and then business logic.
         pipeline.addLast(new NettyClientHandler());
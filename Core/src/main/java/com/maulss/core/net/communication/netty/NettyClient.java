@@ -7,16 +7,17 @@
 package com.maulss.core.net.communication.netty;
 
 import com.maulss.core.net.communication.CoreServer;
+import com.maulss.core.net.communication.ServerProtocol;
+import com.maulss.core.net.communication.command.CommandParser;
+import com.maulss.core.net.communication.command.CommandRegistry;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslContext;
-import io.netty.util.concurrent.Future;
 import org.apache.commons.lang3.Validate;
 
+import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.IOException;
@@ -24,25 +25,40 @@ import java.io.InputStreamReader;
 
 public class NettyClient implements Closeable {
 
-    private final EventLoopGroup group = new NioEventLoopGroup();
     private Channel channel;
 
     private final SslContext sslCtx;
     private final CoreServer server;
+    private final CommandRegistry cmdReg;
 
     // START // def: 127.0.0.1:8000
     public NettyClient(final SslContext sslCtx,
                        final CoreServer server) {
+        this(sslCtx, server, null);
+    }
+
+    /**
+     * @param cmdReg
+     *         registry of command ids, required if the server uses the
+     *         binary protocol
+     */
+    public NettyClient(final SslContext sslCtx,
+                       final CoreServer server,
+                       @Nullable final CommandRegistry cmdReg) {
         this.sslCtx = Validate.notNull(sslCtx, "sslCtx");
         this.server = Validate.notNull(server, "server");
+        this.cmdReg = cmdReg;
     }
 
     public void run() throws Exception {
         try {
+            // Event loops are shared with every other server and client
+            NettyTransport transport = NettyTransport.get();
             Bootstrap bootstrap = new Bootstrap()
-                    .group(group)
-                    .channel(NioSocketChannel.class)
-                    .handler(new NettyChannelInitializer(sslCtx, server))
+                    .group(transport.getWorkerGroup())
+                    .channel(transport.getChannelClass())
+                    .handler(new NettyChannelInitializer(sslCtx, server, cmdReg))
+                    .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                     .option(ChannelOption.SO_BACKLOG, 128);
 
             /* TODO logger
@@ -56,7 +72,12 @@ public class NettyClient implements Closeable {
             BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
 
             while (true) {
-                channel.write(in.readLine() + "\r\n");
+                // Binary frames can only carry commands
+                if (server.getProtocol() == ServerProtocol.BINARY) {
+                    channel.writeAndFlush(CommandParser.parse(in.readLine()));
+                } else {
+                    channel.write(in.readLine() + "\r\n");
+                }
             }
 
             // Bind and start to accept incoming connections.
@@ -80,13 +101,11 @@ public class NettyClient implements Closeable {
             throw new IOException(e);
         }
 
-        Future<?> f = group.shutdownGracefully();
-
         /* TODO logger
-        f.addListener((GenericFutureListener) future -> Core.log(
+        Core.log(
                 "Closed netty client `%s` on port %s",
                 server.getInternalName(),
                 server.getPort()
-        ));*/
+        );*/
     }
 }
\ No newline at end of file
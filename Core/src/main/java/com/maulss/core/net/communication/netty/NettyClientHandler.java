@@ -6,14 +6,15 @@
 
 package com.maulss.core.net.communication.netty;
 
+import com.maulss.core.net.communication.command.Command;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
-public class NettyClientHandler extends SimpleChannelInboundHandler<String> {
+public class NettyClientHandler extends SimpleChannelInboundHandler<Command> {
 
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx,
-                                final String json) throws Exception {
+                                final Command cmd) throws Exception {
 
     }
 
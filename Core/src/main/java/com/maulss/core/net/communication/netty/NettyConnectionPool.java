@@ -0,0 +1,168 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 12:05 PM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import com.maulss.core.net.communication.CoreServer;
+import com.maulss.core.net.communication.CoreServerRegistry;
+import com.maulss.core.net.communication.command.Command;
+import com.maulss.core.net.communication.command.CommandRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.handler.ssl.SslContext;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+
+/**
+ * Keeps a bounded pool of client connections to each {@link CoreServer} of a
+ * {@link CoreServerRegistry}.  Connections are opened on demand on the shared
+ * {@link NettyTransport} and reused for later commands.
+ */
+public class NettyConnectionPool implements Closeable {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+    public static final int DEFAULT_MAX_PENDING_ACQUIRES = 1024;
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5000;
+
+    private final CoreServerRegistry svrReg;
+    private final AbstractChannelPoolMap<CoreServer, FixedChannelPool> pools;
+
+    public NettyConnectionPool(final SslContext sslCtx,
+                               final CoreServerRegistry svrReg,
+                               @Nullable final CommandRegistry cmdReg) {
+        this(sslCtx, svrReg, cmdReg, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param sslCtx
+     *         the client SSL context
+     * @param svrReg
+     *         the servers that may be connected to
+     * @param cmdReg
+     *         registry of command ids, required if any server uses the binary
+     *         protocol
+     * @param maxConnections
+     *         maximum amount of open connections per server
+     */
+    public NettyConnectionPool(final SslContext sslCtx,
+                               final CoreServerRegistry svrReg,
+                               @Nullable final CommandRegistry cmdReg,
+                               final int maxConnections) {
+        Validate.notNull(sslCtx, "sslCtx");
+        this.svrReg = Validate.notNull(svrReg, "svrReg");
+        Validate.isTrue(maxConnections > 0, "maxConnections must be positive");
+
+        NettyTransport transport = NettyTransport.get();
+        Bootstrap bootstrap = new Bootstrap()
+                .group(transport.getWorkerGroup())
+                .channel(transport.getChannelClass())
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true);
+
+        pools = new AbstractChannelPoolMap<CoreServer, FixedChannelPool>() {
+            @Override
+            protected FixedChannelPool newPool(final CoreServer server) {
+                return new FixedChannelPool(
+                        bootstrap.clone().remoteAddress(server.getAddress(), server.getPort()),
+                        new AbstractChannelPoolHandler() {
+                            @Override
+                            public void channelCreated(final Channel ch) {
+                                ch.pipeline().addLast(new NettyChannelInitializer(sslCtx, server, cmdReg));
+                            }
+                        },
+                        ChannelHealthChecker.ACTIVE,
+                        FixedChannelPool.AcquireTimeoutAction.FAIL,
+                        DEFAULT_ACQUIRE_TIMEOUT_MILLIS,
+                        maxConnections,
+                        DEFAULT_MAX_PENDING_ACQUIRES
+                );
+            }
+        };
+    }
+
+    /**
+     * Takes a connection to the server out of its pool, opening one if none
+     * is idle.  It must be given back with {@link #release(CoreServer,
+     * Channel)}.
+     *
+     * @throws IllegalArgumentException
+     *         if the server isn't registered
+     */
+    public Future<Channel> acquire(final CoreServer server) {
+        return getPool(server).acquire();
+    }
+
+    /**
+     * Gives a connection back to the pool of the server it was acquired from.
+     */
+    public Future<Void> release(final CoreServer server,
+                                final Channel channel) {
+        Validate.notNull(channel, "channel");
+        return getPool(server).release(channel);
+    }
+
+    /**
+     * Sends a command over a pooled connection to the server, releasing the
+     * connection once it has been written.
+     *
+     * @return a future completed once the command has been written
+     */
+    public Future<Void> send(final CoreServer server,
+                             final Command command) {
+        Validate.notNull(command, "command");
+
+        FixedChannelPool pool = getPool(server);
+        Promise<Void> promise = NettyTransport.get().getWorkerGroup().next().newPromise();
+        pool.acquire().addListener((Future<Channel> acquired) -> {
+            if (!acquired.isSuccess()) {
+                promise.setFailure(acquired.cause());
+                return;
+            }
+
+            Channel ch = acquired.getNow();
+            ch.writeAndFlush(command).addListener((ChannelFuture written) -> {
+                pool.release(ch);
+                if (written.isSuccess()) {
+                    promise.setSuccess(null);
+                } else {
+                    promise.setFailure(written.cause());
+                }
+            });
+        });
+
+        return promise;
+    }
+
+    public CoreServerRegistry getServerRegistry() {
+        return svrReg;
+    }
+
+    /**
+     * Closes every pooled connection.
+     */
+    @Override
+    public void close() {
+        pools.close();
+    }
+
+    private FixedChannelPool getPool(final CoreServer server) {
+        Validate.notNull(server, "server");
+        Validate.isTrue(svrReg.contains(server), "Server `%s` isn't registered", server.getInternalName());
+        return pools.get(server);
+    }
+}
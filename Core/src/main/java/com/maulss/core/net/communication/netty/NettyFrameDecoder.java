@@ -0,0 +1,59 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:36 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.util.List;
+
+/**
+ * Splits the inbound stream into frames prefixed with their VarInt length.
+ * Frames are passed on as retained slices of the inbound buffer, so their
+ * bytes aren't copied.
+ *
+ * @see NettyFrameEncoder
+ */
+public class NettyFrameDecoder extends ByteToMessageDecoder {
+
+    private final int maxFrameLength;
+
+    public NettyFrameDecoder(final int maxFrameLength) {
+        if (maxFrameLength <= 0)
+            throw new IllegalArgumentException("maxFrameLength must be positive");
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx,
+                          final ByteBuf in,
+                          final List<Object> out) throws Exception {
+        while (in.isReadable()) {
+            // Wait for the rest of the length
+            if (!VarInts.isComplete(in)) return;
+
+            int start = in.readerIndex();
+            int length = VarInts.read(in);
+            if (length < 0 || length > maxFrameLength) {
+                // The stream can't be split into frames any more
+                in.skipBytes(in.readableBytes());
+                throw new CorruptedFrameException("Invalid frame length " + length
+                        + ", must be between 0 and " + maxFrameLength);
+            }
+
+            if (in.readableBytes() < length) {
+                // Wait for the rest of the frame
+                in.readerIndex(start);
+                return;
+            }
+
+            out.add(in.readRetainedSlice(length));
+        }
+    }
+}
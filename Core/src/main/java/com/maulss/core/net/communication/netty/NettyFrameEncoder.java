@@ -0,0 +1,41 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:41 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/**
+ * Prefixes every outbound frame with its VarInt length.  The prefix is
+ * written to its own small buffer and combined with the frame, so the frame
+ * itself isn't copied.
+ *
+ * @see NettyFrameDecoder
+ */
+@ChannelHandler.Sharable
+public class NettyFrameEncoder extends MessageToMessageEncoder<ByteBuf> {
+
+    public static final NettyFrameEncoder INSTANCE = new NettyFrameEncoder();
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx,
+                          final ByteBuf frame,
+                          final List<Object> out) throws Exception {
+        int length = frame.readableBytes();
+        ByteBuf prefix = ctx.alloc().ioBuffer(VarInts.size(length));
+        VarInts.write(prefix, length);
+
+        CompositeByteBuf composite = ctx.alloc().compositeDirectBuffer(2);
+        composite.addComponents(true, prefix, frame.retain());
+        out.add(composite);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:55 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import com.maulss.core.net.communication.command.Command;
+import com.maulss.core.net.communication.command.CommandParser;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+
+import java.util.List;
+
+/**
+ * Converts between lines of JSON text and {@link Command commands} for the
+ * JSON line protocol.
+ */
+@ChannelHandler.Sharable
+public class NettyJsonCodec extends MessageToMessageCodec<String, Command> {
+
+    public static final NettyJsonCodec INSTANCE = new NettyJsonCodec();
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx,
+                          final Command cmd,
+                          final List<Object> out) throws Exception {
+        out.add(cmd.toJson() + "\r\n");
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx,
+                          final String json,
+                          final List<Object> out) throws Exception {
+        out.add(CommandParser.parse(json));
+    }
+}
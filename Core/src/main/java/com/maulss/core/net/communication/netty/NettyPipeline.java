@@ -0,0 +1,71 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 11:02 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import com.maulss.core.net.communication.ServerProtocol;
+import com.maulss.core.net.communication.command.CommandRegistry;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+import io.netty.handler.codec.Delimiters;
+import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.codec.string.StringEncoder;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sets up the codec handlers of a {@link ServerProtocol} so that the
+ * business logic handlers only deal with {@link
+ * com.maulss.core.net.communication.command.Command commands}.
+ */
+public final class NettyPipeline {
+
+    /**
+     * Maximum length of a line in the JSON protocol.
+     */
+    public static final int MAX_LINE_LENGTH = 8192;
+
+    /**
+     * Maximum length of a frame in the binary protocol.
+     */
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private NettyPipeline() {}
+
+    /**
+     * Adds the codec of the protocol to the end of the pipeline.
+     *
+     * @param pipeline
+     *         the channel's pipeline, with any SSL handler already added
+     * @param protocol
+     *         the protocol to use
+     * @param cmdReg
+     *         the registry holding command ids and serializers, required for
+     *         {@link ServerProtocol#BINARY}
+     */
+    public static void addCodec(final ChannelPipeline pipeline,
+                                final ServerProtocol protocol,
+                                final CommandRegistry cmdReg) {
+        Validate.notNull(pipeline, "pipeline");
+        Validate.notNull(protocol, "protocol");
+
+        switch (protocol) {
+            case BINARY:
+                Validate.notNull(cmdReg, "cmdReg");
+                pipeline.addLast(new NettyFrameDecoder(MAX_FRAME_LENGTH));
+                pipeline.addLast(NettyFrameEncoder.INSTANCE);
+                pipeline.addLast(new NettyBinaryCodec(cmdReg));
+                break;
+            case JSON:
+            default:
+                pipeline.addLast(new DelimiterBasedFrameDecoder(MAX_LINE_LENGTH, Delimiters.lineDelimiter()));
+                pipeline.addLast(new StringDecoder(StandardCharsets.UTF_8));
+                pipeline.addLast(new StringEncoder(StandardCharsets.UTF_8));
+                pipeline.addLast(NettyJsonCodec.INSTANCE);
+        }
+    }
+}
@@ -9,14 +9,12 @@ package com.maulss.core.net.communication.netty;
 import com.maulss.core.net.communication.CoreServer;
 import com.maulss.core.net.communication.command.CommandRegistry;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
-import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslContext;
-import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.commons.lang3.Validate;
 
@@ -25,8 +23,6 @@ import java.io.IOException;
 
 public class NettyServer implements Closeable {
 
-    private final EventLoopGroup bossGroup = new NioEventLoopGroup();
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
     private Channel channel;
     private final CoreServer server;
     private final ChannelGroup channels;
@@ -51,10 +47,13 @@ public class NettyServer implements Closeable {
 
     public void run() throws Exception {
         try {
+            // Event loops are shared with every other server and client
+            NettyTransport transport = NettyTransport.get();
             ServerBootstrap bootstrap = new ServerBootstrap()
-                    .group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
-                    .childHandler(new NettyServerInitializer(sslCtx, channels, cmdReg));
+                    .group(transport.getBossGroup(), transport.getWorkerGroup())
+                    .channel(transport.getServerChannelClass())
+                    .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                    .childHandler(new NettyServerInitializer(sslCtx, channels, cmdReg, server.getProtocol()));
 
             channel = bootstrap.bind(server.getPort()).sync().channel();
         } finally {
@@ -71,11 +70,10 @@ public class NettyServer implements Closeable {
             throw new IOException(e);
         }
 
-        bossGroup.shutdownGracefully();
-        Future<?> f = workerGroup.shutdownGracefully();
+        // Close the accepted channels, the shared event loops stay up
+        channels.close().syncUninterruptibly();
 
         /* TODO logger
-        f.addListener((GenericFutureListener) future ->
-                Core.log("Closed netty server `%s` on port '%s'", server.getPort()));*/
+        Core.log("Closed netty server `%s` on port '%s'", server.getPort());*/
     }
 }
\ No newline at end of file
@@ -17,7 +17,7 @@ import java.util.Optional;
 /**
  * Handles a server-side channel.
  */
-public class NettyServerHandler extends SimpleChannelInboundHandler<String> {
+public class NettyServerHandler extends SimpleChannelInboundHandler<Command> {
 
     private final ChannelGroup channels;
     private final CommandRegistry registry;
@@ -37,8 +37,8 @@ public class NettyServerHandler extends SimpleChannelInboundHandler<String> {
     }
 
     @Override
-    public void channelRead0(final ChannelHandlerContext ctx, final String msg) throws Exception {
-        Command cmd = CommandParser.parse(msg);
+    public void channelRead0(final ChannelHandlerContext ctx, Command cmd) throws Exception {
+        // Commands are decoded by the protocol codec in front of this handler
         Optional<Command> registeredCmd = registry.getCommand(cmd.getName());
         if (registeredCmd.isPresent()) {
             cmd = registeredCmd.get();
@@ -52,10 +52,10 @@ public class NettyServerHandler extends SimpleChannelInboundHandler<String> {
                     );
                 }
 
-                ctx.writeAndFlush(registeredCmd.get().toJson());
+                ctx.writeAndFlush(returnCmd.get());
             }
         } else {
-            throw new CommandException("Received command `%s` that hasn't been registered");
+            throw new CommandException("Received command `%s` that hasn't been registered", cmd.getName());
         }
     }
 
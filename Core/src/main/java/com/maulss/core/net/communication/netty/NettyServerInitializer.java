@@ -6,15 +6,12 @@
 
 package com.maulss.core.net.communication.netty;
 
+import com.maulss.core.net.communication.ServerProtocol;
 import com.maulss.core.net.communication.command.CommandRegistry;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.ssl.SslContext;
 import org.apache.commons.lang3.Validate;
 
@@ -23,13 +20,22 @@ public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
     private final SslContext sslCtx;
     private final ChannelGroup channels;
     private final CommandRegistry cmdReg;
+    private final ServerProtocol protocol;
 
     public NettyServerInitializer(final SslContext sslCtx,
                                   final ChannelGroup channels,
                                   final CommandRegistry cmdReg) {
+        this(sslCtx, channels, cmdReg, ServerProtocol.JSON);
+    }
+
+    public NettyServerInitializer(final SslContext sslCtx,
+                                  final ChannelGroup channels,
+                                  final CommandRegistry cmdReg,
+                                  final ServerProtocol protocol) {
         this.sslCtx = Validate.notNull(sslCtx, "sslCtx");
         this.channels = Validate.notNull(channels, "channels");
         this.cmdReg = Validate.notNull(cmdReg, "cmdReg");
+        this.protocol = Validate.notNull(protocol, "protocol");
     }
 
     @Override
@@ -41,10 +47,8 @@ public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
         // and accept any invalid certificates in the client side.
         pipeline.addLast(sslCtx.newHandler(channel.alloc()));
 
-        // On top of the SSL handler, add the text line codec.
-        pipeline.addLast(new DelimiterBasedFrameDecoder(8192, Delimiters.lineDelimiter()));
-        pipeline.addLast(new StringDecoder());
-        pipeline.addLast(new StringEncoder());
+        // On top of the SSL handler, add the codec of the server's protocol.
+        NettyPipeline.addCodec(pipeline, protocol, cmdReg);
 
         // and then business logic.
         pipeline.addLast(new NettyServerHandler(channels, cmdReg));
@@ -10,6 +10,8 @@ import com.maulss.core.net.communication.AbstractServerMessenger;
 import com.maulss.core.net.communication.CoreServer;
 import com.maulss.core.net.communication.CoreServerRegistry;
 import com.maulss.core.net.communication.ServerMessengerException;
+import com.maulss.core.net.communication.command.CommandException;
+import com.maulss.core.net.communication.command.CommandParser;
 import com.maulss.core.net.communication.command.CommandRegistry;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
@@ -24,6 +26,7 @@ public class NettyServerMessenger extends AbstractServerMessenger {
 
     private final SslContext sslCtx;
     private final CommandRegistry cmdReg;
+    private final NettyConnectionPool pool;
 
     private NettyServerMessenger(final String name,
                                  final CoreServerRegistry svrReg,
@@ -35,6 +38,7 @@ public class NettyServerMessenger extends AbstractServerMessenger {
         sslCtx = SslContextBuilder.forClient()
                 .trustManager(InsecureTrustManagerFactory.INSTANCE)
                 .build();
+        pool = new NettyConnectionPool(sslCtx, svrReg, cmdReg);
     }
 
     @Override
@@ -46,7 +50,15 @@ public class NettyServerMessenger extends AbstractServerMessenger {
     @Override
     public void send(final CoreServer to,
                      final String command) {
-
+        try {
+            pool.send(to, CommandParser.parse(command)).addListener(future -> {
+                if (!future.isSuccess()) {
+                    getLogger().log("Could not send command to `%s`: %s", to.getInternalName(), future.cause());
+                }
+            });
+        } catch (CommandException e) {
+            getLogger().log("Could not parse command `%s` for `%s`: %s", command, to.getInternalName(), e.getMessage());
+        }
     }
 
     public SslContext getSslContext() {
@@ -58,6 +70,13 @@ public class NettyServerMessenger extends AbstractServerMessenger {
         return cmdReg;
     }
 
+    /**
+     * @return the pooled client connections to the registered servers
+     */
+    public NettyConnectionPool getConnectionPool() {
+        return pool;
+    }
+
     public static NettyServerMessenger setup(final CoreServerRegistry svrReg,
                                              final CommandRegistry cmdReg)
             throws ServerMessengerException, SSLException {
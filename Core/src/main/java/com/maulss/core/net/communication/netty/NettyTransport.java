@@ -0,0 +1,142 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 11:40 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * The event loops shared by every {@link NettyServer} and {@link NettyClient}
+ * of this process, so that talking to many servers doesn't create a thread
+ * pool per connection.
+ *
+ * The native epoll transport is used when it is available on Linux, NIO
+ * otherwise.
+ */
+public final class NettyTransport {
+
+    /**
+     * Default amount of worker threads, matching Netty's own default.
+     */
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static NettyTransport instance;
+
+    private final boolean epoll;
+    private final int threads;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+
+    private NettyTransport(final int threads,
+                           final boolean epoll) {
+        this.threads = threads;
+        this.epoll = epoll;
+
+        if (epoll) {
+            bossGroup = new EpollEventLoopGroup(1, new DefaultThreadFactory("core-netty-boss", true));
+            workerGroup = new EpollEventLoopGroup(threads, new DefaultThreadFactory("core-netty-worker", true));
+        } else {
+            bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("core-netty-boss", true));
+            workerGroup = new NioEventLoopGroup(threads, new DefaultThreadFactory("core-netty-worker", true));
+        }
+    }
+
+    /**
+     * @return the group accepting connections of servers
+     */
+    public EventLoopGroup getBossGroup() {
+        return bossGroup;
+    }
+
+    /**
+     * @return the group handling the I/O of every server and client channel
+     */
+    public EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> getChannelClass() {
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * @return whether the native epoll transport is used
+     */
+    public boolean isNative() {
+        return epoll;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("epoll", epoll)
+                .append("threads", threads)
+                .toString();
+    }
+
+    /**
+     * Creates the shared event loops with the given amount of worker threads.
+     * Must be called before any server or client is started, otherwise the
+     * {@link #DEFAULT_THREADS default} is used.
+     *
+     * @param threads
+     *         amount of worker threads
+     * @return the transport
+     * @throws IllegalStateException
+     *         if the transport has already been set up
+     */
+    public static synchronized NettyTransport setup(final int threads) {
+        Validate.isTrue(threads > 0, "threads must be positive");
+        Validate.validState(instance == null, "Netty transport has already been set up");
+        return instance = new NettyTransport(threads, Epoll.isAvailable());
+    }
+
+    /**
+     * @return the shared transport, set up with the default amount of threads
+     * if it hasn't been yet
+     */
+    public static synchronized NettyTransport get() {
+        return instance != null ? instance : setup(DEFAULT_THREADS);
+    }
+
+    /**
+     * Gracefully shuts down the shared event loops, closing every server and
+     * client channel.  A new transport is created on the next {@link #get()}.
+     *
+     * @return a future completed once the worker group terminated, or {@code
+     * null} if the transport was never set up
+     */
+    public static synchronized Future<?> shutdown() {
+        if (instance == null) return null;
+
+        NettyTransport transport = instance;
+        instance = null;
+
+        transport.bossGroup.shutdownGracefully();
+        return transport.workerGroup.shutdownGracefully();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 10:31 AM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.CorruptedFrameException;
+
+/**
+ * Reads and writes unsigned VarInts: 7 bits per byte, least significant group
+ * first, with the high bit set on every byte but the last.
+ */
+final class VarInts {
+
+    // An int never needs more than 5 bytes
+    static final int MAX_BYTES = 5;
+
+    private VarInts() {}
+
+    /**
+     * Checks whether the buffer holds a whole VarInt at its reader index,
+     * without moving the index.
+     *
+     * @throws CorruptedFrameException
+     *         If the VarInt is longer than 5 bytes
+     */
+    static boolean isComplete(final ByteBuf in) {
+        int start = in.readerIndex();
+        int readable = Math.min(in.readableBytes(), MAX_BYTES);
+        for (int x = 0; x < readable; ++x) {
+            if (in.getByte(start + x) >= 0) return true;
+        }
+
+        if (readable == MAX_BYTES)
+            throw new CorruptedFrameException("VarInt is longer than " + MAX_BYTES + " bytes");
+        return false;
+    }
+
+    /**
+     * Reads a VarInt that must be fully present.  Five byte VarInts may
+     * decode to a negative value, which callers expecting a length or an
+     * id must reject.
+     *
+     * @throws CorruptedFrameException
+     *         If the VarInt is truncated or too long
+     */
+    static int read(final ByteBuf in) {
+        int value = 0;
+        for (int x = 0; x < MAX_BYTES; ++x) {
+            if (!in.isReadable()) throw new CorruptedFrameException("Truncated VarInt");
+
+            byte b = in.readByte();
+            value |= (b & 0x7F) << (7 * x);
+            if (b >= 0) return value;
+        }
+
+        throw new CorruptedFrameException("VarInt is longer than " + MAX_BYTES + " bytes");
+    }
+
+    static void write(final ByteBuf out,
+                      int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    static int size(final int value) {
+        if ((value & (~0 << 7)) == 0) return 1;
+        if ((value & (~0 << 14)) == 0) return 2;
+        if ((value & (~0 << 21)) == 0) return 3;
+        if ((value & (~0 << 28)) == 0) return 4;
+        return 5;
+    }
+}
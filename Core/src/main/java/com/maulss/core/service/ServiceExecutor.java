@@ -10,8 +10,11 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 public final class ServiceExecutor {
 
     // Used by pasters and url shorteners
@@ -35,4 +38,18 @@ public final class ServiceExecutor {
     public static ListeningExecutorService newAsyncExecutor(final String name) {
         return newAsyncExecutor(new ThreadFactoryBuilder().setNameFormat(name + "-%d").build());
     }
-}
\ No newline at end of file
+
+    public static ListeningExecutorService newPooledExecutor(final String name,
+                                                             final int threads) {
+        checkArgument(threads > 0, "threads must be positive");
+        return MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").build()));
+    }
+
+    public static ScheduledExecutorService newScheduledExecutor(final String name) {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+}
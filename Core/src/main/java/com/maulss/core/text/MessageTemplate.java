@@ -0,0 +1,425 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.text;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message split once into its literal text and placeholders, so it can be
+ * rendered many times without parsing it again.
+ *
+ * <p>Two kinds of placeholders are understood, as used by the locales:
+ * {@link java.util.Formatter} specifiers such as {@code %s}, filled in by
+ * {@link #format(Object...)}, and {@code $name} variables, filled in by
+ * {@link #replace(String[], Object...)} and {@link #replace(Map)}.  Each
+ * kind is left as it is written when rendering the other, just like
+ * {@link String#format(String, Object...)} and {@code String.replace}
+ * would.</p>
+ *
+ * <p>Templates are immutable and safe to share between threads.</p>
+ */
+public final class MessageTemplate {
+
+    // Same as java.util.Formatter
+    private static final Pattern SPECIFIER = Pattern.compile(
+            "%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+    private static final String CONVERSIONS = "bBhHsScCdoxXeEfgGaAtT%n";
+
+    private static final byte LITERAL   = 0;
+    private static final byte ARGUMENT  = 1; // plain %s or %d
+    private static final byte FORMATTED = 2; // any other specifier, formatted alone
+    private static final byte VARIABLE  = 3;
+
+    private final String source;
+    private final byte[] kinds;
+    // What a segment renders as, the specifier without index for formatted ones
+    private final String[] texts;
+    // As written in the source
+    private final String[] raws;
+    private final int[] arguments;
+    private final char[] conversions;
+    private final Set<String> variables;
+    private final boolean constant;
+    // Specifiers this can't render alone, such as relative indices
+    private final boolean complex;
+    private final int literalLength;
+
+    private MessageTemplate(final String source,
+                            final List<Segment> segments,
+                            final boolean complex) {
+        this.source = source;
+        this.complex = complex;
+
+        int size = segments.size();
+        this.kinds = new byte[size];
+        this.texts = new String[size];
+        this.raws = new String[size];
+        this.arguments = new int[size];
+        this.conversions = new char[size];
+
+        ImmutableSet.Builder<String> variables = ImmutableSet.builder();
+        boolean constant = true;
+        int literalLength = 0;
+        for (int i = 0; i < size; i++) {
+            Segment segment = segments.get(i);
+            kinds[i] = segment.kind;
+            texts[i] = segment.text;
+            raws[i] = segment.raw;
+            arguments[i] = segment.argument;
+            conversions[i] = segment.conversion;
+
+            if (segment.kind == LITERAL) {
+                literalLength += segment.text.length();
+                // %% and %n
+                if (!segment.text.equals(segment.raw)) constant = false;
+            } else {
+                constant = false;
+                if (segment.kind == VARIABLE) variables.add(segment.text);
+            }
+        }
+
+        this.variables = variables.build();
+        this.constant = constant && !complex;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Splits a message into its literal text and placeholders.
+     *
+     * @param   source
+     *          The message.
+     * @return  The template of the message.
+     */
+    public static MessageTemplate compile(final String source) {
+        Validate.notNull(source);
+
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Matcher matcher = SPECIFIER.matcher(source);
+        boolean complex = false;
+        int ordinary = 0;
+
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+
+            if (c == '%') {
+                if (!matcher.region(i, length).lookingAt()
+                        || CONVERSIONS.indexOf(source.charAt(matcher.end() - 1)) == -1) {
+                    // String.format throws on these, so leave it to it
+                    complex = true;
+                    literal.append(c);
+                    i++;
+                    continue;
+                }
+
+                String raw = matcher.group();
+                String index = matcher.group(1);
+                String flags = nullToEmpty(matcher.group(2));
+                String width = nullToEmpty(matcher.group(3));
+                String precision = nullToEmpty(matcher.group(4));
+                String time = nullToEmpty(matcher.group(5));
+                char conversion = matcher.group(6).charAt(0);
+                i = matcher.end();
+
+                if (conversion == '%' || conversion == 'n') {
+                    // no argument, render it now
+                    flush(segments, literal);
+                    segments.add(new Segment(LITERAL, String.format(raw), raw, -1, conversion));
+                    continue;
+                }
+
+                if (flags.indexOf('<') != -1) {
+                    complex = true;
+                    literal.append(raw);
+                    continue;
+                }
+
+                int argument = index == null
+                        ? ordinary++
+                        : Integer.parseInt(index.substring(0, index.length() - 1)) - 1;
+                boolean plain = flags.isEmpty() && width.isEmpty() && precision.isEmpty() && time.isEmpty()
+                        && (conversion == 's' || conversion == 'd');
+
+                flush(segments, literal);
+                segments.add(plain
+                        ? new Segment(ARGUMENT, "%" + conversion, raw, argument, conversion)
+                        : new Segment(FORMATTED, "%" + flags + width + precision + time + conversion,
+                                raw, argument, conversion));
+            } else if (c == '$' && i + 1 < length && isVariablePart(source.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < length && isVariablePart(source.charAt(end))) end++;
+
+                String name = source.substring(i, end);
+                flush(segments, literal);
+                segments.add(new Segment(VARIABLE, name, name, -1, '$'));
+                i = end;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+
+        flush(segments, literal);
+        return new MessageTemplate(source, segments, complex);
+    }
+
+    /**
+     * @return  The message this template was compiled from.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return  Whether the message has no placeholders, so rendering it
+     *          always returns {@link #getSource()}.
+     */
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * @return  The {@code $name} variables in the message.
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Fills in the {@link java.util.Formatter} specifiers, same as {@link
+     * String#format(String, Object...)} with the source would.
+     *
+     * @param   components
+     *          Arguments referenced by the specifiers.
+     * @return  The rendered message.
+     * @throws  java.util.IllegalFormatException
+     *          If there are too few arguments or one doesn't fit its
+     *          specifier.
+     */
+    public String format(final Object... components) {
+        if (constant) return source;
+        if (complex) return String.format(source, components);
+
+        StringBuilder builder = new StringBuilder(literalLength + components.length * 16);
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case ARGUMENT:
+                    Object component = argument(i, components);
+                    if (component instanceof Formattable
+                            || conversions[i] == 'd' && !isIntegral(component)) {
+                        builder.append(String.format(texts[i], component));
+                    } else {
+                        builder.append(component);
+                    }
+                    break;
+                case FORMATTED:
+                    builder.append(String.format(texts[i], argument(i, components)));
+                    break;
+                case VARIABLE:
+                    builder.append(raws[i]);
+                    break;
+                default:
+                    builder.append(texts[i]);
+                    break;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Fills in the {@code $name} variables, same as {@link
+     * com.maulss.core.Logger#constructReplacements(String, String[],
+     * Object...)} with the source would.  Keys that aren't a variable of
+     * the message are still replaced wherever they occur, and a variable
+     * with no value of its own has the shorter variables it contains filled
+     * in, so {@code $ab} becomes {@code Xb} when only {@code $a} is given.
+     * When both are given each variable gets its own value, where the
+     * logger's result would depend on the order it replaced them in.
+     *
+     * @param   keys
+     *          The variables to fill in.
+     * @param   vals
+     *          The value of each variable, in the same order.
+     * @return  The rendered message.
+     */
+    public String replace(final String[] keys,
+                          final Object... vals) {
+        Validate.notNull(keys);
+        Validate.notNull(vals);
+        int count = Math.min(keys.length, vals.length);
+
+        String rendered;
+        if (variables.isEmpty()) {
+            rendered = source;
+        } else {
+            StringBuilder builder = new StringBuilder(literalLength + count * 16);
+            for (int i = 0; i < kinds.length; i++) {
+                if (kinds[i] != VARIABLE) {
+                    builder.append(raws[i]);
+                    continue;
+                }
+
+                Object value = null;
+                for (int k = 0; k < count; k++) {
+                    if (texts[i].equals(keys[k]) && vals[k] != null) value = vals[k];
+                }
+
+                if (value != null) {
+                    builder.append(value.toString());
+                    continue;
+                }
+
+                // $a inside $ab, as String.replace would, the last value of
+                // a repeated key first
+                String name = raws[i];
+                for (int k = count - 1; k >= 0; k--) {
+                    if (vals[k] != null && variables.contains(keys[k]) && name.contains(keys[k])) {
+                        name = name.replace(keys[k], vals[k].toString());
+                    }
+                }
+                builder.append(name);
+            }
+            rendered = builder.toString();
+        }
+
+        for (int k = 0; k < count; k++) {
+            if (keys[k] != null && vals[k] != null && !variables.contains(keys[k])) {
+                rendered = rendered.replace(keys[k], vals[k].toString());
+            }
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Fills in the {@code $name} variables, same as {@link
+     * com.maulss.core.Logger#constructReplacements(String, Map)} with the
+     * source would.  Keys that aren't a variable of the message are still
+     * replaced wherever they occur, and variables found inside longer ones
+     * are filled in there too, as described in {@link #replace(String[],
+     * Object...)}.
+     *
+     * @param   replacements
+     *          The variables to fill in and their values.
+     * @return  The rendered message.
+     */
+    public String replace(final Map<String, Object> replacements) {
+        Validate.notNull(replacements);
+
+        String rendered;
+        if (variables.isEmpty()) {
+            rendered = source;
+        } else {
+            StringBuilder builder = new StringBuilder(literalLength + replacements.size() * 16);
+            for (int i = 0; i < kinds.length; i++) {
+                if (kinds[i] != VARIABLE) {
+                    builder.append(raws[i]);
+                    continue;
+                }
+
+                Object value = replacements.get(texts[i]);
+                if (value != null) {
+                    builder.append(value.toString());
+                    continue;
+                }
+
+                // $a inside $ab, as String.replace would
+                String name = raws[i];
+                for (Map.Entry<String, Object> entry : replacements.entrySet()) {
+                    String key = entry.getKey();
+                    if (entry.getValue() != null && variables.contains(key) && name.contains(key)) {
+                        name = name.replace(key, entry.getValue().toString());
+                    }
+                }
+                builder.append(name);
+            }
+            rendered = builder.toString();
+        }
+
+        for (Map.Entry<String, Object> entry : replacements.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (key != null && value != null && !variables.contains(key)) {
+                rendered = rendered.replace(key, value.toString());
+            }
+        }
+
+        return rendered;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private Object argument(final int segment,
+                            final Object[] components) {
+        int argument = arguments[segment];
+        if (argument < 0 || argument >= components.length) {
+            throw new MissingFormatArgumentException(raws[segment]);
+        }
+
+        return components[argument];
+    }
+
+    private static boolean isIntegral(final Object object) {
+        return object instanceof Integer
+                || object instanceof Long
+                || object instanceof Short
+                || object instanceof Byte;
+    }
+
+    private static boolean isVariablePart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String nullToEmpty(final String string) {
+        return string == null ? "" : string;
+    }
+
+    private static void flush(final List<Segment> segments,
+                              final StringBuilder literal) {
+        if (literal.length() == 0) return;
+
+        String text = literal.toString();
+        segments.add(new Segment(LITERAL, text, text, -1, (char) 0));
+        literal.setLength(0);
+    }
+
+    private static final class Segment {
+
+        private final byte kind;
+        private final String text;
+        private final String raw;
+        private final int argument;
+        private final char conversion;
+
+        private Segment(final byte kind,
+                        final String text,
+                        final String raw,
+                        final int argument,
+                        final char conversion) {
+            this.kind = kind;
+            this.text = text;
+            this.raw = raw;
+            this.argument = argument;
+            this.conversion = conversion;
+        }
+    }
+}
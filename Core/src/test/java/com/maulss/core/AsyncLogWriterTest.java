@@ -0,0 +1,51 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLogWriterTest {
+
+    @Test
+    public void writesEverythingSubmittedBeforeShutdown() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream output = new PrintStream(bytes, true);
+        AsyncLogWriter writer = new AsyncLogWriter(new Logger(), 4, Logger.OverflowPolicy.BLOCK, "Test Writer");
+
+        for (int i = 0; i < 100; i++) {
+            writer.submit(output, "", "line " + i, new Object[0]);
+        }
+        writer.shutdown();
+
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(100, lines.length);
+        assertTrue(lines[99].endsWith("line 99"));
+    }
+
+    @Test
+    public void writesRecordsSubmittedAfterTheWriterStopped() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream output = new PrintStream(bytes, true);
+        AsyncLogWriter writer = new AsyncLogWriter(new Logger(), 2, Logger.OverflowPolicy.BLOCK, "Test Writer");
+        writer.shutdown();
+
+        // more than the ring holds, so a full ring has to be drained here too
+        for (int i = 0; i < 5; i++) {
+            writer.submit(output, "", "late " + i, new Object[0]);
+        }
+
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(5, lines.length);
+        assertTrue(lines[4].endsWith("late 4"));
+        assertEquals(0, writer.getDropped());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.cache;
+
+import com.maulss.core.Logger;
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.ValueType;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachedProfileTest {
+
+    private static final DatabaseKey COINS = DatabaseKey.create("coins");
+    private static final DatabaseKey NAME = DatabaseKey.create("name");
+    private static final DatabaseKey LEVEL = DatabaseKey.create("level");
+    private static final DatabaseKey LAST_MODIFIED = DatabaseKey.create("lastModified");
+
+    @Test
+    public void writesAddedAmountsInsteadOfValues() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.add(COINS, 5).add(COINS, -2);
+
+        assertEquals(103, profile.getInt(COINS));
+        assertEquals(new Value<>(3, ValueType.GIVE), profile.drain(null).get(COINS));
+
+        profile.drained(Collections.emptyMap(), false);
+        profile.add(COINS, -10);
+        assertEquals(new Value<>(10, ValueType.TAKE), profile.drain(null).get(COINS));
+    }
+
+    @Test
+    public void setReplacesAddedAmounts() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.add(COINS, 5).set(COINS, 50).add(COINS, 1);
+        profile.set(NAME, "Maulss");
+
+        Map<DatabaseKey, Value<?>> changes = profile.drain(null);
+        assertEquals(new Value<>(51), changes.get(COINS));
+        assertEquals(new Value<>("Maulss"), changes.get(NAME));
+        assertNull(profile.drain(null));
+    }
+
+    @Test
+    public void failedWritesAreRetriedWithLaterChanges() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.add(COINS, 5);
+        Map<DatabaseKey, Value<?>> failed = profile.drain(null);
+
+        // added to while the write was in progress
+        profile.add(COINS, 2);
+        profile.drained(failed, true);
+        assertEquals(new Value<>(7, ValueType.GIVE), profile.drain(null).get(COINS));
+        profile.drained(Collections.emptyMap(), false);
+
+        // set while the write was in progress, the set holds both
+        profile.add(COINS, 1);
+        failed = profile.drain(null);
+        profile.set(COINS, 10);
+        profile.drained(failed, true);
+        assertEquals(new Value<>(10), profile.drain(null).get(COINS));
+        profile.drained(Collections.emptyMap(), false);
+
+        // a failed set followed by an addition is written as the new value
+        profile.set(COINS, 20);
+        failed = profile.drain(null);
+        profile.add(COINS, 3);
+        profile.drained(failed, true);
+        assertEquals(new Value<>(23), profile.drain(null).get(COINS));
+    }
+
+    @Test
+    public void reloadKeepsUnwrittenChanges() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.add(COINS, 5).set(NAME, "Maulss");
+
+        // another server added 50 and renamed the player in the meantime
+        Map<String, Object> stored = new HashMap<>();
+        stored.put(COINS.getKey(), 150);
+        stored.put(NAME.getKey(), "Other");
+        stored.put(LEVEL.getKey(), 4);
+        profile.reload(stored);
+
+        assertEquals(155, profile.getInt(COINS));
+        assertEquals("Maulss", profile.get(NAME));
+        assertEquals(4, profile.getInt(LEVEL));
+        assertEquals(new Value<>(5, ValueType.GIVE), profile.drain(null).get(COINS));
+    }
+
+    @Test
+    public void reloadKeepsFieldsBeingWritten() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.set(NAME, "Maulss");
+        Map<DatabaseKey, Value<?>> changes = profile.drain(LAST_MODIFIED);
+        long version = ((Number) profile.get(LAST_MODIFIED)).longValue();
+
+        profile.reload(Collections.singletonMap(COINS.getKey(), 120));
+        assertEquals(120, profile.getInt(COINS));
+        assertEquals("Maulss", profile.get(NAME));
+        assertEquals(version, ((Number) profile.get(LAST_MODIFIED)).longValue());
+
+        profile.drained(changes, false);
+        profile.reload(Collections.singletonMap(COINS.getKey(), 120));
+        assertNull(profile.get(NAME));
+    }
+
+    @Test
+    public void writesStoreIncreasingVersions() {
+        CachedProfile<Identity> profile = profile(100);
+        profile.add(COINS, 1);
+        Map<DatabaseKey, Value<?>> first = profile.drain(LAST_MODIFIED);
+        profile.drained(first, false);
+        profile.add(COINS, 1);
+        Map<DatabaseKey, Value<?>> second = profile.drain(LAST_MODIFIED);
+
+        long firstVersion = ((Number) first.get(LAST_MODIFIED).getValue()).longValue();
+        long secondVersion = ((Number) second.get(LAST_MODIFIED).getValue()).longValue();
+        assertTrue(secondVersion > firstVersion);
+        assertEquals(secondVersion, ((Number) profile.get(LAST_MODIFIED)).longValue());
+    }
+
+    private static CachedProfile<Identity> profile(final int coins) {
+        UUID uuid = UUID.randomUUID();
+        Identity identity = new Identity() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public Logger getLogger() {
+                return null;
+            }
+        };
+
+        return new CachedProfile<>(identity, Collections.singletonMap(COINS.getKey(), coins));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SQLStatementCacheTest {
+
+    // Methods called on each statement, in order
+    private final Map<PreparedStatement, List<String>> calls = new HashMap<>();
+    private SQLStatementCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new SQLStatementCache(connection(), 4, new LongAdder(), new LongAdder());
+    }
+
+    @Test
+    public void reusesStatementAfterClearingIt() throws Exception {
+        PreparedStatement statement = cache.prepare("INSERT", false);
+        statement.addBatch();
+        cache.done(statement, true);
+
+        assertSame(statement, cache.prepare("INSERT", false));
+        assertTrue(calls.get(statement).contains("clearParameters"));
+        assertTrue(calls.get(statement).contains("clearBatch"));
+    }
+
+    @Test
+    public void evictsFailedStatement() throws Exception {
+        PreparedStatement statement = cache.prepare("INSERT", false);
+        statement.addBatch();
+        cache.done(statement, false);
+
+        assertTrue(calls.get(statement).contains("close"));
+        assertEquals(0, cache.size());
+        assertNotSame(statement, cache.prepare("INSERT", false));
+    }
+
+    @Test
+    public void closesStatementsWhenDisabled() throws Exception {
+        cache = new SQLStatementCache(connection(), 0, new LongAdder(), new LongAdder());
+
+        PreparedStatement statement = cache.prepare("SELECT", false);
+        cache.done(statement, true);
+
+        assertTrue(calls.get(statement).contains("close"));
+        assertNotSame(statement, cache.prepare("SELECT", false));
+    }
+
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) return statement();
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private PreparedStatement statement() {
+        List<String> log = new ArrayList<>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isClosed":
+                            return log.contains("close");
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            log.add(method.getName());
+                            return null;
+                    }
+                });
+        calls.put(statement, log);
+        return statement;
+    }
+}
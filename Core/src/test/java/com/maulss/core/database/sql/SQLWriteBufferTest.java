@@ -0,0 +1,274 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.database.sql;
+
+import com.maulss.core.Logger;
+import com.maulss.core.database.DatabaseKey;
+import com.maulss.core.database.Identity;
+import com.maulss.core.database.Value;
+import com.maulss.core.database.ValueType;
+import com.maulss.core.database.callback.DatabaseFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SQLWriteBufferTest {
+
+    private static final DatabaseKey COINS = DatabaseKey.create("coins");
+    private static final DatabaseKey NAME = DatabaseKey.create("name");
+
+    private RecordingDatabase database;
+    private SQLTable table;
+    private SQLWriteBuffer buffer;
+
+    @Before
+    public void setUp() throws Exception {
+        database = new RecordingDatabase();
+        database.connectAsync().get(5, TimeUnit.SECONDS);
+        table = database.getTable("players");
+
+        // Only flushed explicitly
+        buffer = table.enableWriteBuffer(1000, 1, TimeUnit.HOURS);
+    }
+
+    @After
+    public void tearDown() {
+        table.disableWriteBuffer();
+        database.disconnect();
+    }
+
+    @Test
+    public void keepsSubmissionOrder() throws Exception {
+        Identity a = identity(), b = identity();
+
+        table.update(a, COINS, new Value<>(1, ValueType.SET));
+        table.insert(b.getUuid(), 0);
+        table.update(b, COINS, new Value<>(5, ValueType.SET));
+        DatabaseFuture<ResultSet> last = updateAsync(a, COINS, new Value<>(2, ValueType.SET));
+        flush(last);
+
+        List<String> rows = database.rows();
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(0), rows.get(0).startsWith("UPDATE") && rows.get(0).endsWith("[1, " + a.getUuid() + "]"));
+        assertTrue(rows.get(1), rows.get(1).startsWith("INSERT"));
+        assertTrue(rows.get(2), rows.get(2).endsWith("[5, " + b.getUuid() + "]"));
+        assertTrue(rows.get(3), rows.get(3).endsWith("[2, " + a.getUuid() + "]"));
+    }
+
+    @Test
+    public void coalescesUpdatesOfAnIdentity() throws Exception {
+        Identity a = identity(), b = identity();
+
+        table.update(a, COINS, new Value<>(1, ValueType.GIVE));
+        table.update(b, COINS, new Value<>(4, ValueType.SET));
+        table.update(a, COINS, new Value<>(2, ValueType.GIVE));
+        DatabaseFuture<ResultSet> last = updateAsync(a, COINS, new Value<>(1, ValueType.TAKE));
+        flush(last);
+
+        List<String> rows = database.rows();
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(0), rows.get(0).endsWith("[2, " + a.getUuid() + "]"));
+        assertTrue(rows.get(1), rows.get(1).endsWith("[4, " + b.getUuid() + "]"));
+        assertEquals(4, buffer.getQueuedWrites());
+    }
+
+    @Test
+    public void deleteRunsAfterQueuedWrites() throws Exception {
+        Identity a = identity();
+
+        table.insert(a.getUuid(), 0);
+        table.update(a, COINS, new Value<>(3, ValueType.SET));
+        DatabaseFuture<Void> deleted = table.deleteAsync(a);
+        DatabaseFuture<ResultSet> last = updateAsync(a, COINS, new Value<>(7, ValueType.SET));
+        flush(last);
+        deleted.get(5, TimeUnit.SECONDS);
+
+        List<String> rows = database.rows();
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(0), rows.get(0).startsWith("INSERT"));
+        assertTrue(rows.get(1), rows.get(1).endsWith("[3, " + a.getUuid() + "]"));
+        assertTrue(rows.get(2), rows.get(2).startsWith("DELETE"));
+        assertTrue(rows.get(3), rows.get(3).endsWith("[7, " + a.getUuid() + "]"));
+    }
+
+    @Test
+    public void failedFlushFailsEveryWrite() throws Exception {
+        Identity a = identity(), b = identity();
+        database.failing = true;
+
+        DatabaseFuture<ResultSet> first = updateAsync(a, COINS, new Value<>(1, ValueType.SET));
+        DatabaseFuture<ResultSet> second = updateAsync(b, NAME, new Value<>("b", ValueType.SET));
+        buffer.flush();
+
+        for (DatabaseFuture<ResultSet> future : Arrays.asList(first, second)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("write of a failed flush completed");
+            } catch (ExecutionException expected) {}
+        }
+        assertEquals(0, buffer.getPendingWrites());
+    }
+
+    @Test
+    public void batchesOnlyConsecutiveStatements() {
+        List<SQLWriteBuffer.PendingWrite> writes = Arrays.asList(
+                new SQLWriteBuffer.PendingWrite("a", new Object[]{1}),
+                new SQLWriteBuffer.PendingWrite("a", new Object[]{2}),
+                new SQLWriteBuffer.PendingWrite("b", new Object[]{3}),
+                new SQLWriteBuffer.PendingWrite("a", new Object[]{4})
+        );
+
+        List<Map.Entry<String, List<Object[]>>> batches = SQLWriteBuffer.batch(writes);
+        assertEquals(3, batches.size());
+        assertEquals("a", batches.get(0).getKey());
+        assertEquals(2, batches.get(0).getValue().size());
+        assertEquals("b", batches.get(1).getKey());
+        assertEquals("a", batches.get(2).getKey());
+        assertEquals(4, batches.get(2).getValue().get(0)[0]);
+    }
+
+    private DatabaseFuture<ResultSet> updateAsync(final Identity identity,
+                                                  final DatabaseKey column,
+                                                  final Value<?> value) {
+        DatabaseFuture<ResultSet> future = database.newFuture();
+        table.update(future, identity, new DatabaseKey[]{column}, value);
+        return future;
+    }
+
+    private void flush(final DatabaseFuture<?> last) throws Exception {
+        buffer.flush();
+        last.get(5, TimeUnit.SECONDS);
+    }
+
+    private static Identity identity() {
+        UUID uuid = UUID.randomUUID();
+        return new Identity() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public Logger getLogger() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Records every row of every executed batch instead of talking to a
+     * database.
+     */
+    private static final class RecordingDatabase extends SQLDatabase {
+
+        private final List<String> rows = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failing;
+
+        List<String> rows() {
+            synchronized (rows) {
+                return new ArrayList<>(rows);
+            }
+        }
+
+        @Override
+        protected Connection open() {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement":
+                        return statement((String) args[0]);
+                    case "getMetaData":
+                        return proxy(DatabaseMetaData.class, (p, m, a) -> "jdbc:recording");
+                    case "isValid":
+                    case "getAutoCommit":
+                        return true;
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+        }
+
+        private PreparedStatement statement(final String sql) {
+            Object[] params = new Object[sql.length()];
+            List<String> batch = new ArrayList<>();
+
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setObject":
+                        params[(int) args[0] - 1] = args[1];
+                        return null;
+                    case "addBatch":
+                        int count = sql.length() - sql.replace("?", "").length();
+                        batch.add(sql + " " + Arrays.toString(Arrays.copyOf(params, count)));
+                        return null;
+                    case "clearBatch":
+                        batch.clear();
+                        return null;
+                    case "executeBatch":
+                        if (failing) throw new SQLException("failing");
+                        rows.addAll(batch);
+                        int[] counts = new int[batch.size()];
+                        Arrays.fill(counts, 1);
+                        batch.clear();
+                        return counts;
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(final Class<T> type,
+                                   final InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return type.getSimpleName();
+                    default:
+                        return handler.invoke(proxy, method, args);
+                }
+            });
+        }
+
+        private static Object defaultValue(final Class<?> type) {
+            if (type == boolean.class) return false;
+            if (type == int.class) return 0;
+            if (type == long.class) return 0L;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 11:55 PM.
+ */
+
+package com.maulss.core.game.rating.elo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EloLeaderboardTest {
+
+    // Highest rating first, then by id
+    private static final Comparator<Map.Entry<UUID, Integer>> ORDER =
+            Comparator.<Map.Entry<UUID, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparing(Map.Entry::getKey);
+
+    private final Random random = new Random(42);
+    private EloLeaderboard leaderboard;
+    private Map<UUID, Integer> reference;
+
+    @Before
+    public void setUp() {
+        leaderboard = new EloLeaderboard();
+        reference = new HashMap<>();
+    }
+
+    @Test
+    public void queriesMatchSortedReference() {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            UUID uuid = UUID.randomUUID();
+            players.add(uuid);
+            put(uuid, 800 + random.nextInt(200));
+        }
+        for (int i = 0; i < 3000; i++) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            if (random.nextInt(5) == 0) {
+                assertEquals(reference.remove(uuid) != null, leaderboard.remove(uuid));
+            } else {
+                put(uuid, 800 + random.nextInt(200));
+            }
+        }
+
+        List<Map.Entry<UUID, Integer>> sorted = sorted();
+        assertEquals(sorted.size(), leaderboard.size());
+
+        for (int i = 0; i < sorted.size(); i++) {
+            Map.Entry<UUID, Integer> expected = sorted.get(i);
+            assertEquals(i + 1, leaderboard.getRank(expected.getKey()).getAsInt());
+            assertEquals(expected.getValue().intValue(), leaderboard.getRating(expected.getKey()).getAsInt());
+
+            EloLeaderboard.Entry entry = leaderboard.getEntry(i + 1).get();
+            assertEquals(expected.getKey(), entry.getUuid());
+            assertEquals(i + 1, entry.getRank());
+        }
+
+        for (int rating = 790; rating <= 1010; rating++) {
+            int above = 0;
+            for (Map.Entry<UUID, Integer> entry : sorted) {
+                if (entry.getValue() > rating) above++;
+            }
+            assertEquals(above, leaderboard.countAbove(rating));
+        }
+
+        for (UUID uuid : players) {
+            if (!reference.containsKey(uuid)) assertFalse(leaderboard.getRank(uuid).isPresent());
+        }
+    }
+
+    @Test
+    public void pagesMatchSortedReference() {
+        for (int i = 0; i < 300; i++) {
+            put(UUID.randomUUID(), 1000 + random.nextInt(50));
+        }
+        List<Map.Entry<UUID, Integer>> sorted = sorted();
+
+        assertEntries(sorted, 1, 10, leaderboard.getTop(10));
+        assertEntries(sorted, 137, 25, leaderboard.getEntries(137, 25));
+        assertEntries(sorted, 290, 25, leaderboard.getEntries(290, 25));
+        assertTrue(leaderboard.getEntries(301, 5).isEmpty());
+        assertEquals(300, leaderboard.getEntries(1, Integer.MAX_VALUE).size());
+        assertFalse(leaderboard.getEntry(301).isPresent());
+    }
+
+    @Test
+    public void snapshotRoundTrip() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            put(UUID.randomUUID(), 100 + random.nextInt(2800));
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        leaderboard.writeSnapshot(output);
+
+        EloLeaderboard read = new EloLeaderboard();
+        read.update(UUID.randomUUID(), 1500);
+        read.readSnapshot(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(leaderboard.size(), read.size());
+        List<EloLeaderboard.Entry> expected = leaderboard.getTop(leaderboard.size());
+        List<EloLeaderboard.Entry> actual = read.getTop(read.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUuid(), actual.get(i).getUuid());
+            assertEquals(expected.get(i).getRating(), actual.get(i).getRating());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignSnapshot() throws IOException {
+        leaderboard.readSnapshot(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void replayMatchesRatingOneMatchAtATime() {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            players.add(UUID.randomUUID());
+        }
+        Map<UUID, Integer> ratings = new HashMap<>();
+        for (UUID uuid : players.subList(0, 100)) {
+            int rating = 1000 + random.nextInt(400);
+            ratings.put(uuid, rating);
+            leaderboard.update(uuid, rating);
+        }
+
+        List<EloMatchRecord> log = new ArrayList<>();
+        EloMatchOutcome[] outcomes = EloMatchOutcome.values();
+        for (int m = 0; m < 5000; m++) {
+            UUID first = players.get(random.nextInt(players.size()));
+            UUID second = players.get(random.nextInt(players.size()));
+            if (first.equals(second)) continue;
+
+            boolean provisional = random.nextBoolean();
+            EloMatchOutcome outcome = outcomes[random.nextInt(outcomes.length)];
+            log.add(new EloMatchRecord(first, provisional, second, !provisional, outcome));
+
+            int firstRating = ratings.getOrDefault(first, EloCompetitor.INITIAL_RATING);
+            int secondRating = ratings.getOrDefault(second, EloCompetitor.INITIAL_RATING);
+            ratings.put(first, EloCalculator.newRating(firstRating, secondRating, outcome, provisional));
+            ratings.put(second, EloCalculator.newRating(secondRating, firstRating, outcome.getOpposite(), !provisional));
+        }
+
+        leaderboard.replay(log, new ForkJoinPool(4));
+
+        for (Map.Entry<UUID, Integer> entry : ratings.entrySet()) {
+            assertEquals(entry.getValue().intValue(), leaderboard.getRating(entry.getKey()).getAsInt());
+        }
+    }
+
+    private void put(final UUID uuid,
+                     final int rating) {
+        reference.put(uuid, rating);
+        leaderboard.update(uuid, rating);
+    }
+
+    private List<Map.Entry<UUID, Integer>> sorted() {
+        List<Map.Entry<UUID, Integer>> sorted = new ArrayList<>(reference.entrySet());
+        sorted.sort(ORDER);
+        return sorted;
+    }
+
+    private static void assertEntries(final List<Map.Entry<UUID, Integer>> sorted,
+                                      final int fromRank,
+                                      final int count,
+                                      final List<EloLeaderboard.Entry> entries) {
+        assertEquals(Math.min(count, sorted.size() - fromRank + 1), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Map.Entry<UUID, Integer> expected = sorted.get(fromRank - 1 + i);
+            assertEquals(expected.getKey(), entries.get(i).getUuid());
+            assertEquals(expected.getValue().intValue(), entries.get(i).getRating());
+            assertEquals(fromRank + i, entries.get(i).getRank());
+        }
+    }
+}
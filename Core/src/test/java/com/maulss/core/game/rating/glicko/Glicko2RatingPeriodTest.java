@@ -0,0 +1,156 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 11:40 PM.
+ */
+
+package com.maulss.core.game.rating.glicko;
+
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Glicko2RatingPeriodTest {
+
+    @Test
+    public void matchesPaperExample() {
+        // Section "Example calculation" of the Glicko-2 paper, tau = 0.5
+        Competitor player = new Competitor(1500, 200, 0.06);
+        Glicko2RatingPeriod period = new Glicko2RatingPeriod(0.5);
+        period.addMatch(player, new Competitor(1400, 30, 0.06), GlickoMatch.Outcome.WIN);
+        period.addMatch(new Competitor(1550, 100, 0.06), player, GlickoMatch.Outcome.WIN);
+        period.addMatch(player, new Competitor(1700, 300, 0.06), GlickoMatch.Outcome.LOSS);
+
+        period.applyNewData();
+
+        assertEquals(1464, player.getRating());
+        assertEquals(151.52, player.getRatingDeviation(), 0.01);
+        assertEquals(0.05999, player.getVolatility(), 0.00001);
+        assertEquals(0, period.getMatchCount());
+        assertEquals(0, period.getCompetitorCount());
+    }
+
+    @Test
+    public void idleCompetitorOnlyGainsDeviation() {
+        Competitor idle = new Competitor(1800, 100, 0.06);
+        Glicko2RatingPeriod period = new Glicko2RatingPeriod();
+        period.addCompetitor(idle);
+
+        period.applyNewData();
+
+        assertEquals(1800, idle.getRating());
+        assertEquals(Math.sqrt(100 * 100 + Math.pow(0.06 * 173.7178, 2)), idle.getRatingDeviation(), 1e-6);
+        assertEquals(0.06, idle.getVolatility(), 0);
+    }
+
+    @Test
+    public void parallelRatingMatchesSequential() {
+        int size = 3000;
+        Competitor[] parallel = new Competitor[size], sequential = new Competitor[size];
+        for (int i = 0; i < size; i++) {
+            int rating = 1000 + (i * 37) % 1000;
+            double deviation = 60 + (i * 13) % 280;
+            parallel[i] = new Competitor(rating, deviation, 0.06);
+            sequential[i] = new Competitor(rating, deviation, 0.06);
+        }
+
+        Glicko2RatingPeriod onPool = new Glicko2RatingPeriod(), onOneThread = new Glicko2RatingPeriod();
+        for (int m = 0; m < size * 4; m++) {
+            int a = (m * 7919) % size, b = (m * 104729 + 1) % size;
+            if (a == b) continue;
+
+            GlickoMatch.Outcome outcome = GlickoMatch.Outcome.values()[m % 3];
+            onPool.addMatch(parallel[a], parallel[b], outcome);
+            onOneThread.addMatch(sequential[a], sequential[b], outcome);
+        }
+
+        onPool.applyNewData(new ForkJoinPool(4));
+        onOneThread.applyNewData(new ForkJoinPool(1));
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(sequential[i].getRating(), parallel[i].getRating());
+            assertEquals(sequential[i].getRatingDeviation(), parallel[i].getRatingDeviation(), 0);
+            assertEquals(sequential[i].getVolatility(), parallel[i].getVolatility(), 0);
+        }
+    }
+
+    @Test
+    public void ratingsStayWithinBounds() {
+        Competitor strong = new Competitor(2940, 50, 0.06), weak = new Competitor(60, 50, 0.06);
+        Glicko2RatingPeriod period = new Glicko2RatingPeriod();
+        for (int m = 0; m < 20; m++) {
+            period.addMatch(weak, strong, GlickoMatch.Outcome.WIN);
+        }
+
+        period.applyNewData();
+
+        assertTrue(strong.getRating() >= 50 && strong.getRating() <= 2950);
+        assertTrue(weak.getRating() >= 50 && weak.getRating() <= 2950);
+        assertTrue(weak.getRatingDeviation() >= 50 && weak.getRatingDeviation() <= 350);
+    }
+
+    private static final class Competitor implements GlickoCompetitor {
+
+        private final UUID uuid = UUID.randomUUID();
+        private int rating;
+        private double deviation;
+        private double volatility;
+
+        private Competitor(final int rating,
+                           final double deviation,
+                           final double volatility) {
+            this.rating = rating;
+            this.deviation = deviation;
+            this.volatility = volatility;
+        }
+
+        @Override
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        @Override
+        public String getName() {
+            return uuid.toString();
+        }
+
+        @Override
+        public int getRating() {
+            return rating;
+        }
+
+        @Override
+        public void setRating(final int rating) {
+            this.rating = rating;
+        }
+
+        @Override
+        public boolean isProvisional() {
+            return false;
+        }
+
+        @Override
+        public double getRatingDeviation() {
+            return deviation;
+        }
+
+        @Override
+        public void setRatingDeviation(final double deviation) {
+            this.deviation = deviation;
+        }
+
+        @Override
+        public double getVolatility() {
+            return volatility;
+        }
+
+        @Override
+        public void setVolatility(final double volatility) {
+            this.volatility = volatility;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.jnbt;
+
+import com.maulss.core.jnbt.type.ByteArrayTag;
+import com.maulss.core.jnbt.type.CompoundTag;
+import com.maulss.core.jnbt.type.IntArrayTag;
+import com.maulss.core.jnbt.type.IntTag;
+import com.maulss.core.jnbt.type.ListTag;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.maulss.core.jnbt.NBTConstants.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NBTStreamReaderTest {
+
+    private byte[] blocks;
+    private CompoundTag schematic;
+    private byte[] written;
+
+    @Before
+    public void setUp() throws IOException {
+        blocks = new byte[20000];
+        for (int i = 0; i < blocks.length; i++) blocks[i] = (byte) (i * 31);
+
+        CompoundTag entity = CompoundTagBuilder.create()
+                .putString("id", "Zombie")
+                .putIntArray("Pos", new int[]{1, 2, 3})
+                .build();
+        schematic = CompoundTagBuilder.create()
+                .putShort("Width", (short) 40)
+                .putString("Materials", "Alpha")
+                .put("Entities", new ListTag(CompoundTag.class, Arrays.asList(entity, entity)))
+                .put("Empty", new ListTag(IntTag.class, Collections.emptyList()))
+                .putByteArray("Blocks", blocks)
+                .putLong("Seed", Long.MIN_VALUE)
+                .putDouble("Scale", 0.25)
+                .build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NBTOutputStream os = new NBTOutputStream(output)) {
+            os.writeNamedTag("Schematic", schematic);
+        }
+        written = output.toByteArray();
+    }
+
+    @Test
+    public void readTagMatchesNBTInputStream() throws IOException {
+        Tag expected;
+        try (NBTInputStream is = new NBTInputStream(new ByteArrayInputStream(written))) {
+            expected = is.readNamedTag().getTag();
+        }
+
+        try (NBTStreamReader reader = reader()) {
+            assertEquals(TYPE_COMPOUND, reader.next());
+            assertEquals("Schematic", reader.getName());
+            assertTagEquals(expected, reader.readTag());
+            assertEquals(TYPE_END, reader.next());
+        }
+    }
+
+    @Test
+    public void skipsUnreadPayloads() throws IOException {
+        try (NBTStreamReader reader = reader()) {
+            reader.next();
+            reader.enter();
+
+            Long seed = null;
+            while (reader.next() != TYPE_END) {
+                if (reader.getName().equals("Seed")) seed = reader.readLong();
+            }
+
+            assertEquals(Long.valueOf(Long.MIN_VALUE), seed);
+            assertEquals(0, reader.getDepth());
+        }
+    }
+
+    @Test
+    public void readsArraysInParts() throws IOException {
+        try (NBTStreamReader reader = reader()) {
+            reader.next();
+            reader.enter();
+            moveTo(reader, "Blocks");
+
+            byte[] read = new byte[reader.getLength()];
+            int offset = 0, count;
+            while ((count = reader.readBytes(read, offset, Math.min(4096, read.length - offset))) > 0) {
+                offset += count;
+            }
+
+            assertEquals(blocks.length, offset);
+            assertArrayEquals(blocks, read);
+            assertEquals(0, reader.getLength());
+        }
+    }
+
+    @Test
+    public void entersLists() throws IOException {
+        try (NBTStreamReader reader = reader()) {
+            reader.next();
+            reader.enter();
+            moveTo(reader, "Entities");
+
+            reader.enter();
+            assertEquals(TYPE_COMPOUND, reader.getListType());
+            assertEquals(2, reader.getListRemaining());
+
+            int entities = 0;
+            while (reader.next() != TYPE_END) {
+                assertNull(reader.getName());
+                reader.enter();
+                while (reader.next() != TYPE_END) {
+                    if (reader.getName().equals("Pos")) assertArrayEquals(new int[]{1, 2, 3}, reader.readIntArray());
+                }
+                entities++;
+            }
+
+            assertEquals(2, entities);
+            assertEquals(1, reader.getDepth());
+        }
+
+        try (NBTStreamReader reader = reader()) {
+            reader.next();
+            reader.enter();
+            moveTo(reader, "Empty");
+
+            reader.enter();
+            assertEquals(0, reader.getListRemaining());
+            assertEquals(TYPE_END, reader.next());
+        }
+    }
+
+    private static void moveTo(final NBTStreamReader reader,
+                               final String name) throws IOException {
+        while (reader.next() != TYPE_END) {
+            if (name.equals(reader.getName())) return;
+        }
+
+        throw new AssertionError("no tag " + name);
+    }
+
+    private NBTStreamReader reader() throws IOException {
+        return new NBTStreamReader(new ByteArrayInputStream(written));
+    }
+
+    private static void assertTagEquals(final Tag expected,
+                                        final Tag actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+
+        if (expected instanceof CompoundTag) {
+            Map<String, Tag> values = ((CompoundTag) expected).getValue();
+            Map<String, Tag> actualValues = ((CompoundTag) actual).getValue();
+            assertEquals(values.keySet(), actualValues.keySet());
+            values.forEach((key, value) -> assertTagEquals(value, actualValues.get(key)));
+        } else if (expected instanceof ListTag) {
+            assertEquals(((ListTag) expected).getType(), ((ListTag) actual).getType());
+            List<Tag> values = ((ListTag) expected).getValue();
+            List<Tag> actualValues = ((ListTag) actual).getValue();
+            assertEquals(values.size(), actualValues.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertTagEquals(values.get(i), actualValues.get(i));
+            }
+        } else if (expected instanceof ByteArrayTag) {
+            assertArrayEquals(((ByteArrayTag) expected).getValue(), ((ByteArrayTag) actual).getValue());
+        } else if (expected instanceof IntArrayTag) {
+            assertArrayEquals(((IntArrayTag) expected).getValue(), ((IntArrayTag) actual).getValue());
+        } else {
+            assertEquals(expected.getValue(), actual.getValue());
+        }
+    }
+}
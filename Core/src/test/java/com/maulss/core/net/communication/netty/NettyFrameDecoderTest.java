@@ -0,0 +1,136 @@
+/*
+ * Part of core.
+ * 
+ * Created on 18 October 2026 at 11:20 PM.
+ */
+
+package com.maulss.core.net.communication.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NettyFrameDecoderTest {
+
+    @Test
+    public void varIntsRoundTrip() {
+        int[] values = {0, 1, 127, 128, 300, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        for (int value : values) {
+            ByteBuf buf = Unpooled.buffer();
+            VarInts.write(buf, value);
+
+            assertEquals(VarInts.size(value), buf.readableBytes());
+            assertTrue(VarInts.isComplete(buf));
+            assertEquals(value, VarInts.read(buf));
+            assertFalse(buf.isReadable());
+        }
+    }
+
+    @Test
+    public void incompleteVarIntKeepsReaderIndex() {
+        ByteBuf buf = Unpooled.wrappedBuffer(new byte[]{(byte) 0x80, (byte) 0x80});
+
+        assertFalse(VarInts.isComplete(buf));
+        assertEquals(0, buf.readerIndex());
+    }
+
+    @Test(expected = CorruptedFrameException.class)
+    public void rejectsVarIntLongerThanFiveBytes() {
+        VarInts.isComplete(Unpooled.wrappedBuffer(new byte[]{
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01}));
+    }
+
+    @Test
+    public void splitsFramesAcrossReads() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyFrameDecoder(1024));
+        ByteBuf stream = Unpooled.buffer();
+        frame(stream, 3, (byte) 1);
+        frame(stream, 200, (byte) 2);
+
+        // Split inside the two byte length of the second frame
+        channel.writeInbound(stream.readRetainedSlice(5));
+        assertFrame(channel.readInbound(), 3, (byte) 1);
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(stream.readRetainedSlice(100));
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(stream.readRetainedSlice(stream.readableBytes()));
+        assertFrame(channel.readInbound(), 200, (byte) 2);
+        assertNull(channel.readInbound());
+        stream.release();
+    }
+
+    @Test
+    public void rejectsNegativeLength() {
+        ByteBuf in = Unpooled.buffer();
+        VarInts.write(in, -5);
+        in.writeZero(16);
+
+        assertCorrupted(new EmbeddedChannel(new NettyFrameDecoder(1024)), in);
+    }
+
+    @Test
+    public void rejectsLengthAboveMaximum() {
+        ByteBuf in = Unpooled.buffer();
+        frame(in, 65, (byte) 0);
+
+        assertCorrupted(new EmbeddedChannel(new NettyFrameDecoder(64)), in);
+    }
+
+    @Test
+    public void encoderOutputDecodes() {
+        EmbeddedChannel encoder = new EmbeddedChannel(NettyFrameEncoder.INSTANCE);
+        EmbeddedChannel decoder = new EmbeddedChannel(new NettyFrameDecoder(1024));
+
+        ByteBuf payload = Unpooled.buffer().writeZero(150);
+        assertTrue(encoder.writeOutbound(payload));
+        ByteBuf encoded = encoder.readOutbound();
+
+        decoder.writeInbound(encoded);
+        assertFrame(decoder.readInbound(), 150, (byte) 0);
+    }
+
+    private static void frame(final ByteBuf out,
+                              final int length,
+                              final byte fill) {
+        VarInts.write(out, length);
+        for (int x = 0; x < length; ++x) {
+            out.writeByte(fill);
+        }
+    }
+
+    private static void assertFrame(final Object frame,
+                                    final int length,
+                                    final byte fill) {
+        ByteBuf buf = (ByteBuf) frame;
+        try {
+            assertEquals(length, buf.readableBytes());
+            for (int x = 0; x < length; ++x) {
+                assertEquals(fill, buf.getByte(buf.readerIndex() + x));
+            }
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static void assertCorrupted(final EmbeddedChannel channel,
+                                        final ByteBuf in) {
+        try {
+            channel.writeInbound(in);
+            fail("frame was not rejected");
+        } catch (DecoderException e) {
+            assertTrue(e.toString(), e instanceof CorruptedFrameException);
+        }
+        assertNull(channel.readInbound());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Part of core.
+ * Made on 18/10/2026
+ */
+
+package com.maulss.core.text;
+
+import com.google.common.collect.ImmutableSet;
+import com.maulss.core.Logger;
+import org.junit.Test;
+
+import java.util.Formattable;
+import java.util.HashMap;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MessageTemplateTest {
+
+    private static final Formattable SHOUTING = (formatter, flags, width, precision) ->
+            formatter.format("LOUD");
+
+    @Test
+    public void formatMatchesStringFormat() {
+        Object[][] cases = {
+                {"no placeholders"},
+                {"%s has %d coins", "Maulss", 42},
+                {"%s and %s", null, true},
+                {"%2$s before %1$s", "a", "b"},
+                {"%-8s|%08.3f|%x|%,d", "pad", Math.PI, 255, 1234567},
+                {"100%% sure%n"},
+                {"%d of %s", 3L, 'c'},
+                {"%s", SHOUTING},
+                {"%s then %<s", "same"},
+                {"$name keeps %s", "$name"},
+                {"%b %c %h %S", "x", 'y', "z", "upper"},
+                {"extra %s", "used", "unused"}
+        };
+
+        for (Object[] test : cases) {
+            String source = (String) test[0];
+            Object[] args = new Object[test.length - 1];
+            System.arraycopy(test, 1, args, 0, args.length);
+
+            assertEquals(source, String.format(source, args), MessageTemplate.compile(source).format(args));
+        }
+    }
+
+    @Test
+    public void formatFailsLikeStringFormat() {
+        for (String source : new String[]{"%s %s", "%d", "%q", "%2$s"}) {
+            Class<?> expected = failure(() -> String.format(source, "only"));
+            Class<?> actual = failure(() -> MessageTemplate.compile(source).format("only"));
+
+            assertEquals(source, expected, actual);
+        }
+    }
+
+    @Test
+    public void missingArgumentIsReported() {
+        try {
+            MessageTemplate.compile("%s and %s").format("one");
+            fail("missing argument was not reported");
+        } catch (MissingFormatArgumentException expected) {
+            assertEquals("%s", expected.getFormatSpecifier());
+        }
+    }
+
+    @Test
+    public void constantTemplateReturnsSource() {
+        String source = "Welcome to the server";
+        MessageTemplate template = MessageTemplate.compile(source);
+
+        assertTrue(template.isConstant());
+        assertSame(source, template.format());
+        assertFalse(MessageTemplate.compile("50%% off").isConstant());
+    }
+
+    @Test
+    public void replaceMatchesLogger() {
+        String source = "$player joined $server, %s ($player)";
+        String[] keys = {"$player", "$server", "%s"};
+        Object[] vals = {"Maulss", "hub-1", "welcome"};
+
+        MessageTemplate template = MessageTemplate.compile(source);
+        assertEquals(ImmutableSet.of("$player", "$server"), template.getVariables());
+        assertEquals(Logger.constructReplacements(source, keys, vals), template.replace(keys, vals));
+
+        Map<String, Object> replacements = new HashMap<>();
+        replacements.put("$player", "Maulss");
+        replacements.put("$missing", "ignored");
+        replacements.put("$server", null);
+        assertEquals(Logger.constructReplacements(source, replacements), template.replace(replacements));
+    }
+
+    @Test
+    public void replaceUsesLastValueOfDuplicateKeys() {
+        String source = "$a-$b";
+        String[] keys = {"$a", "$a", "$b"};
+        Object[] vals = {"first", "second"};
+
+        assertEquals(Logger.constructReplacements(source, keys, vals),
+                MessageTemplate.compile(source).replace(keys, vals));
+    }
+
+    @Test
+    public void replaceFillsVariablesInsideLongerOnes() {
+        String source = "$a and $ab";
+        MessageTemplate template = MessageTemplate.compile(source);
+
+        String[] keys = {"$a"};
+        Object[] vals = {"X"};
+        assertEquals("X and Xb", template.replace(keys, vals));
+        assertEquals(Logger.constructReplacements(source, keys, vals), template.replace(keys, vals));
+
+        Map<String, Object> replacements = new HashMap<>();
+        replacements.put("$a", "X");
+        assertEquals(Logger.constructReplacements(source, replacements), template.replace(replacements));
+
+        assertEquals("X and Y", template.replace(new String[] {"$a", "$ab"}, "X", "Y"));
+
+        String[] repeated = {"$a", "$a"};
+        assertEquals(Logger.constructReplacements(source, repeated, "first", "second"),
+                template.replace(repeated, "first", "second"));
+    }
+
+    @Test
+    public void formatUsesDefaultLocaleLikeStringFormat() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+        try {
+            String source = "%.2f and %,d";
+            assertEquals(String.format(source, 1.5, 10000), MessageTemplate.compile(source).format(1.5, 10000));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    private static Class<?> failure(final Runnable runnable) {
+        try {
+            runnable.run();
+            return null;
+        } catch (IllegalFormatException e) {
+            return e.getClass();
+        }
+    }
+}